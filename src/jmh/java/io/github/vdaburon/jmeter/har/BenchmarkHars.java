@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har;
+
+import de.sstoehr.harreader.HarReaderException;
+import de.sstoehr.harreader.model.Har;
+
+import io.github.vdaburon.jmeter.har.generator.HarGenerator;
+import io.github.vdaburon.jmeter.har.generator.HarGeneratorConfig;
+import io.github.vdaburon.jmeter.har.input.HarInput;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Create HAR for the benchmarks with the HarGenerator, the HAR shape is the kind of requests :
+ * static = html page with css, js and images, api = json GET and POST with query string, multipart = upload form,
+ * mixed = all kinds with redirects, _fromCache, data: url, LRWR _transactions and _webSocketMessages
+ */
+public class BenchmarkHars {
+
+    public static final String K_SHAPE_STATIC = "static";
+    public static final String K_SHAPE_API = "api";
+    public static final String K_SHAPE_MULTIPART = "multipart";
+    public static final String K_SHAPE_MIXED = "mixed";
+
+    private static final int K_ENTRIES_BY_PAGE = 20;
+
+    /**
+     * The generator configuration for a shape
+     * @param nbEntries number of entries (rounded up to a multiple of the entries by page)
+     * @param shape the kind of requests, K_SHAPE_XXX
+     * @param bodySize size of the response text
+     * @return the configuration
+     */
+    public static HarGeneratorConfig config(int nbEntries, String shape, int bodySize) {
+        HarGeneratorConfig config = new HarGeneratorConfig();
+        config.setEntriesByPage(K_ENTRIES_BY_PAGE);
+        config.setNbPages(Math.max(1, (nbEntries + K_ENTRIES_BY_PAGE - 1) / K_ENTRIES_BY_PAGE));
+        config.setBodySize(bodySize);
+        switch (shape) {
+            case K_SHAPE_API:
+                config.setMimeMix("json:1");
+                break;
+            case K_SHAPE_MULTIPART:
+                config.setMimeMix("html:1,css:1,js:1,png:1");
+                config.setMultipartPercent(25);
+                break;
+            case K_SHAPE_MIXED:
+                config.setMultipartPercent(2);
+                config.setRedirectPercent(5);
+                config.setFromCachePercent(10);
+                config.setDataUrlPercent(2);
+                config.setLrwrTransactions(true);
+                config.setWebSocketMessages(10);
+                break;
+            default:
+                config.setMimeMix("html:1,css:1,js:1,png:1");
+                break;
+        }
+        return config;
+    }
+
+    /**
+     * Create a HAR in memory
+     * @param nbEntries number of entries
+     * @param shape the kind of requests, K_SHAPE_XXX
+     * @param bodySize size of the response text
+     * @return the Har object
+     */
+    public static Har create(int nbEntries, String shape, int bodySize) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new HarGenerator(config(nbEntries, shape, bodySize)).generate(out);
+            return HarInput.readHar(new ByteArrayInputStream(out.toByteArray()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (HarReaderException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Write a HAR file, the HAR is streamed to the file and not created in memory
+     * @param harFile the file to write
+     * @param nbEntries number of entries
+     * @param shape the kind of requests, K_SHAPE_XXX
+     * @param bodySize size of the response text
+     * @throws IOException trouble when writing the file
+     */
+    public static void writeToFile(File harFile, int nbEntries, String shape, int bodySize) throws IOException {
+        HarGenerator.generateToFile(config(nbEntries, shape, bodySize), harFile.getAbsolutePath());
+    }
+}
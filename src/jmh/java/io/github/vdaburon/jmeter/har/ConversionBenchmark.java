@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har;
+
+import de.sstoehr.harreader.model.Har;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Throughput of the conversion hot paths for a matrix of HAR sizes and shapes.
+ * The secondary metric "entries" is the number of HAR entries converted by second.
+ * With the gc profiler (-prof gc), gc.alloc.rate.norm is the allocation by conversion, divide by nbEntries for the allocation by entry.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConversionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int nbEntries;
+
+    @Param({BenchmarkHars.K_SHAPE_STATIC, BenchmarkHars.K_SHAPE_API, BenchmarkHars.K_SHAPE_MULTIPART, BenchmarkHars.K_SHAPE_MIXED})
+    public String shape;
+
+    @Param({"2048"})
+    public int bodySize;
+
+    private Har har;
+    private Document jmxDocument;
+    private File fileOut;
+
+    /**
+     * Number of entries converted, reported as a rate (entries by second)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EntryCounter {
+        public long entries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            entries = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // no logs in the measure
+        LogManager.getLogManager().reset();
+
+        har = BenchmarkHars.create(nbEntries, shape, bodySize);
+        jmxDocument = new XmlJmx().convertHarToJmxXml(har, 0, true, true, true, "", "", 1, 1, null, true, null, "record.xml", "");
+        fileOut = File.createTempFile("benchmark", ".jmx");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (fileOut != null) {
+            fileOut.delete();
+        }
+    }
+
+    @Benchmark
+    public Document convertHarToJmxXml(EntryCounter counter) throws Exception {
+        Document document = new XmlJmx().convertHarToJmxXml(har, 0, true, true, true, "", "", 1, 1, null, true, null, "record.xml", "");
+        counter.entries += nbEntries;
+        return document;
+    }
+
+    @Benchmark
+    public Document convertHarToTestResultXml(EntryCounter counter) throws Exception {
+        Document document = new Har2TestResultsXml().convertHarToTestResultXml(har, "", "", 1, null);
+        counter.entries += nbEntries;
+        return document;
+    }
+
+    @Benchmark
+    public void saveXmFile(EntryCounter counter) throws Exception {
+        XmlJmx.saveXmFile(jmxDocument, fileOut.getAbsolutePath());
+        counter.entries += nbEntries;
+    }
+}
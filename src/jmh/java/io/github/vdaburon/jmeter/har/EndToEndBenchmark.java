@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Latency of a complete conversion : read the har file, create the JMeter script and the Record.xml file.
+ * The SampleTime mode gives the percentiles of the latency.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int nbEntries;
+
+    @Param({BenchmarkHars.K_SHAPE_STATIC, BenchmarkHars.K_SHAPE_API, BenchmarkHars.K_SHAPE_MULTIPART, BenchmarkHars.K_SHAPE_MIXED})
+    public String shape;
+
+    @Param({"2048"})
+    public int bodySize;
+
+    private File harFile;
+    private File jmxFile;
+    private File recordFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // no logs in the measure
+        LogManager.getLogManager().reset();
+
+        harFile = File.createTempFile("benchmark", ".har");
+        BenchmarkHars.writeToFile(harFile, nbEntries, shape, bodySize);
+        jmxFile = File.createTempFile("benchmark", ".jmx");
+        recordFile = File.createTempFile("benchmark", ".xml");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        harFile.delete();
+        jmxFile.delete();
+        recordFile.delete();
+    }
+
+    @Benchmark
+    public void generateJmxAndRecord() throws Exception {
+        HarForJMeter.generateJmxAndRecord(harFile.getAbsolutePath(), jmxFile.getAbsolutePath(), 0, true, true, true, "", "",
+                recordFile.getAbsolutePath(), 1, 1, "", "", true, false, "");
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har;
+
+import de.sstoehr.harreader.model.HarPostData;
+import de.sstoehr.harreader.model.HarRequest;
+import de.sstoehr.harreader.model.HttpMethod;
+
+import io.github.vdaburon.jmeter.har.generator.HarGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Throughput of the extraction of the multipart/form-data parameters, by number of parts and size of the uploaded file
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MultiPartBenchmark {
+
+    @Param({"2", "10", "50"})
+    public int nbParts;
+
+    @Param({"1024", "102400"})
+    public int fileSize;
+
+    private HarRequest harRequest;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        // the method logs the number of parameters for each call
+        Logger.getLogger(HarForJMeter.class.getName()).setLevel(Level.WARNING);
+
+        StringBuilder sb = new StringBuilder(fileSize);
+        while (sb.length() < fileSize) {
+            sb.append("0123456789abcdef");
+        }
+        String boundary = "---------------------------57886876840140655003344272961";
+        HarPostData harPostData = new HarPostData();
+        harPostData.setMimeType("multipart/form-data; boundary=" + boundary);
+        harPostData.setText(HarGenerator.createMultiPartText(boundary, nbParts, sb.toString()));
+        harRequest = new HarRequest();
+        harRequest.setMethod(HttpMethod.POST);
+        harRequest.setUrl("https://example.com/app/upload");
+        harRequest.setPostData(harPostData);
+    }
+
+    @Benchmark
+    public HarPostData extractParamsFromMultiPart() {
+        return HarForJMeter.extractParamsFromMultiPart(harRequest);
+    }
+}
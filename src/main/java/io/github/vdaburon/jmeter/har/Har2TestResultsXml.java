@@ -17,6 +17,7 @@
 
 package io.github.vdaburon.jmeter.har;
 
+import de.sstoehr.harreader.HarReaderException;
 import de.sstoehr.harreader.model.Har;
 import de.sstoehr.harreader.model.HarContent;
 import de.sstoehr.harreader.model.HarCookie;
@@ -28,6 +29,10 @@ import de.sstoehr.harreader.model.HarRequest;
 import de.sstoehr.harreader.model.HarResponse;
 import de.sstoehr.harreader.model.HarTiming;
 
+import io.github.vdaburon.jmeter.har.checkpoint.ConversionCheckpoint;
+import io.github.vdaburon.jmeter.har.index.IndexedHarReader;
+import io.github.vdaburon.jmeter.har.jfr.ConversionEvents;
+import io.github.vdaburon.jmeter.har.metrics.ConversionMetrics;
 import io.github.vdaburon.jmeter.har.websocket.WebSocketRequest;
 import io.github.vdaburon.jmeter.har.websocket.WebSocketPDoornboshResultXml;
 
@@ -36,25 +41,72 @@ import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class Har2TestResultsXml {
 
+    private static final String K_CHECKPOINT_NUM = "num";
+    private static final int K_SAMPLES_BY_WRITE = 100; // the samples are written to the Record.xml file by blocks
     private static final Logger LOGGER = Logger.getLogger(Har2TestResultsXml.class.getName());
 
-    protected Document convertHarToTestResultXml(Har har, String urlFilterToInclude, String urlFilterToExclude, int samplerStartNumber, WebSocketRequest webSocketRequest) throws ParserConfigurationException, URISyntaxException {
+    private IndexedHarReader indexedHarReader = null; // the HAR was read without the response content text, read the text for each entry
+    private ConversionMetrics conversionMetrics = new ConversionMetrics();
+    private ConversionCheckpoint conversionCheckpoint = null; // null = no checkpoint
+    private boolean isSkipEntryErrors = true; // false = an entry in error stops the conversion
+    private Map<HarEntry, HarEntry> mapCollapsedHops = Collections.emptyMap(); // the hops of the redirect chains collapsed in the script -> first entry of the chain
+    private RecordXmlWriter recordXmlWriter = null; // not null = the samples are written during the creation, the document keeps only the samples not written
+
+    public void setIndexedHarReader(IndexedHarReader indexedHarReader) {
+        this.indexedHarReader = indexedHarReader;
+    }
+
+    public void setConversionMetrics(ConversionMetrics conversionMetrics) {
+        this.conversionMetrics = conversionMetrics;
+    }
+
+    public void setConversionCheckpoint(ConversionCheckpoint conversionCheckpoint) {
+        this.conversionCheckpoint = conversionCheckpoint;
+    }
+
+    public void setSkipEntryErrors(boolean skipEntryErrors) {
+        isSkipEntryErrors = skipEntryErrors;
+    }
+
+    /**
+     * The hops are sub-results of the first request of their chain, like in the script
+     * @param mapCollapsedHops the hops removed from the script and the first entry of their chain (RedirectChainCollapser.getCollapsedHops)
+     */
+    public void setCollapsedHops(Map<HarEntry, HarEntry> mapCollapsedHops) {
+        this.mapCollapsedHops = mapCollapsedHops;
+    }
+
+    /**
+     * Write the samples to the Record.xml file during the creation, not compatible with the checkpoints (the partial document would not have the samples written)
+     * @param recordXmlWriter the writer of the Record.xml file, finished by the caller with the document returned
+     */
+    public void setRecordXmlWriter(RecordXmlWriter recordXmlWriter) {
+        this.recordXmlWriter = recordXmlWriter;
+    }
+
+    protected Document convertHarToTestResultXml(Har har, String urlFilterToInclude, String urlFilterToExclude, int samplerStartNumber, WebSocketRequest webSocketRequest) throws ParserConfigurationException, URISyntaxException, TransformerException {
 
         Pattern patternUrlInclude = null;
         if (!urlFilterToInclude.isEmpty()) {
@@ -73,65 +125,159 @@ public class Har2TestResultsXml {
         Document document = documentBuilder.newDocument();
 
         Element eltTestResults = createTestResults(har, document, patternUrlInclude, patternUrlExclude, samplerStartNumber, webSocketRequest);
-        document.appendChild(eltTestResults);
+        if (eltTestResults.getParentNode() == null) { // not already appended by the writer
+            document.appendChild(eltTestResults);
+        }
         return document;
     }
 
-    protected Element createTestResults(Har har, Document document, Pattern patternUrlInclude, Pattern patternUrlExclude, int samplerStartNumber, WebSocketRequest webSocketRequest) throws URISyntaxException {
+    protected Element createTestResults(Har har, Document document, Pattern patternUrlInclude, Pattern patternUrlExclude, int samplerStartNumber, WebSocketRequest webSocketRequest) throws URISyntaxException, TransformerException {
         Element eltTestResults = document.createElement("testResults");
         Attr attrTrversion = document.createAttribute("version");
         attrTrversion.setValue("1.2");
         eltTestResults.setAttributeNode(attrTrversion);
 
         List<HarEntry> lEntries = har.getLog().getEntries();
+        Map<HarEntry, Integer> mapHeadLastHop = new IdentityHashMap<>(); // first request of a redirect chain -> index of its last hop
+        for (int e = 0; e < lEntries.size() && !mapCollapsedHops.isEmpty(); e++) {
+            HarEntry harEntryHead = mapCollapsedHops.get(lEntries.get(e));
+            if (harEntryHead != null) {
+                mapHeadLastHop.put(harEntryHead, e);
+            }
+        }
+        Map<HarEntry, Element> mapHeadSamples = new IdentityHashMap<>(); // first request of a redirect chain -> its httpSample
+        int chainEnd = -1; // a checkpoint is not saved inside a redirect chain, the hops after the checkpoint would not find their first request
         String currentUrl = "";
         int num = samplerStartNumber;
-        for (int e = 0; e < lEntries.size(); e++) {
+        int entryFirst = 0;
+        if (conversionCheckpoint != null && conversionCheckpoint.isResume(ConversionCheckpoint.K_STAGE_RECORD)) {
+            // the samples before the checkpoint are in the partial document, continue with the next entry
+            try {
+                Document documentPartial = conversionCheckpoint.loadPartialDocument();
+                if (documentPartial != null) {
+                    Node nodeTestResults = document.adoptNode(documentPartial.getDocumentElement());
+                    if (nodeTestResults == null) {
+                        throw new IOException("Can't use the testResults element of the partial document");
+                    }
+                    eltTestResults = (Element) nodeTestResults;
+                    entryFirst = conversionCheckpoint.getResumePosition();
+                    num = (int) conversionCheckpoint.getResumeValue(K_CHECKPOINT_NUM, num);
+                }
+                conversionCheckpoint.restoreCounters(conversionMetrics);
+                LOGGER.info("Resume the Record.xml creation at the entry : " + entryFirst + "/" + lEntries.size());
+            } catch (IOException ex) {
+                LOGGER.warning("Can't resume from the checkpoint, the Record.xml creation starts from the first entry, exception : " + ex);
+                conversionCheckpoint.cancelResume();
+            }
+        }
+        for (int e = entryFirst; e < lEntries.size(); e++) {
             HarEntry harEntryInter = lEntries.get(e);
+            conversionMetrics.incEntriesProcessed();
+            conversionMetrics.beginEntryCost();
+
+            // the state before this entry, to remove the entry if in error
+            int numBefore = num;
+            Node lastChildTestResults = eltTestResults.getLastChild();
+            Element eltSubResult = null;
+            HarContent harContentLazy = null;
+            try {
+                HarRequest harRequest = harEntryInter.getRequest();
+                currentUrl = harRequest.getUrl();
+
+                boolean isAddThisRequest = true;
+                if (patternUrlInclude != null) {
+                    Matcher matcher = patternUrlInclude.matcher(currentUrl);
+                    isAddThisRequest = matcher.find();
+                }
+                if (patternUrlExclude != null) {
+                    Matcher matcher = patternUrlExclude.matcher(currentUrl);
+                    isAddThisRequest = !matcher.find();
+                }
 
-            HarRequest harRequest = harEntryInter.getRequest();
-            currentUrl = harRequest.getUrl();
+                HashMap hAddictional = (HashMap<String, Object>) harEntryInter.getAdditional();
+                if (hAddictional != null) {
+                    String fromCache = (String) hAddictional.get("_fromCache");
+                    if (fromCache != null) {
+                        // this url content is in the browser cache (memory or disk) no need to create a new request
+                        isAddThisRequest = false;
+                    }
+                }
 
-            boolean isAddThisRequest = true;
-            if (patternUrlInclude != null) {
-                Matcher matcher = patternUrlInclude.matcher(currentUrl);
-                isAddThisRequest = matcher.find();
-            }
-            if (patternUrlExclude != null) {
-                Matcher matcher = patternUrlExclude.matcher(currentUrl);
-                isAddThisRequest = !matcher.find();
-            }
+                String sURl = harEntryInter.getRequest().getUrl();
+                URI uri = new URI(sURl);
+                String scheme = uri.getScheme();
 
-            HashMap hAddictional = (HashMap<String, Object>) harEntryInter.getAdditional();
-            if (hAddictional != null) {
-                String fromCache = (String) hAddictional.get("_fromCache");
-                if (fromCache != null) {
-                    // this url content is in the browser cache (memory or disk) no need to create a new request
+                if ("data".equalsIgnoreCase(scheme)) {
+                    // jmeter don't support data:image protocole
                     isAddThisRequest = false;
                 }
-            }
 
-            String sURl = harEntryInter.getRequest().getUrl();
-            URI uri = new URI(sURl);
-            String scheme = uri.getScheme();
+                if (isAddThisRequest && indexedHarReader != null && harEntryInter.getResponse() != null && harEntryInter.getResponse().getContent() != null) {
+                    harContentLazy = harEntryInter.getResponse().getContent();
+                    try {
+                        harContentLazy.setText(indexedHarReader.readContentText(harEntryInter));
+                    } catch (HarReaderException ex) {
+                        LOGGER.warning("Can't read the response content for the url : " + sURl + ", exception : " + ex);
+                    }
+                }
 
-            if ("data".equalsIgnoreCase(scheme)) {
-                // jmeter don't support data:image protocole
-                isAddThisRequest = false;
-            }
+                if ("ws".equalsIgnoreCase(scheme) || "wss".equalsIgnoreCase(scheme)) {
+                     if (isAddThisRequest && webSocketRequest != null) {
+                        num = WebSocketPDoornboshResultXml.createWsSample(document, eltTestResults, harEntryInter, num, webSocketRequest);
+                        num = num + 2;
+                    }
+                    isAddThisRequest = false; // already added
+                }
 
-            if ("ws".equalsIgnoreCase(scheme) || "wss".equalsIgnoreCase(scheme)) {
-                 if (isAddThisRequest && webSocketRequest != null) {
-                    num = WebSocketPDoornboshResultXml.createWsSample(document, eltTestResults, harEntryInter, num, webSocketRequest);
-                    num = num + 2;
+                if (isAddThisRequest) {
+                    Object entryEvent = ConversionEvents.beginEntry();
+                    Element eltHttpSample = createHttpSample(document, harEntryInter, num);
+                    HarEntry harEntryHead = mapCollapsedHops.get(harEntryInter);
+                    Element eltHeadSample = (harEntryHead != null ? mapHeadSamples.get(harEntryHead) : null);
+                    if (eltHeadSample != null) {
+                        // a hop keeps its number, the numbers stay the same as the sampler numbers in the script
+                        addSubResult(eltHeadSample, eltHttpSample);
+                        eltSubResult = eltHttpSample;
+                    } else {
+                        eltTestResults.appendChild(eltHttpSample);
+                        Integer lastHop = mapHeadLastHop.get(harEntryInter);
+                        if (lastHop != null) {
+                            mapHeadSamples.put(harEntryInter, eltHttpSample);
+                            chainEnd = Math.max(chainEnd, lastHop);
+                        }
+                    }
+                    num++;
+                    ConversionEvents.commitEntry(entryEvent, ConversionEvents.K_STAGE_RECORD, e, harEntryInter);
+                }
+            } catch (URISyntaxException | IllegalArgumentException ex) {
+                // only the data errors of the entry (invalid url, NumberFormatException), another exception is a bug and stops the conversion
+                if (!isSkipEntryErrors) {
+                    throw ex;
                 }
-                isAddThisRequest = false; // already added
+                XmlJmx.removeChildrenAfter(eltTestResults, lastChildTestResults);
+                if (eltSubResult != null && eltSubResult.getParentNode() != null) {
+                    removeSubResult((Element) eltSubResult.getParentNode(), eltSubResult);
+                }
+                num = numBefore;
+                conversionMetrics.markEntryInError(e);
+                LOGGER.warning("Entry " + e + " in error, the entry is skipped, url : " + currentUrl + ", exception : " + ex);
+            }
+
+            if (harContentLazy != null) {
+                // free the memory, the text is in the xml document now
+                harContentLazy.setText(null);
             }
+            conversionMetrics.endEntryCost(e);
 
-            if (isAddThisRequest) {
-                Element eltHttpSample = createHttpSample(document, harEntryInter, num);
-                eltTestResults.appendChild(eltHttpSample);
-                num++;
+            if (conversionCheckpoint != null && e < lEntries.size() - 1 && e >= chainEnd && conversionCheckpoint.isDue()) {
+                Map<String, Long> mapValues = ConversionCheckpoint.countersToSave(conversionMetrics);
+                mapValues.put(K_CHECKPOINT_NUM, (long) num);
+                conversionCheckpoint.save(ConversionCheckpoint.K_STAGE_RECORD, e + 1, mapValues, eltTestResults);
+            }
+            if (recordXmlWriter != null && e >= chainEnd && eltTestResults.getChildNodes().getLength() >= K_SAMPLES_BY_WRITE) {
+                // not inside a redirect chain, the next hops do not need the samples written
+                recordXmlWriter.writeSamples(eltTestResults);
+                mapHeadSamples.clear();
             }
         }
         LOGGER.info("testResuts file contains " + num + " httpSample or wsSample");
@@ -203,6 +349,33 @@ public class Har2TestResultsXml {
 
 
 
+    /**
+     * Add a sample as sub-result, like JMeter the sub-results are before the headers and the response data of the parent and the parent time includes the sub-results
+     * @param eltParentSample the parent httpSample
+     * @param eltSubSample the sub-result httpSample
+     */
+    protected static void addSubResult(Element eltParentSample, Element eltSubSample) {
+        Node before = eltParentSample.getFirstChild();
+        while (before != null && (!(before instanceof Element) || "httpSample".equals(before.getNodeName()))) {
+            before = before.getNextSibling();
+        }
+        eltParentSample.insertBefore(eltSubSample, before);
+        eltParentSample.setAttribute("t", String.valueOf(parseTime(eltParentSample) + parseTime(eltSubSample)));
+    }
+
+    private static void removeSubResult(Element eltParentSample, Element eltSubSample) {
+        eltParentSample.removeChild(eltSubSample);
+        eltParentSample.setAttribute("t", String.valueOf(parseTime(eltParentSample) - parseTime(eltSubSample)));
+    }
+
+    private static long parseTime(Element eltSample) {
+        try {
+            return Long.parseLong(eltSample.getAttribute("t"));
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
     protected Element createEltHttpSample(Document document, HarEntry harEntry, int num) throws URISyntaxException {
         /*
         <httpSample t="18" it="0" lt="18" ct="9" ts="1699889754878" s="true" lb="002 /gestdocqualif/styles/styles.css" rc="200" rm="OK" tn="" dt="text" de="" by="7904" sc="1" ec="0" ng="0" na="0" hn="browser">
@@ -373,8 +546,10 @@ public class Har2TestResultsXml {
             String contentEncoding = harContent.getEncoding();
 
             if (contentText != null && "base64".equalsIgnoreCase(contentEncoding) && isText) {
+                Object base64DecodeEvent = ConversionEvents.beginBase64Decode();
                 byte[] contentDecodeByte = Base64.getDecoder().decode(contentText.getBytes());
                 String contentDecodeString = new String(contentDecodeByte);
+                ConversionEvents.commitBase64Decode(base64DecodeEvent, contentText.length(), contentDecodeByte.length);
                 eltresponseData.setTextContent(contentDecodeString);
             }
 
@@ -16,10 +16,10 @@
 
 package io.github.vdaburon.jmeter.har;
 
-import de.sstoehr.harreader.HarReader;
 import de.sstoehr.harreader.HarReaderException;
 import de.sstoehr.harreader.model.Har;
 import de.sstoehr.harreader.model.HarCreatorBrowser;
+import de.sstoehr.harreader.model.HarEntry;
 import de.sstoehr.harreader.model.HarPostData;
 import de.sstoehr.harreader.model.HarPostDataParam;
 import de.sstoehr.harreader.model.HarRequest;
@@ -27,9 +27,33 @@ import de.sstoehr.harreader.model.HarRequest;
 import io.github.vdaburon.jmeter.har.external.ManageExternalFile;
 import io.github.vdaburon.jmeter.har.lrwr.HarLrTransactions;
 import io.github.vdaburon.jmeter.har.lrwr.ManageLrwr;
+import io.github.vdaburon.jmeter.har.metrics.ConversionMetrics;
+import io.github.vdaburon.jmeter.har.metrics.ConverterStats;
+import io.github.vdaburon.jmeter.har.metrics.EntryCostTracker;
+import io.github.vdaburon.jmeter.har.metrics.CountingInputStream;
+import io.github.vdaburon.jmeter.har.metrics.ProgressReporter;
+import io.github.vdaburon.jmeter.har.checkpoint.ConversionCheckpoint;
+import io.github.vdaburon.jmeter.har.common.ConvertorOptions;
 import io.github.vdaburon.jmeter.har.common.TransactionInfo;
+import io.github.vdaburon.jmeter.har.index.HarIndex;
+import io.github.vdaburon.jmeter.har.index.HarPreScan;
+import io.github.vdaburon.jmeter.har.index.IndexedHarReader;
+import io.github.vdaburon.jmeter.har.index.ParallelHarReader;
+import io.github.vdaburon.jmeter.har.input.HarInput;
+import io.github.vdaburon.jmeter.har.jfr.ConversionEvents;
+import io.github.vdaburon.jmeter.har.optimize.CommonHeaderHoister;
+import io.github.vdaburon.jmeter.har.optimize.ParallelRequestGrouper;
+import io.github.vdaburon.jmeter.har.optimize.PollingRunCompressor;
+import io.github.vdaburon.jmeter.har.optimize.RedirectChainCollapser;
+import io.github.vdaburon.jmeter.har.optimize.SequenceDeduplicator;
+import io.github.vdaburon.jmeter.har.optimize.ThinkTimeModeler;
+import io.github.vdaburon.jmeter.har.optimize.TimingSlaDeriver;
 import io.github.vdaburon.jmeter.har.websocket.ManageWebSocket;
 import io.github.vdaburon.jmeter.har.websocket.WebSocketRequest;
+import io.github.vdaburon.jmeter.har.workload.JourneyMixAssembler;
+import io.github.vdaburon.jmeter.har.workload.ScriptAssembler;
+import io.github.vdaburon.jmeter.har.workload.SessionScheduleMerger;
+import io.github.vdaburon.jmeter.har.workload.WorkloadModel;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -48,13 +72,28 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
+import java.security.InvalidParameterException;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.PatternSyntaxException;
+import java.util.zip.ZipFile;
 
 /**
  * The main class to read a har file and generate a JMeter script and a Record.xml file
@@ -82,10 +121,58 @@ public class HarForJMeter {
     public static final String K_ADD_VIEW_RESULT_TREE_WITH_RECORD_FILE = "add_result_tree_record";
     public static final String K_ADD_WEBSOCKET_WITH_PLUGIN_PETER_DOORNBOSH = "ws_with_pdoornbosch";
     public static final String K_REMOVE_HEADERS_OPT = "remove_headers";
+    public static final String K_HAR_INDEX_OPT = "use_har_index";
+    public static final String K_TIME_WINDOW_START_OPT = "time_window_start";
+    public static final String K_TIME_WINDOW_END_OPT = "time_window_end";
+    public static final String K_PARSE_THREADS_OPT = "parse_threads";
+    public static final String K_AUTO_ENGINE_OPT = "auto_engine";
+    public static final String K_MAX_HAR_MB_OPT = "max_har_mb";
+    public static final String K_MAX_ENTRIES_OPT = "max_entries";
+    public static final String K_METRICS_OUT_OPT = "metrics_out";
+    public static final String K_JFR_OUT_OPT = "jfr_out";
+    public static final String K_JFR_SLOW_ENTRY_MS_OPT = "jfr_slow_entry_ms";
+    public static final String K_PROGRESS_INTERVAL_OPT = "progress_interval";
+    public static final String K_PROGRESS_FILE_OPT = "progress_file";
+    public static final int K_PROGRESS_INTERVAL_SEC_DEFAULT = 5; // when only the progress_file is set
+    public static final String K_TOP_ENTRIES_OUT_OPT = "top_entries_out";
+    public static final String K_TOP_ENTRIES_OPT = "top_entries";
+    public static final String K_PROMETHEUS_OUT_OPT = "prometheus_out";
+    public static final String K_PROMETHEUS_PORT_OPT = "prometheus_port";
+    public static final String K_SKIP_ENTRY_ERRORS_OPT = "skip_entry_errors";
+    public static final String K_CHECKPOINT_DIR_OPT = "checkpoint_dir";
+    public static final String K_CHECKPOINT_INTERVAL_OPT = "checkpoint_interval";
+    public static final String K_HOIST_COMMON_HEADERS_OPT = "hoist_common_headers";
+    public static final String K_PARALLEL_REQUESTS_OPT = "parallel_requests";
+    public static final String K_SLA_FACTOR_OPT = "sla_factor";
+    public static final String K_SLA_PERCENTILE_OPT = "sla_percentile";
+    public static final String K_SLA_BASELINE_HAR_OPT = "sla_baseline_har";
+    public static final String K_THINK_TIME_OPT = "think_time";
+    public static final String K_THINK_TIME_MAX_OPT = "think_time_max";
+    public static final String K_THINK_TIME_BASELINE_HAR_OPT = "think_time_baseline_har";
+    public static final String K_WORKLOAD_TARGET_RPS_OPT = "workload_target_rps";
+    public static final String K_WORKLOAD_RAMP_UP_OPT = "workload_ramp_up";
+    public static final String K_WORKLOAD_DURATION_OPT = "workload_duration";
+    public static final String K_MERGE_SESSIONS_OPT = "merge_sessions";
+    public static final String K_JOURNEY_WEIGHTS_OPT = "journey_weights";
+    public static final String K_COMPRESS_POLLING_OPT = "compress_polling";
+    public static final String K_DEDUP_SEQUENCES_OPT = "dedup_sequences";
+    public static final String K_COLLAPSE_REDIRECTS_OPT = "collapse_redirects";
+    public static final String K_STANDARD_IN_OUT = "-"; // har_in = stdin, jmx_out or record_out = stdout
 
 
     private static final Logger LOGGER = Logger.getLogger(HarForJMeter.class.getName());
 
+    private IndexedHarReader indexedHarReader = null; // not null when the HAR is read with the index file
+    private final ConversionMetrics conversionMetrics = new ConversionMetrics();
+    private Object harLoadEvent = null; // JFR event, null if JFR is not available or not recording
+    private ProgressReporter progressReporter = null; // not null when the progress is reported
+    private long conversionStartMs = 0;
+    private ConvertorOptions convertorOptions = new ConvertorOptions();
+    private ConversionCheckpoint conversionCheckpoint = null; // not null when the checkpoints are saved
+    private ScriptAssembler scriptAssembler = null; // not null when the script is assembled with the scripts of the other HAR instead of saved
+    private String harNameInZip = "";
+    private Map<HarEntry, HarEntry> mapCollapsedHops = Collections.emptyMap(); // the redirect hops removed from the script, nested in the record file
+
     public static void main(String[] args) {
         String harFile = "";
         String jmxOut = "";
@@ -103,6 +190,10 @@ public class HarForJMeter {
         String lrwr_info = ""; // for LoadRunner Web Recorder Chrome Extension
         String fileExternalInfo = ""; // csv file name contains infos like : 2024-05-07T07:56:40.513Z;TRANSACTION;welcome_page;start
         String removeHeaders = ""; // a list of http headers to remove with comma separtor, e.g:"User-Agent,Pragma"
+        ConvertorOptions convertorOptions = new ConvertorOptions();
+        String jfrOut = ""; // JFR recording file
+        long jfrSlowEntryMs = 20; // threshold of the JFR entry events
+        int prometheusPort = 0; // 0 = no http endpoint
 
 
         long lStart = System.currentTimeMillis();
@@ -227,6 +318,270 @@ public class HarForJMeter {
             removeHeaders = sTmp;
         }
 
+        sTmp = (String) parseProperties.get(K_HAR_INDEX_OPT);
+        if (sTmp != null) {
+            convertorOptions.setUseHarIndex(Boolean.parseBoolean(sTmp));
+        }
+
+        sTmp = (String) parseProperties.get(K_TIME_WINDOW_START_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setTimeWindowStartMs(OffsetDateTime.parse(sTmp).toInstant().toEpochMilli());
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing date time parameter " + K_TIME_WINDOW_START_OPT + ", value = " + sTmp + ", no start (default)");
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_TIME_WINDOW_END_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setTimeWindowEndMs(OffsetDateTime.parse(sTmp).toInstant().toEpochMilli());
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing date time parameter " + K_TIME_WINDOW_END_OPT + ", value = " + sTmp + ", no end (default)");
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_PARSE_THREADS_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setParseThreads(Integer.parseInt(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing int parameter " + K_PARSE_THREADS_OPT + ", value = " + sTmp + ", set to 0 (default)");
+                convertorOptions.setParseThreads(0);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_AUTO_ENGINE_OPT);
+        if (sTmp != null) {
+            convertorOptions.setAutoEngine(Boolean.parseBoolean(sTmp));
+        }
+
+        sTmp = (String) parseProperties.get(K_MAX_HAR_MB_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setMaxHarMb(Long.parseLong(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing long parameter " + K_MAX_HAR_MB_OPT + ", value = " + sTmp + ", set to 0 (default)");
+                convertorOptions.setMaxHarMb(0);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_MAX_ENTRIES_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setMaxEntries(Long.parseLong(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing long parameter " + K_MAX_ENTRIES_OPT + ", value = " + sTmp + ", set to 0 (default)");
+                convertorOptions.setMaxEntries(0);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_METRICS_OUT_OPT);
+        if (sTmp != null) {
+            convertorOptions.setMetricsOut(sTmp);
+        }
+
+        sTmp = (String) parseProperties.get(K_PROGRESS_INTERVAL_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setProgressIntervalSec(Integer.parseInt(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing int parameter " + K_PROGRESS_INTERVAL_OPT + ", value = " + sTmp + ", set to 0 (default)");
+                convertorOptions.setProgressIntervalSec(0);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_PROGRESS_FILE_OPT);
+        if (sTmp != null) {
+            convertorOptions.setProgressFile(sTmp);
+        }
+
+        sTmp = (String) parseProperties.get(K_TOP_ENTRIES_OUT_OPT);
+        if (sTmp != null) {
+            convertorOptions.setTopEntriesOut(sTmp);
+        }
+
+        sTmp = (String) parseProperties.get(K_TOP_ENTRIES_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setTopEntries(Integer.parseInt(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing int parameter " + K_TOP_ENTRIES_OPT + ", value = " + sTmp + ", set to 20 (default)");
+                convertorOptions.setTopEntries(20);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_PROMETHEUS_OUT_OPT);
+        if (sTmp != null) {
+            convertorOptions.setPrometheusOut(sTmp);
+        }
+
+        sTmp = (String) parseProperties.get(K_PROMETHEUS_PORT_OPT);
+        if (sTmp != null) {
+            try {
+                prometheusPort = Integer.parseInt(sTmp);
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing int parameter " + K_PROMETHEUS_PORT_OPT + ", value = " + sTmp + ", set to 0 (default)");
+                prometheusPort = 0;
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_SKIP_ENTRY_ERRORS_OPT);
+        if (sTmp != null) {
+            convertorOptions.setSkipEntryErrors(Boolean.parseBoolean(sTmp));
+        }
+
+        sTmp = (String) parseProperties.get(K_CHECKPOINT_DIR_OPT);
+        if (sTmp != null) {
+            convertorOptions.setCheckpointDir(sTmp);
+        }
+
+        sTmp = (String) parseProperties.get(K_CHECKPOINT_INTERVAL_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setCheckpointIntervalSec(Integer.parseInt(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing int parameter " + K_CHECKPOINT_INTERVAL_OPT + ", value = " + sTmp + ", set to 60 (default)");
+                convertorOptions.setCheckpointIntervalSec(60);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_HOIST_COMMON_HEADERS_OPT);
+        if (sTmp != null) {
+            convertorOptions.setHoistCommonHeaders(Boolean.parseBoolean(sTmp));
+        }
+
+        sTmp = (String) parseProperties.get(K_PARALLEL_REQUESTS_OPT);
+        if (sTmp != null) {
+            convertorOptions.setParallelRequests(Boolean.parseBoolean(sTmp));
+        }
+
+        sTmp = (String) parseProperties.get(K_SLA_FACTOR_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setSlaFactor(Double.parseDouble(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing double parameter " + K_SLA_FACTOR_OPT + ", value = " + sTmp + ", set to 0 (default)");
+                convertorOptions.setSlaFactor(0);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_SLA_PERCENTILE_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setSlaPercentile(Integer.parseInt(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing int parameter " + K_SLA_PERCENTILE_OPT + ", value = " + sTmp + ", set to 90 (default)");
+                convertorOptions.setSlaPercentile(90);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_SLA_BASELINE_HAR_OPT);
+        if (sTmp != null) {
+            convertorOptions.setSlaBaselineHar(sTmp);
+        }
+
+        sTmp = (String) parseProperties.get(K_THINK_TIME_OPT);
+        if (sTmp != null) {
+            if (ThinkTimeModeler.isDistributionValid(sTmp)) {
+                convertorOptions.setThinkTime(sTmp);
+            } else {
+                LOGGER.warning("Unknown value for the parameter " + K_THINK_TIME_OPT + ", value = " + sTmp + ", set to " + ThinkTimeModeler.K_DISTRIBUTION_RECORDED + " (default)");
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_THINK_TIME_MAX_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setThinkTimeMaxMs(Long.parseLong(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing long parameter " + K_THINK_TIME_MAX_OPT + ", value = " + sTmp + ", set to 0 (default)");
+                convertorOptions.setThinkTimeMaxMs(0);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_THINK_TIME_BASELINE_HAR_OPT);
+        if (sTmp != null) {
+            convertorOptions.setThinkTimeBaselineHar(sTmp);
+        }
+
+        sTmp = (String) parseProperties.get(K_WORKLOAD_TARGET_RPS_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setWorkloadTargetRps(Double.parseDouble(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing double parameter " + K_WORKLOAD_TARGET_RPS_OPT + ", value = " + sTmp + ", set to 0 (default)");
+                convertorOptions.setWorkloadTargetRps(0);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_WORKLOAD_RAMP_UP_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setWorkloadRampUpSec(Integer.parseInt(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing int parameter " + K_WORKLOAD_RAMP_UP_OPT + ", value = " + sTmp + ", set to 60 (default)");
+                convertorOptions.setWorkloadRampUpSec(60);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_WORKLOAD_DURATION_OPT);
+        if (sTmp != null) {
+            try {
+                convertorOptions.setWorkloadDurationSec(Integer.parseInt(sTmp));
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing int parameter " + K_WORKLOAD_DURATION_OPT + ", value = " + sTmp + ", set to 600 (default)");
+                convertorOptions.setWorkloadDurationSec(600);
+            }
+        }
+
+        sTmp = (String) parseProperties.get(K_MERGE_SESSIONS_OPT);
+        if (sTmp != null) {
+            convertorOptions.setMergeSessions(Boolean.parseBoolean(sTmp));
+        }
+
+        sTmp = (String) parseProperties.get(K_JOURNEY_WEIGHTS_OPT);
+        if (sTmp != null) {
+            convertorOptions.setJourneyWeights(sTmp);
+        }
+
+        sTmp = (String) parseProperties.get(K_COMPRESS_POLLING_OPT);
+        if (sTmp != null) {
+            convertorOptions.setCompressPolling(Boolean.parseBoolean(sTmp));
+        }
+
+        sTmp = (String) parseProperties.get(K_DEDUP_SEQUENCES_OPT);
+        if (sTmp != null) {
+            convertorOptions.setDedupSequences(Boolean.parseBoolean(sTmp));
+        }
+
+        sTmp = (String) parseProperties.get(K_COLLAPSE_REDIRECTS_OPT);
+        if (sTmp != null) {
+            convertorOptions.setCollapseRedirects(Boolean.parseBoolean(sTmp));
+        }
+
+        sTmp = (String) parseProperties.get(K_JFR_OUT_OPT);
+        if (sTmp != null) {
+            jfrOut = sTmp;
+        }
+
+        sTmp = (String) parseProperties.get(K_JFR_SLOW_ENTRY_MS_OPT);
+        if (sTmp != null) {
+            try {
+                jfrSlowEntryMs = Long.parseLong(sTmp);
+            } catch (Exception ex) {
+                LOGGER.warning("Error parsing long parameter " + K_JFR_SLOW_ENTRY_MS_OPT + ", value = " + sTmp + ", set to 20 (default)");
+                jfrSlowEntryMs = 20;
+            }
+        }
+
+        if (K_STANDARD_IN_OUT.equals(jmxOut) && K_STANDARD_IN_OUT.equals(recordXmlOut)) {
+            LOGGER.severe("Only one output could be the standard output '" + K_STANDARD_IN_OUT + "', " + K_JMETER_FILE_OUT_OPT + " or " + K_RECORD_FILE_OUT_OPT);
+            helpUsage(options);
+            LOGGER.info("main end (exit 1) ERROR");
+            System.exit(1);
+        }
+
         LOGGER.info("************* PARAMETERS ***************");
         LOGGER.info(K_HAR_IN_OPT + ", harFile=" + harFile);
         LOGGER.info(K_JMETER_FILE_OUT_OPT + ", jmxOut=" + jmxOut);
@@ -244,27 +599,83 @@ public class HarForJMeter {
         LOGGER.info(K_EXTERNAL_FILE_INFOS + ", fileExternalInfo=" + fileExternalInfo);
         LOGGER.info(K_ADD_VIEW_RESULT_TREE_WITH_RECORD_FILE + ", isAddViewTreeForRecord=" + isAddViewTreeForRecord);
         LOGGER.info(K_ADD_WEBSOCKET_WITH_PLUGIN_PETER_DOORNBOSH + ", isWebSocketPDoornbosch=" + isWebSocketPDoornbosch);
+        LOGGER.info(K_HAR_INDEX_OPT + ", isUseHarIndex=" + convertorOptions.isUseHarIndex());
+        LOGGER.info(K_TIME_WINDOW_START_OPT + ", timeWindowStartMs=" + convertorOptions.getTimeWindowStartMs());
+        LOGGER.info(K_TIME_WINDOW_END_OPT + ", timeWindowEndMs=" + convertorOptions.getTimeWindowEndMs());
+        LOGGER.info(K_PARSE_THREADS_OPT + ", parseThreads=" + convertorOptions.getParseThreads());
+        LOGGER.info(K_AUTO_ENGINE_OPT + ", isAutoEngine=" + convertorOptions.isAutoEngine());
+        LOGGER.info(K_MAX_HAR_MB_OPT + ", maxHarMb=" + convertorOptions.getMaxHarMb());
+        LOGGER.info(K_MAX_ENTRIES_OPT + ", maxEntries=" + convertorOptions.getMaxEntries());
+        LOGGER.info(K_METRICS_OUT_OPT + ", metricsOut=" + convertorOptions.getMetricsOut());
+        LOGGER.info(K_PROGRESS_INTERVAL_OPT + ", progressIntervalSec=" + convertorOptions.getProgressIntervalSec());
+        LOGGER.info(K_PROGRESS_FILE_OPT + ", progressFile=" + convertorOptions.getProgressFile());
+        LOGGER.info(K_TOP_ENTRIES_OUT_OPT + ", topEntriesOut=" + convertorOptions.getTopEntriesOut());
+        LOGGER.info(K_TOP_ENTRIES_OPT + ", topEntries=" + convertorOptions.getTopEntries());
+        LOGGER.info(K_PROMETHEUS_OUT_OPT + ", prometheusOut=" + convertorOptions.getPrometheusOut());
+        LOGGER.info(K_PROMETHEUS_PORT_OPT + ", prometheusPort=" + prometheusPort);
+        LOGGER.info(K_SKIP_ENTRY_ERRORS_OPT + ", isSkipEntryErrors=" + convertorOptions.isSkipEntryErrors());
+        LOGGER.info(K_CHECKPOINT_DIR_OPT + ", checkpointDir=" + convertorOptions.getCheckpointDir());
+        LOGGER.info(K_CHECKPOINT_INTERVAL_OPT + ", checkpointIntervalSec=" + convertorOptions.getCheckpointIntervalSec());
+        LOGGER.info(K_HOIST_COMMON_HEADERS_OPT + ", isHoistCommonHeaders=" + convertorOptions.isHoistCommonHeaders());
+        LOGGER.info(K_PARALLEL_REQUESTS_OPT + ", isParallelRequests=" + convertorOptions.isParallelRequests());
+        LOGGER.info(K_SLA_FACTOR_OPT + ", slaFactor=" + convertorOptions.getSlaFactor());
+        LOGGER.info(K_SLA_PERCENTILE_OPT + ", slaPercentile=" + convertorOptions.getSlaPercentile());
+        LOGGER.info(K_SLA_BASELINE_HAR_OPT + ", slaBaselineHar=" + convertorOptions.getSlaBaselineHar());
+        LOGGER.info(K_THINK_TIME_OPT + ", thinkTime=" + convertorOptions.getThinkTime());
+        LOGGER.info(K_THINK_TIME_MAX_OPT + ", thinkTimeMaxMs=" + convertorOptions.getThinkTimeMaxMs());
+        LOGGER.info(K_THINK_TIME_BASELINE_HAR_OPT + ", thinkTimeBaselineHar=" + convertorOptions.getThinkTimeBaselineHar());
+        LOGGER.info(K_WORKLOAD_TARGET_RPS_OPT + ", workloadTargetRps=" + convertorOptions.getWorkloadTargetRps());
+        LOGGER.info(K_WORKLOAD_RAMP_UP_OPT + ", workloadRampUpSec=" + convertorOptions.getWorkloadRampUpSec());
+        LOGGER.info(K_WORKLOAD_DURATION_OPT + ", workloadDurationSec=" + convertorOptions.getWorkloadDurationSec());
+        LOGGER.info(K_MERGE_SESSIONS_OPT + ", isMergeSessions=" + convertorOptions.isMergeSessions());
+        LOGGER.info(K_JOURNEY_WEIGHTS_OPT + ", journeyWeights=" + convertorOptions.getJourneyWeights());
+        LOGGER.info(K_COMPRESS_POLLING_OPT + ", isCompressPolling=" + convertorOptions.isCompressPolling());
+        LOGGER.info(K_DEDUP_SEQUENCES_OPT + ", isDedupSequences=" + convertorOptions.isDedupSequences());
+        LOGGER.info(K_COLLAPSE_REDIRECTS_OPT + ", isCollapseRedirects=" + convertorOptions.isCollapseRedirects());
+        LOGGER.info(K_JFR_OUT_OPT + ", jfrOut=" + jfrOut);
+        LOGGER.info(K_JFR_SLOW_ENTRY_MS_OPT + ", jfrSlowEntryMs=" + jfrSlowEntryMs);
         LOGGER.info("***************************************");
+
+        ConverterStats.getInstance().registerMBean();
+        if (prometheusPort > 0) {
+            try {
+                ConverterStats.getInstance().startHttpServer(prometheusPort);
+            } catch (IOException e) {
+                LOGGER.warning("Can't start the Prometheus http endpoint on port " + prometheusPort + ", the conversion continues without endpoint, exception : " + e);
+            }
+        }
+        if (!jfrOut.isEmpty()) {
+            try {
+                ConversionEvents.startRecording(jfrOut, jfrSlowEntryMs);
+            } catch (IOException e) {
+                LOGGER.warning("Can't start the JFR recording, the conversion continues without recording, exception : " + e);
+            }
+        }
+        int exitCode = 1;
         try {
             generateJmxAndRecord(harFile,  jmxOut,createNewTransactionAfterRequestMs,isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
-                                    recordXmlOut, pageStartNumber, samplerStartNumber, lrwr_info, fileExternalInfo, isAddViewTreeForRecord, isWebSocketPDoornbosch, removeHeaders);
-
-            long lEnd = System.currentTimeMillis();
-            long lDurationMs = lEnd - lStart;
-            LOGGER.info("Duration ms : " + lDurationMs);
-            LOGGER.info("End main OK exit(0)");
-            System.exit(0);
-
+                                    recordXmlOut, pageStartNumber, samplerStartNumber, lrwr_info, fileExternalInfo, isAddViewTreeForRecord, isWebSocketPDoornbosch, removeHeaders, convertorOptions);
+            exitCode = 0;
         } catch (HarReaderException | ParserConfigurationException | TransformerException | MalformedURLException |
                  PatternSyntaxException e) {
             LOGGER.severe(e.toString());
             e.printStackTrace();
-            System.exit(1);
         } catch (URISyntaxException e) {
             LOGGER.severe(e.toString());
             e.printStackTrace();
-            System.exit(1);
+        } finally {
+            // also on RuntimeException or Error (OutOfMemoryError), the JFR file is the most useful when the conversion fails
+            ConversionEvents.stopRecording();
+            ConverterStats.getInstance().stopHttpServer();
         }
+
+        if (exitCode == 0) {
+            long lEnd = System.currentTimeMillis();
+            long lDurationMs = lEnd - lStart;
+            LOGGER.info("Duration ms : " + lDurationMs);
+            LOGGER.info("End main OK exit(0)");
+        }
+        System.exit(exitCode);
     }
 
     /**
@@ -293,61 +704,595 @@ public class HarForJMeter {
      */
     public static void generateJmxAndRecord(String harFile, String jmxOut, long createNewTransactionAfterRequestMs, boolean isAddPause, boolean isRemoveCookie, boolean isRemoveCacheRequest, String urlFilterToInclude, String urlFilterToExclude,
                                             String recordXmlOut, int pageStartNumber, int samplerStartNumber, String lrwr_info, String fileExternalInfo, boolean isAddViewTreeForRecord, boolean isWebSocketPDoornbosch, String removeHeaders) throws HarReaderException, MalformedURLException, ParserConfigurationException, URISyntaxException, TransformerException {
+        generateJmxAndRecord(harFile, jmxOut, createNewTransactionAfterRequestMs, isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
+                recordXmlOut, pageStartNumber, samplerStartNumber, lrwr_info, fileExternalInfo, isAddViewTreeForRecord, isWebSocketPDoornbosch, removeHeaders, new ConvertorOptions());
+    }
+
+    /**
+     * Create the JMeter script jmx file and the Record.xml file with optional parameters
+     * @param harFile the har file to read
+     * @param jmxOut the JMeter script to create
+     * @param recordXmlOut the record.xml file to open with a Listener View Result Tree
+     * @param createNewTransactionAfterRequestMs how many milliseconds for creating a new Transaction Controller
+     * @param isAddPause do we add Flow Control Action PAUSE ?
+     * @param isRemoveCookie do we remove Cookie information ?
+     * @param isRemoveCacheRequest do we remove the cache information for the Http Request ?
+     * @param urlFilterToInclude the regex filter to include url
+     * @param urlFilterToExclude the regex filter to exclude url
+     * @param pageStartNumber the first page number
+     * @param samplerStartNumber the first http sampler number
+     * @param lrwr_info what information from the HAR do we use ? The transaction_name or empty. For HAR generated with LoadRunner Web Recorder.
+     * @param fileExternalInfo file contains external informations like 2024-05-07T07:56:40.513Z;TRANSACTION;home_page;start
+     * @param isAddViewTreeForRecord do we add View Result Tree to view Record.xml file ?
+     * @param isWebSocketPDoornbosch do we find websocket messages and managed websocket with Peter Doornbosch JMeter plugin ?
+     * @param removeHeaders to remove a list a http headers
+     * @param convertorOptions the optional parameters (e.g: use the HAR index file)
+     * @throws HarReaderException trouble when reading HAR file
+     * @throws MalformedURLException trouble to convert String to a URL
+     * @throws ParserConfigurationException regex expression is incorrect
+     * @throws URISyntaxException trouble to convert String to a URL
+     * @throws TransformerException Megatron we have a problem
+     */
+    public static void generateJmxAndRecord(String harFile, String jmxOut, long createNewTransactionAfterRequestMs, boolean isAddPause, boolean isRemoveCookie, boolean isRemoveCacheRequest, String urlFilterToInclude, String urlFilterToExclude,
+                                            String recordXmlOut, int pageStartNumber, int samplerStartNumber, String lrwr_info, String fileExternalInfo, boolean isAddViewTreeForRecord, boolean isWebSocketPDoornbosch, String removeHeaders,
+                                            ConvertorOptions convertorOptions) throws HarReaderException, MalformedURLException, ParserConfigurationException, URISyntaxException, TransformerException {
         HarForJMeter harForJMeter = new HarForJMeter();
 
         LOGGER.info("Version=" + APPLICATION_VERSION);
 
-        Har har = harForJMeter.loadHarFile(harFile);
+        if (K_STANDARD_IN_OUT.equals(jmxOut) && K_STANDARD_IN_OUT.equals(recordXmlOut)) {
+            throw new InvalidParameterException("Only one output could be the standard output, jmxOut or recordXmlOut");
+        }
+
+        boolean isCheckpoint = !convertorOptions.getCheckpointDir().isEmpty();
+        if (isCheckpoint && (K_STANDARD_IN_OUT.equals(harFile) || K_STANDARD_IN_OUT.equals(jmxOut) || K_STANDARD_IN_OUT.equals(recordXmlOut))) {
+            LOGGER.info("No checkpoint with the standard input or the standard output, " + K_CHECKPOINT_DIR_OPT + " is not used");
+            isCheckpoint = false;
+        }
+        String parametersSignature = Arrays.asList(jmxOut, recordXmlOut, createNewTransactionAfterRequestMs, isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
+                pageStartNumber, samplerStartNumber, lrwr_info, fileExternalInfo, isAddViewTreeForRecord, isWebSocketPDoornbosch, removeHeaders, convertorOptions.isCollapseRedirects(),
+                convertorOptions.getTimeWindowStartMs(), convertorOptions.getTimeWindowEndMs()).toString();
+
+        if (K_STANDARD_IN_OUT.equals(harFile)) {
+            // the HAR is read once from the standard input, could be gzip or zstd compressed
+            if (convertorOptions.isTimeWindow()) {
+                LOGGER.info("The har is read from the standard input, the time window is not used");
+            }
+            boolean isConversionOk = false;
+            try {
+                harForJMeter.startReadHar(harFile, convertorOptions, convertorOptions.getProgressFile());
+                Har har = harForJMeter.loadHarStream(() -> HarInput.decompress(System.in));
+                generateJmxAndRecord(harForJMeter, har, jmxOut, createNewTransactionAfterRequestMs, isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
+                        recordXmlOut, pageStartNumber, samplerStartNumber, lrwr_info, fileExternalInfo, isAddViewTreeForRecord, isWebSocketPDoornbosch, removeHeaders);
+                harForJMeter.saveConversionMetrics(convertorOptions.getMetricsOut());
+                harForJMeter.saveTopEntries(convertorOptions.getTopEntriesOut(), har);
+                isConversionOk = true;
+            } finally {
+                harForJMeter.endConversion(isConversionOk, convertorOptions.getPrometheusOut());
+            }
+            return;
+        }
+
+        HarInput.Format harFormat;
+        try {
+            harFormat = HarInput.detectFormat(harFile);
+        } catch (IOException e) {
+            throw new HarReaderException(e);
+        }
+        checkHarSize(harFile, convertorOptions.getMaxHarMb());
+        if (harFormat == HarInput.Format.ZIP) {
+            List<String> listHarInZip;
+            try {
+                listHarInZip = HarInput.listHarInZip(harFile);
+            } catch (IOException e) {
+                throw new HarReaderException(e);
+            }
+            if (listHarInZip.size() > 1) {
+                if (K_STANDARD_IN_OUT.equals(jmxOut) || K_STANDARD_IN_OUT.equals(recordXmlOut)) {
+                    throw new InvalidParameterException("The zip file contains more than one HAR, the output could not be the standard output");
+                }
+                if (convertorOptions.isTimeWindow()) {
+                    LOGGER.info("The har files are in a zip file, the time window is not used");
+                }
+                generateJmxAndRecordFromZip(harFile, listHarInZip, jmxOut, createNewTransactionAfterRequestMs, isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
+                        recordXmlOut, pageStartNumber, samplerStartNumber, lrwr_info, fileExternalInfo, isAddViewTreeForRecord, isWebSocketPDoornbosch, removeHeaders, convertorOptions, (isCheckpoint ? parametersSignature : null));
+                return;
+            }
+        }
+
+        boolean isConversionOk = false;
+        try {
+            harForJMeter.startReadHar(harFile, convertorOptions, convertorOptions.getProgressFile());
+            if (isCheckpoint) {
+                harForJMeter.openCheckpoint(convertorOptions.getCheckpointDir(), convertorOptions.getCheckpointIntervalSec(), harFile, parametersSignature);
+            }
+            Har har;
+            if (harFormat != HarInput.Format.PLAIN) {
+                // compressed file could not be memory mapped, the HAR is decompressed on the fly
+                if (convertorOptions.isUseHarIndex() || convertorOptions.getParseThreads() > 0 || convertorOptions.isAutoEngine() || convertorOptions.getMaxEntries() > 0 || convertorOptions.isTimeWindow()) {
+                    LOGGER.info("The har file is " + harFormat + ", the pre-scan, the index, the time window and the parallel reading are not used");
+                }
+                har = harForJMeter.loadHarStream(() -> HarInput.openStream(harFile));
+            } else {
+                boolean isUseHarIndex = convertorOptions.isUseHarIndex() || convertorOptions.isTimeWindow(); // the time window is read with the index
+                int parseThreads = convertorOptions.getParseThreads();
+                HarIndex harIndex = null; // the index built by the pre-scan, the har file is scanned only once
+                if (convertorOptions.isAutoEngine() || convertorOptions.getMaxEntries() > 0) {
+                    HarPreScan harPreScan = preScan(harFile, convertorOptions.getMaxEntries(), isUseHarIndex || convertorOptions.isAutoEngine());
+                    if (convertorOptions.isAutoEngine()) {
+                        HarPreScan.Engine engine = selectEngine(harPreScan, !recordXmlOut.isEmpty());
+                        isUseHarIndex = (engine == HarPreScan.Engine.STREAMING || convertorOptions.isTimeWindow());
+                        parseThreads = (engine == HarPreScan.Engine.PARALLEL ? HarPreScan.parallelThreads(Runtime.getRuntime().availableProcessors()) : 0);
+                    }
+                    if (isUseHarIndex) {
+                        harIndex = harPreScan.useHarIndex();
+                    }
+                }
+                if (isUseHarIndex) {
+                    har = harForJMeter.loadHarFileWithIndex(harFile, harIndex, convertorOptions.getTimeWindowStartMs(), convertorOptions.getTimeWindowEndMs());
+                } else if (parseThreads > 0) {
+                    har = harForJMeter.loadHarFileParallel(harFile, parseThreads);
+                } else {
+                    har = harForJMeter.loadHarFile(harFile);
+                }
+            }
+            generateJmxAndRecord(harForJMeter, har, jmxOut, createNewTransactionAfterRequestMs, isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
+                    recordXmlOut, pageStartNumber, samplerStartNumber, lrwr_info, fileExternalInfo, isAddViewTreeForRecord, isWebSocketPDoornbosch, removeHeaders);
+            harForJMeter.saveConversionMetrics(convertorOptions.getMetricsOut());
+            harForJMeter.saveTopEntries(convertorOptions.getTopEntriesOut(), har);
+            harForJMeter.deleteCheckpoint();
+            isConversionOk = true;
+        } finally {
+            harForJMeter.endConversion(isConversionOk, convertorOptions.getPrometheusOut());
+            harForJMeter.closeIndexedHarReader();
+        }
+    }
+
+    /**
+     * Fail fast if the har file is larger than the limit
+     * @param harFile the har file
+     * @param maxHarMb the max size in MB, 0 for no limit
+     * @throws HarReaderException the har file is too large
+     */
+    private static void checkHarSize(String harFile, long maxHarMb) throws HarReaderException {
+        long fileSize = new File(harFile).length();
+        if (maxHarMb > 0 && fileSize > maxHarMb * 1024 * 1024) {
+            throw new HarReaderException(new IOException("The har file " + harFile + " is too large : " + fileSize / (1024 * 1024) + " MB > "
+                    + K_MAX_HAR_MB_OPT + " " + maxHarMb + " MB"));
+        }
+    }
+
+    /**
+     * Pre-scan the plain har file and fail fast if the har file contains too many entries
+     * @param harFile the har file not compressed
+     * @param maxEntries the max number of entries, 0 for no limit
+     * @param isWithIndex do we build the index with the pre-scan ? (the har could be read with the index)
+     * @return the pre-scan result
+     * @throws HarReaderException trouble when reading the file or too many entries
+     */
+    private static HarPreScan preScan(String harFile, long maxEntries, boolean isWithIndex) throws HarReaderException {
+        HarPreScan harPreScan;
+        try {
+            harPreScan = HarPreScan.scan(harFile, isWithIndex);
+        } catch (IOException e) {
+            throw new HarReaderException(e);
+        }
+        if (maxEntries > 0 && harPreScan.getNbEntries() > maxEntries) {
+            throw new HarReaderException(new IOException("The har file " + harFile + " contains too many entries : " + harPreScan.getNbEntries() + " > "
+                    + K_MAX_ENTRIES_OPT + " " + maxEntries));
+        }
+        return harPreScan;
+    }
+
+    /**
+     * Choose the engine with the heap estimate of the pre-scan, the decision is logged
+     * @param harPreScan the pre-scan result
+     * @param isWithRecord is the record file created ?
+     * @return the engine
+     * @throws HarReaderException the har does not fit in the heap with any engine
+     */
+    private static HarPreScan.Engine selectEngine(HarPreScan harPreScan, boolean isWithRecord) throws HarReaderException {
+        long maxHeapBytes = Runtime.getRuntime().maxMemory();
+        int nbCores = Runtime.getRuntime().availableProcessors();
+        HarPreScan.Engine engine = harPreScan.selectEngine(maxHeapBytes, nbCores, isWithRecord);
+        String estimate = "heap estimate in memory " + harPreScan.estimateHeapBytes(HarPreScan.Engine.IN_MEMORY, isWithRecord) / (1024 * 1024) + " MB, streaming "
+                + harPreScan.estimateHeapBytes(HarPreScan.Engine.STREAMING, isWithRecord) / (1024 * 1024) + " MB, max heap " + maxHeapBytes / (1024 * 1024) + " MB, " + nbCores + " cores";
+        if (engine == null) {
+            throw new HarReaderException(new IOException("The har file " + harPreScan.getHarFile() + " is too large for the heap, " + estimate
+                    + ", increase the heap (e.g: java -Xmx" + (harPreScan.estimateHeapBytes(HarPreScan.Engine.STREAMING, isWithRecord) * 5 / 4) / (1024 * 1024) + "m) or filter the har file"));
+        }
+        LOGGER.info("Engine " + engine + " selected, " + estimate);
+        return engine;
+    }
+
+    /**
+     * Create the JMeter script and the Record.xml file for each HAR in a zip archive, the HAR files are converted in parallel.
+     * The output files names contain the HAR name, e.g: script.jmx and checkout.har give script_checkout.jmx, the same for the metrics, the progress, the top entries files and the checkpoint directory.
+     * With merge_sessions each HAR is a user session and the scripts are merged in one script jmxOut with a Thread Group by session started at the recorded start of the session.
+     * With journey_weights each HAR is a journey and the scripts are assembled in one script jmxOut with a Throughput Controller by journey
+     */
+    private static void generateJmxAndRecordFromZip(String zipFile, List<String> listHarInZip, String jmxOut, long createNewTransactionAfterRequestMs, boolean isAddPause, boolean isRemoveCookie, boolean isRemoveCacheRequest, String urlFilterToInclude, String urlFilterToExclude,
+                                            String recordXmlOut, int pageStartNumber, int samplerStartNumber, String lrwr_info, String fileExternalInfo, boolean isAddViewTreeForRecord, boolean isWebSocketPDoornbosch, String removeHeaders,
+                                            ConvertorOptions convertorOptions, String parametersSignature) throws HarReaderException, MalformedURLException, ParserConfigurationException, URISyntaxException, TransformerException {
+        int nbThreads = Math.min(listHarInZip.size(), Runtime.getRuntime().availableProcessors());
+        LOGGER.info("Zip file contains " + listHarInZip.size() + " har files, convert with " + nbThreads + " threads");
+        ScriptAssembler scriptAssembler = null;
+        if (!convertorOptions.getJourneyWeights().isEmpty()) {
+            JourneyMixAssembler journeyMixAssembler = new JourneyMixAssembler(convertorOptions.getJourneyWeights());
+            List<String> listJourneys = new ArrayList<>();
+            for (String entryName : listHarInZip) {
+                if (journeyMixAssembler.weightOf(entryName) > 0) {
+                    listJourneys.add(entryName);
+                } else {
+                    LOGGER.warning("No weight for the HAR " + entryName + " in " + K_JOURNEY_WEIGHTS_OPT + ", the HAR is not converted");
+                }
+            }
+            listHarInZip = listJourneys;
+            scriptAssembler = journeyMixAssembler;
+            if (convertorOptions.isMergeSessions()) {
+                LOGGER.warning(K_MERGE_SESSIONS_OPT + " is ignored with " + K_JOURNEY_WEIGHTS_OPT);
+            }
+        } else if (convertorOptions.isMergeSessions()) {
+            scriptAssembler = new SessionScheduleMerger();
+        }
+        if (scriptAssembler != null && parametersSignature != null) {
+            LOGGER.info("The scripts are assembled in one script, the checkpoints are not used");
+            parametersSignature = null;
+        }
+        Set<String> setOutputNames = new HashSet<>();
+        for (String entryName : listHarInZip) {
+            // the output names are sanitized, e.g: a/x.har and a_x.har give the same output files
+            if (!setOutputNames.add(HarInput.outputFileForEntry(jmxOut, entryName))) {
+                throw new HarReaderException(new IOException("The har " + entryName + " in the zip " + zipFile + " gives the same output file names as an other har of the zip, rename the har files"));
+            }
+        }
+        final ScriptAssembler scriptAssemblerForTask = scriptAssembler;
+        final String parametersSignatureForTask = parametersSignature;
+
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            List<Future<Void>> listFutures = new ArrayList<>();
+            for (String entryName : listHarInZip) {
+                String jmxOutEntry = HarInput.outputFileForEntry(jmxOut, entryName);
+                String recordXmlOutEntry = HarInput.outputFileForEntry(recordXmlOut, entryName);
+                String metricsOutEntry = HarInput.outputFileForEntry(convertorOptions.getMetricsOut(), entryName);
+                String progressFileEntry = HarInput.outputFileForEntry(convertorOptions.getProgressFile(), entryName);
+                String topEntriesOutEntry = HarInput.outputFileForEntry(convertorOptions.getTopEntriesOut(), entryName);
+                String checkpointDirEntry = HarInput.outputFileForEntry(convertorOptions.getCheckpointDir(), entryName);
+                ConverterStats.getInstance().conversionQueued();
+                listFutures.add(executor.submit(() -> {
+                    ConverterStats.getInstance().conversionDequeued();
+                    LOGGER.info("Convert " + entryName + " to " + (scriptAssemblerForTask != null ? jmxOut + " (assembled)" : jmxOutEntry));
+                    HarForJMeter harForJMeter = new HarForJMeter();
+                    harForJMeter.scriptAssembler = scriptAssemblerForTask;
+                    harForJMeter.harNameInZip = entryName;
+                    boolean isConversionOk = false;
+                    try {
+                        harForJMeter.startReadHar(zipFile + "!" + entryName, convertorOptions, progressFileEntry);
+                        if (parametersSignatureForTask != null) {
+                            harForJMeter.openCheckpoint(checkpointDirEntry, convertorOptions.getCheckpointIntervalSec(), zipFile, parametersSignatureForTask + entryName);
+                        }
+                        Har har = harForJMeter.loadHarStream(() -> HarInput.openZipEntry(zip, entryName));
+                        generateJmxAndRecord(harForJMeter, har, jmxOutEntry, createNewTransactionAfterRequestMs, isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
+                                recordXmlOutEntry, pageStartNumber, samplerStartNumber, lrwr_info, fileExternalInfo, isAddViewTreeForRecord, isWebSocketPDoornbosch, removeHeaders);
+                        harForJMeter.saveConversionMetrics(metricsOutEntry);
+                        harForJMeter.saveTopEntries(topEntriesOutEntry, har);
+                        harForJMeter.deleteCheckpoint();
+                        isConversionOk = true;
+                    } finally {
+                        harForJMeter.endConversion(isConversionOk, convertorOptions.getPrometheusOut());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : listFutures) {
+                future.get();
+            }
+            if (scriptAssembler != null) {
+                Document jmxDocumentAssembled = scriptAssembler.assemble();
+                if (jmxDocumentAssembled != null) {
+                    long jmxBytes = XmlJmx.saveXmFileWithSize(jmxDocumentAssembled, jmxOut);
+                    LOGGER.info("The scripts of the " + scriptAssembler.getNbScripts() + " HAR files are saved in " + jmxOut + ", " + jmxBytes + " bytes");
+                }
+            }
+        } catch (IOException e) {
+            throw new HarReaderException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HarReaderException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HarReaderException) {
+                throw (HarReaderException) cause;
+            } else if (cause instanceof MalformedURLException) {
+                throw (MalformedURLException) cause;
+            } else if (cause instanceof ParserConfigurationException) {
+                throw (ParserConfigurationException) cause;
+            } else if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            } else if (cause instanceof TransformerException) {
+                throw (TransformerException) cause;
+            }
+            throw new HarReaderException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void generateJmxAndRecord(HarForJMeter harForJMeter, Har har, String jmxOut, long createNewTransactionAfterRequestMs, boolean isAddPause, boolean isRemoveCookie, boolean isRemoveCacheRequest, String urlFilterToInclude, String urlFilterToExclude,
+                                            String recordXmlOut, int pageStartNumber, int samplerStartNumber, String lrwr_info, String fileExternalInfo, boolean isAddViewTreeForRecord, boolean isWebSocketPDoornbosch, String removeHeaders) throws HarReaderException, MalformedURLException, ParserConfigurationException, URISyntaxException, TransformerException {
         HarCreatorBrowser creator = har.getLog().getCreator();
         String harCreator = "HAR File, Creator : Not Declared";
         if (creator != null) {
             harCreator = "HAR File, Creator : " + creator.getName() + ", version : " + creator.getVersion();
         }
-        LOGGER.info(harCreator);
+        LOGGER.info(harCreator);
+        ConversionMetrics conversionMetrics = harForJMeter.conversionMetrics;
+        conversionMetrics.endPhase(); // end of the har reading
+        conversionMetrics.setEntriesRead(har.getLog().getEntries().size());
+        conversionMetrics.setPagesRead(har.getLog().getPages().size());
+        if (conversionMetrics.getEntryCostTracker() != null) {
+            conversionMetrics.getEntryCostTracker().setNbEntries(har.getLog().getEntries().size());
+        }
+        if (harForJMeter.progressReporter != null) {
+            harForJMeter.progressReporter.setTotals(har.getLog().getEntries().size(), har.getLog().getPages().size());
+        }
+        ConversionEvents.commitHarLoad(harForJMeter.harLoadEvent, conversionMetrics.getHarFile(), har.getLog().getEntries().size());
+        harForJMeter.harLoadEvent = null;
+
+        List<TransactionInfo> listTransactionInfo = null;
+        if (K_LRWR_USE_TRANSACTION_NAME.equals(lrwr_info)) {
+            // the transactions are read from the HAR already loaded, the har file is not read again
+            conversionMetrics.startPhase(ConversionMetrics.K_PHASE_LRWR_TRANSACTIONS);
+            List<HarLrTransactions> listHarLrTransactions = ManageLrwr.getListTransactionLrwr(har);
+            if (listHarLrTransactions != null && listHarLrTransactions.size() > 0) {
+                listTransactionInfo = ManageLrwr.createListTransactionInfo(listHarLrTransactions);
+            }
+            conversionMetrics.endPhase();
+        }
+
+        if (!fileExternalInfo.isEmpty()) {
+            try {
+                listTransactionInfo = ManageExternalFile.createListTransactionInfo(fileExternalInfo);
+            } catch (Exception e) {
+                LOGGER.severe("Can't read file or content : " + fileExternalInfo + ", exception : " + e.toString());
+            }
+        }
+
+        WebSocketRequest webSocketRequest = null;
+        if (isWebSocketPDoornbosch) {
+            conversionMetrics.startPhase(ConversionMetrics.K_PHASE_WEBSOCKET);
+            webSocketRequest = ManageWebSocket.getWebSocketRequest(har);
+            conversionMetrics.endPhase();
+        }
+
+        LOGGER.info("************ Start of JMX file creation (JMeter script file) **");
+        harForJMeter.convertHarToJmx(har, jmxOut, createNewTransactionAfterRequestMs, isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
+                                        pageStartNumber, samplerStartNumber, listTransactionInfo, isAddViewTreeForRecord, webSocketRequest, recordXmlOut, removeHeaders);
+        LOGGER.info("************ End of JMX file creation              ************");
+
+        if (!recordXmlOut.isEmpty()) {
+            LOGGER.info("************ Start of Recording XML file creation ************");
+            harForJMeter.harToRecordXml(har, recordXmlOut, urlFilterToInclude, urlFilterToExclude, pageStartNumber, samplerStartNumber, webSocketRequest);
+            LOGGER.info("************ End of Recording XML file creation   ************");
+        }
+    }
+
+    /**
+     * Load the har file and return the HAR object
+     * @param fileHar the har to read
+     * @return the HAR object
+     * @throws HarReaderException trouble when reading HAR file
+     */
+    protected Har loadHarFile(String fileHar) throws HarReaderException {
+        // read as a stream to know the bytes read for the progress
+        conversionMetrics.setHarBytesTotal(new File(fileHar).length());
+        Har har = loadHarStream(() -> new FileInputStream(fileHar));
+        return har;
+    }
+
+    /**
+     * Load the har file with the index file (created if not exists), the response content text is not loaded, it will be read when the Record.xml file is created
+     * @param fileHar the har to read
+     * @return the HAR object without the response content text
+     * @throws HarReaderException trouble when reading HAR file or the index file
+     */
+    protected Har loadHarFileWithIndex(String fileHar) throws HarReaderException {
+        return loadHarFileWithIndex(fileHar, null, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Load the har file with the index built by the pre-scan, the response content text is not loaded, it will be read when the Record.xml file is created
+     * @param fileHar the har to read
+     * @param harIndex the index built by the pre-scan, null to use the index file (created if not exists)
+     * @param startTimeMs only the entries started in the time window are read, the start in epoch milliseconds (Long.MIN_VALUE for no start)
+     * @param endTimeMs the end of the time window in epoch milliseconds (Long.MAX_VALUE for no end)
+     * @return the HAR object without the response content text
+     * @throws HarReaderException trouble when reading HAR file or the index file
+     */
+    protected Har loadHarFileWithIndex(String fileHar, HarIndex harIndex, long startTimeMs, long endTimeMs) throws HarReaderException {
+        try {
+            indexedHarReader = (harIndex != null ? IndexedHarReader.open(fileHar, harIndex) : IndexedHarReader.open(fileHar));
+        } catch (IOException e) {
+            throw new HarReaderException(e);
+        }
+        Har har = indexedHarReader.readHar(startTimeMs, endTimeMs, false);
+        if (startTimeMs != Long.MIN_VALUE || endTimeMs != Long.MAX_VALUE) {
+            // only the pages of the entries in the time window, no empty Transaction Controller
+            Set<String> setPagerefs = new HashSet<>();
+            for (HarEntry harEntry : har.getLog().getEntries()) {
+                if (harEntry.getPageref() != null) {
+                    setPagerefs.add(harEntry.getPageref());
+                }
+            }
+            int nbPages = har.getLog().getPages().size();
+            if (!setPagerefs.isEmpty() || har.getLog().getEntries().isEmpty()) {
+                har.getLog().getPages().removeIf(harPage -> !setPagerefs.contains(harPage.getId()));
+            }
+            LOGGER.info("Time window, entries read with the index : " + har.getLog().getEntries().size() + "/" + indexedHarReader.getHarIndex().getListIndexEntries().size()
+                    + ", pages : " + har.getLog().getPages().size() + "/" + nbPages);
+        }
+        return har;
+    }
+
+    /**
+     * Load the HAR from a stream, e.g: a compressed har file or a har file in a zip archive
+     * @param harOpener open the HAR content
+     * @return the HAR object
+     * @throws HarReaderException trouble when reading HAR file
+     */
+    protected Har loadHarStream(HarInput.StreamOpener harOpener) throws HarReaderException {
+        try (CountingInputStream harInputStream = new CountingInputStream(harOpener.open())) {
+            conversionMetrics.setHarInputCounter(harInputStream);
+            return HarInput.readHar(harInputStream);
+        } catch (IOException e) {
+            throw new HarReaderException(e);
+        }
+    }
+
+    /**
+     * Load the har file, the entries are decoded with multiple threads
+     * @param fileHar the har to read
+     * @param nbThreads number of threads to decode the entries
+     * @return the HAR object
+     * @throws HarReaderException trouble when reading HAR file
+     */
+    protected Har loadHarFileParallel(String fileHar, int nbThreads) throws HarReaderException {
+        Har har = new ParallelHarReader(nbThreads).readFromFile(new File(fileHar));
+        return har;
+    }
+
+    /**
+     * Start the measure of the HAR reading, ended when the JMeter script creation starts, and start the progress reports if asked
+     * @param harFile the har file name for the metrics, the JFR event and the progress
+     * @param convertorOptions the optional parameters with the progress interval and the top entries
+     * @param progressFile the progress status file, if empty the progress is logged
+     */
+    private void startReadHar(String harFile, ConvertorOptions convertorOptions, String progressFile) {
+        conversionStartMs = System.currentTimeMillis();
+        ConverterStats.getInstance().conversionStarted();
+        conversionMetrics.setHarFile(harFile);
+        conversionMetrics.startPhase(ConversionMetrics.K_PHASE_READ_HAR);
+        harLoadEvent = ConversionEvents.beginHarLoad();
+        this.convertorOptions = convertorOptions;
+        if (!convertorOptions.getTopEntriesOut().isEmpty() && convertorOptions.getTopEntries() > 0) {
+            conversionMetrics.setEntryCostTracker(new EntryCostTracker(convertorOptions.getTopEntries()));
+        }
+
+        int progressIntervalSec = convertorOptions.getProgressIntervalSec();
+        if (progressIntervalSec <= 0 && !progressFile.isEmpty()) {
+            progressIntervalSec = K_PROGRESS_INTERVAL_SEC_DEFAULT;
+        }
+        if (progressIntervalSec > 0) {
+            progressReporter = new ProgressReporter(conversionMetrics, progressIntervalSec * 1000L, progressFile);
+            progressReporter.start();
+        }
+    }
+
+    /**
+     * Open the checkpoint directory, the conversion resumes from the last checkpoint saved for the same har file and parameters.
+     * If the directory could not be created the conversion continues without checkpoint
+     * @param checkpointDir the checkpoint directory
+     * @param checkpointIntervalSec the minimum interval between 2 checkpoints
+     * @param harFile the har file converted
+     * @param parametersSignature the conversion parameters
+     */
+    private void openCheckpoint(String checkpointDir, int checkpointIntervalSec, String harFile, String parametersSignature) {
+        try {
+            conversionCheckpoint = ConversionCheckpoint.open(checkpointDir, checkpointIntervalSec, harFile, parametersSignature);
+        } catch (IOException e) {
+            LOGGER.warning("The conversion continues without checkpoint, exception : " + e);
+        }
+    }
 
-        List<TransactionInfo> listTransactionInfo = null;
-        if (K_LRWR_USE_TRANSACTION_NAME.equals(lrwr_info)) {
-            boolean isHarWithLrwr = ManageLrwr.isHarContainsLrwr(harFile);
-            if (isHarWithLrwr) {
-                List<HarLrTransactions> listHarLrTransactions = ManageLrwr.getListTransactionLrwr(harFile);
-                listTransactionInfo = ManageLrwr.createListTransactionInfo(listHarLrTransactions);
-            }
+    /**
+     * The conversion is completed, the checkpoint is no longer needed
+     */
+    private void deleteCheckpoint() {
+        if (conversionCheckpoint != null) {
+            conversionCheckpoint.delete();
+            conversionCheckpoint = null;
         }
+    }
 
-        if (!fileExternalInfo.isEmpty()) {
-            try {
-                listTransactionInfo = ManageExternalFile.createListTransactionInfo(fileExternalInfo);
-            } catch (Exception e) {
-                LOGGER.severe("Can't read file or content : " + fileExternalInfo + ", exception : " + e.toString());
-            }
+    /**
+     * End of the conversion started with startReadHar : stop the progress reports and add the conversion to the process statistics
+     * @param isOk true if the conversion is completed, false if failed
+     * @param prometheusOut the Prometheus text file to update, if empty the file is not written
+     */
+    private void endConversion(boolean isOk, String prometheusOut) {
+        if (progressReporter != null) {
+            progressReporter.stop();
+            progressReporter = null;
         }
 
-        WebSocketRequest webSocketRequest = null;
-        if (isWebSocketPDoornbosch) {
-            webSocketRequest = ManageWebSocket.getWebSocketRequest(harFile);
+        long harBytes = conversionMetrics.getHarBytesRead();
+        if (harBytes < 0) {
+            // read with the index or in parallel, the file is memory mapped
+            File file = new File(conversionMetrics.getHarFile());
+            harBytes = (file.isFile() ? file.length() : 0);
         }
+        ConverterStats converterStats = ConverterStats.getInstance();
+        converterStats.conversionEnded(isOk, System.currentTimeMillis() - conversionStartMs, conversionMetrics.getEntriesRead(), harBytes,
+                conversionMetrics.getJmxBytesWritten() + conversionMetrics.getRecordBytesWritten());
+        LOGGER.fine(converterStats.toString());
+        if (prometheusOut == null || prometheusOut.isEmpty()) {
+            return;
+        }
+        try {
+            converterStats.savePrometheus(prometheusOut);
+        } catch (IOException e) {
+            LOGGER.warning("Can't save the Prometheus metrics file : " + prometheusOut + ", exception : " + e);
+        }
+    }
 
-        LOGGER.info("************ Start of JMX file creation (JMeter script file) **");
-        harForJMeter.convertHarToJmx(har, jmxOut, createNewTransactionAfterRequestMs, isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
-                                        pageStartNumber, samplerStartNumber, listTransactionInfo, isAddViewTreeForRecord, webSocketRequest, recordXmlOut, removeHeaders);
-        LOGGER.info("************ End of JMX file creation              ************");
-
-        if (!recordXmlOut.isEmpty()) {
-            LOGGER.info("************ Start of Recording XML file creation ************");
-            harForJMeter.harToRecordXml(har, recordXmlOut, urlFilterToInclude, urlFilterToExclude, pageStartNumber, samplerStartNumber, webSocketRequest);
-            LOGGER.info("************ End of Recording XML file creation   ************");
+    /**
+     * Save the metrics of the conversion in a JSON file
+     * @param metricsOut the JSON file to write, if empty the metrics are not saved
+     */
+    protected void saveConversionMetrics(String metricsOut) {
+        conversionMetrics.endPhase();
+        LOGGER.fine(conversionMetrics.toString());
+        if (metricsOut == null || metricsOut.isEmpty()) {
+            return;
+        }
+        try {
+            conversionMetrics.saveJson(metricsOut);
+            LOGGER.info("Conversion metrics saved in : " + metricsOut);
+        } catch (IOException e) {
+            LOGGER.warning("Can't save the conversion metrics file : " + metricsOut + ", exception : " + e);
         }
     }
 
     /**
-     * Load the har file and return the HAR object
-     * @param fileHar the har to read
-     * @return the HAR object
-     * @throws HarReaderException trouble when reading HAR file
+     * Log and save the top-N costliest entries by conversion time and by allocated bytes
+     * @param topEntriesOut the JSON file to write, if empty the cost by entry was not measured
+     * @param har the HAR converted for the url, mime type and body sizes of the entries
      */
-    protected Har loadHarFile(String fileHar) throws HarReaderException {
-        Har har = new HarReader().readFromFile(new File(fileHar));
-        return har;
+    protected void saveTopEntries(String topEntriesOut, Har har) {
+        EntryCostTracker entryCostTracker = conversionMetrics.getEntryCostTracker();
+        if (entryCostTracker == null || topEntriesOut == null || topEntriesOut.isEmpty()) {
+            return;
+        }
+        entryCostTracker.computeTop(har.getLog().getEntries());
+        entryCostTracker.logReport();
+        try {
+            entryCostTracker.saveJson(topEntriesOut, conversionMetrics.getHarFile());
+            LOGGER.info("Top entries report saved in : " + topEntriesOut);
+        } catch (IOException e) {
+            LOGGER.warning("Can't save the top entries file : " + topEntriesOut + ", exception : " + e);
+        }
+    }
+
+    private void closeIndexedHarReader() {
+        if (indexedHarReader != null) {
+            try {
+                indexedHarReader.close();
+            } catch (IOException e) {
+                LOGGER.warning("Can't close the HAR file, exception : " + e);
+            }
+            indexedHarReader = null;
+        }
     }
 
     /**
@@ -373,11 +1318,124 @@ public class HarForJMeter {
      */
     protected void convertHarToJmx(Har har, String jmxXmlOutFile, long createNewTransactionAfterRequestMs, boolean isAddPause, boolean isRemoveCookie, boolean isRemoveCacheRequest, String urlFilterToInclude, String urlFilterToExclude,
                                    int pageStartNumber, int samplerStartNumber, List<TransactionInfo> listTransactionInfo, boolean isAddViewTreeForRecord, WebSocketRequest webSocketRequest, String recordXmlOut, String removeHeaders) throws ParserConfigurationException, TransformerException, URISyntaxException {
+        if (conversionCheckpoint != null && conversionCheckpoint.isJmxDone()) {
+            if (new File(jmxXmlOutFile).isFile()) {
+                LOGGER.info("The JMX file was created before the checkpoint, the file is not created again : " + jmxXmlOutFile);
+                conversionCheckpoint.restoreCounters(conversionMetrics);
+                if (convertorOptions.isCollapseRedirects()) {
+                    // the record file nests the hops removed from the script, the script is built again in memory to find them
+                    XmlJmx xmlJmx = new XmlJmx();
+                    xmlJmx.setSkipEntryErrors(convertorOptions.isSkipEntryErrors());
+                    xmlJmx.setKeepHarEntries(true);
+                    Document jmxDocument = xmlJmx.convertHarToJmxXml(har, createNewTransactionAfterRequestMs, isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
+                            pageStartNumber, samplerStartNumber, listTransactionInfo, isAddViewTreeForRecord, webSocketRequest, recordXmlOut, removeHeaders);
+                    RedirectChainCollapser redirectChainCollapser = new RedirectChainCollapser();
+                    redirectChainCollapser.collapse(jmxDocument, har);
+                    mapCollapsedHops = redirectChainCollapser.getCollapsedHops();
+                }
+                return;
+            }
+            LOGGER.warning("The JMX file created before the checkpoint is missing, the conversion starts from the beginning : " + jmxXmlOutFile);
+            conversionCheckpoint.cancelResume();
+        }
+        conversionMetrics.startPhase(ConversionMetrics.K_PHASE_JMX_BUILD);
         XmlJmx xmlJmx = new XmlJmx();
+        xmlJmx.setConversionMetrics(conversionMetrics);
+        xmlJmx.setConversionCheckpoint(conversionCheckpoint);
+        xmlJmx.setSkipEntryErrors(convertorOptions.isSkipEntryErrors());
+        xmlJmx.setKeepHarEntries(convertorOptions.isParallelRequests() || convertorOptions.getSlaFactor() > 0 || convertorOptions.getWorkloadTargetRps() > 0 || convertorOptions.isCompressPolling()
+                || convertorOptions.isCollapseRedirects());
         Document jmxDocument = xmlJmx.convertHarToJmxXml(har, createNewTransactionAfterRequestMs, isAddPause, isRemoveCookie, isRemoveCacheRequest, urlFilterToInclude, urlFilterToExclude,
                                                             pageStartNumber, samplerStartNumber, listTransactionInfo, isAddViewTreeForRecord, webSocketRequest, recordXmlOut, removeHeaders);
+        optimizeScript(jmxDocument, har);
+        if (scriptAssembler != null) {
+            // the script is saved with the scripts of the other HAR
+            scriptAssembler.addScript(harNameInZip, jmxDocument, har);
+            conversionMetrics.endPhase();
+            return;
+        }
+
+        conversionMetrics.startPhase(ConversionMetrics.K_PHASE_JMX_SAVE);
+        conversionMetrics.setJmxBytesWritten(XmlJmx.saveXmFileWithSize(jmxDocument, jmxXmlOutFile));
+        conversionMetrics.endPhase();
+        if (conversionCheckpoint != null) {
+            // the jmx file is saved, a resume starts with the record file
+            conversionCheckpoint.save(ConversionCheckpoint.K_STAGE_RECORD, 0, ConversionCheckpoint.countersToSave(conversionMetrics), null);
+        }
+    }
+
+    /**
+     * The optional passes to optimize the JMeter script before saving the script
+     * @param jmxDocument the jmx document created, modified by the passes
+     * @param har the har converted
+     */
+    private void optimizeScript(Document jmxDocument, Har har) {
+        WorkloadModel workloadModel = null;
+        if (convertorOptions.getWorkloadTargetRps() > 0) {
+            // the requests are counted before the passes that collapse samplers, a Loop Controller or a redirect chain sends several requests
+            workloadModel = WorkloadModel.fromScript(jmxDocument);
+        }
+        if (convertorOptions.isCollapseRedirects()) {
+            // the hops are not compared with the other samplers
+            RedirectChainCollapser redirectChainCollapser = new RedirectChainCollapser();
+            redirectChainCollapser.collapse(jmxDocument, har);
+            mapCollapsedHops = redirectChainCollapser.getCollapsedHops();
+        }
+        if (convertorOptions.isCompressPolling()) {
+            // the samplers are compared with all their headers
+            new PollingRunCompressor().compress(jmxDocument);
+        }
+        if (convertorOptions.isHoistCommonHeaders()) {
+            new CommonHeaderHoister().hoist(jmxDocument);
+        }
+        if (convertorOptions.getSlaFactor() > 0) {
+            TimingSlaDeriver timingSlaDeriver = new TimingSlaDeriver(convertorOptions.getSlaFactor(), convertorOptions.getSlaPercentile());
+            timingSlaDeriver.addRecording(har);
+            for (Har baselineHar : readBaselineHar(convertorOptions.getSlaBaselineHar())) {
+                timingSlaDeriver.addRecording(baselineHar);
+            }
+            timingSlaDeriver.apply(jmxDocument);
+        }
+        if (!ThinkTimeModeler.K_DISTRIBUTION_RECORDED.equals(convertorOptions.getThinkTime())) {
+            ThinkTimeModeler thinkTimeModeler = new ThinkTimeModeler(convertorOptions.getThinkTime(), convertorOptions.getThinkTimeMaxMs());
+            for (Har baselineHar : readBaselineHar(convertorOptions.getThinkTimeBaselineHar())) {
+                thinkTimeModeler.addBaselineRecording(baselineHar);
+            }
+            thinkTimeModeler.apply(jmxDocument);
+        }
+        if (workloadModel != null) {
+            workloadModel.logWorkload(convertorOptions.getWorkloadTargetRps());
+            workloadModel.applyTarget(jmxDocument, convertorOptions.getWorkloadTargetRps(), convertorOptions.getWorkloadRampUpSec(), convertorOptions.getWorkloadDurationSec());
+        }
+        if (convertorOptions.isParallelRequests()) {
+            // after the headers, the samplers are moved in the Parallel Controllers
+            new ParallelRequestGrouper().group(jmxDocument);
+        }
+        if (convertorOptions.isDedupSequences()) {
+            if (scriptAssembler == null) {
+                // last, the fragments contain the samplers with all the changes, the transactions are not in the Thread Group anymore
+                new SequenceDeduplicator().deduplicate(jmxDocument);
+            } else {
+                LOGGER.info("The scripts are assembled in one script, the repeated sequences are not moved in Test Fragments");
+            }
+        }
+    }
 
-        xmlJmx.saveXmFile(jmxDocument, jmxXmlOutFile);
+    /**
+     * Read the other recordings of the journey, a file that can't be read is ignored
+     * @param baselineHarFiles the HAR files separated by a comma
+     * @return the Har objects
+     */
+    private static List<Har> readBaselineHar(String baselineHarFiles) {
+        List<Har> listHar = new ArrayList<>();
+        for (String baselineHar : StringUtils.split(baselineHarFiles, ',')) {
+            try (InputStream in = HarInput.openStream(baselineHar.trim())) {
+                listHar.add(HarInput.readHar(in));
+            } catch (IOException | HarReaderException ex) {
+                LOGGER.warning("The baseline HAR file is ignored, can't read the file : " + baselineHar + ", " + ex);
+            }
+        }
+        return listHar;
     }
 
     /**
@@ -395,10 +1453,32 @@ public class HarForJMeter {
      * @throws MalformedURLException trouble to convert String to a URL
      */
     protected void harToRecordXml(Har har, String jmxXmlOutFile, String urlFilterToInclude, String urlFilterToExclude, int pageStartNumber, int samplerStartNumber, WebSocketRequest webSocketRequest) throws ParserConfigurationException, TransformerException, URISyntaxException, MalformedURLException {
+        conversionMetrics.startPhase(ConversionMetrics.K_PHASE_RECORD_BUILD);
         Har2TestResultsXml har2TestResultsXml = new Har2TestResultsXml();
-        Document jmxDocument = har2TestResultsXml.convertHarToTestResultXml(har, urlFilterToInclude, urlFilterToExclude, samplerStartNumber, webSocketRequest);
-
-        XmlJmx.saveXmFile(jmxDocument, jmxXmlOutFile);
+        har2TestResultsXml.setIndexedHarReader(indexedHarReader);
+        har2TestResultsXml.setConversionMetrics(conversionMetrics);
+        har2TestResultsXml.setConversionCheckpoint(conversionCheckpoint);
+        har2TestResultsXml.setSkipEntryErrors(convertorOptions.isSkipEntryErrors());
+        har2TestResultsXml.setCollapsedHops(mapCollapsedHops);
+        if (conversionCheckpoint != null) {
+            // the checkpoints save the partial document, the samples stay in the document until the end
+            Document jmxDocument = har2TestResultsXml.convertHarToTestResultXml(har, urlFilterToInclude, urlFilterToExclude, samplerStartNumber, webSocketRequest);
+
+            conversionMetrics.startPhase(ConversionMetrics.K_PHASE_RECORD_SAVE);
+            conversionMetrics.setRecordBytesWritten(XmlJmx.saveXmFileWithSize(jmxDocument, jmxXmlOutFile));
+        } else {
+            // the samples are written during the creation, the heap does not grow with the number of samples
+            try (RecordXmlWriter recordXmlWriter = new RecordXmlWriter(jmxXmlOutFile)) {
+                har2TestResultsXml.setRecordXmlWriter(recordXmlWriter);
+                Document jmxDocument = har2TestResultsXml.convertHarToTestResultXml(har, urlFilterToInclude, urlFilterToExclude, samplerStartNumber, webSocketRequest);
+
+                conversionMetrics.startPhase(ConversionMetrics.K_PHASE_RECORD_SAVE);
+                conversionMetrics.setRecordBytesWritten(recordXmlWriter.finish(jmxDocument.getDocumentElement()));
+            } catch (IOException e) {
+                throw new TransformerException(e);
+            }
+        }
+        conversionMetrics.endPhase();
 
     }
 
@@ -408,6 +1488,7 @@ public class HarForJMeter {
      * @return HarPostData modified with file information and others parameters
      */
     public static HarPostData extractParamsFromMultiPart(HarRequest harRequest) {
+        Object multiPartEvent = ConversionEvents.beginMultiPart();
         HarPostData harPostData = harRequest.getPostData();
         String mimeType =  harPostData.getMimeType(); // "multipart/form-data; boundary=---------------------------57886876840140655003344272961"
 
@@ -451,6 +1532,7 @@ public class HarForJMeter {
             listParams.add(harPostDataParam);
         }
         harPostDataModified.setParams(listParams);
+        ConversionEvents.commitMultiPart(multiPartEvent, harRequest.getUrl(), (text != null ? text.length() : 0), tabParams.length);
         return harPostDataModified;
     }
 
@@ -465,11 +1547,11 @@ public class HarForJMeter {
         options.addOption(helpOpt);
 
         Option harFileInOpt = Option.builder(K_HAR_IN_OPT).argName(K_HAR_IN_OPT).hasArg(true)
-                .required(true).desc("Har file to read (e.g : my_file.har)").build();
+                .required(true).desc("Har file to read (e.g : my_file.har), could be gzip (my_file.har.gz), zstd (my_file.har.zst) or zip with one or more har files, '-' to read the standard input").build();
         options.addOption(harFileInOpt);
 
         Option jmeterFileOutOpt = Option.builder(K_JMETER_FILE_OUT_OPT).argName(K_JMETER_FILE_OUT_OPT).hasArg(true)
-                .required(true).desc("JMeter file created to write (e.g : script.jmx)").build();
+                .required(true).desc("JMeter file created to write (e.g : script.jmx), '-' to write to the standard output").build();
         options.addOption(jmeterFileOutOpt);
 
         Option createNewTcOpt = Option.builder(K_CREATE_NEW_TC_AFTER_MS_OPT).argName(K_CREATE_NEW_TC_AFTER_MS_OPT).hasArg(true)
@@ -510,7 +1592,7 @@ public class HarForJMeter {
 
         Option recordFileOutOpt = Option.builder(K_RECORD_FILE_OUT_OPT).argName(K_RECORD_FILE_OUT_OPT).hasArg(true)
                 .required(false)
-                .desc("Optional, file xml contains exchanges likes recorded by JMeter")
+                .desc("Optional, file xml contains exchanges likes recorded by JMeter, '-' to write to the standard output (jmx_out must be a file)")
                 .build();
         options.addOption(recordFileOutOpt);
 
@@ -556,6 +1638,216 @@ public class HarForJMeter {
                 .desc("Remove a list of headers (comma separator, case insensitive), e.g:User-Agent,Pragma,X-TOKEN")
                 .build();
         options.addOption(removeHeardersOpt);
+
+        Option harIndexOpt = Option.builder(K_HAR_INDEX_OPT).argName(K_HAR_INDEX_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional boolean, use an index file (har_in + .idx, created if not exists) to read the har file by entry and load the response content only for the record_out file, for large har file (default false)")
+                .build();
+        options.addOption(harIndexOpt);
+
+        Option timeWindowStartOpt = Option.builder(K_TIME_WINDOW_START_OPT).argName(K_TIME_WINDOW_START_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, read with the index only the entries started at or after this date time (ISO 8601), plain har file only, e.g: 2024-05-07T07:56:40.000Z (default no start)")
+                .build();
+        options.addOption(timeWindowStartOpt);
+
+        Option timeWindowEndOpt = Option.builder(K_TIME_WINDOW_END_OPT).argName(K_TIME_WINDOW_END_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, read with the index only the entries started at or before this date time (ISO 8601), plain har file only, e.g: 2024-05-07T08:10:00.000+02:00 (default no end)")
+                .build();
+        options.addOption(timeWindowEndOpt);
+
+        Option parseThreadsOpt = Option.builder(K_PARSE_THREADS_OPT).argName(K_PARSE_THREADS_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, number of threads to read the entries of the har file in parallel, for large har file, e.g: 4 (default 0, one thread)")
+                .build();
+        options.addOption(parseThreadsOpt);
+
+        Option autoEngineOpt = Option.builder(K_AUTO_ENGINE_OPT).argName(K_AUTO_ENGINE_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional boolean, pre-scan the har file (size, entries, response bodies) to estimate the heap and choose the engine : in memory, parallel (large file, several cores) or streaming with the index (the har does not fit in the heap), fail fast if the har does not fit in the heap (default false)")
+                .build();
+        options.addOption(autoEngineOpt);
+
+        Option maxHarMbOpt = Option.builder(K_MAX_HAR_MB_OPT).argName(K_MAX_HAR_MB_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, fail fast if the har file is larger than this size in MB (default 0, no limit)")
+                .build();
+        options.addOption(maxHarMbOpt);
+
+        Option maxEntriesOpt = Option.builder(K_MAX_ENTRIES_OPT).argName(K_MAX_ENTRIES_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, fail fast if the har file contains more entries, the entries are counted by a pre-scan of the file (default 0, no limit)")
+                .build();
+        options.addOption(maxEntriesOpt);
+
+        Option metricsOutOpt = Option.builder(K_METRICS_OUT_OPT).argName(K_METRICS_OUT_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, JSON file to write the metrics of the conversion : wall time, cpu time, allocated bytes and peak heap by phase, number of entries read, filtered, cached, skipped and bytes written (e.g : metrics.json)")
+                .build();
+        options.addOption(metricsOutOpt);
+
+        Option progressIntervalOpt = Option.builder(K_PROGRESS_INTERVAL_OPT).argName(K_PROGRESS_INTERVAL_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, interval in seconds to log the progress of the conversion : phase, bytes read, entries by second, current page and ETA of the phase (default 0, no progress, 5 if progress_file is set)")
+                .build();
+        options.addOption(progressIntervalOpt);
+
+        Option progressFileOpt = Option.builder(K_PROGRESS_FILE_OPT).argName(K_PROGRESS_FILE_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, JSON status file written at each progress interval instead of the log, for an orchestrator (e.g : progress.json)")
+                .build();
+        options.addOption(progressFileOpt);
+
+        Option topEntriesOutOpt = Option.builder(K_TOP_ENTRIES_OUT_OPT).argName(K_TOP_ENTRIES_OUT_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, JSON file to write the top entries by conversion time and by allocated bytes with the url, mime type and body sizes, the report is also logged, to find the pathological HAR content (e.g : top_entries.json)")
+                .build();
+        options.addOption(topEntriesOutOpt);
+
+        Option topEntriesOpt = Option.builder(K_TOP_ENTRIES_OPT).argName(K_TOP_ENTRIES_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, number of entries in the top entries report (default 20)")
+                .build();
+        options.addOption(topEntriesOpt);
+
+        Option prometheusOutOpt = Option.builder(K_PROMETHEUS_OUT_OPT).argName(K_PROMETHEUS_OUT_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, Prometheus text file updated after each conversion : conversions started, completed and failed, phase duration histograms, entries by second, queue depth, bytes in and out, for the node_exporter textfile collector (e.g : har_converter.prom)")
+                .build();
+        options.addOption(prometheusOutOpt);
+
+        Option prometheusPortOpt = Option.builder(K_PROMETHEUS_PORT_OPT).argName(K_PROMETHEUS_PORT_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, http port of the Prometheus endpoint /metrics during the conversion, e.g: 9400 (default 0, no endpoint). The metrics are also in the MBean " + ConverterStats.K_OBJECT_NAME)
+                .build();
+        options.addOption(prometheusPortOpt);
+
+        Option skipEntryErrorsOpt = Option.builder(K_SKIP_ENTRY_ERRORS_OPT).argName(K_SKIP_ENTRY_ERRORS_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, an entry in error (e.g: invalid url) is logged and skipped, false to stop the conversion at the first entry in error (default true)")
+                .build();
+        options.addOption(skipEntryErrorsOpt);
+
+        Option checkpointDirOpt = Option.builder(K_CHECKPOINT_DIR_OPT).argName(K_CHECKPOINT_DIR_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, directory to save the checkpoints of the conversion (position, counters and partial xml), an interrupted conversion started again with the same parameters resumes from the last checkpoint (e.g : checkpoint)")
+                .build();
+        options.addOption(checkpointDirOpt);
+
+        Option checkpointIntervalOpt = Option.builder(K_CHECKPOINT_INTERVAL_OPT).argName(K_CHECKPOINT_INTERVAL_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, minimum interval in seconds between 2 checkpoints, a checkpoint is saved at the end of a page for the jmx and at the end of an entry for the record file (default 60)")
+                .build();
+        options.addOption(checkpointIntervalOpt);
+
+        Option hoistCommonHeadersOpt = Option.builder(K_HOIST_COMMON_HEADERS_OPT).argName(K_HOIST_COMMON_HEADERS_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional boolean, move the headers with the same name and value in all the samplers to a HeaderManager in the Thread Group (or in the Transaction Controller), the samplers keep only the headers that differ, smaller script and JMeter memory (default false)")
+                .build();
+        options.addOption(hoistCommonHeadersOpt);
+
+        Option parallelRequestsOpt = Option.builder(K_PARALLEL_REQUESTS_OPT).argName(K_PARALLEL_REQUESTS_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional boolean, the requests of a page sent in parallel by the browser (overlapping in time in the HAR) are grouped in a 'bzm - Parallel Controller' by host with the peak of concurrent requests of the host as max threads, need the JMeter plugin bzm-parallel (default false)")
+                .build();
+        options.addOption(parallelRequestsOpt);
+
+        Option slaFactorOpt = Option.builder(K_SLA_FACTOR_OPT).argName(K_SLA_FACTOR_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional double, set the connect timeout, the response timeout and a Duration Assertion on each sampler from the times recorded in the HAR multiplied by this factor, e.g: 3 (default 0 = no timeout and no assertion)")
+                .build();
+        options.addOption(slaFactorOpt);
+
+        Option slaPercentileOpt = Option.builder(K_SLA_PERCENTILE_OPT).argName(K_SLA_PERCENTILE_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional int, the percentile of the recorded times (the HAR and the baseline HAR files) used with " + K_SLA_FACTOR_OPT + " (default 90)")
+                .build();
+        options.addOption(slaPercentileOpt);
+
+        Option slaBaselineHarOpt = Option.builder(K_SLA_BASELINE_HAR_OPT).argName(K_SLA_BASELINE_HAR_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, other recordings of the same journey (HAR files separated by a comma) to compute the percentile of the recorded times with " + K_SLA_FACTOR_OPT + " (default empty)")
+                .build();
+        options.addOption(slaBaselineHarOpt);
+
+        Option thinkTimeOpt = Option.builder(K_THINK_TIME_OPT).argName(K_THINK_TIME_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, the pauses between the pages : recorded (the exact recorded pause), constant, uniform, gaussian or poisson (a timer computed from the recorded pauses, scaled with the JMeter property " + ThinkTimeModeler.K_FACTOR_PROPERTY + ") (default recorded)")
+                .build();
+        options.addOption(thinkTimeOpt);
+
+        Option thinkTimeMaxOpt = Option.builder(K_THINK_TIME_MAX_OPT).argName(K_THINK_TIME_MAX_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional long, with " + K_THINK_TIME_OPT + " the maximum think time in milliseconds, a longer recorded pause is clamped (default 0 = computed to remove the outliers)")
+                .build();
+        options.addOption(thinkTimeMaxOpt);
+
+        Option thinkTimeBaselineHarOpt = Option.builder(K_THINK_TIME_BASELINE_HAR_OPT).argName(K_THINK_TIME_BASELINE_HAR_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, with " + K_THINK_TIME_OPT + " other recordings of the same journey (HAR files separated by a comma) to compute the think time before each page (default empty)")
+                .build();
+        options.addOption(thinkTimeBaselineHarOpt);
+
+        Option workloadTargetRpsOpt = Option.builder(K_WORKLOAD_TARGET_RPS_OPT).argName(K_WORKLOAD_TARGET_RPS_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional double, the target load in requests per second, log the workload of one virtual user (requests/s, KB/s, request mix by host) and the injector sizing, set the Thread Group and add a 'jp@gc - Throughput Shaping Timer', need the JMeter plugin jpgc-tst (default 0 = no workload model)")
+                .build();
+        options.addOption(workloadTargetRpsOpt);
+
+        Option workloadRampUpOpt = Option.builder(K_WORKLOAD_RAMP_UP_OPT).argName(K_WORKLOAD_RAMP_UP_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional int, with " + K_WORKLOAD_TARGET_RPS_OPT + " the ramp-up to the target load in seconds (default 60)")
+                .build();
+        options.addOption(workloadRampUpOpt);
+
+        Option workloadDurationOpt = Option.builder(K_WORKLOAD_DURATION_OPT).argName(K_WORKLOAD_DURATION_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional int, with " + K_WORKLOAD_TARGET_RPS_OPT + " the duration at the target load in seconds after the ramp-up (default 600)")
+                .build();
+        options.addOption(workloadDurationOpt);
+
+        Option mergeSessionsOpt = Option.builder(K_MERGE_SESSIONS_OPT).argName(K_MERGE_SESSIONS_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional boolean, for a zip with several HAR files (one HAR by user session), create one script with a Thread Group by session started at the recorded start of the session to replay the arrivals and the concurrency of the sessions (default false = one script by HAR)")
+                .build();
+        options.addOption(mergeSessionsOpt);
+
+        Option journeyWeightsOpt = Option.builder(K_JOURNEY_WEIGHTS_OPT).argName(K_JOURNEY_WEIGHTS_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, for a zip with several HAR files (one HAR by journey), the weight of each HAR (e.g: browse.har=60,search.har=30,checkout.har=10), create one script with a Thread Group and a Throughput Controller by journey with the percent of the weight, the HAR without weight are not converted (default empty = one script by HAR)")
+                .build();
+        options.addOption(journeyWeightsOpt);
+
+        Option compressPollingOpt = Option.builder(K_COMPRESS_POLLING_OPT).argName(K_COMPRESS_POLLING_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional boolean, the runs of " + PollingRunCompressor.K_MIN_RUN_LENGTH + " or more consecutive equivalent requests (same method, url, body and headers, e.g: polling GET /api/status) are collapsed in a Loop Controller with one sampler followed by a Flow Control Action with the recorded polling interval (default false)")
+                .build();
+        options.addOption(compressPollingOpt);
+
+        Option dedupSequencesOpt = Option.builder(K_DEDUP_SEQUENCES_OPT).argName(K_DEDUP_SEQUENCES_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional boolean, the Transaction Controllers with the same sequence of requests (e.g: open a document many times in a long session) call one Test Fragment with a Module Controller, smaller script loaded faster by JMeter (default false)")
+                .build();
+        options.addOption(dedupSequencesOpt);
+
+        Option collapseRedirectsOpt = Option.builder(K_COLLAPSE_REDIRECTS_OPT).argName(K_COLLAPSE_REDIRECTS_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional boolean, a redirect chain (status 301, 302, 303, 307 or 308 with the redirectURL or Location header and the request of the redirect url) is one sampler that follows the redirects, the hops are sub-results in the record file (default false)")
+                .build();
+        options.addOption(collapseRedirectsOpt);
+
+        Option jfrOutOpt = Option.builder(K_JFR_OUT_OPT).argName(K_JFR_OUT_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, JDK Flight Recorder file to write with the profile settings and the conversion events (har load, page, entry, multipart, base64, xml save), to open with JDK Mission Control (e.g : conversion.jfr)")
+                .build();
+        options.addOption(jfrOutOpt);
+
+        Option jfrSlowEntryOpt = Option.builder(K_JFR_SLOW_ENTRY_MS_OPT).argName(K_JFR_SLOW_ENTRY_MS_OPT).hasArg(true)
+                .required(false)
+                .desc("Optional, only the entries slower than this threshold in milliseconds are recorded in the jfr file (entry, multipart and base64 events), 0 for all entries (default 20)")
+                .build();
+        options.addOption(jfrSlowEntryOpt);
         return options;
     }
 
@@ -644,6 +1936,146 @@ public class HarForJMeter {
             properties.setProperty(K_REMOVE_HEADERS_OPT, line.getOptionValue(K_REMOVE_HEADERS_OPT));
         }
 
+        if (line.hasOption(K_HAR_INDEX_OPT)) {
+            properties.setProperty(K_HAR_INDEX_OPT, line.getOptionValue(K_HAR_INDEX_OPT));
+        }
+
+        if (line.hasOption(K_TIME_WINDOW_START_OPT)) {
+            properties.setProperty(K_TIME_WINDOW_START_OPT, line.getOptionValue(K_TIME_WINDOW_START_OPT));
+        }
+
+        if (line.hasOption(K_TIME_WINDOW_END_OPT)) {
+            properties.setProperty(K_TIME_WINDOW_END_OPT, line.getOptionValue(K_TIME_WINDOW_END_OPT));
+        }
+
+        if (line.hasOption(K_PARSE_THREADS_OPT)) {
+            properties.setProperty(K_PARSE_THREADS_OPT, line.getOptionValue(K_PARSE_THREADS_OPT));
+        }
+
+        if (line.hasOption(K_AUTO_ENGINE_OPT)) {
+            properties.setProperty(K_AUTO_ENGINE_OPT, line.getOptionValue(K_AUTO_ENGINE_OPT));
+        }
+
+        if (line.hasOption(K_MAX_HAR_MB_OPT)) {
+            properties.setProperty(K_MAX_HAR_MB_OPT, line.getOptionValue(K_MAX_HAR_MB_OPT));
+        }
+
+        if (line.hasOption(K_MAX_ENTRIES_OPT)) {
+            properties.setProperty(K_MAX_ENTRIES_OPT, line.getOptionValue(K_MAX_ENTRIES_OPT));
+        }
+
+        if (line.hasOption(K_METRICS_OUT_OPT)) {
+            properties.setProperty(K_METRICS_OUT_OPT, line.getOptionValue(K_METRICS_OUT_OPT));
+        }
+
+        if (line.hasOption(K_PROGRESS_INTERVAL_OPT)) {
+            properties.setProperty(K_PROGRESS_INTERVAL_OPT, line.getOptionValue(K_PROGRESS_INTERVAL_OPT));
+        }
+
+        if (line.hasOption(K_PROGRESS_FILE_OPT)) {
+            properties.setProperty(K_PROGRESS_FILE_OPT, line.getOptionValue(K_PROGRESS_FILE_OPT));
+        }
+
+        if (line.hasOption(K_TOP_ENTRIES_OUT_OPT)) {
+            properties.setProperty(K_TOP_ENTRIES_OUT_OPT, line.getOptionValue(K_TOP_ENTRIES_OUT_OPT));
+        }
+
+        if (line.hasOption(K_TOP_ENTRIES_OPT)) {
+            properties.setProperty(K_TOP_ENTRIES_OPT, line.getOptionValue(K_TOP_ENTRIES_OPT));
+        }
+
+        if (line.hasOption(K_PROMETHEUS_OUT_OPT)) {
+            properties.setProperty(K_PROMETHEUS_OUT_OPT, line.getOptionValue(K_PROMETHEUS_OUT_OPT));
+        }
+
+        if (line.hasOption(K_PROMETHEUS_PORT_OPT)) {
+            properties.setProperty(K_PROMETHEUS_PORT_OPT, line.getOptionValue(K_PROMETHEUS_PORT_OPT));
+        }
+
+        if (line.hasOption(K_SKIP_ENTRY_ERRORS_OPT)) {
+            properties.setProperty(K_SKIP_ENTRY_ERRORS_OPT, line.getOptionValue(K_SKIP_ENTRY_ERRORS_OPT));
+        }
+
+        if (line.hasOption(K_CHECKPOINT_DIR_OPT)) {
+            properties.setProperty(K_CHECKPOINT_DIR_OPT, line.getOptionValue(K_CHECKPOINT_DIR_OPT));
+        }
+
+        if (line.hasOption(K_CHECKPOINT_INTERVAL_OPT)) {
+            properties.setProperty(K_CHECKPOINT_INTERVAL_OPT, line.getOptionValue(K_CHECKPOINT_INTERVAL_OPT));
+        }
+
+        if (line.hasOption(K_HOIST_COMMON_HEADERS_OPT)) {
+            properties.setProperty(K_HOIST_COMMON_HEADERS_OPT, line.getOptionValue(K_HOIST_COMMON_HEADERS_OPT));
+        }
+
+        if (line.hasOption(K_PARALLEL_REQUESTS_OPT)) {
+            properties.setProperty(K_PARALLEL_REQUESTS_OPT, line.getOptionValue(K_PARALLEL_REQUESTS_OPT));
+        }
+
+        if (line.hasOption(K_SLA_FACTOR_OPT)) {
+            properties.setProperty(K_SLA_FACTOR_OPT, line.getOptionValue(K_SLA_FACTOR_OPT));
+        }
+
+        if (line.hasOption(K_SLA_PERCENTILE_OPT)) {
+            properties.setProperty(K_SLA_PERCENTILE_OPT, line.getOptionValue(K_SLA_PERCENTILE_OPT));
+        }
+
+        if (line.hasOption(K_SLA_BASELINE_HAR_OPT)) {
+            properties.setProperty(K_SLA_BASELINE_HAR_OPT, line.getOptionValue(K_SLA_BASELINE_HAR_OPT));
+        }
+
+        if (line.hasOption(K_THINK_TIME_OPT)) {
+            properties.setProperty(K_THINK_TIME_OPT, line.getOptionValue(K_THINK_TIME_OPT));
+        }
+
+        if (line.hasOption(K_THINK_TIME_MAX_OPT)) {
+            properties.setProperty(K_THINK_TIME_MAX_OPT, line.getOptionValue(K_THINK_TIME_MAX_OPT));
+        }
+
+        if (line.hasOption(K_THINK_TIME_BASELINE_HAR_OPT)) {
+            properties.setProperty(K_THINK_TIME_BASELINE_HAR_OPT, line.getOptionValue(K_THINK_TIME_BASELINE_HAR_OPT));
+        }
+
+        if (line.hasOption(K_WORKLOAD_TARGET_RPS_OPT)) {
+            properties.setProperty(K_WORKLOAD_TARGET_RPS_OPT, line.getOptionValue(K_WORKLOAD_TARGET_RPS_OPT));
+        }
+
+        if (line.hasOption(K_WORKLOAD_RAMP_UP_OPT)) {
+            properties.setProperty(K_WORKLOAD_RAMP_UP_OPT, line.getOptionValue(K_WORKLOAD_RAMP_UP_OPT));
+        }
+
+        if (line.hasOption(K_WORKLOAD_DURATION_OPT)) {
+            properties.setProperty(K_WORKLOAD_DURATION_OPT, line.getOptionValue(K_WORKLOAD_DURATION_OPT));
+        }
+
+        if (line.hasOption(K_MERGE_SESSIONS_OPT)) {
+            properties.setProperty(K_MERGE_SESSIONS_OPT, line.getOptionValue(K_MERGE_SESSIONS_OPT));
+        }
+
+        if (line.hasOption(K_JOURNEY_WEIGHTS_OPT)) {
+            properties.setProperty(K_JOURNEY_WEIGHTS_OPT, line.getOptionValue(K_JOURNEY_WEIGHTS_OPT));
+        }
+
+        if (line.hasOption(K_COMPRESS_POLLING_OPT)) {
+            properties.setProperty(K_COMPRESS_POLLING_OPT, line.getOptionValue(K_COMPRESS_POLLING_OPT));
+        }
+
+        if (line.hasOption(K_DEDUP_SEQUENCES_OPT)) {
+            properties.setProperty(K_DEDUP_SEQUENCES_OPT, line.getOptionValue(K_DEDUP_SEQUENCES_OPT));
+        }
+
+        if (line.hasOption(K_COLLAPSE_REDIRECTS_OPT)) {
+            properties.setProperty(K_COLLAPSE_REDIRECTS_OPT, line.getOptionValue(K_COLLAPSE_REDIRECTS_OPT));
+        }
+
+        if (line.hasOption(K_JFR_OUT_OPT)) {
+            properties.setProperty(K_JFR_OUT_OPT, line.getOptionValue(K_JFR_OUT_OPT));
+        }
+
+        if (line.hasOption(K_JFR_SLOW_ENTRY_MS_OPT)) {
+            properties.setProperty(K_JFR_SLOW_ENTRY_MS_OPT, line.getOptionValue(K_JFR_SLOW_ENTRY_MS_OPT));
+        }
+
         return properties;
     }
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har;
+
+import io.github.vdaburon.jmeter.har.jfr.ConversionEvents;
+import io.github.vdaburon.jmeter.har.metrics.CountingOutputStream;
+
+import org.w3c.dom.Element;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Write the Record.xml file during its creation : the samples of the testResults element are written and removed from the document,
+ * the heap does not grow with the number of samples. The file is the same as the file saved with XmlJmx.saveXmFile.
+ */
+public class RecordXmlWriter implements Closeable {
+
+    private final String recordXmlOut;
+    private final CountingOutputStream countingOut;
+    private final Writer out;
+    private final Transformer transformer;
+    private final Object xmlSaveEvent;
+    private String footer = null; // the end tag of testResults, null if no sample written
+
+    /**
+     * Open the Record.xml file
+     * @param recordXmlOut the file to write or '-' for the standard output
+     * @throws IOException can't create the file
+     */
+    public RecordXmlWriter(String recordXmlOut) throws IOException {
+        this.recordXmlOut = recordXmlOut;
+        try {
+            transformer = TransformerFactory.newInstance().newTransformer();
+        } catch (TransformerException e) {
+            throw new IOException(e);
+        }
+        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        xmlSaveEvent = ConversionEvents.beginXmlSave();
+        // the standard output is flushed but not closed, the logs are in the standard error
+        countingOut = new CountingOutputStream(HarForJMeter.K_STANDARD_IN_OUT.equals(recordXmlOut) ? System.out : new FileOutputStream(recordXmlOut));
+        out = new BufferedWriter(new OutputStreamWriter(countingOut, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write the samples of the testResults element and remove them from the document
+     * @param eltTestResults the testResults element with the samples not written yet
+     * @throws TransformerException error when write the samples
+     */
+    public void writeSamples(Element eltTestResults) throws TransformerException {
+        if (!eltTestResults.hasChildNodes()) {
+            return;
+        }
+        String text = serialize(eltTestResults);
+        // the samples are between the start tag and the end tag of testResults, the indentation is the same as for the whole document
+        int startTagEnd = text.indexOf('>', text.indexOf("<testResults")) + 1;
+        int samplesStart = startTagEnd;
+        while (samplesStart < text.length() && (text.charAt(samplesStart) == '\r' || text.charAt(samplesStart) == '\n')) {
+            samplesStart++;
+        }
+        int samplesEnd = text.lastIndexOf("</testResults>");
+        try {
+            out.write(text, (footer == null ? 0 : samplesStart), samplesEnd - (footer == null ? 0 : samplesStart));
+        } catch (IOException e) {
+            throw new TransformerException(e);
+        }
+        footer = text.substring(samplesEnd);
+        while (eltTestResults.getLastChild() != null) {
+            eltTestResults.removeChild(eltTestResults.getLastChild());
+        }
+    }
+
+    /**
+     * Write the last samples and the end of the file
+     * @param eltTestResults the testResults element with the samples not written yet
+     * @return the number of bytes written
+     * @throws TransformerException error when write the file
+     */
+    public long finish(Element eltTestResults) throws TransformerException {
+        try {
+            if (footer == null && !eltTestResults.hasChildNodes()) {
+                out.write(serialize(eltTestResults)); // no sample, an empty testResults element
+            } else {
+                writeSamples(eltTestResults);
+                out.write(footer);
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new TransformerException(e);
+        }
+        ConversionEvents.commitXmlSave(xmlSaveEvent, recordXmlOut, countingOut.getCount());
+        return countingOut.getCount();
+    }
+
+    private String serialize(Element eltTestResults) throws TransformerException {
+        if (eltTestResults.getParentNode() == null) {
+            eltTestResults.getOwnerDocument().appendChild(eltTestResults);
+        }
+        StringWriter stringWriter = new StringWriter();
+        transformer.transform(new DOMSource(eltTestResults.getOwnerDocument()), new StreamResult(stringWriter));
+        return stringWriter.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (HarForJMeter.K_STANDARD_IN_OUT.equals(recordXmlOut)) {
+            out.flush();
+        } else {
+            out.close();
+        }
+    }
+}
@@ -27,14 +27,20 @@ import de.sstoehr.harreader.model.HarQueryParam;
 import de.sstoehr.harreader.model.HarRequest;
 import de.sstoehr.harreader.model.HttpMethod;
 
+import io.github.vdaburon.jmeter.har.checkpoint.ConversionCheckpoint;
 import io.github.vdaburon.jmeter.har.common.TransactionInfo;
+import io.github.vdaburon.jmeter.har.jfr.ConversionEvents;
 import io.github.vdaburon.jmeter.har.lrwr.ManageLrwr;
+import io.github.vdaburon.jmeter.har.metrics.ConversionMetrics;
+import io.github.vdaburon.jmeter.har.metrics.CountingOutputStream;
 import io.github.vdaburon.jmeter.har.websocket.WebSocketPDoornboschXmlJmx;
 import io.github.vdaburon.jmeter.har.websocket.WebSocketRequest;
 
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -48,6 +54,7 @@ import javax.xml.transform.stream.StreamResult;
 
 import java.io.BufferedWriter;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.net.URI;
@@ -58,6 +65,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -75,8 +83,34 @@ public class XmlJmx {
     private static final String K_JMETER_VERSION = "5.6.3";
     private static final String K_THREAD_GROUP_NAME = "Thead Group HAR Imported";
     private static final String K_VIEW_RESULT_TREE_COMMENT = "For The Recording XML File Created";
+    public static final String K_USER_DATA_HAR_ENTRY = "harEntry"; // the HarEntry of a HTTPSamplerProxy, for the script optimization passes
+    private static final String K_ATTRIBUTE_HAR_ENTRY_INDEX = "harEntryIndex"; // the index of the HarEntry, saved in the checkpoint partial document only
+    private static final String K_CHECKPOINT_PAGE_NUM = "pageNum";
+    private static final String K_CHECKPOINT_SAMPLER_NUM = "httpSamplernum";
+    private static final String K_CHECKPOINT_TIME_PAGE_BEFORE = "timePageBefore";
     private static final Logger LOGGER = Logger.getLogger(XmlJmx.class.getName());
 
+    private ConversionMetrics conversionMetrics = new ConversionMetrics();
+    private ConversionCheckpoint conversionCheckpoint = null; // null = no checkpoint
+    private boolean isSkipEntryErrors = true; // false = an entry in error stops the conversion
+    private boolean isKeepHarEntries = false; // true = each HTTPSamplerProxy keeps its HarEntry as user data, not saved in the file
+
+    public void setConversionMetrics(ConversionMetrics conversionMetrics) {
+        this.conversionMetrics = conversionMetrics;
+    }
+
+    public void setConversionCheckpoint(ConversionCheckpoint conversionCheckpoint) {
+        this.conversionCheckpoint = conversionCheckpoint;
+    }
+
+    public void setSkipEntryErrors(boolean skipEntryErrors) {
+        isSkipEntryErrors = skipEntryErrors;
+    }
+
+    public void setKeepHarEntries(boolean keepHarEntries) {
+        isKeepHarEntries = keepHarEntries;
+    }
+
     protected Document convertHarToJmxXml(Har har, long createNewTransactionAfterRequestMs, boolean isAddPause, boolean isRemoveCookie, boolean isRemoveCacheRequest, String urlFilterToInclude, String urlFilterToExclude, int pageStartNumber, int samplerStartNumber, List<TransactionInfo> listTransactionInfo, boolean isAddViewTreeForRecord, WebSocketRequest webSocketRequest, String recordXmlOut, String removeHeaders) throws ParserConfigurationException, URISyntaxException {
 
         Pattern patternUrlInclude = null;
@@ -178,7 +212,35 @@ public class XmlJmx {
         }
         int pageNum = pageStartNumber;
         int httpSamplernum = samplerStartNumber;
-        for (int p = 0; p < lPages.size(); p++) {
+        int pageFirst = 0;
+        if (conversionCheckpoint != null && conversionCheckpoint.isResume(ConversionCheckpoint.K_STAGE_JMX)) {
+            // the pages before the checkpoint are in the partial document, continue with the next page
+            try {
+                Document documentPartial = conversionCheckpoint.loadPartialDocument();
+                Element hashPartial = (documentPartial != null ? findHashTreeAfterThreadGroup(documentPartial) : null);
+                if (hashPartial == null) {
+                    throw new IOException("No ThreadGroup in the partial document");
+                }
+                document = documentPartial;
+                hashAfterThreadGroup = hashPartial;
+                if (isKeepHarEntries) {
+                    attachHarEntries(document, har.getLog().getEntries());
+                }
+                pageFirst = conversionCheckpoint.getResumePosition();
+                pageNum = (int) conversionCheckpoint.getResumeValue(K_CHECKPOINT_PAGE_NUM, pageNum);
+                httpSamplernum = (int) conversionCheckpoint.getResumeValue(K_CHECKPOINT_SAMPLER_NUM, httpSamplernum);
+                timePageBefore = conversionCheckpoint.getResumeValue(K_CHECKPOINT_TIME_PAGE_BEFORE, timePageBefore);
+                conversionCheckpoint.restoreCounters(conversionMetrics);
+                LOGGER.info("Resume the JMX creation at the page : " + (pageFirst + 1) + "/" + lPages.size());
+            } catch (IOException ex) {
+                LOGGER.warning("Can't resume from the checkpoint, the JMX creation starts from the first page, exception : " + ex);
+                conversionCheckpoint.cancelResume();
+            }
+        }
+        for (int p = pageFirst; p < lPages.size(); p++) {
+            Object pageEvent = ConversionEvents.beginPage();
+            int pageFirstSamplerNum = httpSamplernum;
+            conversionMetrics.setCurrentPage(p + 1);
             HarPage pageInter = lPages.get(p);
             String pageId = pageInter.getId();
             String pageTitle = "";
@@ -233,6 +295,7 @@ public class XmlJmx {
                 long timeBetween2Requests = timeRequestStarted - timeRequestBefore;
                 String pageref = harEntryInter.getPageref();
                 if ((pageref != null && pageref.equals(pageId)) || isNoPage) {
+                    conversionMetrics.incEntriesProcessed();
                     HarRequest harRequest = harEntryInter.getRequest();
                     currentUrl = harRequest.getUrl();
 
@@ -249,6 +312,9 @@ public class XmlJmx {
                         Matcher matcher = patternUrlExclude.matcher(currentUrl);
                         isAddThisRequest = !matcher.find();
                     }
+                    if (!isAddThisRequest) {
+                        conversionMetrics.incEntriesFiltered();
+                    }
 
                     HashMap hAddictional = (HashMap<String, Object>) harEntryInter.getAdditional();
                     if (isAddThisRequest && hAddictional != null) {
@@ -256,111 +322,194 @@ public class XmlJmx {
                         if (fromCache != null) {
                             // this url content is in the browser cache (memory or disk) no need to create a new request
                             isAddThisRequest = false;
+                            conversionMetrics.incEntriesCached();
                         }
                     }
 
                     if (isAddThisRequest) {
-                        URI url = new URI(harRequest.getUrl());
-                        String samplerLabel = String.format("%03d " + url.getPath(), httpSamplernum); // 003 /gestdocqualif/servletStat
-                        httpSamplernum++;
-                        String sUrl = harRequest.getUrl();
-                        String startUrl = sUrl.substring(0, Math.min(2, sUrl.length())); // ht or ws
-
-                        if ("da".equalsIgnoreCase(startUrl)) { //data
-                            // jmeter don't support data:image protocole
-                            continue;
-                        }
-
-                        Element sampler = null;
-                        boolean isWebSocket = false;
-                        if ("ws".equalsIgnoreCase(startUrl) && webSocketRequest != null) { // ws or wss
-                            // WebSocket
-                            URI pageUrlFromRequest = new URI(harRequest.getUrl());
-                            String tcNameFromRequest = String.format("PAGE_%02d - WebSocket " + pageUrlFromRequest.getPath(), pageNum); // PAGE_03 - /gestdocqualif/servletStat
-                            pageNum++;
-                            Element eltTransactionControllerNew = createTransactionController(document, tcNameFromRequest);
-                            hashTreeAfterTc = createHashTree(document);
-                            httpSamplernum = WebSocketPDoornboschXmlJmx.createWebSocketPDoornboschTree(document, hashTreeAfterTc, samplerLabel, scheme, host, iPort, httpSamplernum, webSocketRequest);
+                        // the state before this entry, to remove the entry if in error
+                        int httpSamplernumBefore = httpSamplernum;
+                        int pageNumBefore = pageNum;
+                        String pageTitleBefore = pageTitle;
+                        TransactionInfo transactionInfoBefore = transactionInfo;
+                        long timeRequestBeforeEntry = timeRequestBefore;
+                        Element hashTreeAfterTcBefore = hashTreeAfterTc;
+                        Node lastChildThreadGroup = hashAfterThreadGroup.getLastChild();
+                        Node lastChildTc = hashTreeAfterTc.getLastChild();
+                        try {
+                            Object entryEvent = ConversionEvents.beginEntry();
+                            conversionMetrics.beginEntryCost();
+                            URI url = new URI(harRequest.getUrl());
+                            String samplerLabel = String.format("%03d " + url.getPath(), httpSamplernum); // 003 /gestdocqualif/servletStat
                             httpSamplernum++;
-                            hashAfterThreadGroup.appendChild(eltTransactionControllerNew);
-                            hashAfterThreadGroup.appendChild(hashTreeAfterTc);
+                            String sUrl = harRequest.getUrl();
+                            String startUrl = sUrl.substring(0, Math.min(2, sUrl.length())); // ht or ws
 
-                            continue; // websocket and messages was added finish for this sampler
-
-                        } else {
-                            sampler = createHttpSamplerProxy(document, samplerLabel, scheme, host, iPort, harRequest);
-                        }
-                        boolean isCreateNewTcFromTransactionInfo = false;
-                        if (listTransactionInfo != null) {
-                            // Do we have a page or sub page from lrwr Transaction or external cv file transaction info ?
-                            Date dateEntryStartedDateTime = harEntryInter.getStartedDateTime();
-                            String entryStartedDateTime = Utils.dateToIsoFormat(dateEntryStartedDateTime);
-                            TransactionInfo transactionInfo2 = ManageLrwr.getTransactionInfoAroundDateTime(entryStartedDateTime,listTransactionInfo);
-                            if (transactionInfo2 != null) {
-                                isCreateNewTcFromTransactionInfo = true;
-
-                                if (transactionInfo !=null) {
-                                    if (transactionInfo2.getBeginDateTime().equals(transactionInfo.getBeginDateTime())) {
-                                        // same transaction because the same begin timestamp, do nothing
-                                        isCreateNewTcFromTransactionInfo = false;
-                                    } else {
-                                        isCreateNewTcFromTransactionInfo = true;
-                                    }
-                                }
-
-                                if (isCreateNewTcFromTransactionInfo) {
-                                        pageTitle = transactionInfo2.getName();
-                                        LOGGER.info("Set the page title with the transaction name: " + pageTitle);
-                                        String tcNameFromRequest = String.format("PAGE_%02d - " + pageTitle, pageNum);
-                                        transactionInfo = transactionInfo2;
-                                        pageNum++;
-                                        Element eltTransactionControllerNew = createTransactionController(document, tcNameFromRequest);
-                                        hashAfterThreadGroup.appendChild(eltTransactionControllerNew);
-                                        hashTreeAfterTc = createHashTree(document);
-                                        hashAfterThreadGroup.appendChild(hashTreeAfterTc);
-                                }
+                            if ("da".equalsIgnoreCase(startUrl)) { //data
+                                // jmeter don't support data:image protocole
+                                conversionMetrics.incEntriesSkipped();
+                                continue;
                             }
-                        }
 
-                        if (isCreateNewTransactionAfterRequestMs && timeBetween2Requests > createNewTransactionAfterRequestMs) {
-                            if (isAddPause) {
-                                Element eltTestAction = createTestActionPause(document, "Flow Control Action PAUSE", timeBetween2Requests);
-                                hashAfterThreadGroup.appendChild(eltTestAction);
-                                Element hashAfterTestAction = createHashTree(document);
-                                hashAfterThreadGroup.appendChild(hashAfterTestAction);
-                            }
-
-                            if (!isCreateNewTcFromTransactionInfo) {
+                            Element sampler = null;
+                            boolean isWebSocket = false;
+                            if ("ws".equalsIgnoreCase(startUrl) && webSocketRequest != null) { // ws or wss
+                                // WebSocket
                                 URI pageUrlFromRequest = new URI(harRequest.getUrl());
-                                String tcNameFromRequest = String.format("PAGE_%02d - " + pageUrlFromRequest.getPath(), pageNum); // PAGE_03 - /gestdocqualif/servletStat
+                                String tcNameFromRequest = String.format("PAGE_%02d - WebSocket " + pageUrlFromRequest.getPath(), pageNum); // PAGE_03 - /gestdocqualif/servletStat
                                 pageNum++;
                                 Element eltTransactionControllerNew = createTransactionController(document, tcNameFromRequest);
-                                hashAfterThreadGroup.appendChild(eltTransactionControllerNew);
                                 hashTreeAfterTc = createHashTree(document);
+                                httpSamplernum = WebSocketPDoornboschXmlJmx.createWebSocketPDoornboschTree(document, hashTreeAfterTc, samplerLabel, scheme, host, iPort, httpSamplernum, webSocketRequest);
+                                httpSamplernum++;
+                                hashAfterThreadGroup.appendChild(eltTransactionControllerNew);
                                 hashAfterThreadGroup.appendChild(hashTreeAfterTc);
+                                ConversionEvents.commitEntry(entryEvent, ConversionEvents.K_STAGE_JMX, e, harEntryInter);
+                                conversionMetrics.endEntryCost(e);
+
+                                continue; // websocket and messages was added finish for this sampler
+
+                            } else {
+                                sampler = createHttpSamplerProxy(document, samplerLabel, scheme, host, iPort, harRequest);
+                                if (isKeepHarEntries) {
+                                    sampler.setUserData(K_USER_DATA_HAR_ENTRY, harEntryInter, null);
+                                    if (conversionCheckpoint != null) {
+                                        // the user data is not saved in the partial document, the index is saved to attach the entry again on resume
+                                        sampler.setAttribute(K_ATTRIBUTE_HAR_ENTRY_INDEX, String.valueOf(e));
+                                    }
+                                }
                             }
-                        }
-                        timeRequestBefore = timeRequestStarted;
+                            boolean isCreateNewTcFromTransactionInfo = false;
+                            if (listTransactionInfo != null) {
+                                // Do we have a page or sub page from lrwr Transaction or external cv file transaction info ?
+                                Date dateEntryStartedDateTime = harEntryInter.getStartedDateTime();
+                                String entryStartedDateTime = Utils.dateToIsoFormat(dateEntryStartedDateTime);
+                                TransactionInfo transactionInfo2 = ManageLrwr.getTransactionInfoAroundDateTime(entryStartedDateTime,listTransactionInfo);
+                                if (transactionInfo2 != null) {
+                                    isCreateNewTcFromTransactionInfo = true;
+
+                                    if (transactionInfo !=null) {
+                                        if (transactionInfo2.getBeginDateTime().equals(transactionInfo.getBeginDateTime())) {
+                                            // same transaction because the same begin timestamp, do nothing
+                                            isCreateNewTcFromTransactionInfo = false;
+                                        } else {
+                                            isCreateNewTcFromTransactionInfo = true;
+                                        }
+                                    }
 
-                        hashTreeAfterTc.appendChild(sampler);
-                        Element hashTreeAfterHttpSampler = createHashTree(document);
-                        hashTreeAfterTc.appendChild(hashTreeAfterHttpSampler);
+                                    if (isCreateNewTcFromTransactionInfo) {
+                                            pageTitle = transactionInfo2.getName();
+                                            LOGGER.info("Set the page title with the transaction name: " + pageTitle);
+                                            String tcNameFromRequest = String.format("PAGE_%02d - " + pageTitle, pageNum);
+                                            transactionInfo = transactionInfo2;
+                                            pageNum++;
+                                            Element eltTransactionControllerNew = createTransactionController(document, tcNameFromRequest);
+                                            hashAfterThreadGroup.appendChild(eltTransactionControllerNew);
+                                            hashTreeAfterTc = createHashTree(document);
+                                            hashAfterThreadGroup.appendChild(hashTreeAfterTc);
+                                    }
+                                }
+                            }
+
+                            if (isCreateNewTransactionAfterRequestMs && timeBetween2Requests > createNewTransactionAfterRequestMs) {
+                                if (isAddPause) {
+                                    Element eltTestAction = createTestActionPause(document, "Flow Control Action PAUSE", timeBetween2Requests);
+                                    hashAfterThreadGroup.appendChild(eltTestAction);
+                                    Element hashAfterTestAction = createHashTree(document);
+                                    hashAfterThreadGroup.appendChild(hashAfterTestAction);
+                                }
 
-                        Element headers = createHeaderManager(document, harRequest, isRemoveCookie, isRemoveCacheRequest, tabRemoveHeaders);
-                        hashTreeAfterHttpSampler.appendChild(headers);
-                        Element hashTreeAfterHeaders = createHashTree(document);
-                        hashTreeAfterHttpSampler.appendChild(hashTreeAfterHeaders);
+                                if (!isCreateNewTcFromTransactionInfo) {
+                                    URI pageUrlFromRequest = new URI(harRequest.getUrl());
+                                    String tcNameFromRequest = String.format("PAGE_%02d - " + pageUrlFromRequest.getPath(), pageNum); // PAGE_03 - /gestdocqualif/servletStat
+                                    pageNum++;
+                                    Element eltTransactionControllerNew = createTransactionController(document, tcNameFromRequest);
+                                    hashAfterThreadGroup.appendChild(eltTransactionControllerNew);
+                                    hashTreeAfterTc = createHashTree(document);
+                                    hashAfterThreadGroup.appendChild(hashTreeAfterTc);
+                                }
+                            }
+                            timeRequestBefore = timeRequestStarted;
+
+                            hashTreeAfterTc.appendChild(sampler);
+                            Element hashTreeAfterHttpSampler = createHashTree(document);
+                            hashTreeAfterTc.appendChild(hashTreeAfterHttpSampler);
+
+                            Element headers = createHeaderManager(document, harRequest, isRemoveCookie, isRemoveCacheRequest, tabRemoveHeaders);
+                            hashTreeAfterHttpSampler.appendChild(headers);
+                            Element hashTreeAfterHeaders = createHashTree(document);
+                            hashTreeAfterHttpSampler.appendChild(hashTreeAfterHeaders);
+                            ConversionEvents.commitEntry(entryEvent, ConversionEvents.K_STAGE_JMX, e, harEntryInter);
+                            conversionMetrics.endEntryCost(e);
+                        } catch (URISyntaxException | IllegalArgumentException ex) {
+                            // only the data errors of the entry (invalid url, NumberFormatException), another exception is a bug and stops the conversion
+                            if (!isSkipEntryErrors) {
+                                throw ex;
+                            }
+                            removeChildrenAfter(hashAfterThreadGroup, lastChildThreadGroup);
+                            removeChildrenAfter(hashTreeAfterTcBefore, lastChildTc);
+                            httpSamplernum = httpSamplernumBefore;
+                            pageNum = pageNumBefore;
+                            pageTitle = pageTitleBefore;
+                            transactionInfo = transactionInfoBefore;
+                            timeRequestBefore = timeRequestBeforeEntry;
+                            hashTreeAfterTc = hashTreeAfterTcBefore;
+                            conversionMetrics.markEntryInError(e);
+                            LOGGER.warning("Entry " + e + " in error, the entry is skipped, url : " + currentUrl + ", exception : " + ex);
+                        }
                     } else {
                         // isAddThisRequest == false
                         LOGGER.fine("This url is filtred : " + currentUrl);
                     }
                 }
             }
+            ConversionEvents.commitPage(pageEvent, p, pageId, tcName, httpSamplernum - pageFirstSamplerNum);
+            if (conversionCheckpoint != null && p < lPages.size() - 1 && conversionCheckpoint.isDue()) {
+                Map<String, Long> mapValues = ConversionCheckpoint.countersToSave(conversionMetrics);
+                mapValues.put(K_CHECKPOINT_PAGE_NUM, (long) pageNum);
+                mapValues.put(K_CHECKPOINT_SAMPLER_NUM, (long) httpSamplernum);
+                mapValues.put(K_CHECKPOINT_TIME_PAGE_BEFORE, timePageBefore);
+                conversionCheckpoint.save(ConversionCheckpoint.K_STAGE_JMX, p + 1, mapValues, document);
+            }
+        }
+        if (isKeepHarEntries && conversionCheckpoint != null) {
+            removeHarEntryIndexes(document);
         }
         LOGGER.info("JMX file contains " + httpSamplernum + " HTTPSamplerProxy");
+        conversionMetrics.setSamplersCreated(httpSamplernum - samplerStartNumber - conversionMetrics.getEntriesSkipped()); // the skipped entries have a sampler number
         return document;
     }
 
+    /**
+     * Attach the HarEntry to the samplers of a partial document loaded from a checkpoint, with the entry index saved as attribute
+     * @param document the partial document
+     * @param lEntries the entries of the HAR converted
+     */
+    private static void attachHarEntries(Document document, List<HarEntry> lEntries) {
+        NodeList samplers = document.getElementsByTagName("HTTPSamplerProxy");
+        int nbAttached = 0;
+        for (int i = 0; i < samplers.getLength(); i++) {
+            Element sampler = (Element) samplers.item(i);
+            String entryIndex = sampler.getAttribute(K_ATTRIBUTE_HAR_ENTRY_INDEX);
+            if (entryIndex.isEmpty()) {
+                continue;
+            }
+            int e = Integer.parseInt(entryIndex);
+            if (e >= 0 && e < lEntries.size()) {
+                sampler.setUserData(K_USER_DATA_HAR_ENTRY, lEntries.get(e), null);
+                nbAttached++;
+            }
+        }
+        LOGGER.fine("HAR entries attached to the samplers of the partial document : " + nbAttached + "/" + samplers.getLength());
+    }
+
+    private static void removeHarEntryIndexes(Document document) {
+        NodeList samplers = document.getElementsByTagName("HTTPSamplerProxy");
+        for (int i = 0; i < samplers.getLength(); i++) {
+            ((Element) samplers.item(i)).removeAttribute(K_ATTRIBUTE_HAR_ENTRY_INDEX);
+        }
+    }
+
     protected Element createHttpTestScriptRecorder(Document document) {
         /*
         <ProxyControl guiclass="ProxyControlGui" testclass="ProxyControl" testname="HTTP(S) Test Script Recorder" enabled="false">
@@ -822,6 +971,34 @@ public class XmlJmx {
         return eltTransactionController;
     }
 
+    /**
+     * Find the hashTree after the ThreadGroup in a document created by convertHarToJmxXml
+     * @param document the jmx document
+     * @return the hashTree or null if no ThreadGroup
+     */
+    public static Element findHashTreeAfterThreadGroup(Document document) {
+        NodeList listThreadGroups = document.getElementsByTagName("ThreadGroup");
+        if (listThreadGroups.getLength() == 0) {
+            return null;
+        }
+        Node node = listThreadGroups.item(0).getNextSibling();
+        while (node != null && node.getNodeType() != Node.ELEMENT_NODE) {
+            node = node.getNextSibling();
+        }
+        return (Element) node;
+    }
+
+    /**
+     * Remove the children added after a child
+     * @param parent the parent element
+     * @param lastChildToKeep the last child to keep, null to remove all the children
+     */
+    public static void removeChildrenAfter(Element parent, Node lastChildToKeep) {
+        while (parent.getLastChild() != null && parent.getLastChild() != lastChildToKeep) {
+            parent.removeChild(parent.getLastChild());
+        }
+    }
+
     public static Element createHashTree(Document document) {
         Element eltHashTree = document.createElement("hashTree");
         return eltHashTree;
@@ -1583,18 +1760,44 @@ public class XmlJmx {
      * @throws TransformerException error when write XML file
      */
     public static void saveXmFile(Document document, String jmxXmlFileOut) throws TransformerException {
+        saveXmFileWithSize(document, jmxXmlFileOut);
+    }
+
+    /**
+     * Save the JMX Document in a XML file and count the bytes written
+     * @param document JMX Document
+     * @param jmxXmlFileOut XML file to write
+     * @return the number of bytes written
+     * @throws TransformerException error when write XML file
+     */
+    public static long saveXmFileWithSize(Document document, String jmxXmlFileOut) throws TransformerException {
         // create the xml file
         //transform the DOM Object to an XML File
-        LOGGER.fine("saveXmFile, param jmxXmlFileOut=<" + jmxXmlFileOut + ">" );
+        LOGGER.fine("saveXmFileWithSize, param jmxXmlFileOut=<" + jmxXmlFileOut + ">" );
         TransformerFactory transformerFactory = TransformerFactory.newInstance();
         Transformer transformer = transformerFactory.newTransformer();
         transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
         transformer.setOutputProperty(OutputKeys.INDENT, "yes");
         DOMSource domSource = new DOMSource(document);
+        Object xmlSaveEvent = ConversionEvents.beginXmlSave();
         try {
-            Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(jmxXmlFileOut), StandardCharsets.UTF_8));
-            StreamResult streamResult = new StreamResult(out);
-            transformer.transform(domSource, streamResult);
+            if (HarForJMeter.K_STANDARD_IN_OUT.equals(jmxXmlFileOut)) {
+                // the standard output is flushed but not closed, the logs are in the standard error
+                CountingOutputStream countingOut = new CountingOutputStream(System.out);
+                Writer out = new BufferedWriter(new OutputStreamWriter(countingOut, StandardCharsets.UTF_8));
+                transformer.transform(domSource, new StreamResult(out));
+                out.flush();
+                ConversionEvents.commitXmlSave(xmlSaveEvent, jmxXmlFileOut, countingOut.getCount());
+                return countingOut.getCount();
+            } else {
+                CountingOutputStream countingOut = new CountingOutputStream(new FileOutputStream(jmxXmlFileOut));
+                try (Writer out = new BufferedWriter(new OutputStreamWriter(countingOut, StandardCharsets.UTF_8))) {
+                    StreamResult streamResult = new StreamResult(out);
+                    transformer.transform(domSource, streamResult);
+                }
+                ConversionEvents.commitXmlSave(xmlSaveEvent, jmxXmlFileOut, countingOut.getCount());
+                return countingOut.getCount();
+            }
         } catch (Exception e) {
             throw new TransformerException(e);
         }
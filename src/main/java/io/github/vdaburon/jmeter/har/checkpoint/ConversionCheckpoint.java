@@ -0,0 +1,363 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.checkpoint;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import io.github.vdaburon.jmeter.har.metrics.ConversionMetrics;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+/**
+ * Checkpoints of a long conversion to resume an interrupted conversion (exception, process killed, OutOfMemoryError).
+ * A checkpoint is the stage (jmx or record), the position (next page for the jmx, next entry for the record), the counters and the partial xml document.
+ * The partial document is saved without indentation, so the document parsed when resuming is the same as the document in memory.
+ * The checkpoint is only used for the same HAR file (path, size, last modified) and the same conversion parameters.
+ */
+public class ConversionCheckpoint {
+
+    public static final String K_STAGE_JMX = "jmx"; // position = next page
+    public static final String K_STAGE_RECORD = "record"; // the jmx file is saved, position = next entry
+
+    private static final String K_CHECKPOINT_FILE = "checkpoint.json";
+    private static final Logger LOGGER = Logger.getLogger(ConversionCheckpoint.class.getName());
+
+    private final File checkpointDir;
+    private final long intervalMs;
+    private final String harIdentity;
+    private final String parametersSignature;
+    private long lastSaveMs = System.currentTimeMillis();
+    private String partialFileName = ""; // the partial document of the last checkpoint saved
+
+    // the checkpoint found when opening, null stage = no resume
+    private String resumeStage = null;
+    private int resumePosition = 0;
+    private Map<String, Long> mapResumeValues = new LinkedHashMap<>();
+
+    private ConversionCheckpoint(File checkpointDir, long intervalMs, String harIdentity, String parametersSignature) {
+        this.checkpointDir = checkpointDir;
+        this.intervalMs = intervalMs;
+        this.harIdentity = harIdentity;
+        this.parametersSignature = parametersSignature;
+    }
+
+    /**
+     * Open the checkpoint directory, the last checkpoint is read if it was saved for the same HAR file and parameters
+     * @param checkpointDir the directory of the checkpoint files, created if not exists
+     * @param intervalSec the minimum interval between 2 checkpoints
+     * @param harFile the HAR file converted
+     * @param parametersSignature the conversion parameters, a checkpoint saved with other parameters is not used
+     * @return the checkpoint
+     * @throws IOException the directory could not be created
+     */
+    public static ConversionCheckpoint open(String checkpointDir, long intervalSec, String harFile, String parametersSignature) throws IOException {
+        File dir = new File(checkpointDir);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Can't create the checkpoint directory : " + checkpointDir);
+        }
+        File fileHar = new File(harFile);
+        String harIdentity = fileHar.getAbsolutePath() + ";" + fileHar.length() + ";" + fileHar.lastModified();
+        ConversionCheckpoint conversionCheckpoint = new ConversionCheckpoint(dir, Math.max(0, intervalSec) * 1000L, harIdentity, parametersSignature);
+        conversionCheckpoint.deleteTemporaryFiles();
+        conversionCheckpoint.readLastCheckpoint();
+        return conversionCheckpoint;
+    }
+
+    /**
+     * @param stage K_STAGE_JMX or K_STAGE_RECORD
+     * @return true if the conversion resumes in this stage
+     */
+    public boolean isResume(String stage) {
+        return stage.equals(resumeStage) && (resumePosition > 0 || K_STAGE_RECORD.equals(stage));
+    }
+
+    /**
+     * @return true if the jmx file was saved before the checkpoint
+     */
+    public boolean isJmxDone() {
+        return K_STAGE_RECORD.equals(resumeStage);
+    }
+
+    public int getResumePosition() {
+        return resumePosition;
+    }
+
+    /**
+     * @param name the name of a value saved with the checkpoint
+     * @param defaultValue the value if not in the checkpoint
+     * @return the value
+     */
+    public long getResumeValue(String name, long defaultValue) {
+        Long value = mapResumeValues.get(name);
+        return (value != null ? value : defaultValue);
+    }
+
+    /**
+     * Parse the partial document of the checkpoint
+     * @return the document or null if the checkpoint has no partial document
+     * @throws IOException trouble when parsing the partial document
+     */
+    public Document loadPartialDocument() throws IOException {
+        if (partialFileName.isEmpty()) {
+            return null;
+        }
+        File filePartial = new File(checkpointDir, partialFileName);
+        try {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(filePartial);
+        } catch (Exception e) {
+            throw new IOException("Can't read the partial document of the checkpoint : " + filePartial, e);
+        }
+    }
+
+    /**
+     * @return true if the interval since the last checkpoint is elapsed
+     */
+    public boolean isDue() {
+        return System.currentTimeMillis() - lastSaveMs >= intervalMs;
+    }
+
+    /**
+     * Save a checkpoint, the partial document is written first then the checkpoint file, a checkpoint is never half written.
+     * A checkpoint not saved (e.g: disk full) is logged and the conversion continues
+     * @param stage K_STAGE_JMX or K_STAGE_RECORD
+     * @param position the next page (jmx) or the next entry (record)
+     * @param mapValues the counters to restore when resuming
+     * @param partialNode the document or the root element created until the position, null if no partial document
+     */
+    public void save(String stage, int position, Map<String, Long> mapValues, Node partialNode) {
+        long startMs = System.currentTimeMillis();
+        try {
+            writeCheckpoint(stage, position, mapValues, partialNode);
+            LOGGER.info("Checkpoint saved : stage " + stage + ", position " + position + ", duration " + (System.currentTimeMillis() - startMs) + " ms");
+        } catch (IOException e) {
+            LOGGER.warning("Can't save the checkpoint, the conversion continues, exception : " + e);
+        }
+        lastSaveMs = System.currentTimeMillis();
+    }
+
+    /**
+     * The conversion counters to save with a checkpoint
+     * @param conversionMetrics the metrics of the conversion
+     * @return the map name, value, the caller could add its own values
+     */
+    public static Map<String, Long> countersToSave(ConversionMetrics conversionMetrics) {
+        Map<String, Long> mapValues = new LinkedHashMap<>();
+        mapValues.put("entriesFiltered", conversionMetrics.getEntriesFiltered());
+        mapValues.put("entriesCached", conversionMetrics.getEntriesCached());
+        mapValues.put("entriesSkipped", conversionMetrics.getEntriesSkipped());
+        mapValues.put("entriesInError", conversionMetrics.getEntriesInError());
+        mapValues.put("samplersCreated", conversionMetrics.getSamplersCreated());
+        mapValues.put("jmxBytesWritten", conversionMetrics.getJmxBytesWritten());
+        return mapValues;
+    }
+
+    /**
+     * Restore the conversion counters saved with the checkpoint
+     * @param conversionMetrics the metrics of the conversion
+     */
+    public void restoreCounters(ConversionMetrics conversionMetrics) {
+        conversionMetrics.setEntriesFiltered(getResumeValue("entriesFiltered", 0));
+        conversionMetrics.setEntriesCached(getResumeValue("entriesCached", 0));
+        conversionMetrics.setEntriesSkipped(getResumeValue("entriesSkipped", 0));
+        conversionMetrics.setEntriesInError(getResumeValue("entriesInError", 0));
+        conversionMetrics.setSamplersCreated(getResumeValue("samplersCreated", 0));
+        conversionMetrics.setJmxBytesWritten(getResumeValue("jmxBytesWritten", 0));
+    }
+
+    /**
+     * The checkpoint can't be used (e.g: partial document not readable), the conversion starts from the beginning
+     */
+    public void cancelResume() {
+        resumeStage = null;
+        resumePosition = 0;
+        mapResumeValues = new LinkedHashMap<>();
+    }
+
+    /**
+     * Delete the checkpoint files at the end of the conversion
+     */
+    public void delete() {
+        if (!partialFileName.isEmpty()) {
+            new File(checkpointDir, partialFileName).delete();
+            partialFileName = "";
+        }
+        new File(checkpointDir, K_CHECKPOINT_FILE).delete();
+        deleteTemporaryFiles();
+        resumeStage = null;
+        LOGGER.fine("Checkpoint deleted in : " + checkpointDir);
+    }
+
+    private void readLastCheckpoint() {
+        File fileCheckpoint = new File(checkpointDir, K_CHECKPOINT_FILE);
+        if (!fileCheckpoint.isFile()) {
+            return;
+        }
+        String checkpointHarIdentity = "";
+        String checkpointSignature = "";
+        String stage = null;
+        int position = 0;
+        String partialFile = "";
+        Map<String, Long> mapValues = new LinkedHashMap<>();
+        try (JsonParser parser = new JsonFactory().createParser(fileCheckpoint)) {
+            String fieldName = null;
+            boolean isInValues = false;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME) {
+                    fieldName = parser.getCurrentName();
+                    if ("values".equals(fieldName)) {
+                        isInValues = true;
+                    }
+                } else if (token == JsonToken.END_OBJECT) {
+                    isInValues = false;
+                } else if (isInValues && token.isNumeric()) {
+                    mapValues.put(fieldName, parser.getLongValue());
+                } else if ("harIdentity".equals(fieldName)) {
+                    checkpointHarIdentity = parser.getText();
+                } else if ("parametersSignature".equals(fieldName)) {
+                    checkpointSignature = parser.getText();
+                } else if ("stage".equals(fieldName)) {
+                    stage = parser.getText();
+                } else if ("position".equals(fieldName)) {
+                    position = parser.getIntValue();
+                } else if ("partialFile".equals(fieldName)) {
+                    partialFile = parser.getText();
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Can't read the checkpoint file, the conversion starts from the beginning : " + fileCheckpoint + ", exception : " + e);
+            return;
+        }
+
+        if (!harIdentity.equals(checkpointHarIdentity) || !parametersSignature.equals(checkpointSignature)) {
+            LOGGER.info("The checkpoint in " + checkpointDir + " was saved for another har file or other parameters, the conversion starts from the beginning");
+            partialFileName = partialFile;
+            delete();
+            return;
+        }
+        if (!partialFile.isEmpty() && !new File(checkpointDir, partialFile).isFile()) {
+            LOGGER.warning("The partial document of the checkpoint is missing : " + partialFile + ", the conversion starts from the beginning");
+            return;
+        }
+        resumeStage = stage;
+        resumePosition = position;
+        mapResumeValues = mapValues;
+        partialFileName = partialFile;
+        LOGGER.info("Resume the conversion from the checkpoint : stage " + stage + ", position " + position);
+    }
+
+    private void writeCheckpoint(String stage, int position, Map<String, Long> mapValues, Node partialNode) throws IOException {
+        String previousPartialFileName = partialFileName;
+        String newPartialFileName = "";
+        if (partialNode != null) {
+            newPartialFileName = "partial_" + stage + "_" + position + ".xml";
+            File filePartial = new File(checkpointDir, newPartialFileName);
+            File filePartialTmp = new File(checkpointDir, newPartialFileName + ".tmp");
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePartialTmp), StandardCharsets.UTF_8))) {
+                Transformer transformer = TransformerFactory.newInstance().newTransformer();
+                transformer.setOutputProperty(OutputKeys.INDENT, "no");
+                transformer.transform(new DOMSource(partialNode), new StreamResult(out));
+            } catch (Exception e) {
+                throw new IOException("Can't write the partial document of the checkpoint : " + filePartialTmp, e);
+            }
+            moveAtomic(filePartialTmp, filePartial);
+        }
+
+        File fileCheckpoint = new File(checkpointDir, K_CHECKPOINT_FILE);
+        File fileCheckpointTmp = new File(checkpointDir, K_CHECKPOINT_FILE + ".tmp");
+        try (OutputStream out = new FileOutputStream(fileCheckpointTmp)) {
+            JsonGenerator gen = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+            gen.useDefaultPrettyPrinter();
+            gen.writeStartObject();
+            gen.writeStringField("harIdentity", harIdentity);
+            gen.writeStringField("parametersSignature", parametersSignature);
+            gen.writeStringField("stage", stage);
+            gen.writeNumberField("position", position);
+            gen.writeStringField("partialFile", newPartialFileName);
+            gen.writeObjectFieldStart("values");
+            for (Map.Entry<String, Long> entry : mapValues.entrySet()) {
+                gen.writeNumberField(entry.getKey(), entry.getValue());
+            }
+            gen.writeEndObject();
+            gen.writeEndObject();
+            gen.close();
+        }
+        moveAtomic(fileCheckpointTmp, fileCheckpoint);
+
+        partialFileName = newPartialFileName;
+        if (!previousPartialFileName.isEmpty() && !previousPartialFileName.equals(newPartialFileName)) {
+            new File(checkpointDir, previousPartialFileName).delete();
+        }
+    }
+
+    /**
+     * Delete the temporary files of a checkpoint not completed, e.g: process killed when writing the partial document
+     */
+    private void deleteTemporaryFiles() {
+        File[] tabTmpFiles = checkpointDir.listFiles((dir, name) -> name.endsWith(".tmp") && (name.startsWith("partial_") || name.startsWith(K_CHECKPOINT_FILE)));
+        if (tabTmpFiles != null) {
+            for (File fileTmp : tabTmpFiles) {
+                fileTmp.delete();
+            }
+        }
+    }
+
+    private static void moveAtomic(File fileTmp, File file) throws IOException {
+        try {
+            Files.move(fileTmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(fileTmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConversionCheckpoint{");
+        sb.append("checkpointDir=").append(checkpointDir);
+        sb.append(", intervalMs=").append(intervalMs);
+        sb.append(", harIdentity='").append(harIdentity).append('\'');
+        sb.append(", resumeStage='").append(resumeStage).append('\'');
+        sb.append(", resumePosition=").append(resumePosition);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.common;
+
+/**
+ * The optional parameters of the conversion, the default values keep the conversion as before these options
+ */
+public class ConvertorOptions {
+    private boolean isUseHarIndex = false;
+    private long timeWindowStartMs = Long.MIN_VALUE; // no start, all the entries from the first
+    private long timeWindowEndMs = Long.MAX_VALUE; // no end, all the entries to the last
+    private int parseThreads = 0; // 0 = read the HAR with one thread
+    private boolean isAutoEngine = false; // true = the engine (in memory, streaming with the index, parallel) is chosen after a pre-scan
+    private long maxHarMb = 0; // 0 = no limit
+    private long maxEntries = 0; // 0 = no limit
+    private String metricsOut = ""; // empty = no metrics file
+    private int progressIntervalSec = 0; // 0 = no progress report
+    private String progressFile = ""; // empty = progress in the log
+    private String topEntriesOut = ""; // empty = the cost by entry is not measured
+    private int topEntries = 20;
+    private String prometheusOut = ""; // empty = no Prometheus text file
+    private boolean isSkipEntryErrors = true; // false = an entry in error stops the conversion
+    private String checkpointDir = ""; // empty = no checkpoint
+    private int checkpointIntervalSec = 60;
+    private boolean isHoistCommonHeaders = false;
+    private boolean isParallelRequests = false;
+    private double slaFactor = 0; // 0 = no timeout and no Duration Assertion from the recorded times
+    private int slaPercentile = 90;
+    private String slaBaselineHar = ""; // empty = only the HAR converted
+    private String thinkTime = "recorded"; // recorded = the exact recorded pauses
+    private long thinkTimeMaxMs = 0; // 0 = computed with the recorded pauses
+    private String thinkTimeBaselineHar = ""; // empty = only the HAR converted
+    private double workloadTargetRps = 0; // 0 = no workload model
+    private int workloadRampUpSec = 60;
+    private int workloadDurationSec = 600;
+    private boolean isMergeSessions = false; // false = one script by HAR in a zip
+    private String journeyWeights = ""; // empty = one script by HAR in a zip
+    private boolean isCompressPolling = false;
+    private boolean isDedupSequences = false;
+    private boolean isCollapseRedirects = false;
+
+    public boolean isUseHarIndex() {
+        return isUseHarIndex;
+    }
+
+    public void setUseHarIndex(boolean useHarIndex) {
+        isUseHarIndex = useHarIndex;
+    }
+
+    public long getTimeWindowStartMs() {
+        return timeWindowStartMs;
+    }
+
+    public void setTimeWindowStartMs(long timeWindowStartMs) {
+        this.timeWindowStartMs = timeWindowStartMs;
+    }
+
+    public long getTimeWindowEndMs() {
+        return timeWindowEndMs;
+    }
+
+    public void setTimeWindowEndMs(long timeWindowEndMs) {
+        this.timeWindowEndMs = timeWindowEndMs;
+    }
+
+    /**
+     * @return true if only the entries started in a time window are read
+     */
+    public boolean isTimeWindow() {
+        return timeWindowStartMs != Long.MIN_VALUE || timeWindowEndMs != Long.MAX_VALUE;
+    }
+
+    public int getParseThreads() {
+        return parseThreads;
+    }
+
+    public void setParseThreads(int parseThreads) {
+        this.parseThreads = parseThreads;
+    }
+
+    public boolean isAutoEngine() {
+        return isAutoEngine;
+    }
+
+    public void setAutoEngine(boolean autoEngine) {
+        isAutoEngine = autoEngine;
+    }
+
+    public long getMaxHarMb() {
+        return maxHarMb;
+    }
+
+    public void setMaxHarMb(long maxHarMb) {
+        this.maxHarMb = maxHarMb;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public String getMetricsOut() {
+        return metricsOut;
+    }
+
+    public void setMetricsOut(String metricsOut) {
+        this.metricsOut = metricsOut;
+    }
+
+    public int getProgressIntervalSec() {
+        return progressIntervalSec;
+    }
+
+    public void setProgressIntervalSec(int progressIntervalSec) {
+        this.progressIntervalSec = progressIntervalSec;
+    }
+
+    public String getProgressFile() {
+        return progressFile;
+    }
+
+    public void setProgressFile(String progressFile) {
+        this.progressFile = progressFile;
+    }
+
+    public String getTopEntriesOut() {
+        return topEntriesOut;
+    }
+
+    public void setTopEntriesOut(String topEntriesOut) {
+        this.topEntriesOut = topEntriesOut;
+    }
+
+    public int getTopEntries() {
+        return topEntries;
+    }
+
+    public void setTopEntries(int topEntries) {
+        this.topEntries = topEntries;
+    }
+
+    public String getPrometheusOut() {
+        return prometheusOut;
+    }
+
+    public void setPrometheusOut(String prometheusOut) {
+        this.prometheusOut = prometheusOut;
+    }
+
+    public boolean isSkipEntryErrors() {
+        return isSkipEntryErrors;
+    }
+
+    public void setSkipEntryErrors(boolean skipEntryErrors) {
+        isSkipEntryErrors = skipEntryErrors;
+    }
+
+    public String getCheckpointDir() {
+        return checkpointDir;
+    }
+
+    public void setCheckpointDir(String checkpointDir) {
+        this.checkpointDir = checkpointDir;
+    }
+
+    public int getCheckpointIntervalSec() {
+        return checkpointIntervalSec;
+    }
+
+    public void setCheckpointIntervalSec(int checkpointIntervalSec) {
+        this.checkpointIntervalSec = checkpointIntervalSec;
+    }
+
+    public boolean isHoistCommonHeaders() {
+        return isHoistCommonHeaders;
+    }
+
+    public void setHoistCommonHeaders(boolean hoistCommonHeaders) {
+        isHoistCommonHeaders = hoistCommonHeaders;
+    }
+
+    public boolean isParallelRequests() {
+        return isParallelRequests;
+    }
+
+    public void setParallelRequests(boolean parallelRequests) {
+        isParallelRequests = parallelRequests;
+    }
+
+    public double getSlaFactor() {
+        return slaFactor;
+    }
+
+    public void setSlaFactor(double slaFactor) {
+        this.slaFactor = slaFactor;
+    }
+
+    public int getSlaPercentile() {
+        return slaPercentile;
+    }
+
+    public void setSlaPercentile(int slaPercentile) {
+        this.slaPercentile = slaPercentile;
+    }
+
+    public String getSlaBaselineHar() {
+        return slaBaselineHar;
+    }
+
+    public void setSlaBaselineHar(String slaBaselineHar) {
+        this.slaBaselineHar = slaBaselineHar;
+    }
+
+    public String getThinkTime() {
+        return thinkTime;
+    }
+
+    public void setThinkTime(String thinkTime) {
+        this.thinkTime = thinkTime;
+    }
+
+    public long getThinkTimeMaxMs() {
+        return thinkTimeMaxMs;
+    }
+
+    public void setThinkTimeMaxMs(long thinkTimeMaxMs) {
+        this.thinkTimeMaxMs = thinkTimeMaxMs;
+    }
+
+    public String getThinkTimeBaselineHar() {
+        return thinkTimeBaselineHar;
+    }
+
+    public void setThinkTimeBaselineHar(String thinkTimeBaselineHar) {
+        this.thinkTimeBaselineHar = thinkTimeBaselineHar;
+    }
+
+    public double getWorkloadTargetRps() {
+        return workloadTargetRps;
+    }
+
+    public void setWorkloadTargetRps(double workloadTargetRps) {
+        this.workloadTargetRps = workloadTargetRps;
+    }
+
+    public int getWorkloadRampUpSec() {
+        return workloadRampUpSec;
+    }
+
+    public void setWorkloadRampUpSec(int workloadRampUpSec) {
+        this.workloadRampUpSec = workloadRampUpSec;
+    }
+
+    public int getWorkloadDurationSec() {
+        return workloadDurationSec;
+    }
+
+    public void setWorkloadDurationSec(int workloadDurationSec) {
+        this.workloadDurationSec = workloadDurationSec;
+    }
+
+    public boolean isMergeSessions() {
+        return isMergeSessions;
+    }
+
+    public void setMergeSessions(boolean mergeSessions) {
+        isMergeSessions = mergeSessions;
+    }
+
+    public String getJourneyWeights() {
+        return journeyWeights;
+    }
+
+    public void setJourneyWeights(String journeyWeights) {
+        this.journeyWeights = journeyWeights;
+    }
+
+    public boolean isCompressPolling() {
+        return isCompressPolling;
+    }
+
+    public void setCompressPolling(boolean compressPolling) {
+        isCompressPolling = compressPolling;
+    }
+
+    public boolean isDedupSequences() {
+        return isDedupSequences;
+    }
+
+    public void setDedupSequences(boolean dedupSequences) {
+        isDedupSequences = dedupSequences;
+    }
+
+    public boolean isCollapseRedirects() {
+        return isCollapseRedirects;
+    }
+
+    public void setCollapseRedirects(boolean collapseRedirects) {
+        isCollapseRedirects = collapseRedirects;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConvertorOptions{");
+        sb.append("isUseHarIndex=").append(isUseHarIndex);
+        sb.append(", timeWindowStartMs=").append(timeWindowStartMs);
+        sb.append(", timeWindowEndMs=").append(timeWindowEndMs);
+        sb.append(", parseThreads=").append(parseThreads);
+        sb.append(", isAutoEngine=").append(isAutoEngine);
+        sb.append(", maxHarMb=").append(maxHarMb);
+        sb.append(", maxEntries=").append(maxEntries);
+        sb.append(", metricsOut='").append(metricsOut).append('\'');
+        sb.append(", progressIntervalSec=").append(progressIntervalSec);
+        sb.append(", progressFile='").append(progressFile).append('\'');
+        sb.append(", topEntriesOut='").append(topEntriesOut).append('\'');
+        sb.append(", topEntries=").append(topEntries);
+        sb.append(", prometheusOut='").append(prometheusOut).append('\'');
+        sb.append(", isSkipEntryErrors=").append(isSkipEntryErrors);
+        sb.append(", checkpointDir='").append(checkpointDir).append('\'');
+        sb.append(", checkpointIntervalSec=").append(checkpointIntervalSec);
+        sb.append(", isHoistCommonHeaders=").append(isHoistCommonHeaders);
+        sb.append(", isParallelRequests=").append(isParallelRequests);
+        sb.append(", slaFactor=").append(slaFactor);
+        sb.append(", slaPercentile=").append(slaPercentile);
+        sb.append(", slaBaselineHar='").append(slaBaselineHar).append('\'');
+        sb.append(", thinkTime='").append(thinkTime).append('\'');
+        sb.append(", thinkTimeMaxMs=").append(thinkTimeMaxMs);
+        sb.append(", thinkTimeBaselineHar='").append(thinkTimeBaselineHar).append('\'');
+        sb.append(", workloadTargetRps=").append(workloadTargetRps);
+        sb.append(", workloadRampUpSec=").append(workloadRampUpSec);
+        sb.append(", workloadDurationSec=").append(workloadDurationSec);
+        sb.append(", isMergeSessions=").append(isMergeSessions);
+        sb.append(", journeyWeights='").append(journeyWeights).append('\'');
+        sb.append(", isCompressPolling=").append(isCompressPolling);
+        sb.append(", isDedupSequences=").append(isDedupSequences);
+        sb.append(", isCollapseRedirects=").append(isCollapseRedirects);
+        sb.append('}');
+        return sb.toString();
+    }
+}
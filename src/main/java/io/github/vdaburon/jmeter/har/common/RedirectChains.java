@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.common;
+
+import de.sstoehr.harreader.model.HarEntry;
+import de.sstoehr.harreader.model.HarHeader;
+import de.sstoehr.harreader.model.HarResponse;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Find the redirect chains in the HAR entries : an entry with a redirect status (301, 302, 303, 307, 308) and the entry of the redirect url (redirectURL or Location header)
+ * requested just after by the browser. The entries of a chain after the first entry are the hops.
+ */
+public class RedirectChains {
+
+    public static final int K_MAX_LOOKAHEAD = 5; // the browser could request other resources between a redirect and its target
+
+    private RedirectChains() {
+        // static methods only
+    }
+
+    /**
+     * @param listEntries the HAR entries in the HAR order
+     * @return the hop entry and the first entry of its chain, identity map
+     */
+    public static Map<HarEntry, HarEntry> findHops(List<HarEntry> listEntries) {
+        Map<HarEntry, HarEntry> mapHopToHead = new IdentityHashMap<>();
+        for (int i = 0; i < listEntries.size(); i++) {
+            HarEntry harEntry = listEntries.get(i);
+            String targetUrl = redirectTarget(harEntry);
+            if (targetUrl == null) {
+                continue;
+            }
+            String targetMethod = redirectMethod(harEntry);
+            int last = Math.min(listEntries.size() - 1, i + K_MAX_LOOKAHEAD);
+            for (int j = i + 1; j <= last; j++) {
+                HarEntry harEntryNext = listEntries.get(j);
+                if (mapHopToHead.containsKey(harEntryNext) || harEntryNext.getRequest() == null) {
+                    continue;
+                }
+                if (targetUrl.equals(withoutFragment(harEntryNext.getRequest().getUrl())) && targetMethod.equals(String.valueOf(harEntryNext.getRequest().getMethod()))) {
+                    HarEntry harEntryHead = mapHopToHead.get(harEntry);
+                    mapHopToHead.put(harEntryNext, (harEntryHead != null ? harEntryHead : harEntry));
+                    break;
+                }
+            }
+        }
+        return mapHopToHead;
+    }
+
+    /**
+     * @param harEntry an entry
+     * @return the absolute redirect url without the fragment or null if the entry is not a redirect
+     */
+    public static String redirectTarget(HarEntry harEntry) {
+        HarResponse harResponse = harEntry.getResponse();
+        if (harResponse == null || harEntry.getRequest() == null || !isRedirectStatus(harResponse.getStatus())) {
+            return null;
+        }
+        String location = harResponse.getRedirectURL();
+        if ((location == null || location.isEmpty()) && harResponse.getHeaders() != null) {
+            for (HarHeader harHeader : harResponse.getHeaders()) {
+                if ("location".equalsIgnoreCase(harHeader.getName())) {
+                    location = harHeader.getValue();
+                }
+            }
+        }
+        if (location == null || location.isEmpty()) {
+            return null;
+        }
+        try {
+            return withoutFragment(new URI(harEntry.getRequest().getUrl()).resolve(location.trim()).toString());
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    public static boolean isRedirectStatus(int status) {
+        return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+    }
+
+    /**
+     * The browser changes a POST to GET for 301, 302 and 303, the method is kept for 307 and 308
+     */
+    private static String redirectMethod(HarEntry harEntry) {
+        String method = String.valueOf(harEntry.getRequest().getMethod());
+        int status = harEntry.getResponse().getStatus();
+        if (status == 303 || ((status == 301 || status == 302) && "POST".equals(method))) {
+            return "GET";
+        }
+        return method;
+    }
+
+    private static String withoutFragment(String url) {
+        if (url == null) {
+            return "";
+        }
+        int posFragment = url.indexOf('#');
+        return (posFragment >= 0 ? url.substring(0, posFragment) : url);
+    }
+}
@@ -0,0 +1,700 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.generator;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import io.airlift.compress.zstd.ZstdOutputStream;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.MissingOptionException;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Generate a synthetic HAR file for the benchmarks and the scale tests of the conversion.
+ * The HAR is written with a streaming JSON generator, only one entry is in memory, so a HAR with millions of entries could be created.
+ * The same configuration (with the same seed) always gives the same HAR.
+ */
+public class HarGenerator {
+
+    public static final String K_HAR_OUT_OPT = "har_out";
+    public static final String K_PAGES_OPT = "pages";
+    public static final String K_ENTRIES_BY_PAGE_OPT = "entries_by_page";
+    public static final String K_BODY_SIZE_OPT = "body_size";
+    public static final String K_MIME_MIX_OPT = "mime_mix";
+    public static final String K_MULTIPART_PERCENT_OPT = "multipart_percent";
+    public static final String K_REDIRECT_PERCENT_OPT = "redirect_percent";
+    public static final String K_FROM_CACHE_PERCENT_OPT = "from_cache_percent";
+    public static final String K_DATA_URL_PERCENT_OPT = "data_url_percent";
+    public static final String K_LRWR_TRANSACTIONS_OPT = "lrwr_transactions";
+    public static final String K_WEBSOCKET_MESSAGES_OPT = "websocket_messages";
+    public static final String K_SEED_OPT = "seed";
+    public static final String K_STANDARD_OUT = "-";
+
+    public static final String K_KIND_HTML = "html";
+    public static final String K_KIND_CSS = "css";
+    public static final String K_KIND_JS = "js";
+    public static final String K_KIND_PNG = "png";
+    public static final String K_KIND_JSON = "json";
+
+    private static final String K_HOST = "https://example.com";
+    private static final String K_API_HOST = "https://api.example.com";
+    private static final String K_WS_URL = "wss://example.com/ws";
+    private static final String K_DATA_URL = "data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==";
+    private static final int K_BUFFER_SIZE = 65536;
+    private static final Logger LOGGER = Logger.getLogger(HarGenerator.class.getName());
+
+    private final HarGeneratorConfig config;
+    private final Random random;
+    private final SimpleDateFormat dateFormat;
+    private final List<String> listKinds = new ArrayList<>(); // kind for each weight unit of the mime mix
+    private final String htmlBody;
+    private final String cssBody;
+    private final String jsBody;
+    private final String jsonBody;
+    private final String pngBody; // base64
+
+    /**
+     * @param config the parameters of the HAR to generate
+     */
+    public HarGenerator(HarGeneratorConfig config) {
+        this.config = config;
+        this.random = new Random(config.getSeed());
+        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        this.dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        parseMimeMix(config.getMimeMix());
+
+        int bodySize = Math.max(0, config.getBodySize());
+        this.htmlBody = createBody("<div class=\"item\">Lorem ipsum dolor sit amet</div>\n", bodySize);
+        this.cssBody = createBody(".item { margin: 0 auto; color: #333; }\n", bodySize);
+        this.jsBody = createBody("function item(i) { return document.getElementById('item' + i); }\n", bodySize);
+        this.jsonBody = createBody("{\"id\":1,\"name\":\"item\",\"tags\":[\"a\",\"b\"]},", bodySize);
+        byte[] pngBytes = new byte[bodySize];
+        random.nextBytes(pngBytes);
+        this.pngBody = Base64.getEncoder().encodeToString(pngBytes);
+    }
+
+    public static void main(String[] args) {
+        HarGeneratorConfig config = new HarGeneratorConfig();
+        String harOut = "";
+
+        long lStart = System.currentTimeMillis();
+        LOGGER.info("Start main");
+
+        Options options = createOptions();
+        Properties parseProperties = null;
+
+        try {
+            parseProperties = parseOption(options, args);
+        } catch (ParseException ex) {
+            helpUsage(options);
+            LOGGER.info("main end (exit 1) ERROR");
+            System.exit(1);
+        }
+
+        String sTmp = "";
+        sTmp = (String) parseProperties.get(K_HAR_OUT_OPT);
+        if (sTmp != null) {
+            harOut = sTmp;
+        }
+
+        try {
+            sTmp = (String) parseProperties.get(K_PAGES_OPT);
+            if (sTmp != null) {
+                config.setNbPages(Integer.parseInt(sTmp));
+            }
+
+            sTmp = (String) parseProperties.get(K_ENTRIES_BY_PAGE_OPT);
+            if (sTmp != null) {
+                config.setEntriesByPage(Integer.parseInt(sTmp));
+            }
+
+            sTmp = (String) parseProperties.get(K_BODY_SIZE_OPT);
+            if (sTmp != null) {
+                config.setBodySize(Integer.parseInt(sTmp));
+            }
+
+            sTmp = (String) parseProperties.get(K_MULTIPART_PERCENT_OPT);
+            if (sTmp != null) {
+                config.setMultipartPercent(Integer.parseInt(sTmp));
+            }
+
+            sTmp = (String) parseProperties.get(K_REDIRECT_PERCENT_OPT);
+            if (sTmp != null) {
+                config.setRedirectPercent(Integer.parseInt(sTmp));
+            }
+
+            sTmp = (String) parseProperties.get(K_FROM_CACHE_PERCENT_OPT);
+            if (sTmp != null) {
+                config.setFromCachePercent(Integer.parseInt(sTmp));
+            }
+
+            sTmp = (String) parseProperties.get(K_DATA_URL_PERCENT_OPT);
+            if (sTmp != null) {
+                config.setDataUrlPercent(Integer.parseInt(sTmp));
+            }
+
+            sTmp = (String) parseProperties.get(K_WEBSOCKET_MESSAGES_OPT);
+            if (sTmp != null) {
+                config.setWebSocketMessages(Integer.parseInt(sTmp));
+            }
+
+            sTmp = (String) parseProperties.get(K_SEED_OPT);
+            if (sTmp != null) {
+                config.setSeed(Long.parseLong(sTmp));
+            }
+        } catch (NumberFormatException ex) {
+            LOGGER.severe("Error parsing number parameter " + ex.getMessage());
+            helpUsage(options);
+            LOGGER.info("main end (exit 1) ERROR");
+            System.exit(1);
+        }
+
+        sTmp = (String) parseProperties.get(K_MIME_MIX_OPT);
+        if (sTmp != null) {
+            config.setMimeMix(sTmp);
+        }
+
+        sTmp = (String) parseProperties.get(K_LRWR_TRANSACTIONS_OPT);
+        if (sTmp != null) {
+            config.setLrwrTransactions(Boolean.parseBoolean(sTmp));
+        }
+
+        LOGGER.info("************* PARAMETERS ***************");
+        LOGGER.info(K_HAR_OUT_OPT + ", harOut=" + harOut);
+        LOGGER.info("config=" + config);
+        LOGGER.info("***************************************");
+
+        try {
+            long nbEntries = generateToFile(config, harOut);
+            LOGGER.info("Number of entries generated : " + nbEntries);
+            LOGGER.info("Duration ms : " + (System.currentTimeMillis() - lStart));
+            LOGGER.info("End main OK exit(0)");
+            System.exit(0);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.severe(e.toString());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Generate the HAR in a file, the file is gzip compressed if the name ends with .gz and zstd compressed if the name ends with .zst
+     * @param config the parameters of the HAR to generate
+     * @param harOut the file to write or '-' for the standard output
+     * @return the number of entries written
+     * @throws IOException trouble when writing the file
+     */
+    public static long generateToFile(HarGeneratorConfig config, String harOut) throws IOException {
+        OutputStream out;
+        if (K_STANDARD_OUT.equals(harOut)) {
+            out = new FilterOutputStream(System.out) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    this.out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush(); // don't close the standard output
+                }
+            };
+        } else {
+            out = new BufferedOutputStream(new FileOutputStream(harOut), K_BUFFER_SIZE);
+            String lowerName = harOut.toLowerCase();
+            if (lowerName.endsWith(".gz")) {
+                out = new GZIPOutputStream(out, K_BUFFER_SIZE);
+            } else if (lowerName.endsWith(".zst")) {
+                out = new ZstdOutputStream(out);
+            }
+        }
+        try (OutputStream outToClose = out) {
+            return new HarGenerator(config).generate(outToClose);
+        }
+    }
+
+    /**
+     * Write the HAR, the pages first then the entries and the LRWR transactions at the end of the log
+     * @param out the stream to write, the stream is not closed
+     * @return the number of entries written
+     * @throws IOException trouble when writing
+     */
+    public long generate(OutputStream out) throws IOException {
+        JsonGenerator gen = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        gen.writeStartObject();
+        gen.writeObjectFieldStart("log");
+        gen.writeStringField("version", "1.2");
+        gen.writeObjectFieldStart("creator");
+        gen.writeStringField("name", "HarGenerator");
+        gen.writeStringField("version", "1.0");
+        gen.writeEndObject();
+
+        gen.writeArrayFieldStart("pages");
+        for (int numPage = 0; numPage < config.getNbPages(); numPage++) {
+            gen.writeStartObject();
+            gen.writeStringField("startedDateTime", formatDate(pageTimeMs(numPage)));
+            gen.writeStringField("id", pageId(numPage));
+            gen.writeStringField("title", K_HOST + "/app/page" + (numPage + 1));
+            gen.writeObjectFieldStart("pageTimings");
+            gen.writeNumberField("onContentLoad", 200);
+            gen.writeNumberField("onLoad", 400);
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+
+        long nbEntries = 0;
+        gen.writeArrayFieldStart("entries");
+        for (int numPage = 0; numPage < config.getNbPages(); numPage++) {
+            boolean isWebSocketPage = (numPage == config.getNbPages() - 1 && config.getWebSocketMessages() > 0);
+            int lastHttpEntry = config.getEntriesByPage() - (isWebSocketPage ? 2 : 1); // the websocket connection is the last entry of the last page
+            int numEntry = 0;
+            while (numEntry < config.getEntriesByPage()) {
+                long timeMs = pageTimeMs(numPage) + numEntry * config.getEntryGapMs();
+                if (isWebSocketPage && numEntry > lastHttpEntry) {
+                    writeWebSocketEntry(gen, numPage, timeMs);
+                    numEntry++;
+                } else if (numEntry > 0 && numEntry < lastHttpEntry && isRandom(config.getRedirectPercent())) {
+                    // the redirect and its target, 2 entries
+                    String targetUrl = K_HOST + "/app/target" + nbEntries;
+                    writeEntry(gen, numPage, timeMs, "GET", K_HOST + "/app/redirect" + nbEntries, null, null, 302, "Found", targetUrl, K_KIND_HTML, "", null);
+                    writeEntry(gen, numPage, timeMs + config.getEntryGapMs(), "GET", targetUrl, null, null, 200, "OK", "", K_KIND_HTML, htmlBody, null);
+                    numEntry += 2;
+                    nbEntries++;
+                } else {
+                    writeEntryForKind(gen, numPage, numEntry, timeMs, nbEntries);
+                    numEntry++;
+                }
+                nbEntries++;
+            }
+        }
+        gen.writeEndArray();
+
+        if (config.isLrwrTransactions()) {
+            gen.writeArrayFieldStart("_transactions");
+            for (int numPage = 0; numPage < config.getNbPages(); numPage++) {
+                writeTransaction(gen, "page" + (numPage + 1), "start", pageTimeMs(numPage) - 1);
+                writeTransaction(gen, "page" + (numPage + 1), "stop", pageTimeMs(numPage) + config.getEntriesByPage() * config.getEntryGapMs() + 100);
+            }
+            gen.writeEndArray();
+        }
+
+        gen.writeEndObject(); // log
+        gen.writeEndObject();
+        gen.flush();
+        return nbEntries;
+    }
+
+    private void writeEntryForKind(JsonGenerator gen, int numPage, int numEntry, long timeMs, long num) throws IOException {
+        if (numEntry == 0) {
+            // the page document
+            writeEntry(gen, numPage, timeMs, "GET", K_HOST + "/app/page" + (numPage + 1), null, null, 200, "OK", "", K_KIND_HTML, htmlBody, null);
+            return;
+        }
+        if (isRandom(config.getDataUrlPercent())) {
+            writeEntry(gen, numPage, timeMs, "GET", K_DATA_URL, null, null, 200, "OK", "", K_KIND_PNG, "", null);
+            return;
+        }
+        if (isRandom(config.getMultipartPercent())) {
+            String boundary = "---------------------------5788687684014065500334427" + num;
+            writeEntry(gen, numPage, timeMs, "POST", K_HOST + "/app/upload", "multipart/form-data; boundary=" + boundary,
+                    createMultiPartText(boundary, 3, htmlBody), 200, "OK", "", K_KIND_HTML, htmlBody, null);
+            return;
+        }
+        String fromCache = (isRandom(config.getFromCachePercent()) ? (random.nextBoolean() ? "memory" : "disk") : null);
+        String kind = listKinds.get(random.nextInt(listKinds.size()));
+        switch (kind) {
+            case K_KIND_CSS:
+                writeEntry(gen, numPage, timeMs, "GET", K_HOST + "/app/style" + num + ".css?v=" + num, null, null, 200, "OK", "", kind, cssBody, fromCache);
+                break;
+            case K_KIND_JS:
+                writeEntry(gen, numPage, timeMs, "GET", K_HOST + "/app/app" + num + ".js?v=" + num, null, null, 200, "OK", "", kind, jsBody, fromCache);
+                break;
+            case K_KIND_PNG:
+                writeEntry(gen, numPage, timeMs, "GET", K_HOST + "/app/img/logo" + num + ".png", null, null, 200, "OK", "", kind, pngBody, fromCache);
+                break;
+            case K_KIND_JSON:
+                if (num % 2 == 0) {
+                    writeEntry(gen, numPage, timeMs, "GET", K_API_HOST + "/api/items?page=" + num + "&size=20", null, null, 200, "OK", "", kind, jsonBody, fromCache);
+                } else {
+                    writeEntry(gen, numPage, timeMs, "POST", K_API_HOST + "/api/items", "application/json",
+                            "{\"id\":" + num + ",\"name\":\"item " + num + "\",\"tags\":[\"a\",\"b\"]}", 201, "Created", "", kind, jsonBody, null);
+                }
+                break;
+            default:
+                writeEntry(gen, numPage, timeMs, "GET", K_HOST + "/app/fragment" + num + ".html", null, null, 200, "OK", "", K_KIND_HTML, htmlBody, fromCache);
+                break;
+        }
+    }
+
+    private void writeEntry(JsonGenerator gen, int numPage, long timeMs, String method, String url, String postMimeType, String postText,
+                            int status, String statusText, String redirectUrl, String kind, String body, String fromCache) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("pageref", pageId(numPage));
+        gen.writeStringField("startedDateTime", formatDate(timeMs));
+        gen.writeNumberField("time", 26);
+
+        gen.writeObjectFieldStart("request");
+        gen.writeStringField("method", method);
+        gen.writeStringField("url", url);
+        gen.writeStringField("httpVersion", "HTTP/1.1");
+        gen.writeArrayFieldStart("cookies");
+        writeNameValue(gen, "JSESSIONID", "ABCDEF" + numPage);
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("headers");
+        writeNameValue(gen, "User-Agent", "Mozilla/5.0 HarGenerator");
+        writeNameValue(gen, "Accept-Language", "fr,en;q=0.5");
+        writeNameValue(gen, "Accept-Encoding", "gzip, deflate");
+        writeNameValue(gen, "Cookie", "JSESSIONID=ABCDEF" + numPage);
+        if (postMimeType != null) {
+            writeNameValue(gen, "Content-Type", postMimeType);
+        }
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("queryString");
+        int posQuery = url.indexOf('?');
+        if (posQuery > 0 && !url.startsWith("data:")) {
+            for (String param : url.substring(posQuery + 1).split("&")) {
+                int posEqual = param.indexOf('=');
+                writeNameValue(gen, (posEqual > 0 ? param.substring(0, posEqual) : param), (posEqual > 0 ? param.substring(posEqual + 1) : ""));
+            }
+        }
+        gen.writeEndArray();
+        if (postMimeType != null) {
+            gen.writeObjectFieldStart("postData");
+            gen.writeStringField("mimeType", postMimeType);
+            gen.writeStringField("text", postText);
+            gen.writeEndObject();
+        }
+        gen.writeNumberField("headersSize", -1);
+        gen.writeNumberField("bodySize", (postText != null ? postText.length() : 0));
+        gen.writeEndObject();
+
+        String mimeType = mimeTypeForKind(kind);
+        gen.writeObjectFieldStart("response");
+        gen.writeNumberField("status", status);
+        gen.writeStringField("statusText", statusText);
+        gen.writeStringField("httpVersion", "HTTP/1.1");
+        gen.writeArrayFieldStart("cookies");
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("headers");
+        writeNameValue(gen, "Content-Type", mimeType);
+        if (!redirectUrl.isEmpty()) {
+            writeNameValue(gen, "Location", redirectUrl);
+        }
+        gen.writeEndArray();
+        gen.writeObjectFieldStart("content");
+        gen.writeNumberField("size", (K_KIND_PNG.equals(kind) ? config.getBodySize() : body.length()));
+        gen.writeStringField("mimeType", mimeType);
+        if (!body.isEmpty()) {
+            gen.writeStringField("text", body);
+            if (K_KIND_PNG.equals(kind)) {
+                gen.writeStringField("encoding", "base64");
+            }
+        }
+        gen.writeEndObject();
+        gen.writeStringField("redirectURL", redirectUrl);
+        gen.writeNumberField("headersSize", -1);
+        gen.writeNumberField("bodySize", (fromCache != null ? 0 : body.length()));
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart("cache");
+        gen.writeEndObject();
+        writeTimings(gen);
+        if (fromCache != null) {
+            gen.writeStringField("_fromCache", fromCache);
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeWebSocketEntry(JsonGenerator gen, int numPage, long timeMs) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("pageref", pageId(numPage));
+        gen.writeStringField("startedDateTime", formatDate(timeMs));
+        gen.writeNumberField("time", 50);
+
+        gen.writeObjectFieldStart("request");
+        gen.writeStringField("method", "GET");
+        gen.writeStringField("url", K_WS_URL);
+        gen.writeStringField("httpVersion", "HTTP/1.1");
+        gen.writeArrayFieldStart("cookies");
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("headers");
+        writeNameValue(gen, "User-Agent", "Mozilla/5.0 HarGenerator");
+        writeNameValue(gen, "Upgrade", "websocket");
+        writeNameValue(gen, "Connection", "Upgrade");
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("queryString");
+        gen.writeEndArray();
+        gen.writeNumberField("headersSize", -1);
+        gen.writeNumberField("bodySize", 0);
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart("response");
+        gen.writeNumberField("status", 101);
+        gen.writeStringField("statusText", "Switching Protocols");
+        gen.writeStringField("httpVersion", "HTTP/1.1");
+        gen.writeArrayFieldStart("cookies");
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("headers");
+        writeNameValue(gen, "Upgrade", "websocket");
+        gen.writeEndArray();
+        gen.writeObjectFieldStart("content");
+        gen.writeNumberField("size", 0);
+        gen.writeStringField("mimeType", "x-unknown");
+        gen.writeEndObject();
+        gen.writeStringField("redirectURL", "");
+        gen.writeNumberField("headersSize", -1);
+        gen.writeNumberField("bodySize", 0);
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart("cache");
+        gen.writeEndObject();
+        writeTimings(gen);
+
+        gen.writeArrayFieldStart("_webSocketMessages");
+        for (int i = 0; i < config.getWebSocketMessages(); i++) {
+            gen.writeStartObject();
+            gen.writeStringField("type", (i % 2 == 0 ? "send" : "receive"));
+            gen.writeNumberField("time", (timeMs + 100L * (i + 1)) / 1000.0);
+            gen.writeNumberField("opcode", 1);
+            gen.writeStringField("data", (i % 2 == 0 ? "{\"action\":\"subscribe\",\"id\":" + i + "}" : "{\"event\":\"update\",\"id\":" + i + "}"));
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private void writeTransaction(JsonGenerator gen, String name, String type, long timeMs) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("name", name);
+        gen.writeStringField("type", type);
+        gen.writeStringField("startedDateTime", formatDate(timeMs));
+        gen.writeEndObject();
+    }
+
+    private static void writeTimings(JsonGenerator gen) throws IOException {
+        gen.writeObjectFieldStart("timings");
+        gen.writeNumberField("blocked", 1);
+        gen.writeNumberField("dns", -1);
+        gen.writeNumberField("connect", -1);
+        gen.writeNumberField("send", 1);
+        gen.writeNumberField("wait", 20);
+        gen.writeNumberField("receive", 5);
+        gen.writeNumberField("ssl", -1);
+        gen.writeEndObject();
+    }
+
+    private static void writeNameValue(JsonGenerator gen, String name, String value) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("name", name);
+        gen.writeStringField("value", value);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Create a multipart/form-data request with fields and one file
+     * @param boundary the multipart boundary
+     * @param nbParts number of form fields before the file
+     * @param fileContent content of the uploaded file
+     * @return the multipart text
+     */
+    public static String createMultiPartText(String boundary, int nbParts, String fileContent) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < nbParts; i++) {
+            sb.append("--").append(boundary).append("\r\n");
+            sb.append("Content-Disposition: form-data; name=\"field").append(i).append("\"\r\n\r\n");
+            sb.append("value").append(i).append("\r\n");
+        }
+        sb.append("--").append(boundary).append("\r\n");
+        sb.append("Content-Disposition: form-data; name=\"file\"; filename=\"doc.txt\"\r\n");
+        sb.append("Content-Type: text/plain\r\n\r\n");
+        sb.append(fileContent).append("\r\n");
+        sb.append("--").append(boundary).append("--\r\n");
+        return sb.toString();
+    }
+
+    private void parseMimeMix(String mimeMix) {
+        for (String kindWeight : mimeMix.split(",")) {
+            String[] tab = kindWeight.trim().split(":");
+            String kind = tab[0].trim().toLowerCase();
+            if (mimeTypeForKind(kind) == null) {
+                throw new IllegalArgumentException("Unknown kind in the mime mix : " + kind + ", expected html, css, js, png or json");
+            }
+            int weight = (tab.length > 1 ? Integer.parseInt(tab[1].trim()) : 1);
+            for (int i = 0; i < weight; i++) {
+                listKinds.add(kind);
+            }
+        }
+        if (listKinds.isEmpty()) {
+            throw new IllegalArgumentException("The mime mix is empty : " + mimeMix);
+        }
+    }
+
+    private static String mimeTypeForKind(String kind) {
+        switch (kind) {
+            case K_KIND_HTML:
+                return "text/html";
+            case K_KIND_CSS:
+                return "text/css";
+            case K_KIND_JS:
+                return "application/javascript";
+            case K_KIND_PNG:
+                return "image/png";
+            case K_KIND_JSON:
+                return "application/json";
+            default:
+                return null;
+        }
+    }
+
+    private boolean isRandom(int percent) {
+        return percent > 0 && random.nextInt(100) < percent;
+    }
+
+    private long pageTimeMs(int numPage) {
+        return config.getStartTimeMs() + numPage * config.getPageGapMs();
+    }
+
+    private static String pageId(int numPage) {
+        return "page_" + (numPage + 1);
+    }
+
+    private String formatDate(long timeMs) {
+        return dateFormat.format(new Date(timeMs));
+    }
+
+    private static String createBody(String pattern, int bodySize) {
+        StringBuilder sb = new StringBuilder(bodySize);
+        while (sb.length() < bodySize) {
+            sb.append(pattern);
+        }
+        sb.setLength(bodySize);
+        return sb.toString();
+    }
+
+    private static Options createOptions() {
+        Options options = new Options();
+
+        Option helpOpt = Option.builder("help").hasArg(false).desc("Help and show parameters").build();
+        options.addOption(helpOpt);
+
+        Option harOutOpt = Option.builder(K_HAR_OUT_OPT).argName(K_HAR_OUT_OPT).hasArg(true)
+                .required(true).desc("Har file to write (e.g : synthetic.har), gzip if the name ends with .gz, zstd if the name ends with .zst, '-' to write to the standard output").build();
+        options.addOption(harOutOpt);
+
+        Option pagesOpt = Option.builder(K_PAGES_OPT).argName(K_PAGES_OPT).hasArg(true)
+                .required(false).desc("Optional, number of pages (default 10)").build();
+        options.addOption(pagesOpt);
+
+        Option entriesByPageOpt = Option.builder(K_ENTRIES_BY_PAGE_OPT).argName(K_ENTRIES_BY_PAGE_OPT).hasArg(true)
+                .required(false).desc("Optional, number of entries for each page (default 20)").build();
+        options.addOption(entriesByPageOpt);
+
+        Option bodySizeOpt = Option.builder(K_BODY_SIZE_OPT).argName(K_BODY_SIZE_OPT).hasArg(true)
+                .required(false).desc("Optional, size of the response body in bytes (default 2048)").build();
+        options.addOption(bodySizeOpt);
+
+        Option mimeMixOpt = Option.builder(K_MIME_MIX_OPT).argName(K_MIME_MIX_OPT).hasArg(true)
+                .required(false).desc("Optional, the kind of responses with their weight, kind is html, css, js, png or json (default \"html:20,css:10,js:10,png:20,json:40\")").build();
+        options.addOption(mimeMixOpt);
+
+        Option multipartOpt = Option.builder(K_MULTIPART_PERCENT_OPT).argName(K_MULTIPART_PERCENT_OPT).hasArg(true)
+                .required(false).desc("Optional, percent of multipart/form-data upload requests (default 0)").build();
+        options.addOption(multipartOpt);
+
+        Option redirectOpt = Option.builder(K_REDIRECT_PERCENT_OPT).argName(K_REDIRECT_PERCENT_OPT).hasArg(true)
+                .required(false).desc("Optional, percent of 302 redirects followed by the target request (default 0)").build();
+        options.addOption(redirectOpt);
+
+        Option fromCacheOpt = Option.builder(K_FROM_CACHE_PERCENT_OPT).argName(K_FROM_CACHE_PERCENT_OPT).hasArg(true)
+                .required(false).desc("Optional, percent of entries with _fromCache memory or disk (default 0)").build();
+        options.addOption(fromCacheOpt);
+
+        Option dataUrlOpt = Option.builder(K_DATA_URL_PERCENT_OPT).argName(K_DATA_URL_PERCENT_OPT).hasArg(true)
+                .required(false).desc("Optional, percent of entries with a data: url (default 0)").build();
+        options.addOption(dataUrlOpt);
+
+        Option lrwrOpt = Option.builder(K_LRWR_TRANSACTIONS_OPT).argName(K_LRWR_TRANSACTIONS_OPT).hasArg(true)
+                .required(false).desc("Optional boolean, add the LoadRunner Web Recorder _transactions, one transaction by page (default false)").build();
+        options.addOption(lrwrOpt);
+
+        Option webSocketOpt = Option.builder(K_WEBSOCKET_MESSAGES_OPT).argName(K_WEBSOCKET_MESSAGES_OPT).hasArg(true)
+                .required(false).desc("Optional, number of _webSocketMessages of a websocket connection in the last page (default 0, no websocket)").build();
+        options.addOption(webSocketOpt);
+
+        Option seedOpt = Option.builder(K_SEED_OPT).argName(K_SEED_OPT).hasArg(true)
+                .required(false).desc("Optional, the random seed, the same seed gives the same HAR (default 1)").build();
+        options.addOption(seedOpt);
+        return options;
+    }
+
+    private static Properties parseOption(Options optionsP, String[] args)
+            throws ParseException, MissingOptionException {
+        Properties properties = new Properties();
+
+        CommandLineParser parser = new DefaultParser();
+        CommandLine line = parser.parse(optionsP, args);
+
+        if (line.hasOption("help")) {
+            properties.setProperty("help", "help value");
+            return properties;
+        }
+
+        String[] optionNames = {K_HAR_OUT_OPT, K_PAGES_OPT, K_ENTRIES_BY_PAGE_OPT, K_BODY_SIZE_OPT, K_MIME_MIX_OPT, K_MULTIPART_PERCENT_OPT,
+                K_REDIRECT_PERCENT_OPT, K_FROM_CACHE_PERCENT_OPT, K_DATA_URL_PERCENT_OPT, K_LRWR_TRANSACTIONS_OPT, K_WEBSOCKET_MESSAGES_OPT, K_SEED_OPT};
+        for (String optionName : optionNames) {
+            if (line.hasOption(optionName)) {
+                properties.setProperty(optionName, line.getOptionValue(optionName));
+            }
+        }
+        return properties;
+    }
+
+    private static void helpUsage(Options options) {
+        HelpFormatter formatter = new HelpFormatter();
+        String footer = "E.g : java -cp har-for-jmeter-<version>-jar-with-dependencies.jar " + HarGenerator.class.getName() + " -" + K_HAR_OUT_OPT + " synthetic.har.gz -"
+                + K_PAGES_OPT + " 50000 -" + K_ENTRIES_BY_PAGE_OPT + " 20 -" + K_BODY_SIZE_OPT + " 4096 -" + K_MULTIPART_PERCENT_OPT + " 2 -" + K_REDIRECT_PERCENT_OPT + " 3 -"
+                + K_FROM_CACHE_PERCENT_OPT + " 10 -" + K_DATA_URL_PERCENT_OPT + " 1 -" + K_LRWR_TRANSACTIONS_OPT + " true -" + K_WEBSOCKET_MESSAGES_OPT + " 10\n";
+
+        formatter.printHelp(120, HarGenerator.class.getName(),
+                HarGenerator.class.getName(), options, footer, true);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.generator;
+
+/**
+ * The parameters of the synthetic HAR, the percentages are the part of the entries with this feature
+ */
+public class HarGeneratorConfig {
+    private int nbPages = 10;
+    private int entriesByPage = 20;
+    private int bodySize = 2048;
+    private String mimeMix = "html:20,css:10,js:10,png:20,json:40"; // kind:weight separated with comma, kind is html, css, js, png or json
+    private int multipartPercent = 0;
+    private int redirectPercent = 0;
+    private int fromCachePercent = 0;
+    private int dataUrlPercent = 0;
+    private boolean isLrwrTransactions = false;
+    private int webSocketMessages = 0; // 0 = no websocket connection
+    private long startTimeMs = 1714746600000L;
+    private long pageGapMs = 5000;
+    private long entryGapMs = 20;
+    private long seed = 1;
+
+    public int getNbPages() {
+        return nbPages;
+    }
+
+    public void setNbPages(int nbPages) {
+        this.nbPages = nbPages;
+    }
+
+    public int getEntriesByPage() {
+        return entriesByPage;
+    }
+
+    public void setEntriesByPage(int entriesByPage) {
+        this.entriesByPage = entriesByPage;
+    }
+
+    public int getBodySize() {
+        return bodySize;
+    }
+
+    public void setBodySize(int bodySize) {
+        this.bodySize = bodySize;
+    }
+
+    public String getMimeMix() {
+        return mimeMix;
+    }
+
+    public void setMimeMix(String mimeMix) {
+        this.mimeMix = mimeMix;
+    }
+
+    public int getMultipartPercent() {
+        return multipartPercent;
+    }
+
+    public void setMultipartPercent(int multipartPercent) {
+        this.multipartPercent = multipartPercent;
+    }
+
+    public int getRedirectPercent() {
+        return redirectPercent;
+    }
+
+    public void setRedirectPercent(int redirectPercent) {
+        this.redirectPercent = redirectPercent;
+    }
+
+    public int getFromCachePercent() {
+        return fromCachePercent;
+    }
+
+    public void setFromCachePercent(int fromCachePercent) {
+        this.fromCachePercent = fromCachePercent;
+    }
+
+    public int getDataUrlPercent() {
+        return dataUrlPercent;
+    }
+
+    public void setDataUrlPercent(int dataUrlPercent) {
+        this.dataUrlPercent = dataUrlPercent;
+    }
+
+    public boolean isLrwrTransactions() {
+        return isLrwrTransactions;
+    }
+
+    public void setLrwrTransactions(boolean lrwrTransactions) {
+        isLrwrTransactions = lrwrTransactions;
+    }
+
+    public int getWebSocketMessages() {
+        return webSocketMessages;
+    }
+
+    public void setWebSocketMessages(int webSocketMessages) {
+        this.webSocketMessages = webSocketMessages;
+    }
+
+    public long getStartTimeMs() {
+        return startTimeMs;
+    }
+
+    public void setStartTimeMs(long startTimeMs) {
+        this.startTimeMs = startTimeMs;
+    }
+
+    public long getPageGapMs() {
+        return pageGapMs;
+    }
+
+    public void setPageGapMs(long pageGapMs) {
+        this.pageGapMs = pageGapMs;
+    }
+
+    public long getEntryGapMs() {
+        return entryGapMs;
+    }
+
+    public void setEntryGapMs(long entryGapMs) {
+        this.entryGapMs = entryGapMs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getNbEntries() {
+        return (long) nbPages * entriesByPage;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HarGeneratorConfig{");
+        sb.append("nbPages=").append(nbPages);
+        sb.append(", entriesByPage=").append(entriesByPage);
+        sb.append(", bodySize=").append(bodySize);
+        sb.append(", mimeMix='").append(mimeMix).append('\'');
+        sb.append(", multipartPercent=").append(multipartPercent);
+        sb.append(", redirectPercent=").append(redirectPercent);
+        sb.append(", fromCachePercent=").append(fromCachePercent);
+        sb.append(", dataUrlPercent=").append(dataUrlPercent);
+        sb.append(", isLrwrTransactions=").append(isLrwrTransactions);
+        sb.append(", webSocketMessages=").append(webSocketMessages);
+        sb.append(", startTimeMs=").append(startTimeMs);
+        sb.append(", pageGapMs=").append(pageGapMs);
+        sb.append(", entryGapMs=").append(entryGapMs);
+        sb.append(", seed=").append(seed);
+        sb.append('}');
+        return sb.toString();
+    }
+}
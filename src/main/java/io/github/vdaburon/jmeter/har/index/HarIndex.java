@@ -0,0 +1,360 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.index;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * The index of a HAR file : byte offsets of log.pages, of each log.entries[i] and of each response content.text with entry metadata.
+ * The index is saved in a sidecar file (e.g. myhar.har.idx) built once per HAR file, it is rebuilt if the HAR file size or last modified date change.
+ */
+public class HarIndex {
+
+    public static final String K_INDEX_FILE_EXTENSION = ".idx";
+
+    private static final int K_INDEX_MAGIC = 0x48415249; // "HARI"
+    private static final int K_INDEX_VERSION = 1;
+    private static final ObjectMapper JSON_STRING_MAPPER = new ObjectMapper();
+    private static final Logger LOGGER = Logger.getLogger(HarIndex.class.getName());
+
+    private long harSize;
+    private long harLastModified;
+    private long pagesStart = -1;   // offset of the '[' of log.pages, -1 if no pages
+    private long pagesEnd = -1;     // offset of the ']' of log.pages
+    private long entriesStart = -1; // offset of the '[' of log.entries, -1 if no entries
+    private long entriesEnd = -1;   // offset of the ']' of log.entries
+    private List<HarIndexEntry> listIndexEntries = new ArrayList<>();
+
+    public long getHarSize() {
+        return harSize;
+    }
+
+    public long getHarLastModified() {
+        return harLastModified;
+    }
+
+    public long getPagesStart() {
+        return pagesStart;
+    }
+
+    public long getPagesEnd() {
+        return pagesEnd;
+    }
+
+    public long getEntriesStart() {
+        return entriesStart;
+    }
+
+    public long getEntriesEnd() {
+        return entriesEnd;
+    }
+
+    public List<HarIndexEntry> getListIndexEntries() {
+        return listIndexEntries;
+    }
+
+    /**
+     * The sidecar index file name for a HAR file
+     * @param harFile the HAR file
+     * @return the index file (harFile + ".idx")
+     */
+    public static File indexFileFor(String harFile) {
+        return new File(harFile + K_INDEX_FILE_EXTENSION);
+    }
+
+    /**
+     * Is this index computed for this HAR file (same size and same last modified date) ?
+     * @param harFile the HAR file
+     * @return true if the index could be used for this HAR file
+     */
+    public boolean isValidFor(File harFile) {
+        return harFile.length() == harSize && harFile.lastModified() == harLastModified;
+    }
+
+    /**
+     * Read the index file if exists and valid for the HAR file else build the index and save it in the sidecar file
+     * @param harFile the HAR file
+     * @return the HarIndex for this HAR file
+     * @throws IOException trouble reading the HAR file or writing the index file
+     */
+    public static HarIndex getOrCreate(String harFile) throws IOException {
+        HarIndex harIndex = readIfValid(harFile);
+        if (harIndex != null) {
+            return harIndex;
+        }
+
+        File fHar = new File(harFile);
+        try (MappedHarFile mappedHarFile = new MappedHarFile(fHar)) {
+            harIndex = build(mappedHarFile, fHar);
+        }
+        harIndex.writeIndexFile(harFile);
+        return harIndex;
+    }
+
+    /**
+     * Read the index file if exists and valid for the HAR file
+     * @param harFile the HAR file
+     * @return the HarIndex or null if no index file or the index file is obsolete
+     */
+    public static HarIndex readIfValid(String harFile) {
+        File fIndex = indexFileFor(harFile);
+        if (!fIndex.exists()) {
+            return null;
+        }
+        try {
+            HarIndex harIndex = read(fIndex);
+            if (harIndex.isValidFor(new File(harFile))) {
+                LOGGER.info("Use the index file : " + fIndex.getPath() + ", number of entries : " + harIndex.getListIndexEntries().size());
+                return harIndex;
+            }
+            LOGGER.info("The index file is obsolete, the index will be recreated : " + fIndex.getPath());
+        } catch (IOException e) {
+            LOGGER.warning("Can't read the index file " + fIndex.getPath() + ", the index will be recreated, exception : " + e);
+        }
+        return null;
+    }
+
+    /**
+     * Save the index in the sidecar file of the HAR file, a write error is logged
+     * @param harFile the HAR file
+     */
+    public void writeIndexFile(String harFile) {
+        File fIndex = indexFileFor(harFile);
+        try {
+            write(fIndex);
+            LOGGER.info("Index file created : " + fIndex.getPath() + ", number of entries : " + listIndexEntries.size());
+        } catch (IOException e) {
+            // the index is in memory, could continue without the sidecar file (e.g. read only directory)
+            LOGGER.warning("Can't write the index file " + fIndex.getPath() + ", exception : " + e);
+        }
+    }
+
+    /**
+     * Build the index with a structural scan of the memory mapped HAR file
+     * @param mappedHarFile the HAR file memory mapped
+     * @param harFile the HAR file to save the size and the last modified date
+     * @return the HarIndex
+     */
+    public static HarIndex build(MappedHarFile mappedHarFile, File harFile) {
+        HarIndex harIndex = new HarIndex();
+        harIndex.harSize = harFile.length();
+        harIndex.harLastModified = harFile.lastModified();
+        HarScanner harScanner = new HarScanner(mappedHarFile);
+        harScanner.scan(new IndexBuilderListener(harIndex, mappedHarFile));
+        return harIndex;
+    }
+
+    /**
+     * Save the index in a binary file
+     * @param fileIndex the index file to write
+     * @throws IOException trouble when writing
+     */
+    public void write(File fileIndex) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileIndex), 65536))) {
+            out.writeInt(K_INDEX_MAGIC);
+            out.writeInt(K_INDEX_VERSION);
+            out.writeLong(harSize);
+            out.writeLong(harLastModified);
+            out.writeLong(pagesStart);
+            out.writeLong(pagesEnd);
+            out.writeLong(entriesStart);
+            out.writeLong(entriesEnd);
+            out.writeInt(listIndexEntries.size());
+            for (HarIndexEntry indexEntry : listIndexEntries) {
+                out.writeLong(indexEntry.getEntryStart());
+                out.writeLong(indexEntry.getEntryEnd());
+                out.writeLong(indexEntry.getContentTextStart());
+                out.writeLong(indexEntry.getContentTextEnd());
+                out.writeLong(indexEntry.getStartedTimeMs());
+                out.writeInt(indexEntry.getUrlHash());
+                out.writeInt(indexEntry.getStatus());
+                writeString(out, indexEntry.getPageref());
+                writeString(out, indexEntry.getMimeType());
+            }
+        }
+    }
+
+    /**
+     * Read the index file, the file is memory mapped
+     * @param fileIndex the index file to read
+     * @return the HarIndex
+     * @throws IOException trouble when reading or not an index file
+     */
+    public static HarIndex read(File fileIndex) throws IOException {
+        HarIndex harIndex = new HarIndex();
+        try (RandomAccessFile raf = new RandomAccessFile(fileIndex, "r")) {
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != K_INDEX_MAGIC || buffer.getInt() != K_INDEX_VERSION) {
+                throw new IOException("Not a HAR index file or not the same version : " + fileIndex.getPath());
+            }
+            harIndex.harSize = buffer.getLong();
+            harIndex.harLastModified = buffer.getLong();
+            harIndex.pagesStart = buffer.getLong();
+            harIndex.pagesEnd = buffer.getLong();
+            harIndex.entriesStart = buffer.getLong();
+            harIndex.entriesEnd = buffer.getLong();
+            int nbEntries = buffer.getInt();
+            List<HarIndexEntry> listIndexEntries = new ArrayList<>(nbEntries);
+            for (int i = 0; i < nbEntries; i++) {
+                HarIndexEntry indexEntry = new HarIndexEntry();
+                indexEntry.setEntryStart(buffer.getLong());
+                indexEntry.setEntryEnd(buffer.getLong());
+                indexEntry.setContentTextStart(buffer.getLong());
+                indexEntry.setContentTextEnd(buffer.getLong());
+                indexEntry.setStartedTimeMs(buffer.getLong());
+                indexEntry.setUrlHash(buffer.getInt());
+                indexEntry.setStatus(buffer.getInt());
+                indexEntry.setPageref(readString(buffer));
+                indexEntry.setMimeType(readString(buffer));
+                listIndexEntries.add(indexEntry);
+            }
+            harIndex.listIndexEntries = listIndexEntries;
+        } catch (RuntimeException e) {
+            // BufferUnderflowException for a truncated file
+            throw new IOException("Index file corrupted : " + fileIndex.getPath(), e);
+        }
+        return harIndex;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode a JSON string value with the quotes, e.g: "https://myhost/path" or "a \"quoted\" text"
+     * @param bytes the JSON string with the start and end quotes
+     * @return the String value
+     * @throws IOException not a valid JSON string
+     */
+    public static String decodeJsonString(byte[] bytes) throws IOException {
+        boolean isEscape = false;
+        for (int i = 1; i < bytes.length - 1; i++) {
+            if (bytes[i] == '\\') {
+                isEscape = true;
+                break;
+            }
+        }
+        if (!isEscape) {
+            return new String(bytes, 1, bytes.length - 2, StandardCharsets.UTF_8);
+        }
+        return JSON_STRING_MAPPER.readValue(bytes, String.class);
+    }
+
+    /**
+     * Collect the positions from the HarScanner and decode the metadata
+     */
+    private static class IndexBuilderListener implements HarScanListener {
+        private final HarIndex harIndex;
+        private final MappedHarFile mappedHarFile;
+        private HarIndexEntry currentEntry = new HarIndexEntry();
+
+        IndexBuilderListener(HarIndex harIndex, MappedHarFile mappedHarFile) {
+            this.harIndex = harIndex;
+            this.mappedHarFile = mappedHarFile;
+        }
+
+        @Override
+        public void pagesFound(long start, long end) {
+            harIndex.pagesStart = start;
+            harIndex.pagesEnd = end;
+        }
+
+        @Override
+        public void entriesFound(long start, long end) {
+            harIndex.entriesStart = start;
+            harIndex.entriesEnd = end;
+        }
+
+        @Override
+        public void entryFieldFound(int entryIndex, int field, long start, long end) {
+            if (field == HarScanner.K_FIELD_CONTENT_TEXT) {
+                if (mappedHarFile.get(start) == '"') {
+                    currentEntry.setContentTextStart(start);
+                    currentEntry.setContentTextEnd(end);
+                }
+                return;
+            }
+
+            byte[] bytes = mappedHarFile.read(start, end + 1);
+            try {
+                switch (field) {
+                    case HarScanner.K_FIELD_STARTED_DATE_TIME:
+                        String startedDateTime = decodeJsonString(bytes);
+                        currentEntry.setStartedTimeMs(OffsetDateTime.parse(startedDateTime).toInstant().toEpochMilli());
+                        break;
+                    case HarScanner.K_FIELD_PAGEREF:
+                        currentEntry.setPageref(decodeJsonString(bytes));
+                        break;
+                    case HarScanner.K_FIELD_URL:
+                        currentEntry.setUrlHash(decodeJsonString(bytes).hashCode());
+                        break;
+                    case HarScanner.K_FIELD_STATUS:
+                        currentEntry.setStatus(Integer.parseInt(new String(bytes, StandardCharsets.US_ASCII).trim()));
+                        break;
+                    case HarScanner.K_FIELD_MIME_TYPE:
+                        currentEntry.setMimeType(decodeJsonString(bytes));
+                        break;
+                    default:
+                        break;
+                }
+            } catch (Exception e) {
+                // metadata not available for this entry (e.g. "pageref": null or a date not in iso format), the entry stays in the index
+                LOGGER.fine("Entry " + entryIndex + ", can't decode field " + field + ", exception : " + e);
+            }
+        }
+
+        @Override
+        public void entryFound(int entryIndex, long start, long end) {
+            currentEntry.setEntryStart(start);
+            currentEntry.setEntryEnd(end);
+            harIndex.listIndexEntries.add(currentEntry);
+            currentEntry = new HarIndexEntry();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.index;
+
+/**
+ * The position of one entry in the HAR file and some metadata to select the entry without decoding it
+ */
+public class HarIndexEntry {
+
+    private long entryStart;              // offset of the '{'
+    private long entryEnd;                // offset of the '}'
+    private long contentTextStart = -1;   // offset of the '"' starting response.content.text, -1 if no text
+    private long contentTextEnd = -1;     // offset of the '"' ending response.content.text, -1 if no text
+    private long startedTimeMs = -1;      // startedDateTime in epoch milliseconds, -1 if not parsable
+    private String pageref;
+    private int urlHash;
+    private int status;
+    private String mimeType;
+
+    public long getEntryStart() {
+        return entryStart;
+    }
+
+    public void setEntryStart(long entryStart) {
+        this.entryStart = entryStart;
+    }
+
+    public long getEntryEnd() {
+        return entryEnd;
+    }
+
+    public void setEntryEnd(long entryEnd) {
+        this.entryEnd = entryEnd;
+    }
+
+    public long getContentTextStart() {
+        return contentTextStart;
+    }
+
+    public void setContentTextStart(long contentTextStart) {
+        this.contentTextStart = contentTextStart;
+    }
+
+    public long getContentTextEnd() {
+        return contentTextEnd;
+    }
+
+    public void setContentTextEnd(long contentTextEnd) {
+        this.contentTextEnd = contentTextEnd;
+    }
+
+    public boolean isContentText() {
+        return contentTextStart >= 0;
+    }
+
+    public long getStartedTimeMs() {
+        return startedTimeMs;
+    }
+
+    public void setStartedTimeMs(long startedTimeMs) {
+        this.startedTimeMs = startedTimeMs;
+    }
+
+    public String getPageref() {
+        return pageref;
+    }
+
+    public void setPageref(String pageref) {
+        this.pageref = pageref;
+    }
+
+    public int getUrlHash() {
+        return urlHash;
+    }
+
+    public void setUrlHash(int urlHash) {
+        this.urlHash = urlHash;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public void setMimeType(String mimeType) {
+        this.mimeType = mimeType;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HarIndexEntry{");
+        sb.append("entryStart=").append(entryStart);
+        sb.append(", entryEnd=").append(entryEnd);
+        sb.append(", contentTextStart=").append(contentTextStart);
+        sb.append(", contentTextEnd=").append(contentTextEnd);
+        sb.append(", startedTimeMs=").append(startedTimeMs);
+        sb.append(", pageref='").append(pageref).append('\'');
+        sb.append(", urlHash=").append(urlHash);
+        sb.append(", status=").append(status);
+        sb.append(", mimeType='").append(mimeType).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
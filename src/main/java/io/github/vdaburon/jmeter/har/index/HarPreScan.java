@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * A fast pre-scan of a plain HAR file before the reading : file size, number of entries and bytes of the response content.text.
+ * The file is memory mapped and scanned with the HarScanner, no JSON object is created.
+ * The heap needed is estimated for each engine to choose the reading engine and to fail fast when the HAR is too large.
+ * When the HAR could be read with its index, the pre-scan builds the index (or reads the valid index file) so the HAR is scanned only once.
+ */
+public class HarPreScan {
+
+    public enum Engine { IN_MEMORY, STREAMING, PARALLEL }
+
+    // the heap estimate factors, measured with synthetic HAR (see the scale test)
+    private static final double K_HEAP_BY_HAR_BYTE = 1.5; // the Har object (strings and objects) by byte of the JSON
+    private static final long K_HEAP_JMX_BY_ENTRY = 12 * 1024; // DOM of the JMeter script by entry (sampler, headers, parameters)
+    private static final long K_HEAP_RECORD_BY_ENTRY = 4 * 1024; // DOM of the record file by entry without the response body
+    private static final double K_HEAP_RECORD_BY_CONTENT_BYTE = 2.0; // DOM of the record file by byte of response body
+    private static final double K_HEAP_USABLE_RATIO = 0.8; // keep some heap for the gc and the xml serialization
+    private static final long K_PARALLEL_MIN_FILE_SIZE = 64L * 1024 * 1024; // smaller files are read faster with one thread
+    private static final int K_PARALLEL_MAX_THREADS = 8;
+    private static final Logger LOGGER = Logger.getLogger(HarPreScan.class.getName());
+
+    private final String harFile;
+    private long fileSize = 0;
+    private int nbEntries = 0;
+    private long contentTextBytes = 0;
+    private long scanTimeMs = 0;
+    private HarIndex harIndex = null; // the index built by the pre-scan or read from the index file
+    private boolean isIndexFileToWrite = false;
+
+    private HarPreScan(String harFile) {
+        this.harFile = harFile;
+    }
+
+    /**
+     * Scan the plain HAR file
+     * @param harFile the HAR file, not compressed
+     * @return the pre-scan result
+     * @throws IOException trouble when reading the file
+     */
+    public static HarPreScan scan(String harFile) throws IOException {
+        return scan(harFile, false);
+    }
+
+    /**
+     * Scan the plain HAR file and build the index if asked
+     * @param harFile the HAR file, not compressed
+     * @param isWithIndex do we build the index ? the valid index file is used if exists
+     * @return the pre-scan result
+     * @throws IOException trouble when reading the file
+     */
+    public static HarPreScan scan(String harFile, boolean isWithIndex) throws IOException {
+        HarPreScan harPreScan = new HarPreScan(harFile);
+        long startMs = System.currentTimeMillis();
+        File fHar = new File(harFile);
+        if (isWithIndex) {
+            harPreScan.harIndex = HarIndex.readIfValid(harFile);
+            if (harPreScan.harIndex == null) {
+                try (MappedHarFile mappedHarFile = new MappedHarFile(fHar)) {
+                    harPreScan.harIndex = HarIndex.build(mappedHarFile, fHar);
+                }
+                harPreScan.isIndexFileToWrite = true;
+            }
+            harPreScan.fileSize = fHar.length();
+            harPreScan.nbEntries = harPreScan.harIndex.getListIndexEntries().size();
+            for (HarIndexEntry indexEntry : harPreScan.harIndex.getListIndexEntries()) {
+                if (indexEntry.isContentText()) {
+                    harPreScan.contentTextBytes += indexEntry.getContentTextEnd() - indexEntry.getContentTextStart() + 1;
+                }
+            }
+            harPreScan.logScan(startMs);
+            return harPreScan;
+        }
+
+        try (MappedHarFile mappedHarFile = new MappedHarFile(fHar)) {
+            harPreScan.fileSize = mappedHarFile.size();
+            harPreScan.nbEntries = new HarScanner(mappedHarFile).scan(new HarScanListener() {
+                @Override
+                public void pagesFound(long start, long end) {
+                    // not used
+                }
+
+                @Override
+                public void entriesFound(long start, long end) {
+                    // not used
+                }
+
+                @Override
+                public void entryFieldFound(int entryIndex, int field, long start, long end) {
+                    if (field == HarScanner.K_FIELD_CONTENT_TEXT && mappedHarFile.get(start) == '"') { // a string, not null
+                        harPreScan.contentTextBytes += end - start + 1;
+                    }
+                }
+
+                @Override
+                public void entryFound(int entryIndex, long start, long end) {
+                    // counted by the scanner
+                }
+            });
+        }
+        harPreScan.logScan(startMs);
+        return harPreScan;
+    }
+
+    private void logScan(long startMs) {
+        scanTimeMs = System.currentTimeMillis() - startMs;
+        LOGGER.info("Pre-scan " + harFile + " : " + fileSize / (1024 * 1024) + " MB, " + nbEntries + " entries, "
+                + contentTextBytes / (1024 * 1024) + " MB of response bodies, scan duration " + scanTimeMs + " ms" + (harIndex != null ? ", with the index" : ""));
+    }
+
+    /**
+     * The index of the pre-scan for the reading with the index, the index built by the pre-scan is saved in the index file at the first call
+     * @return the index or null if the pre-scan was done without index
+     */
+    public HarIndex useHarIndex() {
+        if (isIndexFileToWrite) {
+            harIndex.writeIndexFile(harFile);
+            isIndexFileToWrite = false;
+        }
+        return harIndex;
+    }
+
+    /**
+     * Estimate the heap needed to convert the HAR
+     * @param engine the engine to read the HAR
+     * @param isWithRecord is the record file created ?
+     * @return the heap estimated in bytes
+     */
+    public long estimateHeapBytes(Engine engine, boolean isWithRecord) {
+        long harBytesInHeap = (engine == Engine.STREAMING ? fileSize - contentTextBytes : fileSize);
+        long harHeap = (long) (harBytesInHeap * K_HEAP_BY_HAR_BYTE);
+        long jmxHeap = nbEntries * K_HEAP_JMX_BY_ENTRY;
+        long recordHeap = 0;
+        if (isWithRecord) {
+            recordHeap = nbEntries * K_HEAP_RECORD_BY_ENTRY + (long) (contentTextBytes * K_HEAP_RECORD_BY_CONTENT_BYTE);
+        }
+        // the JMeter script document is not referenced when the record document is created
+        return harHeap + Math.max(jmxHeap, recordHeap);
+    }
+
+    /**
+     * Choose the engine : in memory if the HAR fits in the heap, parallel for a large HAR with several cores, streaming (index, response bodies read when needed) if the HAR does not fit in the heap
+     * @param maxHeapBytes the max heap of the JVM
+     * @param nbCores the number of cores
+     * @param isWithRecord is the record file created ?
+     * @return the engine or null if no engine could convert the HAR in this heap
+     */
+    public Engine selectEngine(long maxHeapBytes, int nbCores, boolean isWithRecord) {
+        long usableHeap = (long) (maxHeapBytes * K_HEAP_USABLE_RATIO);
+        if (estimateHeapBytes(Engine.IN_MEMORY, isWithRecord) <= usableHeap) {
+            if (fileSize >= K_PARALLEL_MIN_FILE_SIZE && nbCores >= 2) {
+                return Engine.PARALLEL;
+            }
+            return Engine.IN_MEMORY;
+        }
+        if (estimateHeapBytes(Engine.STREAMING, isWithRecord) <= usableHeap) {
+            return Engine.STREAMING;
+        }
+        return null;
+    }
+
+    /**
+     * @param nbCores the number of cores
+     * @return the number of threads for the parallel engine
+     */
+    public static int parallelThreads(int nbCores) {
+        return Math.max(2, Math.min(nbCores, K_PARALLEL_MAX_THREADS));
+    }
+
+    public String getHarFile() {
+        return harFile;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public int getNbEntries() {
+        return nbEntries;
+    }
+
+    public long getContentTextBytes() {
+        return contentTextBytes;
+    }
+
+    public long getScanTimeMs() {
+        return scanTimeMs;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("HarPreScan{");
+        sb.append("harFile='").append(harFile).append('\'');
+        sb.append(", fileSize=").append(fileSize);
+        sb.append(", nbEntries=").append(nbEntries);
+        sb.append(", contentTextBytes=").append(contentTextBytes);
+        sb.append(", scanTimeMs=").append(scanTimeMs);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.index;
+
+/**
+ * Receive the positions found by the HarScanner, all offsets are byte offsets in the HAR file.
+ */
+public interface HarScanListener {
+
+    /**
+     * The log.pages array
+     * @param start offset of the '['
+     * @param end offset of the ']'
+     */
+    void pagesFound(long start, long end);
+
+    /**
+     * The log.entries array
+     * @param start offset of the '['
+     * @param end offset of the ']'
+     */
+    void entriesFound(long start, long end);
+
+    /**
+     * A value of interest in the current entry, called before entryFound for this entry
+     * @param entryIndex the index of the entry in log.entries
+     * @param field the field, one of HarScanner.K_FIELD_XXX
+     * @param start offset of the first byte of the value (the '"' for a string)
+     * @param end offset of the last byte of the value (the '"' for a string)
+     */
+    void entryFieldFound(int entryIndex, int field, long start, long end);
+
+    /**
+     * A complete entry in log.entries
+     * @param entryIndex the index of the entry in log.entries
+     * @param start offset of the '{'
+     * @param end offset of the '}'
+     */
+    void entryFound(int entryIndex, long start, long end);
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A structural scan of the HAR JSON bytes, no object is created for the JSON values.
+ * The scanner only follows the nesting of objects, arrays and strings to find the positions of log.pages, log.entries[i] and some entry values.
+ * The JSON must be valid, the content is decoded later with the HAR reader (Jackson).
+ */
+public class HarScanner {
+
+    // fields reported in HarScanListener.entryFieldFound
+    public static final int K_FIELD_STARTED_DATE_TIME = 1;  // entries[i].startedDateTime
+    public static final int K_FIELD_PAGEREF = 2;            // entries[i].pageref
+    public static final int K_FIELD_URL = 3;                // entries[i].request.url
+    public static final int K_FIELD_STATUS = 4;             // entries[i].response.status
+    public static final int K_FIELD_MIME_TYPE = 5;          // entries[i].response.content.mimeType
+    public static final int K_FIELD_CONTENT_TEXT = 6;       // entries[i].response.content.text
+
+    // path of the container (object or array) in the JSON tree
+    private static final int K_PATH_OTHER = 0;
+    private static final int K_PATH_ROOT = 1;
+    private static final int K_PATH_LOG = 2;
+    private static final int K_PATH_PAGES = 3;
+    private static final int K_PATH_ENTRIES = 4;
+    private static final int K_PATH_ENTRY = 5;
+    private static final int K_PATH_REQUEST = 6;
+    private static final int K_PATH_RESPONSE = 7;
+    private static final int K_PATH_CONTENT = 8;
+
+    // the keys known by the scanner, the index in this array is the key id, 0 is an unknown key
+    private static final byte[][] K_KEYS = {
+            null,
+            "log".getBytes(StandardCharsets.US_ASCII),              // 1
+            "pages".getBytes(StandardCharsets.US_ASCII),            // 2
+            "entries".getBytes(StandardCharsets.US_ASCII),          // 3
+            "startedDateTime".getBytes(StandardCharsets.US_ASCII),  // 4
+            "pageref".getBytes(StandardCharsets.US_ASCII),          // 5
+            "request".getBytes(StandardCharsets.US_ASCII),          // 6
+            "url".getBytes(StandardCharsets.US_ASCII),              // 7
+            "response".getBytes(StandardCharsets.US_ASCII),         // 8
+            "status".getBytes(StandardCharsets.US_ASCII),           // 9
+            "content".getBytes(StandardCharsets.US_ASCII),          // 10
+            "mimeType".getBytes(StandardCharsets.US_ASCII),         // 11
+            "text".getBytes(StandardCharsets.US_ASCII)              // 12
+    };
+    private static final int K_KEY_OTHER = 0;
+    private static final int K_KEY_LOG = 1;
+    private static final int K_KEY_PAGES = 2;
+    private static final int K_KEY_ENTRIES = 3;
+    private static final int K_KEY_STARTED_DATE_TIME = 4;
+    private static final int K_KEY_PAGEREF = 5;
+    private static final int K_KEY_REQUEST = 6;
+    private static final int K_KEY_URL = 7;
+    private static final int K_KEY_RESPONSE = 8;
+    private static final int K_KEY_STATUS = 9;
+    private static final int K_KEY_CONTENT = 10;
+    private static final int K_KEY_MIME_TYPE = 11;
+    private static final int K_KEY_TEXT = 12;
+
+    private final MappedHarFile mappedHarFile;
+
+    public HarScanner(MappedHarFile mappedHarFile) {
+        this.mappedHarFile = mappedHarFile;
+    }
+
+    /**
+     * Scan all the HAR file and call the listener for each position found
+     * @param listener the listener to call
+     * @return number of entries found
+     */
+    public int scan(HarScanListener listener) {
+        long size = mappedHarFile.size();
+        int[] pathStack = new int[64];
+        int[] keyStack = new int[64];
+        long[] startStack = new long[64];
+        boolean[] isObjectStack = new boolean[64];
+        int depth = -1;
+        boolean isExpectKey = false;
+        int entryIndex = -1;
+
+        long pos = 0;
+        while (pos < size) {
+            byte b = mappedHarFile.get(pos);
+            switch (b) {
+                case '{':
+                case '[':
+                    boolean isObject = (b == '{');
+                    int childPath = computeChildPath(depth, pathStack, keyStack, isObject);
+                    depth++;
+                    if (depth == pathStack.length) {
+                        int newLength = pathStack.length * 2;
+                        pathStack = Arrays.copyOf(pathStack, newLength);
+                        keyStack = Arrays.copyOf(keyStack, newLength);
+                        startStack = Arrays.copyOf(startStack, newLength);
+                        isObjectStack = Arrays.copyOf(isObjectStack, newLength);
+                    }
+                    pathStack[depth] = childPath;
+                    keyStack[depth] = K_KEY_OTHER;
+                    startStack[depth] = pos;
+                    isObjectStack[depth] = isObject;
+                    isExpectKey = isObject;
+                    if (childPath == K_PATH_ENTRY) {
+                        entryIndex++;
+                    }
+                    pos++;
+                    break;
+                case '}':
+                case ']':
+                    if (depth >= 0) {
+                        int path = pathStack[depth];
+                        long start = startStack[depth];
+                        depth--;
+                        if (path == K_PATH_PAGES) {
+                            listener.pagesFound(start, pos);
+                        } else if (path == K_PATH_ENTRIES) {
+                            listener.entriesFound(start, pos);
+                        } else if (path == K_PATH_ENTRY) {
+                            listener.entryFound(entryIndex, start, pos);
+                        }
+                    }
+                    isExpectKey = false;
+                    pos++;
+                    break;
+                case '"':
+                    long stringStart = pos;
+                    pos = findEndOfString(pos, size);
+                    if (depth >= 0 && isObjectStack[depth] && isExpectKey) {
+                        keyStack[depth] = findKeyId(stringStart + 1, pos);
+                        isExpectKey = false;
+                    } else if (depth >= 0) {
+                        valueFound(listener, entryIndex, pathStack[depth], keyStack[depth], stringStart, pos);
+                    }
+                    pos++;
+                    break;
+                case ',':
+                    if (depth >= 0 && isObjectStack[depth]) {
+                        isExpectKey = true;
+                    }
+                    pos++;
+                    break;
+                case ':':
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                    pos++;
+                    break;
+                default:
+                    // number, true, false, null (or a BOM before the root object)
+                    long literalStart = pos;
+                    while (pos < size && !isDelimiter(mappedHarFile.get(pos))) {
+                        pos++;
+                    }
+                    if (depth >= 0) {
+                        valueFound(listener, entryIndex, pathStack[depth], keyStack[depth], literalStart, pos - 1);
+                    }
+                    break;
+            }
+        }
+        return entryIndex + 1;
+    }
+
+    private static int computeChildPath(int depth, int[] pathStack, int[] keyStack, boolean isObject) {
+        if (depth < 0) {
+            return (isObject ? K_PATH_ROOT : K_PATH_OTHER);
+        }
+        int parentPath = pathStack[depth];
+        int parentKey = keyStack[depth];
+        switch (parentPath) {
+            case K_PATH_ROOT:
+                return (parentKey == K_KEY_LOG && isObject ? K_PATH_LOG : K_PATH_OTHER);
+            case K_PATH_LOG:
+                if (!isObject && parentKey == K_KEY_PAGES) {
+                    return K_PATH_PAGES;
+                }
+                if (!isObject && parentKey == K_KEY_ENTRIES) {
+                    return K_PATH_ENTRIES;
+                }
+                return K_PATH_OTHER;
+            case K_PATH_ENTRIES:
+                return (isObject ? K_PATH_ENTRY : K_PATH_OTHER);
+            case K_PATH_ENTRY:
+                if (isObject && parentKey == K_KEY_REQUEST) {
+                    return K_PATH_REQUEST;
+                }
+                if (isObject && parentKey == K_KEY_RESPONSE) {
+                    return K_PATH_RESPONSE;
+                }
+                return K_PATH_OTHER;
+            case K_PATH_RESPONSE:
+                return (isObject && parentKey == K_KEY_CONTENT ? K_PATH_CONTENT : K_PATH_OTHER);
+            default:
+                return K_PATH_OTHER;
+        }
+    }
+
+    private static void valueFound(HarScanListener listener, int entryIndex, int path, int key, long start, long end) {
+        int field = 0;
+        switch (path) {
+            case K_PATH_ENTRY:
+                if (key == K_KEY_STARTED_DATE_TIME) {
+                    field = K_FIELD_STARTED_DATE_TIME;
+                } else if (key == K_KEY_PAGEREF) {
+                    field = K_FIELD_PAGEREF;
+                }
+                break;
+            case K_PATH_REQUEST:
+                if (key == K_KEY_URL) {
+                    field = K_FIELD_URL;
+                }
+                break;
+            case K_PATH_RESPONSE:
+                if (key == K_KEY_STATUS) {
+                    field = K_FIELD_STATUS;
+                }
+                break;
+            case K_PATH_CONTENT:
+                if (key == K_KEY_MIME_TYPE) {
+                    field = K_FIELD_MIME_TYPE;
+                } else if (key == K_KEY_TEXT) {
+                    field = K_FIELD_CONTENT_TEXT;
+                }
+                break;
+            default:
+                break;
+        }
+        if (field != 0) {
+            listener.entryFieldFound(entryIndex, field, start, end);
+        }
+    }
+
+    private long findEndOfString(long openQuote, long size) {
+        long pos = openQuote + 1;
+        while (pos < size) {
+            byte b = mappedHarFile.get(pos);
+            if (b == '\\') {
+                pos += 2;
+            } else if (b == '"') {
+                return pos;
+            } else {
+                pos++;
+            }
+        }
+        return size - 1;
+    }
+
+    private int findKeyId(long start, long end) {
+        int length = (int) (end - start);
+        for (int k = 1; k < K_KEYS.length; k++) {
+            byte[] key = K_KEYS[k];
+            if (key.length == length) {
+                boolean isSame = true;
+                for (int i = 0; i < length; i++) {
+                    if (mappedHarFile.get(start + i) != key[i]) {
+                        isSame = false;
+                        break;
+                    }
+                }
+                if (isSame) {
+                    return k;
+                }
+            }
+        }
+        return K_KEY_OTHER;
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '}' || b == ']' || b == '{' || b == '[' || b == '"' || b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == ':';
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.index;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.sstoehr.harreader.HarReaderException;
+import de.sstoehr.harreader.HarReaderMode;
+import de.sstoehr.harreader.jackson.DefaultMapperFactory;
+import de.sstoehr.harreader.model.Har;
+import de.sstoehr.harreader.model.HarContent;
+import de.sstoehr.harreader.model.HarEntry;
+import de.sstoehr.harreader.model.HarResponse;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Read a HAR file with the help of the HarIndex, the HAR file is memory mapped and only the entries needed are decoded.
+ * The response content.text could be loaded later with readContentText when the Record.xml file is created.
+ */
+public class IndexedHarReader implements Closeable {
+
+    private static final byte[] K_JSON_NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final Logger LOGGER = Logger.getLogger(IndexedHarReader.class.getName());
+
+    private final MappedHarFile mappedHarFile;
+    private final HarIndex harIndex;
+    private final ObjectMapper mapper;
+    private final Map<HarEntry, Integer> mapEntryToIndex = new IdentityHashMap<>(); // entry decoded -> index in log.entries
+
+    private IndexedHarReader(MappedHarFile mappedHarFile, HarIndex harIndex) {
+        this.mappedHarFile = mappedHarFile;
+        this.harIndex = harIndex;
+        this.mapper = new DefaultMapperFactory().instance(HarReaderMode.STRICT);
+    }
+
+    /**
+     * Open the HAR file with its index, the index is created if not exists or obsolete
+     * @param harFile the HAR file
+     * @return the IndexedHarReader to close after use
+     * @throws IOException trouble reading the HAR file or the index file
+     */
+    public static IndexedHarReader open(String harFile) throws IOException {
+        return open(harFile, HarIndex.getOrCreate(harFile));
+    }
+
+    /**
+     * Open the HAR file with an index already built, e.g: by the pre-scan
+     * @param harFile the HAR file
+     * @param harIndex the index of this HAR file
+     * @return the IndexedHarReader to close after use
+     * @throws IOException trouble reading the HAR file
+     */
+    public static IndexedHarReader open(String harFile, HarIndex harIndex) throws IOException {
+        MappedHarFile mappedHarFile = new MappedHarFile(new File(harFile));
+        return new IndexedHarReader(mappedHarFile, harIndex);
+    }
+
+    public HarIndex getHarIndex() {
+        return harIndex;
+    }
+
+    /**
+     * Read the HAR with all the entries
+     * @param isWithContentText do we read the response content.text ? if false the text could be read later with readContentText
+     * @return the Har object
+     * @throws HarReaderException trouble when decoding the HAR file
+     */
+    public Har readHar(boolean isWithContentText) throws HarReaderException {
+        return readHar(Long.MIN_VALUE, Long.MAX_VALUE, isWithContentText);
+    }
+
+    /**
+     * Read the HAR with only the entries started in the time window, the pages are not filtered
+     * @param startTimeMs the start of the time window in epoch milliseconds (included)
+     * @param endTimeMs the end of the time window in epoch milliseconds (included)
+     * @param isWithContentText do we read the response content.text ? if false the text could be read later with readContentText
+     * @return the Har object
+     * @throws HarReaderException trouble when decoding the HAR file
+     */
+    public Har readHar(long startTimeMs, long endTimeMs, boolean isWithContentText) throws HarReaderException {
+        Har har = readHarWithoutEntries();
+        List<HarIndexEntry> listIndexEntries = harIndex.getListIndexEntries();
+        List<HarEntry> listEntries = new ArrayList<>();
+        for (int i = 0; i < listIndexEntries.size(); i++) {
+            long startedTimeMs = listIndexEntries.get(i).getStartedTimeMs();
+            if (startedTimeMs >= 0 && (startedTimeMs < startTimeMs || startedTimeMs > endTimeMs)) {
+                continue;
+            }
+            listEntries.add(readEntry(i, isWithContentText));
+        }
+        har.getLog().setEntries(listEntries);
+        LOGGER.fine("Number of entries read with the index : " + listEntries.size() + "/" + listIndexEntries.size());
+        return har;
+    }
+
+    /**
+     * Read the HAR log with the pages but without the entries, the bytes between the '[' and the ']' of log.entries are skipped
+     * @return the Har object with an empty entries list
+     * @throws HarReaderException trouble when decoding the HAR file
+     */
+    public Har readHarWithoutEntries() throws HarReaderException {
+        byte[] bytes;
+        if (harIndex.getEntriesStart() < 0) {
+            bytes = mappedHarFile.read(0, mappedHarFile.size());
+        } else {
+            bytes = mappedHarFile.readWithout(harIndex.getEntriesStart(), harIndex.getEntriesEnd());
+        }
+        try {
+            return mapper.readValue(bytes, Har.class);
+        } catch (IOException e) {
+            throw new HarReaderException(e);
+        }
+    }
+
+    /**
+     * Decode one entry
+     * @param entryIndex the index of the entry in log.entries
+     * @param isWithContentText do we read the response content.text ?
+     * @return the HarEntry
+     * @throws HarReaderException trouble when decoding the entry
+     */
+    public HarEntry readEntry(int entryIndex, boolean isWithContentText) throws HarReaderException {
+        HarIndexEntry indexEntry = harIndex.getListIndexEntries().get(entryIndex);
+        long entryStart = indexEntry.getEntryStart();
+        long entryEnd = indexEntry.getEntryEnd();
+        byte[] bytes;
+        if (isWithContentText || !indexEntry.isContentText()) {
+            bytes = mappedHarFile.read(entryStart, entryEnd + 1);
+        } else {
+            // the text is replaced by null : [entryStart, textStart[ + null + ]textEnd, entryEnd]
+            int headLength = (int) (indexEntry.getContentTextStart() - entryStart);
+            int tailLength = (int) (entryEnd - indexEntry.getContentTextEnd());
+            bytes = new byte[headLength + K_JSON_NULL.length + tailLength];
+            mappedHarFile.read(entryStart, bytes, 0, headLength);
+            System.arraycopy(K_JSON_NULL, 0, bytes, headLength, K_JSON_NULL.length);
+            mappedHarFile.read(indexEntry.getContentTextEnd() + 1, bytes, headLength + K_JSON_NULL.length, tailLength);
+        }
+
+        HarEntry harEntry;
+        try {
+            harEntry = mapper.readValue(bytes, HarEntry.class);
+        } catch (IOException e) {
+            throw new HarReaderException(e);
+        }
+        if (!isWithContentText && indexEntry.isContentText()) {
+            mapEntryToIndex.put(harEntry, entryIndex);
+        }
+        return harEntry;
+    }
+
+    /**
+     * Read the response content.text of an entry read without the text
+     * @param harEntry the entry read with readEntry or readHar
+     * @return the text or the text already in the entry if the entry was read with the text or not read by this reader
+     * @throws HarReaderException trouble when decoding the text
+     */
+    public String readContentText(HarEntry harEntry) throws HarReaderException {
+        HarResponse harResponse = harEntry.getResponse();
+        HarContent harContent = (harResponse != null ? harResponse.getContent() : null);
+        String textInEntry = (harContent != null ? harContent.getText() : null);
+
+        Integer entryIndex = mapEntryToIndex.get(harEntry);
+        if (entryIndex == null || textInEntry != null) {
+            return textInEntry;
+        }
+        HarIndexEntry indexEntry = harIndex.getListIndexEntries().get(entryIndex);
+        byte[] bytes = mappedHarFile.read(indexEntry.getContentTextStart(), indexEntry.getContentTextEnd() + 1);
+        try {
+            return HarIndex.decodeJsonString(bytes);
+        } catch (IOException e) {
+            throw new HarReaderException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        mapEntryToIndex.clear();
+        mappedHarFile.close();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.index;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read only memory mapped file, the file is mapped in segments of 1 GB because a MappedByteBuffer is limited to 2 GB.
+ * Offsets are long, so a HAR file larger than 2 GB could be read.
+ */
+public class MappedHarFile implements Closeable {
+
+    private static final int K_SEGMENT_SHIFT = 30; // 1 GB
+    private static final long K_SEGMENT_SIZE = 1L << K_SEGMENT_SHIFT;
+    private static final long K_SEGMENT_MASK = K_SEGMENT_SIZE - 1;
+
+    private final RandomAccessFile randomAccessFile;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    public MappedHarFile(File file) throws IOException {
+        randomAccessFile = new RandomAccessFile(file, "r");
+        FileChannel channel = randomAccessFile.getChannel();
+        size = channel.size();
+        int nbSegments = (int) ((size + K_SEGMENT_SIZE - 1) / K_SEGMENT_SIZE);
+        segments = new MappedByteBuffer[nbSegments];
+        for (int i = 0; i < nbSegments; i++) {
+            long start = i * K_SEGMENT_SIZE;
+            long length = Math.min(K_SEGMENT_SIZE, size - start);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public byte get(long position) {
+        return segments[(int) (position >>> K_SEGMENT_SHIFT)].get((int) (position & K_SEGMENT_MASK));
+    }
+
+    /**
+     * Copy bytes from the mapped file
+     * @param start the first offset (included)
+     * @param end the last offset (excluded)
+     * @return the bytes between start and end
+     */
+    public byte[] read(long start, long end) {
+        int length = (int) (end - start);
+        byte[] bytes = new byte[length];
+        read(start, bytes, 0, length);
+        return bytes;
+    }
+
+    /**
+     * Copy all the bytes from the mapped file except the bytes between two offsets, used to read the HAR log without the entries
+     * @param keepUntil the last offset kept before the skipped bytes (included)
+     * @param keepFrom the first offset kept after the skipped bytes (included)
+     * @return the bytes [0, keepUntil] and [keepFrom, size[
+     */
+    public byte[] readWithout(long keepUntil, long keepFrom) {
+        int headLength = (int) (keepUntil + 1);
+        int tailLength = (int) (size - keepFrom);
+        byte[] bytes = new byte[headLength + tailLength];
+        read(0, bytes, 0, headLength);
+        read(keepFrom, bytes, headLength, tailLength);
+        return bytes;
+    }
+
+    /**
+     * Copy bytes from the mapped file to a destination array, the copy could cross segments
+     * @param start the first offset in the file
+     * @param destination the destination array
+     * @param destinationOffset the offset in the destination array
+     * @param length number of bytes to copy
+     */
+    public void read(long start, byte[] destination, int destinationOffset, int length) {
+        long position = start;
+        int offset = destinationOffset;
+        int remaining = length;
+        while (remaining > 0) {
+            // cast to ByteBuffer and Buffer to stay binary compatible with a JRE 8
+            ByteBuffer segment = ((ByteBuffer) segments[(int) (position >>> K_SEGMENT_SHIFT)]).duplicate();
+            int inSegment = (int) (position & K_SEGMENT_MASK);
+            int toCopy = Math.min(remaining, segment.limit() - inSegment);
+            ((Buffer) segment).position(inSegment);
+            segment.get(destination, offset, toCopy);
+            position += toCopy;
+            offset += toCopy;
+            remaining -= toCopy;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        randomAccessFile.close();
+    }
+}
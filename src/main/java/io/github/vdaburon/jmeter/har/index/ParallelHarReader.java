@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.index;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.sstoehr.harreader.HarReaderException;
+import de.sstoehr.harreader.HarReaderMode;
+import de.sstoehr.harreader.jackson.DefaultMapperFactory;
+import de.sstoehr.harreader.model.Har;
+import de.sstoehr.harreader.model.HarEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Read a HAR file with multiple threads : the file is memory mapped, a structural scan finds the entry boundaries in log.entries,
+ * the entries array is split in chunks and each chunk is decoded by a thread. The entries are returned in the original order.
+ */
+public class ParallelHarReader {
+
+    private static final int K_CHUNKS_BY_THREAD = 4; // more chunks than threads to balance entries with large and small content
+    private static final Logger LOGGER = Logger.getLogger(ParallelHarReader.class.getName());
+
+    private final int nbThreads;
+    private final ObjectMapper mapper;
+
+    /**
+     * @param nbThreads number of threads to decode the entries, must be &gt; 0
+     */
+    public ParallelHarReader(int nbThreads) {
+        this.nbThreads = Math.max(1, nbThreads);
+        this.mapper = new DefaultMapperFactory().instance(HarReaderMode.STRICT);
+    }
+
+    /**
+     * Read the HAR file, the entries are decoded in parallel
+     * @param harFile the HAR file
+     * @return the Har object with all entries in the file order
+     * @throws HarReaderException trouble when reading or decoding the HAR file
+     */
+    public Har readFromFile(File harFile) throws HarReaderException {
+        try (MappedHarFile mappedHarFile = new MappedHarFile(harFile)) {
+            EntryBoundariesListener boundaries = new EntryBoundariesListener();
+            new HarScanner(mappedHarFile).scan(boundaries);
+            LOGGER.fine("Number of entries found by the scan : " + boundaries.nbEntries);
+
+            Har har;
+            if (boundaries.entriesStart < 0) {
+                har = mapper.readValue(mappedHarFile.read(0, mappedHarFile.size()), Har.class);
+            } else {
+                har = mapper.readValue(mappedHarFile.readWithout(boundaries.entriesStart, boundaries.entriesEnd), Har.class);
+            }
+            har.getLog().setEntries(decodeEntries(mappedHarFile, boundaries));
+            return har;
+        } catch (IOException e) {
+            throw new HarReaderException(e);
+        }
+    }
+
+    private List<HarEntry> decodeEntries(MappedHarFile mappedHarFile, EntryBoundariesListener boundaries) throws HarReaderException {
+        int nbEntries = boundaries.nbEntries;
+        List<HarEntry> listEntries = new ArrayList<>(nbEntries);
+        if (nbEntries == 0) {
+            return listEntries;
+        }
+
+        // chunks with about the same number of bytes, a chunk contains at least one entry
+        long totalBytes = boundaries.ends[nbEntries - 1] - boundaries.starts[0] + 1;
+        long chunkBytes = Math.max(1, totalBytes / ((long) nbThreads * K_CHUNKS_BY_THREAD));
+        List<int[]> listChunks = new ArrayList<>();
+        int chunkFirst = 0;
+        for (int i = 0; i < nbEntries; i++) {
+            if (boundaries.ends[i] - boundaries.starts[chunkFirst] + 1 >= chunkBytes || i == nbEntries - 1) {
+                listChunks.add(new int[] {chunkFirst, i});
+                chunkFirst = i + 1;
+            }
+        }
+        LOGGER.info("Decode " + nbEntries + " entries in " + listChunks.size() + " chunks with " + nbThreads + " threads");
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads, runnable -> {
+            Thread thread = new Thread(runnable, "har-parser-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<List<HarEntry>>> listFutures = new ArrayList<>(listChunks.size());
+            for (int[] chunk : listChunks) {
+                listFutures.add(executor.submit(() -> decodeChunk(mappedHarFile, boundaries, chunk[0], chunk[1])));
+            }
+            // the futures are in the chunk order, so the entries keep the HAR order
+            for (Future<List<HarEntry>> future : listFutures) {
+                listEntries.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HarReaderException(e);
+        } catch (ExecutionException e) {
+            throw new HarReaderException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return listEntries;
+    }
+
+    private List<HarEntry> decodeChunk(MappedHarFile mappedHarFile, EntryBoundariesListener boundaries, int first, int last) throws IOException {
+        List<HarEntry> listEntries = new ArrayList<>(last - first + 1);
+        for (int i = first; i <= last; i++) {
+            byte[] bytes = mappedHarFile.read(boundaries.starts[i], boundaries.ends[i] + 1);
+            listEntries.add(mapper.readValue(bytes, HarEntry.class));
+        }
+        return listEntries;
+    }
+
+    /**
+     * Only keep the positions of log.entries and of each entry
+     */
+    private static class EntryBoundariesListener implements HarScanListener {
+        private long entriesStart = -1;
+        private long entriesEnd = -1;
+        private long[] starts = new long[1024];
+        private long[] ends = new long[1024];
+        private int nbEntries = 0;
+
+        @Override
+        public void pagesFound(long start, long end) {
+            // the pages are decoded with the log
+        }
+
+        @Override
+        public void entriesFound(long start, long end) {
+            entriesStart = start;
+            entriesEnd = end;
+        }
+
+        @Override
+        public void entryFieldFound(int entryIndex, int field, long start, long end) {
+            // no metadata needed
+        }
+
+        @Override
+        public void entryFound(int entryIndex, long start, long end) {
+            if (nbEntries == starts.length) {
+                starts = Arrays.copyOf(starts, nbEntries * 2);
+                ends = Arrays.copyOf(ends, nbEntries * 2);
+            }
+            starts[nbEntries] = start;
+            ends[nbEntries] = end;
+            nbEntries++;
+        }
+    }
+}
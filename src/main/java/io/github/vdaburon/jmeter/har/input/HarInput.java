@@ -0,0 +1,256 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.input;
+
+import de.sstoehr.harreader.HarReaderException;
+import de.sstoehr.harreader.HarReaderMode;
+import de.sstoehr.harreader.jackson.DefaultMapperFactory;
+import de.sstoehr.harreader.model.Har;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Open the har_in file, the file could be a plain HAR (JSON), a gzip or zstd compressed HAR or a zip archive with one or more HAR files.
+ * The format is found with the first bytes of the file (magic number) not with the file extension.
+ * The content is decompressed on the fly, no temporary file is created.
+ */
+public class HarInput {
+
+    public enum Format { PLAIN, GZIP, ZSTD, ZIP }
+
+    /**
+     * Open a new stream on the same HAR content, for the readers that need the HAR content
+     */
+    public interface StreamOpener {
+        InputStream open() throws IOException;
+    }
+
+    private static final int K_BUFFER_SIZE = 65536;
+    private static final String[] K_HAR_EXTENSIONS_IN_ZIP = {".har", ".har.gz", ".har.zst", ".json"};
+    private static final Logger LOGGER = Logger.getLogger(HarInput.class.getName());
+
+    /**
+     * Find the format of the har_in file with the magic number
+     * @param harIn the file to read
+     * @return the format, PLAIN if not a known compressed or archive format
+     * @throws IOException trouble when reading the file
+     */
+    public static Format detectFormat(String harIn) throws IOException {
+        try (InputStream in = new FileInputStream(harIn)) {
+            byte[] magic = new byte[4];
+            int nbRead = 0;
+            while (nbRead < magic.length) {
+                int n = in.read(magic, nbRead, magic.length - nbRead);
+                if (n < 0) {
+                    break;
+                }
+                nbRead += n;
+            }
+            return detectFormat(magic, nbRead);
+        }
+    }
+
+    private static Format detectFormat(byte[] magic, int length) {
+        if (length >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B) {
+            return Format.GZIP;
+        }
+        if (length >= 4 && (magic[0] & 0xFF) == 0x28 && (magic[1] & 0xFF) == 0xB5 && (magic[2] & 0xFF) == 0x2F && (magic[3] & 0xFF) == 0xFD) {
+            return Format.ZSTD;
+        }
+        if (length >= 4 && magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4) {
+            return Format.ZIP;
+        }
+        return Format.PLAIN;
+    }
+
+    /**
+     * Is the har_in file a plain HAR file (not compressed), only a plain file could be memory mapped
+     * @param harIn the file to read
+     * @return true if plain HAR
+     * @throws IOException trouble when reading the file
+     */
+    public static boolean isPlainFile(String harIn) throws IOException {
+        return detectFormat(harIn) == Format.PLAIN;
+    }
+
+    /**
+     * Open the HAR content of the har_in file, the content is decompressed for gzip or zstd.
+     * For a zip archive the archive must contain only one HAR file
+     * @param harIn the file to read
+     * @return the HAR content stream to close after use
+     * @throws IOException trouble when reading the file or zip with more than one HAR
+     */
+    public static InputStream openStream(String harIn) throws IOException {
+        if (detectFormat(harIn) == Format.ZIP) {
+            List<String> listEntries = listHarInZip(harIn);
+            if (listEntries.size() != 1) {
+                throw new IOException("The zip file must contain one HAR file, number of HAR files : " + listEntries.size() + ", file : " + harIn);
+            }
+            ZipFile zipFile = new ZipFile(harIn);
+            InputStream in = openZipEntry(zipFile, listEntries.get(0));
+            return new ZipEntryInputStream(in, zipFile);
+        }
+        return decompress(new FileInputStream(harIn));
+    }
+
+    /**
+     * Add the decompression to a stream if the stream is gzip or zstd compressed
+     * @param in the stream to read
+     * @return the stream with the decompression if needed
+     * @throws IOException trouble when reading the stream
+     */
+    public static InputStream decompress(InputStream in) throws IOException {
+        BufferedInputStream bis = new BufferedInputStream(in, K_BUFFER_SIZE);
+        bis.mark(4);
+        byte[] magic = new byte[4];
+        int nbRead = 0;
+        while (nbRead < magic.length) {
+            int n = bis.read(magic, nbRead, magic.length - nbRead);
+            if (n < 0) {
+                break;
+            }
+            nbRead += n;
+        }
+        bis.reset();
+        Format format = detectFormat(magic, nbRead);
+        LOGGER.fine("Input format : " + format);
+        switch (format) {
+            case GZIP:
+                return new BufferedInputStream(new GZIPInputStream(bis, K_BUFFER_SIZE), K_BUFFER_SIZE);
+            case ZSTD:
+                return new BufferedInputStream(new ZstdInputStream(bis), K_BUFFER_SIZE);
+            case ZIP:
+                throw new IOException("A zip archive in a stream is not supported, the zip must be a file");
+            default:
+                return bis;
+        }
+    }
+
+    /**
+     * The HAR files in a zip archive (extension .har, .har.gz, .har.zst or .json), the order is the order in the archive
+     * @param zipIn the zip file
+     * @return list of entry names
+     * @throws IOException trouble when reading the zip
+     */
+    public static List<String> listHarInZip(String zipIn) throws IOException {
+        List<String> listEntries = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(zipIn)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry zipEntry = entries.nextElement();
+                if (!zipEntry.isDirectory() && StringUtils.endsWithAny(zipEntry.getName().toLowerCase(), K_HAR_EXTENSIONS_IN_ZIP)) {
+                    listEntries.add(zipEntry.getName());
+                }
+            }
+        }
+        return listEntries;
+    }
+
+    /**
+     * Open a HAR file in a zip archive, the entry could also be gzip or zstd compressed
+     * @param zipFile the zip opened
+     * @param entryName the name of the entry
+     * @return the HAR content stream
+     * @throws IOException trouble when reading the zip or entry not found
+     */
+    public static InputStream openZipEntry(ZipFile zipFile, String entryName) throws IOException {
+        ZipEntry zipEntry = zipFile.getEntry(entryName);
+        if (zipEntry == null) {
+            throw new IOException("Entry not found in the zip file : " + entryName);
+        }
+        return decompress(zipFile.getInputStream(zipEntry));
+    }
+
+    /**
+     * Read the HAR from a stream
+     * @param in the HAR content stream, the stream is not closed
+     * @return the Har object
+     * @throws HarReaderException trouble when reading the HAR
+     */
+    public static Har readHar(InputStream in) throws HarReaderException {
+        try {
+            return new DefaultMapperFactory().instance(HarReaderMode.STRICT).readValue(in, Har.class);
+        } catch (IOException e) {
+            throw new HarReaderException(e);
+        }
+    }
+
+    /**
+     * Compute the output file name for a HAR in a zip archive with several HAR, e.g: script.jmx and checkout.har.gz give script_checkout.jmx,
+     * the path in the zip is kept to not write a/checkout.har and b/checkout.har in the same file, e.g: script.jmx and folder/checkout.har give script_folder_checkout.jmx
+     * @param fileOut the output file name from the parameter (jmx_out or record_out)
+     * @param entryName the name of the HAR entry in the zip
+     * @return the output file name for this entry
+     */
+    public static String outputFileForEntry(String fileOut, String entryName) {
+        if (fileOut == null || fileOut.isEmpty()) {
+            return fileOut;
+        }
+        String entryBaseName = entryName.replaceAll("^[/\\\\]+", ""); // the path in the zip without the leading separator
+        String lowerName = entryBaseName.toLowerCase();
+        for (String extension : K_HAR_EXTENSIONS_IN_ZIP) {
+            if (lowerName.endsWith(extension)) {
+                entryBaseName = entryBaseName.substring(0, entryBaseName.length() - extension.length());
+                break;
+            }
+        }
+        entryBaseName = entryBaseName.replaceAll("[^A-Za-z0-9._-]", "_");
+
+        int posDot = fileOut.lastIndexOf('.');
+        int posSeparator = Math.max(fileOut.lastIndexOf('/'), fileOut.lastIndexOf('\\'));
+        if (posDot > posSeparator + 1) {
+            return fileOut.substring(0, posDot) + "_" + entryBaseName + fileOut.substring(posDot);
+        }
+        return fileOut + "_" + entryBaseName;
+    }
+
+    /**
+     * Close the zip file when the entry stream is closed
+     */
+    private static class ZipEntryInputStream extends FilterInputStream {
+        private final ZipFile zipFile;
+
+        ZipEntryInputStream(InputStream in, ZipFile zipFile) {
+            super(in);
+            this.zipFile = zipFile;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                zipFile.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.jfr;
+
+import de.sstoehr.harreader.model.HarEntry;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * JDK Flight Recorder events of the conversion : HAR load, page (Transaction Controller), entry (sampler or record sample),
+ * multipart parsing, base64 decoding and XML serialization. The entry events have a threshold to keep only the slow entries.
+ * <p>
+ * The events are typed Object for the caller, so the convertor still runs on a JVM without the jdk.jfr module (e.g: old Java 8),
+ * the methods do nothing when JFR is not available or the event is not enabled in the recording.
+ * <pre>
+ * Object event = ConversionEvents.beginEntry();
+ * // create the sampler
+ * ConversionEvents.commitEntry(event, ConversionEvents.K_STAGE_JMX, entryIndex, harEntry);
+ * </pre>
+ */
+public final class ConversionEvents {
+
+    public static final String K_STAGE_JMX = "jmx";
+    public static final String K_STAGE_RECORD = "record";
+
+    private static final Logger LOGGER = Logger.getLogger(ConversionEvents.class.getName());
+    private static final boolean K_JFR_AVAILABLE = isJfrAvailable();
+
+    private ConversionEvents() {
+    }
+
+    public static boolean isAvailable() {
+        return K_JFR_AVAILABLE;
+    }
+
+    public static Object beginHarLoad() {
+        return (K_JFR_AVAILABLE ? JfrEvents.beginHarLoad() : null);
+    }
+
+    /**
+     * @param event the event from beginHarLoad, could be null
+     * @param harFile the har file read
+     * @param entries number of entries read
+     */
+    public static void commitHarLoad(Object event, String harFile, int entries) {
+        if (event != null) {
+            JfrEvents.commitHarLoad(event, harFile, entries);
+        }
+    }
+
+    public static Object beginPage() {
+        return (K_JFR_AVAILABLE ? JfrEvents.beginPage() : null);
+    }
+
+    /**
+     * @param event the event from beginPage, could be null
+     * @param pageIndex the index of the page in log.pages
+     * @param pageId the page id
+     * @param title the Transaction Controller name
+     * @param samplers number of samplers created for this page
+     */
+    public static void commitPage(Object event, int pageIndex, String pageId, String title, int samplers) {
+        if (event != null) {
+            JfrEvents.commitPage(event, pageIndex, pageId, title, samplers);
+        }
+    }
+
+    public static Object beginEntry() {
+        return (K_JFR_AVAILABLE ? JfrEvents.beginEntry() : null);
+    }
+
+    /**
+     * @param event the event from beginEntry, could be null
+     * @param stage K_STAGE_JMX or K_STAGE_RECORD
+     * @param entryIndex the index of the entry in log.entries
+     * @param harEntry the entry, the method, host, mime type and body sizes are read only for a slow entry
+     */
+    public static void commitEntry(Object event, String stage, int entryIndex, HarEntry harEntry) {
+        if (event != null) {
+            JfrEvents.commitEntry(event, stage, entryIndex, harEntry);
+        }
+    }
+
+    public static Object beginMultiPart() {
+        return (K_JFR_AVAILABLE ? JfrEvents.beginMultiPart() : null);
+    }
+
+    /**
+     * @param event the event from beginMultiPart, could be null
+     * @param url the request url, only the host is kept
+     * @param textSize the size of the multipart text
+     * @param parts number of parts
+     */
+    public static void commitMultiPart(Object event, String url, long textSize, int parts) {
+        if (event != null) {
+            JfrEvents.commitMultiPart(event, url, textSize, parts);
+        }
+    }
+
+    public static Object beginBase64Decode() {
+        return (K_JFR_AVAILABLE ? JfrEvents.beginBase64Decode() : null);
+    }
+
+    /**
+     * @param event the event from beginBase64Decode, could be null
+     * @param encodedSize the size of the base64 text
+     * @param decodedSize the size decoded
+     */
+    public static void commitBase64Decode(Object event, long encodedSize, long decodedSize) {
+        if (event != null) {
+            JfrEvents.commitBase64Decode(event, encodedSize, decodedSize);
+        }
+    }
+
+    public static Object beginXmlSave() {
+        return (K_JFR_AVAILABLE ? JfrEvents.beginXmlSave() : null);
+    }
+
+    /**
+     * @param event the event from beginXmlSave, could be null
+     * @param file the file written
+     * @param bytesWritten number of bytes written
+     */
+    public static void commitXmlSave(Object event, String file, long bytesWritten) {
+        if (event != null) {
+            JfrEvents.commitXmlSave(event, file, bytesWritten);
+        }
+    }
+
+    /**
+     * Start a JFR recording (profile settings and the conversion events), for a JVM not started with -XX:StartFlightRecording
+     * @param jfrOut the jfr file written when the recording is stopped
+     * @param slowEntryMs threshold in milliseconds for the entry, multipart and base64 events
+     * @throws IOException JFR not available or can't create the recording
+     */
+    public static void startRecording(String jfrOut, long slowEntryMs) throws IOException {
+        if (!K_JFR_AVAILABLE) {
+            throw new IOException("JDK Flight Recorder is not available in this JVM");
+        }
+        JfrEvents.startRecording(jfrOut, slowEntryMs);
+        LOGGER.info("JFR recording started, file : " + jfrOut + ", slow entry threshold ms : " + slowEntryMs);
+    }
+
+    /**
+     * Stop the recording started with startRecording and write the jfr file
+     */
+    public static void stopRecording() {
+        if (K_JFR_AVAILABLE) {
+            JfrEvents.stopRecording();
+        }
+    }
+
+    static String hostFromUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        int posScheme = url.indexOf("://");
+        if (posScheme < 0) {
+            return url.substring(0, Math.min(url.length(), 32)); // e.g: data:image/png;base64
+        }
+        int posStart = posScheme + 3;
+        int posEnd = posStart;
+        while (posEnd < url.length() && url.charAt(posEnd) != '/' && url.charAt(posEnd) != '?' && url.charAt(posEnd) != '#') {
+            posEnd++;
+        }
+        return url.substring(posStart, posEnd);
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return JfrEvents.isAvailable();
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOGGER.fine("JDK Flight Recorder not available : " + e);
+            return false;
+        }
+    }
+}
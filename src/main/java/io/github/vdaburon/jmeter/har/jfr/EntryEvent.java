@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Create the sampler of an entry in the JMeter script (stage jmx) or the sample in the record file (stage record)
+ */
+@Name(JfrEvents.K_EVENT_PREFIX + "Entry")
+@Label("Entry")
+@Description("Create the sampler of an entry in the JMeter script (stage jmx) or the sample in the record file (stage record)")
+@Category(JfrEvents.K_CATEGORY)
+@StackTrace(false)
+@Threshold(JfrEvents.K_SLOW_ENTRY_THRESHOLD)
+class EntryEvent extends jdk.jfr.Event {
+    @Label("Stage")
+    String stage;
+
+    @Label("Entry Index")
+    int entryIndex;
+
+    @Label("Method")
+    String method;
+
+    @Label("Host")
+    String host;
+
+    @Label("MIME Type")
+    String mimeType;
+
+    @Label("Request Body Size")
+    @DataAmount
+    long requestBodySize;
+
+    @Label("Response Body Size")
+    @DataAmount
+    long responseBodySize;
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.jfr;
+
+import de.sstoehr.harreader.model.HarContent;
+import de.sstoehr.harreader.model.HarEntry;
+import de.sstoehr.harreader.model.HarPostData;
+import de.sstoehr.harreader.model.HarRequest;
+import de.sstoehr.harreader.model.HarResponse;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * The JFR implementation of ConversionEvents, this class is loaded only when the jdk.jfr module is available
+ */
+class JfrEvents {
+
+    static final String K_EVENT_PREFIX = "io.github.vdaburon.har.";
+    static final String K_CATEGORY = "HAR to JMeter";
+    static final String K_SLOW_ENTRY_THRESHOLD = "20 ms"; // default threshold for the entry events, change it with the jfc settings or jfr_slow_entry_ms
+
+    private static Recording recording = null;
+
+    private JfrEvents() {
+    }
+
+    static boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    static Object beginHarLoad() {
+        return begin(new HarLoadEvent());
+    }
+
+    static void commitHarLoad(Object event, String harFile, int entries) {
+        HarLoadEvent harLoadEvent = (HarLoadEvent) event;
+        harLoadEvent.end();
+        if (harLoadEvent.shouldCommit()) {
+            harLoadEvent.harFile = harFile;
+            harLoadEvent.entries = entries;
+            harLoadEvent.commit();
+        }
+    }
+
+    static Object beginPage() {
+        return begin(new PageEvent());
+    }
+
+    static void commitPage(Object event, int pageIndex, String pageId, String title, int samplers) {
+        PageEvent pageEvent = (PageEvent) event;
+        pageEvent.end();
+        if (pageEvent.shouldCommit()) {
+            pageEvent.pageIndex = pageIndex;
+            pageEvent.pageId = pageId;
+            pageEvent.title = title;
+            pageEvent.samplers = samplers;
+            pageEvent.commit();
+        }
+    }
+
+    static Object beginEntry() {
+        return begin(new EntryEvent());
+    }
+
+    static void commitEntry(Object event, String stage, int entryIndex, HarEntry harEntry) {
+        EntryEvent entryEvent = (EntryEvent) event;
+        entryEvent.end();
+        // the fields are set only for the slow entries
+        if (entryEvent.shouldCommit()) {
+            entryEvent.stage = stage;
+            entryEvent.entryIndex = entryIndex;
+            HarRequest harRequest = harEntry.getRequest();
+            if (harRequest != null) {
+                entryEvent.method = (harRequest.getMethod() != null ? harRequest.getMethod().name() : null);
+                entryEvent.host = ConversionEvents.hostFromUrl(harRequest.getUrl());
+                HarPostData harPostData = harRequest.getPostData();
+                entryEvent.requestBodySize = (harPostData != null && harPostData.getText() != null ? harPostData.getText().length() : 0);
+            }
+            HarResponse harResponse = harEntry.getResponse();
+            HarContent harContent = (harResponse != null ? harResponse.getContent() : null);
+            if (harContent != null) {
+                entryEvent.mimeType = harContent.getMimeType();
+                entryEvent.responseBodySize = (harContent.getSize() != null ? harContent.getSize() : 0);
+            }
+            entryEvent.commit();
+        }
+    }
+
+    static Object beginMultiPart() {
+        return begin(new MultiPartEvent());
+    }
+
+    static void commitMultiPart(Object event, String url, long textSize, int parts) {
+        MultiPartEvent multiPartEvent = (MultiPartEvent) event;
+        multiPartEvent.end();
+        if (multiPartEvent.shouldCommit()) {
+            multiPartEvent.host = ConversionEvents.hostFromUrl(url);
+            multiPartEvent.textSize = textSize;
+            multiPartEvent.parts = parts;
+            multiPartEvent.commit();
+        }
+    }
+
+    static Object beginBase64Decode() {
+        return begin(new Base64DecodeEvent());
+    }
+
+    static void commitBase64Decode(Object event, long encodedSize, long decodedSize) {
+        Base64DecodeEvent base64DecodeEvent = (Base64DecodeEvent) event;
+        base64DecodeEvent.end();
+        if (base64DecodeEvent.shouldCommit()) {
+            base64DecodeEvent.encodedSize = encodedSize;
+            base64DecodeEvent.decodedSize = decodedSize;
+            base64DecodeEvent.commit();
+        }
+    }
+
+    static Object beginXmlSave() {
+        return begin(new XmlSaveEvent());
+    }
+
+    static void commitXmlSave(Object event, String file, long bytesWritten) {
+        XmlSaveEvent xmlSaveEvent = (XmlSaveEvent) event;
+        xmlSaveEvent.end();
+        if (xmlSaveEvent.shouldCommit()) {
+            xmlSaveEvent.file = file;
+            xmlSaveEvent.bytesWritten = bytesWritten;
+            xmlSaveEvent.commit();
+        }
+    }
+
+    static synchronized void startRecording(String jfrOut, long slowEntryMs) throws IOException {
+        if (recording != null) {
+            return;
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration("profile");
+        } catch (ParseException e) {
+            throw new IOException(e);
+        }
+        recording = new Recording(configuration);
+        recording.setName("har-to-jmeter");
+        recording.setDestination(Paths.get(jfrOut));
+        recording.setToDisk(true);
+        Duration slowEntryThreshold = Duration.ofMillis(slowEntryMs);
+        recording.enable(HarLoadEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(PageEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(XmlSaveEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(EntryEvent.class).withThreshold(slowEntryThreshold);
+        recording.enable(MultiPartEvent.class).withThreshold(slowEntryThreshold).withStackTrace();
+        recording.enable(Base64DecodeEvent.class).withThreshold(slowEntryThreshold).withStackTrace();
+        recording.start();
+    }
+
+    static synchronized void stopRecording() {
+        if (recording == null) {
+            return;
+        }
+        // the recording is written to the destination file when stopped
+        recording.stop();
+        recording.close();
+        recording = null;
+    }
+
+    private static Object begin(jdk.jfr.Event event) {
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Extract the parameters of a multipart/form-data request
+ */
+@Name(JfrEvents.K_EVENT_PREFIX + "MultiPart")
+@Label("Multipart Parsing")
+@Description("Extract the parameters of a multipart/form-data request")
+@Category(JfrEvents.K_CATEGORY)
+@StackTrace(true)
+@Threshold(JfrEvents.K_SLOW_ENTRY_THRESHOLD)
+class MultiPartEvent extends jdk.jfr.Event {
+    @Label("Host")
+    String host;
+
+    @Label("Text Size")
+    @DataAmount
+    long textSize;
+
+    @Label("Parts")
+    int parts;
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Create the Transaction Controller of a page and its samplers
+ */
+@Name(JfrEvents.K_EVENT_PREFIX + "Page")
+@Label("Page")
+@Description("Create the Transaction Controller of a page and its samplers")
+@Category(JfrEvents.K_CATEGORY)
+@StackTrace(false)
+class PageEvent extends jdk.jfr.Event {
+    @Label("Page Index")
+    int pageIndex;
+
+    @Label("Page Id")
+    String pageId;
+
+    @Label("Title")
+    String title;
+
+    @Label("Samplers")
+    int samplers;
+}
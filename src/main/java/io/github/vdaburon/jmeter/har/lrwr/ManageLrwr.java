@@ -19,16 +19,20 @@ package io.github.vdaburon.jmeter.har.lrwr;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 
+import de.sstoehr.harreader.model.Har;
+
 import io.github.vdaburon.jmeter.har.common.TransactionInfo;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -68,7 +72,27 @@ public class ManageLrwr {
             return listHarLrTransactions;
         }
 
-        Object document = Configuration.defaultConfiguration().jsonProvider().parse(fis,"UTF-8");
+        try {
+            listHarLrTransactions = getListTransactionLrwr(fis);
+        } finally {
+            try {
+                fis.close();
+            } catch (IOException e) {
+                // close silently
+            }
+        }
+        return listHarLrTransactions;
+    }
+
+    /**
+     * Get the list of HarLrTransaction from the HAR content (e.g. a decompressed HAR)
+     * @param harInputStream the har content that could be generated with the LoadRunner Web Recorder, the stream is not closed
+     * @return the list of HarLrTransaction or null if _transaction not exist or array empty
+     */
+    public static  List<HarLrTransactions> getListTransactionLrwr(InputStream harInputStream) {
+        List<HarLrTransactions> listHarLrTransactions = null;
+
+        Object document = Configuration.defaultConfiguration().jsonProvider().parse(harInputStream,"UTF-8");
 
         //String version = JsonPath.read(document, "$.log.version");
         //System.out.println("version=" + version);
@@ -94,14 +118,39 @@ public class ManageLrwr {
         } catch (com.jayway.jsonpath.PathNotFoundException e) {
             // no _transactions
             listHarLrTransactions = null;
-        } finally {
-            if (fis != null) {
-                try {
-                    fis.close();
-                } catch (IOException e) {
-                    // close silently
-                }
-            }
+        }
+        return listHarLrTransactions;
+    }
+
+    /**
+     * Get the list of HarLrTransaction from the HAR already read, the _transactions array is an additional field of the log
+     * @param har the har read that could be generated with the LoadRunner Web Recorder
+     * @return the list of HarLrTransaction or null if _transaction not exist
+     */
+    public static  List<HarLrTransactions> getListTransactionLrwr(Har har) {
+        List<HarLrTransactions> listHarLrTransactions = null;
+        if (har == null || har.getLog() == null || har.getLog().getAdditional() == null) {
+            return listHarLrTransactions;
+        }
+
+        Object oTransactions = har.getLog().getAdditional().get("_transactions");
+        if (!(oTransactions instanceof List)) {
+            // no _transactions
+            return listHarLrTransactions;
+        }
+
+        List listTransactions = (List) oTransactions;
+        LOGGER.fine("listTransactions.size=" + listTransactions.size());
+        listHarLrTransactions = new ArrayList();
+        for (int i = 0; i < listTransactions.size(); i++) {
+            // transforme the List of Map to a List of HarLrTransactions
+            Map map = (Map) listTransactions.get(i);
+            LOGGER.fine("map=" + map);
+            HarLrTransactions harLrTransactions = new HarLrTransactions();
+            harLrTransactions.setName((String) map.get("name"));
+            harLrTransactions.setType((String) map.get("type"));
+            harLrTransactions.setStartedDateTime((String) map.get("startedDateTime"));
+            listHarLrTransactions.add(harLrTransactions);
         }
         return listHarLrTransactions;
     }
@@ -0,0 +1,446 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.metrics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Measure each phase of a conversion (wall time, cpu time, allocated bytes, peak heap) and count the entries and the bytes written.
+ * The metrics are saved in a JSON file to follow the cost of the conversion over time.
+ * One instance for one conversion, the phases and the counters are updated by the conversion thread.
+ * The progress fields (volatile) are also read by the ProgressReporter thread.
+ * The peak heap is the peak of the process : when several conversions run at the same time (zip with several HAR), the peak of a phase includes the heap
+ * of the other conversions.
+ */
+public class ConversionMetrics {
+
+    public static final String K_PHASE_READ_HAR = "read_har";
+    public static final String K_PHASE_LRWR_TRANSACTIONS = "lrwr_transactions";
+    public static final String K_PHASE_WEBSOCKET = "websocket_messages";
+    public static final String K_PHASE_JMX_BUILD = "jmx_build";
+    public static final String K_PHASE_JMX_SAVE = "jmx_save";
+    public static final String K_PHASE_RECORD_BUILD = "record_build";
+    public static final String K_PHASE_RECORD_SAVE = "record_save";
+
+    private static final Logger LOGGER = Logger.getLogger(ConversionMetrics.class.getName());
+    private static final AtomicInteger PHASES_RUNNING = new AtomicInteger(); // the phases of all the conversions of the process
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean osMXBean = ManagementFactory.getOperatingSystemMXBean();
+    private final long startTimeMs = System.currentTimeMillis();
+    private final List<PhaseMetrics> listPhases = new ArrayList<>();
+
+    private String harFile = "";
+    private long entriesRead = 0;
+    private long pagesRead = 0;
+    private long entriesFiltered = 0; // not in filter_include or in filter_exclude
+    private long entriesCached = 0; // _fromCache
+    private long entriesSkipped = 0; // not supported by JMeter, e.g: data: url
+    private final BitSet entriesInError = new BitSet(); // index of the entries not converted because of an exception, an entry in error for the jmx and the record is counted once
+    private long entriesInErrorRestored = 0; // entries in error before the checkpoint
+    private long samplersCreated = 0;
+    private long jmxBytesWritten = 0;
+    private long recordBytesWritten = 0;
+
+    // progress of the current phase, read by the progress thread
+    private volatile long entriesProcessed = 0;
+    private volatile int currentPage = 0;
+    private volatile long harBytesTotal = -1; // -1 = unknown, e.g: compressed or standard input
+    private volatile CountingInputStream harInputCounter = null;
+
+    private EntryCostTracker entryCostTracker = null; // null = the cost by entry is not measured
+
+    // values at the start of the current phase
+    private volatile PhaseMetrics currentPhase = null;
+    private long phaseStartNs;
+    private long phaseStartCpuNs;
+    private long phaseStartProcessCpuNs;
+    private long phaseStartAllocatedBytes;
+
+    /**
+     * Start a phase, the previous phase not ended is ended
+     * @param name the phase name, K_PHASE_XXX
+     */
+    public void startPhase(String name) {
+        if (currentPhase != null) {
+            endPhase();
+        }
+        currentPhase = new PhaseMetrics(name);
+        entriesProcessed = 0;
+        currentPage = 0;
+        if (PHASES_RUNNING.getAndIncrement() == 0) {
+            // the heap pools are shared by the process, the peak is not reset during the phase of an other conversion
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                    pool.resetPeakUsage();
+                }
+            }
+        }
+        phaseStartCpuNs = currentThreadCpuTimeNs();
+        phaseStartProcessCpuNs = processCpuTimeNs();
+        phaseStartAllocatedBytes = currentThreadAllocatedBytes();
+        phaseStartNs = System.nanoTime();
+    }
+
+    /**
+     * End the current phase and keep its metrics
+     */
+    public void endPhase() {
+        if (currentPhase == null) {
+            return;
+        }
+        long endNs = System.nanoTime();
+        currentPhase.setWallTimeMs((endNs - phaseStartNs) / 1000000L);
+        currentPhase.setCpuTimeMs(delta(phaseStartCpuNs, currentThreadCpuTimeNs()) / 1000000L);
+        currentPhase.setProcessCpuTimeMs(delta(phaseStartProcessCpuNs, processCpuTimeNs()) / 1000000L);
+        currentPhase.setAllocatedBytes(delta(phaseStartAllocatedBytes, currentThreadAllocatedBytes()));
+
+        long peakHeapBytes = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid() && pool.getPeakUsage() != null) {
+                peakHeapBytes += pool.getPeakUsage().getUsed();
+            }
+        }
+        currentPhase.setPeakHeapBytes(peakHeapBytes);
+        PHASES_RUNNING.decrementAndGet();
+        ConverterStats.getInstance().recordPhase(currentPhase.getName(), currentPhase.getWallTimeMs());
+
+        LOGGER.fine(currentPhase.toString());
+        listPhases.add(currentPhase);
+        currentPhase = null;
+    }
+
+    /**
+     * Save the metrics in a JSON file
+     * @param metricsOut the JSON file to write
+     * @throws IOException trouble when writing the file
+     */
+    public void saveJson(String metricsOut) throws IOException {
+        endPhase();
+        try (OutputStream out = new FileOutputStream(metricsOut)) {
+            writeJson(out);
+        }
+    }
+
+    /**
+     * Write the metrics in JSON
+     * @param out the stream to write, not closed
+     * @throws IOException trouble when writing
+     */
+    public void writeJson(OutputStream out) throws IOException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        JsonGenerator gen = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.useDefaultPrettyPrinter();
+        gen.writeStartObject();
+        gen.writeStringField("startTime", dateFormat.format(new Date(startTimeMs)));
+        gen.writeStringField("harFile", harFile);
+        gen.writeNumberField("totalWallTimeMs", getTotalWallTimeMs());
+        gen.writeNumberField("availableProcessors", Runtime.getRuntime().availableProcessors());
+        gen.writeNumberField("maxHeapBytes", Runtime.getRuntime().maxMemory());
+
+        gen.writeArrayFieldStart("phases");
+        for (PhaseMetrics phase : listPhases) {
+            gen.writeStartObject();
+            gen.writeStringField("name", phase.getName());
+            gen.writeNumberField("wallTimeMs", phase.getWallTimeMs());
+            gen.writeNumberField("cpuTimeMs", phase.getCpuTimeMs());
+            gen.writeNumberField("processCpuTimeMs", phase.getProcessCpuTimeMs());
+            gen.writeNumberField("allocatedBytes", phase.getAllocatedBytes());
+            gen.writeNumberField("peakHeapBytes", phase.getPeakHeapBytes());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+
+        gen.writeObjectFieldStart("counters");
+        gen.writeNumberField("entriesRead", entriesRead);
+        gen.writeNumberField("pagesRead", pagesRead);
+        gen.writeNumberField("entriesFiltered", entriesFiltered);
+        gen.writeNumberField("entriesCached", entriesCached);
+        gen.writeNumberField("entriesSkipped", entriesSkipped);
+        gen.writeNumberField("entriesInError", getEntriesInError());
+        gen.writeNumberField("samplersCreated", samplersCreated);
+        gen.writeNumberField("jmxBytesWritten", jmxBytesWritten);
+        gen.writeNumberField("recordBytesWritten", recordBytesWritten);
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+        gen.flush();
+    }
+
+    public long getTotalWallTimeMs() {
+        long total = 0;
+        for (PhaseMetrics phase : listPhases) {
+            total += phase.getWallTimeMs();
+        }
+        return total;
+    }
+
+    public List<PhaseMetrics> getListPhases() {
+        return listPhases;
+    }
+
+    public String getHarFile() {
+        return harFile;
+    }
+
+    public void setHarFile(String harFile) {
+        this.harFile = harFile;
+    }
+
+    public long getEntriesRead() {
+        return entriesRead;
+    }
+
+    public void setEntriesRead(long entriesRead) {
+        this.entriesRead = entriesRead;
+    }
+
+    public long getPagesRead() {
+        return pagesRead;
+    }
+
+    public void setPagesRead(long pagesRead) {
+        this.pagesRead = pagesRead;
+    }
+
+    /**
+     * @return the name of the phase in progress or null if no phase in progress
+     */
+    public String getCurrentPhaseName() {
+        PhaseMetrics phase = currentPhase;
+        return (phase != null ? phase.getName() : null);
+    }
+
+    public long getEntriesProcessed() {
+        return entriesProcessed;
+    }
+
+    /**
+     * One more entry processed in the current phase, only the conversion thread calls this method
+     */
+    public void incEntriesProcessed() {
+        entriesProcessed++;
+    }
+
+    public int getCurrentPage() {
+        return currentPage;
+    }
+
+    public void setCurrentPage(int currentPage) {
+        this.currentPage = currentPage;
+    }
+
+    public long getHarBytesTotal() {
+        return harBytesTotal;
+    }
+
+    public void setHarBytesTotal(long harBytesTotal) {
+        this.harBytesTotal = harBytesTotal;
+    }
+
+    /**
+     * @param harInputCounter the stream reading the HAR, to know the bytes read
+     */
+    public void setHarInputCounter(CountingInputStream harInputCounter) {
+        this.harInputCounter = harInputCounter;
+    }
+
+    /**
+     * @return the bytes of the HAR read or -1 if unknown (e.g: HAR read with the index)
+     */
+    public long getHarBytesRead() {
+        CountingInputStream counter = harInputCounter;
+        return (counter != null ? counter.getCount() : -1);
+    }
+
+    public EntryCostTracker getEntryCostTracker() {
+        return entryCostTracker;
+    }
+
+    public void setEntryCostTracker(EntryCostTracker entryCostTracker) {
+        this.entryCostTracker = entryCostTracker;
+    }
+
+    /**
+     * Start the measure of the conversion of an entry, nothing if the cost by entry is not measured
+     */
+    public void beginEntryCost() {
+        if (entryCostTracker != null) {
+            entryCostTracker.begin();
+        }
+    }
+
+    /**
+     * End the measure of the conversion of an entry started with beginEntryCost
+     * @param entryIndex the index of the entry in log.entries
+     */
+    public void endEntryCost(int entryIndex) {
+        if (entryCostTracker != null) {
+            entryCostTracker.end(entryIndex);
+        }
+    }
+
+    public long getEntriesFiltered() {
+        return entriesFiltered;
+    }
+
+    public void incEntriesFiltered() {
+        entriesFiltered++;
+    }
+
+    public void setEntriesFiltered(long entriesFiltered) {
+        this.entriesFiltered = entriesFiltered;
+    }
+
+    public long getEntriesCached() {
+        return entriesCached;
+    }
+
+    public void incEntriesCached() {
+        entriesCached++;
+    }
+
+    public void setEntriesCached(long entriesCached) {
+        this.entriesCached = entriesCached;
+    }
+
+    public long getEntriesSkipped() {
+        return entriesSkipped;
+    }
+
+    public void incEntriesSkipped() {
+        entriesSkipped++;
+    }
+
+    public void setEntriesSkipped(long entriesSkipped) {
+        this.entriesSkipped = entriesSkipped;
+    }
+
+    public long getEntriesInError() {
+        return entriesInErrorRestored + entriesInError.cardinality();
+    }
+
+    /**
+     * The entry could not be converted, the entry is skipped
+     * @param entryIndex the index of the entry in log.entries
+     */
+    public void markEntryInError(int entryIndex) {
+        entriesInError.set(entryIndex);
+    }
+
+    /**
+     * @param entriesInError the entries in error before the checkpoint, when the conversion resumes
+     */
+    public void setEntriesInError(long entriesInError) {
+        this.entriesInErrorRestored = entriesInError;
+        this.entriesInError.clear();
+    }
+
+    public long getSamplersCreated() {
+        return samplersCreated;
+    }
+
+    public void setSamplersCreated(long samplersCreated) {
+        this.samplersCreated = samplersCreated;
+    }
+
+    public long getJmxBytesWritten() {
+        return jmxBytesWritten;
+    }
+
+    public void setJmxBytesWritten(long jmxBytesWritten) {
+        this.jmxBytesWritten = jmxBytesWritten;
+    }
+
+    public long getRecordBytesWritten() {
+        return recordBytesWritten;
+    }
+
+    public void setRecordBytesWritten(long recordBytesWritten) {
+        this.recordBytesWritten = recordBytesWritten;
+    }
+
+    private long currentThreadCpuTimeNs() {
+        if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+            return threadMXBean.getCurrentThreadCpuTime();
+        }
+        return -1;
+    }
+
+    private long processCpuTimeNs() {
+        if (osMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) osMXBean).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    private long currentThreadAllocatedBytes() {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static long delta(long start, long end) {
+        if (start < 0 || end < 0) {
+            return -1;
+        }
+        return end - start;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConversionMetrics{");
+        sb.append("harFile='").append(harFile).append('\'');
+        sb.append(", listPhases=").append(listPhases);
+        sb.append(", entriesRead=").append(entriesRead);
+        sb.append(", pagesRead=").append(pagesRead);
+        sb.append(", entriesFiltered=").append(entriesFiltered);
+        sb.append(", entriesCached=").append(entriesCached);
+        sb.append(", entriesSkipped=").append(entriesSkipped);
+        sb.append(", entriesInError=").append(getEntriesInError());
+        sb.append(", samplersCreated=").append(samplersCreated);
+        sb.append(", jmxBytesWritten=").append(jmxBytesWritten);
+        sb.append(", recordBytesWritten=").append(recordBytesWritten);
+        sb.append('}');
+        return sb.toString();
+    }
+}
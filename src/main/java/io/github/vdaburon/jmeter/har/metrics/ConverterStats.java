@@ -0,0 +1,355 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The statistics of all the conversions of the process, for a batch (zip with several HAR) or a long-lived process.
+ * Exposed as a JMX MXBean and in the Prometheus text format (file for the node_exporter textfile collector or http endpoint /metrics).
+ * The counters are LongAdder, the conversion threads only add values, the sums are computed when the statistics are read.
+ */
+public class ConverterStats implements ConverterStatsMXBean {
+
+    public static final String K_OBJECT_NAME = "io.github.vdaburon.jmeter.har:type=ConverterStats";
+    public static final String K_METRIC_PREFIX = "har_converter_";
+    public static final String K_HTTP_PATH = "/metrics";
+
+    private static final String K_PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final Logger LOGGER = Logger.getLogger(ConverterStats.class.getName());
+    private static final ConverterStats INSTANCE = new ConverterStats();
+
+    private final LongAdder conversionsStarted = new LongAdder();
+    private final LongAdder conversionsCompleted = new LongAdder();
+    private final LongAdder conversionsFailed = new LongAdder();
+    private final LongAdder conversionsInProgress = new LongAdder();
+    private final LongAdder queueDepth = new LongAdder();
+    private final LongAdder entriesConverted = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LatencyHistogram conversionHistogram = new LatencyHistogram();
+    private final ConcurrentSkipListMap<String, LatencyHistogram> mapPhaseHistograms = new ConcurrentSkipListMap<>(); // sorted by phase name
+
+    private boolean isMBeanRegistered = false;
+    private HttpServer httpServer = null;
+    private ExecutorService httpExecutor = null;
+
+    private ConverterStats() {
+    }
+
+    public static ConverterStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * A conversion is waiting for a thread, e.g: a HAR of a zip archive
+     */
+    public void conversionQueued() {
+        queueDepth.increment();
+    }
+
+    /**
+     * A conversion queued with conversionQueued starts
+     */
+    public void conversionDequeued() {
+        queueDepth.decrement();
+    }
+
+    public void conversionStarted() {
+        conversionsStarted.increment();
+        conversionsInProgress.increment();
+    }
+
+    /**
+     * End of a conversion started with conversionStarted
+     * @param isOk true if completed, false if failed
+     * @param durationMs the duration of the conversion
+     * @param entries the number of entries of the HAR
+     * @param harBytes the bytes of the HAR read
+     * @param bytesWritten the bytes of the jmx and record files written
+     */
+    public void conversionEnded(boolean isOk, long durationMs, long entries, long harBytes, long bytesWritten) {
+        conversionsInProgress.decrement();
+        if (isOk) {
+            conversionsCompleted.increment();
+        } else {
+            conversionsFailed.increment();
+        }
+        conversionHistogram.record(durationMs);
+        entriesConverted.add(Math.max(0, entries));
+        bytesIn.add(Math.max(0, harBytes));
+        bytesOut.add(Math.max(0, bytesWritten));
+    }
+
+    /**
+     * @param phaseName the phase, ConversionMetrics.K_PHASE_XXX
+     * @param durationMs the wall time of the phase
+     */
+    public void recordPhase(String phaseName, long durationMs) {
+        mapPhaseHistograms.computeIfAbsent(phaseName, name -> new LatencyHistogram()).record(durationMs);
+    }
+
+    /**
+     * Register the MXBean in the platform MBean server, only once
+     */
+    public synchronized void registerMBean() {
+        if (isMBeanRegistered) {
+            return;
+        }
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(K_OBJECT_NAME);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(this, objectName);
+            }
+            isMBeanRegistered = true;
+        } catch (JMException e) {
+            LOGGER.warning("Can't register the MBean " + K_OBJECT_NAME + ", exception : " + e);
+        }
+    }
+
+    /**
+     * Start the http endpoint /metrics in the Prometheus text format
+     * @param port the http port
+     * @throws IOException the port could not be opened
+     */
+    public synchronized void startHttpServer(int port) throws IOException {
+        if (httpServer != null) {
+            return;
+        }
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext(K_HTTP_PATH, exchange -> {
+            byte[] body = getPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", K_PROMETHEUS_CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        httpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "har-metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(httpExecutor);
+        httpServer.start();
+        LOGGER.info("Prometheus metrics on http://localhost:" + httpServer.getAddress().getPort() + K_HTTP_PATH);
+    }
+
+    public synchronized void stopHttpServer() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpExecutor.shutdownNow();
+            httpServer = null;
+            httpExecutor = null;
+        }
+    }
+
+    /**
+     * Save the statistics in the Prometheus text format, the file is replaced atomically for the node_exporter textfile collector
+     * @param prometheusOut the file to write, e.g: har_converter.prom
+     * @throws IOException trouble when writing the file
+     */
+    public synchronized void savePrometheus(String prometheusOut) throws IOException {
+        File file = new File(prometheusOut);
+        File fileTmp = new File(prometheusOut + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(fileTmp), StandardCharsets.UTF_8)) {
+            writePrometheus(writer);
+        }
+        try {
+            Files.move(fileTmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(fileTmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Write the statistics in the Prometheus text exposition format
+     * @param writer the writer, not closed
+     * @throws IOException trouble when writing
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        StringBuilder sb = new StringBuilder(4096);
+        appendMetric(sb, "conversions_started_total", "counter", "Conversions started", conversionsStarted.sum());
+        appendMetric(sb, "conversions_completed_total", "counter", "Conversions completed", conversionsCompleted.sum());
+        appendMetric(sb, "conversions_failed_total", "counter", "Conversions failed", conversionsFailed.sum());
+        appendMetric(sb, "conversions_in_progress", "gauge", "Conversions in progress", conversionsInProgress.sum());
+        appendMetric(sb, "queue_depth", "gauge", "Conversions waiting for a thread", queueDepth.sum());
+        appendMetric(sb, "entries_total", "counter", "HAR entries converted", entriesConverted.sum());
+        appendMetric(sb, "entries_per_second", "gauge", "HAR entries converted by second of conversion", getEntriesPerSecond());
+        appendMetric(sb, "bytes_in_total", "counter", "Bytes of HAR read", bytesIn.sum());
+        appendMetric(sb, "bytes_out_total", "counter", "Bytes of jmx and record files written", bytesOut.sum());
+
+        String conversionName = K_METRIC_PREFIX + "conversion_duration_seconds";
+        sb.append("# HELP ").append(conversionName).append(" Duration of the conversions\n");
+        sb.append("# TYPE ").append(conversionName).append(" histogram\n");
+        appendHistogram(sb, conversionName, "", conversionHistogram);
+
+        String phaseName = K_METRIC_PREFIX + "phase_duration_seconds";
+        sb.append("# HELP ").append(phaseName).append(" Duration of the conversion phases\n");
+        sb.append("# TYPE ").append(phaseName).append(" histogram\n");
+        for (Map.Entry<String, LatencyHistogram> entry : mapPhaseHistograms.entrySet()) {
+            appendHistogram(sb, phaseName, "phase=\"" + entry.getKey() + "\",", entry.getValue());
+        }
+        writer.write(sb.toString());
+        writer.flush();
+    }
+
+    private static void appendMetric(StringBuilder sb, String name, String type, String help, Number value) {
+        sb.append("# HELP ").append(K_METRIC_PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(K_METRIC_PREFIX).append(name).append(' ').append(type).append('\n');
+        sb.append(K_METRIC_PREFIX).append(name).append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static void appendHistogram(StringBuilder sb, String name, String labels, LatencyHistogram histogram) {
+        long[] cumulativeCounts = histogram.getCumulativeCounts();
+        for (int i = 0; i < cumulativeCounts.length; i++) {
+            String le = (i < LatencyHistogram.K_BUCKET_BOUNDS_MS.length ? formatValue(LatencyHistogram.K_BUCKET_BOUNDS_MS[i] / 1000.0) : "+Inf");
+            sb.append(name).append("_bucket{").append(labels).append("le=\"").append(le).append("\"} ").append(cumulativeCounts[i]).append('\n');
+        }
+        String labelsOnly = (labels.isEmpty() ? "" : "{" + labels.substring(0, labels.length() - 1) + "}");
+        sb.append(name).append("_sum").append(labelsOnly).append(' ').append(formatValue(histogram.getSumMs() / 1000.0)).append('\n');
+        sb.append(name).append("_count").append(labelsOnly).append(' ').append(histogram.getCount()).append('\n');
+    }
+
+    private static String formatValue(Number value) {
+        return value.toString(); // Double.toString is not localized, e.g: 0.25 or 1.0E-4
+    }
+
+    @Override
+    public long getConversionsStarted() {
+        return conversionsStarted.sum();
+    }
+
+    @Override
+    public long getConversionsCompleted() {
+        return conversionsCompleted.sum();
+    }
+
+    @Override
+    public long getConversionsFailed() {
+        return conversionsFailed.sum();
+    }
+
+    @Override
+    public long getConversionsInProgress() {
+        return conversionsInProgress.sum();
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return queueDepth.sum();
+    }
+
+    @Override
+    public long getEntriesConverted() {
+        return entriesConverted.sum();
+    }
+
+    /**
+     * @return the entries converted by second of conversion (sum of the conversion durations, not the process uptime)
+     */
+    @Override
+    public double getEntriesPerSecond() {
+        long sumMs = conversionHistogram.getSumMs();
+        return (sumMs > 0 ? entriesConverted.sum() * 1000.0 / sumMs : 0);
+    }
+
+    @Override
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    @Override
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCount() {
+        Map<String, Long> mapCount = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : mapPhaseHistograms.entrySet()) {
+            mapCount.put(entry.getKey(), entry.getValue().getCount());
+        }
+        return mapCount;
+    }
+
+    @Override
+    public Map<String, Double> getPhaseMeanMs() {
+        Map<String, Double> mapMean = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : mapPhaseHistograms.entrySet()) {
+            mapMean.put(entry.getKey(), entry.getValue().getMeanMs());
+        }
+        return mapMean;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseMaxMs() {
+        Map<String, Long> mapMax = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : mapPhaseHistograms.entrySet()) {
+            mapMax.put(entry.getKey(), entry.getValue().getMaxMs());
+        }
+        return mapMax;
+    }
+
+    @Override
+    public String getPrometheusText() {
+        StringWriter writer = new StringWriter();
+        try {
+            writePrometheus(writer);
+        } catch (IOException e) {
+            // no IOException with a StringWriter
+        }
+        return writer.toString();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConverterStats{");
+        sb.append("conversionsStarted=").append(getConversionsStarted());
+        sb.append(", conversionsCompleted=").append(getConversionsCompleted());
+        sb.append(", conversionsFailed=").append(getConversionsFailed());
+        sb.append(", queueDepth=").append(getQueueDepth());
+        sb.append(", entriesConverted=").append(getEntriesConverted());
+        sb.append(", bytesIn=").append(getBytesIn());
+        sb.append(", bytesOut=").append(getBytesOut());
+        sb.append('}');
+        return sb.toString();
+    }
+}
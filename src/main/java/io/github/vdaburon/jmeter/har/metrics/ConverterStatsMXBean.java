@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.metrics;
+
+import java.util.Map;
+
+/**
+ * The converter statistics exposed in JMX (JConsole, VisualVM, Jolokia ...), object name io.github.vdaburon.jmeter.har:type=ConverterStats
+ */
+public interface ConverterStatsMXBean {
+
+    long getConversionsStarted();
+
+    long getConversionsCompleted();
+
+    long getConversionsFailed();
+
+    long getConversionsInProgress();
+
+    long getQueueDepth();
+
+    long getEntriesConverted();
+
+    double getEntriesPerSecond();
+
+    long getBytesIn();
+
+    long getBytesOut();
+
+    Map<String, Long> getPhaseCount();
+
+    Map<String, Double> getPhaseMeanMs();
+
+    Map<String, Long> getPhaseMaxMs();
+
+    String getPrometheusText();
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.metrics;
+
+/**
+ * The conversion cost of one HAR entry (JMeter sampler and record sample) with the entry information to find why it is costly
+ */
+public class EntryCost {
+    private int entryIndex;
+    private String method;
+    private String url;
+    private String mimeType;
+    private long requestBodySize;
+    private long responseBodySize;
+    private long timeNs;
+    private long allocatedBytes;
+
+    public int getEntryIndex() {
+        return entryIndex;
+    }
+
+    public void setEntryIndex(int entryIndex) {
+        this.entryIndex = entryIndex;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public void setMimeType(String mimeType) {
+        this.mimeType = mimeType;
+    }
+
+    public long getRequestBodySize() {
+        return requestBodySize;
+    }
+
+    public void setRequestBodySize(long requestBodySize) {
+        this.requestBodySize = requestBodySize;
+    }
+
+    public long getResponseBodySize() {
+        return responseBodySize;
+    }
+
+    public void setResponseBodySize(long responseBodySize) {
+        this.responseBodySize = responseBodySize;
+    }
+
+    public long getTimeNs() {
+        return timeNs;
+    }
+
+    public void setTimeNs(long timeNs) {
+        this.timeNs = timeNs;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("EntryCost{");
+        sb.append("entryIndex=").append(entryIndex);
+        sb.append(", method='").append(method).append('\'');
+        sb.append(", url='").append(url).append('\'');
+        sb.append(", mimeType='").append(mimeType).append('\'');
+        sb.append(", requestBodySize=").append(requestBodySize);
+        sb.append(", responseBodySize=").append(responseBodySize);
+        sb.append(", timeNs=").append(timeNs);
+        sb.append(", allocatedBytes=").append(allocatedBytes);
+        sb.append('}');
+        return sb.toString();
+    }
+}
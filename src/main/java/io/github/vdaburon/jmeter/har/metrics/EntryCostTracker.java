@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.metrics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import de.sstoehr.harreader.model.HarContent;
+import de.sstoehr.harreader.model.HarEntry;
+import de.sstoehr.harreader.model.HarPostData;
+import de.sstoehr.harreader.model.HarRequest;
+import de.sstoehr.harreader.model.HarResponse;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.logging.Logger;
+
+/**
+ * Measure the conversion time and the allocated bytes of each entry, the costs of the JMeter script and the record file are added.
+ * Only two longs are kept by entry, the details of the top-N costliest entries are read from the HAR at the end.
+ * Used by the conversion thread only.
+ */
+public class EntryCostTracker {
+
+    private static final int K_URL_MAX_LENGTH = 256;
+    private static final Logger LOGGER = Logger.getLogger(EntryCostTracker.class.getName());
+
+    private final int nbTop;
+    private final com.sun.management.ThreadMXBean allocationMXBean; // null if the allocated bytes can't be measured
+    private long[] timeNs = new long[0];
+    private long[] allocatedBytes = new long[0];
+    private long startNs;
+    private long startAllocatedBytes;
+
+    private List<EntryCost> listTopByTime = new ArrayList<>();
+    private List<EntryCost> listTopByAllocatedBytes = new ArrayList<>();
+
+    /**
+     * @param nbTop number of entries in the report
+     */
+    public EntryCostTracker(int nbTop) {
+        this.nbTop = nbTop;
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled()) {
+            allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        } else {
+            allocationMXBean = null;
+        }
+    }
+
+    public int getNbTop() {
+        return nbTop;
+    }
+
+    /**
+     * @param nbEntries number of entries in the HAR
+     */
+    public void setNbEntries(int nbEntries) {
+        timeNs = new long[nbEntries];
+        allocatedBytes = new long[nbEntries];
+    }
+
+    /**
+     * Start the measure of an entry
+     */
+    public void begin() {
+        startAllocatedBytes = currentThreadAllocatedBytes();
+        startNs = System.nanoTime();
+    }
+
+    /**
+     * End the measure of the entry started with begin
+     * @param entryIndex the index of the entry in log.entries
+     */
+    public void end(int entryIndex) {
+        long endNs = System.nanoTime();
+        if (entryIndex < 0 || entryIndex >= timeNs.length) {
+            return;
+        }
+        timeNs[entryIndex] += endNs - startNs;
+        if (startAllocatedBytes >= 0) {
+            allocatedBytes[entryIndex] += currentThreadAllocatedBytes() - startAllocatedBytes;
+        }
+    }
+
+    /**
+     * Find the top-N entries by time and by allocated bytes
+     * @param listEntries the HAR entries for the details (url, mime type, body sizes)
+     */
+    public void computeTop(List<HarEntry> listEntries) {
+        listTopByTime = top(listEntries, timeNs);
+        listTopByAllocatedBytes = (allocationMXBean != null ? top(listEntries, allocatedBytes) : new ArrayList<>());
+    }
+
+    public List<EntryCost> getListTopByTime() {
+        return listTopByTime;
+    }
+
+    public List<EntryCost> getListTopByAllocatedBytes() {
+        return listTopByAllocatedBytes;
+    }
+
+    /**
+     * Log the top-N entries by time and by allocated bytes, computeTop must be called before
+     */
+    public void logReport() {
+        LOGGER.info("Top " + listTopByTime.size() + " costliest entries by conversion time :");
+        for (EntryCost entryCost : listTopByTime) {
+            LOGGER.info(formatEntryCost(entryCost));
+        }
+        if (allocationMXBean == null) {
+            LOGGER.info("The allocated bytes by thread are not supported by this JVM");
+            return;
+        }
+        LOGGER.info("Top " + listTopByAllocatedBytes.size() + " costliest entries by allocated bytes :");
+        for (EntryCost entryCost : listTopByAllocatedBytes) {
+            LOGGER.info(formatEntryCost(entryCost));
+        }
+    }
+
+    /**
+     * Save the top-N entries by time and by allocated bytes in a JSON file, computeTop must be called before
+     * @param topEntriesOut the JSON file to write
+     * @param harFile the har file converted
+     * @throws IOException trouble when writing the file
+     */
+    public void saveJson(String topEntriesOut, String harFile) throws IOException {
+        try (OutputStream out = new FileOutputStream(topEntriesOut)) {
+            JsonGenerator gen = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.useDefaultPrettyPrinter();
+            gen.writeStartObject();
+            gen.writeStringField("harFile", harFile);
+            gen.writeNumberField("nbEntries", timeNs.length);
+            gen.writeNumberField("nbTop", nbTop);
+            writeJsonList(gen, "byTime", listTopByTime);
+            writeJsonList(gen, "byAllocatedBytes", listTopByAllocatedBytes);
+            gen.writeEndObject();
+            gen.flush();
+        }
+    }
+
+    private static void writeJsonList(JsonGenerator gen, String fieldName, List<EntryCost> listCosts) throws IOException {
+        gen.writeArrayFieldStart(fieldName);
+        for (EntryCost entryCost : listCosts) {
+            gen.writeStartObject();
+            gen.writeNumberField("entryIndex", entryCost.getEntryIndex());
+            gen.writeNumberField("timeMs", entryCost.getTimeNs() / 1000000.0);
+            gen.writeNumberField("allocatedBytes", entryCost.getAllocatedBytes());
+            gen.writeStringField("method", entryCost.getMethod());
+            gen.writeStringField("url", entryCost.getUrl());
+            gen.writeStringField("mimeType", entryCost.getMimeType());
+            gen.writeNumberField("requestBodySize", entryCost.getRequestBodySize());
+            gen.writeNumberField("responseBodySize", entryCost.getResponseBodySize());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private static String formatEntryCost(EntryCost entryCost) {
+        return String.format("entry %d, %.1f ms, %d KB allocated, %s %s, mimeType=%s, requestBodySize=%d, responseBodySize=%d",
+                entryCost.getEntryIndex(), entryCost.getTimeNs() / 1000000.0, entryCost.getAllocatedBytes() / 1024,
+                entryCost.getMethod(), entryCost.getUrl(), entryCost.getMimeType(), entryCost.getRequestBodySize(), entryCost.getResponseBodySize());
+    }
+
+    private List<EntryCost> top(List<HarEntry> listEntries, long[] values) {
+        // min heap of the entry indexes, the head is the smallest of the top-N
+        Comparator<Integer> comparator = Comparator.comparingLong(i -> values[i]);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(nbTop + 1, comparator);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] <= 0) {
+                continue; // not converted, e.g: filtered or cached
+            }
+            if (heap.size() < nbTop) {
+                heap.add(i);
+            } else if (values[i] > values[heap.peek()]) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        List<Integer> listIndexes = new ArrayList<>(heap);
+        listIndexes.sort(Collections.reverseOrder(comparator));
+
+        List<EntryCost> listCosts = new ArrayList<>(listIndexes.size());
+        for (int entryIndex : listIndexes) {
+            listCosts.add(createEntryCost(entryIndex, listEntries.get(entryIndex)));
+        }
+        return listCosts;
+    }
+
+    private EntryCost createEntryCost(int entryIndex, HarEntry harEntry) {
+        EntryCost entryCost = new EntryCost();
+        entryCost.setEntryIndex(entryIndex);
+        entryCost.setTimeNs(timeNs[entryIndex]);
+        entryCost.setAllocatedBytes(allocationMXBean != null ? allocatedBytes[entryIndex] : -1);
+        HarRequest harRequest = harEntry.getRequest();
+        if (harRequest != null) {
+            entryCost.setMethod(harRequest.getMethod() != null ? harRequest.getMethod().name() : null);
+            String url = harRequest.getUrl();
+            if (url != null && url.length() > K_URL_MAX_LENGTH) {
+                url = url.substring(0, K_URL_MAX_LENGTH) + "...";
+            }
+            entryCost.setUrl(url);
+            HarPostData harPostData = harRequest.getPostData();
+            entryCost.setRequestBodySize(harPostData != null && harPostData.getText() != null ? harPostData.getText().length() : 0);
+        }
+        HarResponse harResponse = harEntry.getResponse();
+        HarContent harContent = (harResponse != null ? harResponse.getContent() : null);
+        if (harContent != null) {
+            entryCost.setMimeType(harContent.getMimeType());
+            entryCost.setResponseBodySize(harContent.getSize() != null ? harContent.getSize() : 0);
+        }
+        return entryCost;
+    }
+
+    private long currentThreadAllocatedBytes() {
+        if (allocationMXBean == null) {
+            return -1;
+        }
+        return allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
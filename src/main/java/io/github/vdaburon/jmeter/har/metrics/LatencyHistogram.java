@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with fixed buckets, the counters are striped (LongAdder) so the recording never blocks the conversion threads
+ */
+public class LatencyHistogram {
+
+    // upper bounds of the buckets in milliseconds, the last bucket is +Inf
+    public static final long[] K_BUCKET_BOUNDS_MS = {10, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000, 300000};
+
+    private final LongAdder[] buckets = new LongAdder[K_BUCKET_BOUNDS_MS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMs = new LongAdder();
+    private final LongAccumulator maxMs = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param durationMs the duration to record in milliseconds
+     */
+    public void record(long durationMs) {
+        int i = 0;
+        while (i < K_BUCKET_BOUNDS_MS.length && durationMs > K_BUCKET_BOUNDS_MS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        count.increment();
+        sumMs.add(durationMs);
+        maxMs.accumulate(durationMs);
+    }
+
+    /**
+     * @return the cumulative counts by bucket (count of durations &lt;= bound), the last is the count of all durations (+Inf)
+     */
+    public long[] getCumulativeCounts() {
+        long[] cumulative = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumMs() {
+        return sumMs.sum();
+    }
+
+    public long getMaxMs() {
+        return maxMs.get();
+    }
+
+    public double getMeanMs() {
+        long n = count.sum();
+        return (n > 0 ? (double) sumMs.sum() / n : 0);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LatencyHistogram{");
+        sb.append("count=").append(getCount());
+        sb.append(", sumMs=").append(getSumMs());
+        sb.append(", maxMs=").append(getMaxMs());
+        sb.append('}');
+        return sb.toString();
+    }
+}
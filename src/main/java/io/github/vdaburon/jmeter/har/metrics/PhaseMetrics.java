@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.metrics;
+
+/**
+ * The cost of one phase of the conversion, a value is -1 when the JVM can't measure it
+ */
+public class PhaseMetrics {
+    private String name;
+    private long wallTimeMs;
+    private long cpuTimeMs; // cpu of the conversion thread
+    private long processCpuTimeMs; // cpu of all the threads, e.g: the parse threads and the garbage collector
+    private long allocatedBytes; // allocated by the conversion thread
+    private long peakHeapBytes;
+
+    public PhaseMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getWallTimeMs() {
+        return wallTimeMs;
+    }
+
+    public void setWallTimeMs(long wallTimeMs) {
+        this.wallTimeMs = wallTimeMs;
+    }
+
+    public long getCpuTimeMs() {
+        return cpuTimeMs;
+    }
+
+    public void setCpuTimeMs(long cpuTimeMs) {
+        this.cpuTimeMs = cpuTimeMs;
+    }
+
+    public long getProcessCpuTimeMs() {
+        return processCpuTimeMs;
+    }
+
+    public void setProcessCpuTimeMs(long processCpuTimeMs) {
+        this.processCpuTimeMs = processCpuTimeMs;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    public void setPeakHeapBytes(long peakHeapBytes) {
+        this.peakHeapBytes = peakHeapBytes;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PhaseMetrics{");
+        sb.append("name='").append(name).append('\'');
+        sb.append(", wallTimeMs=").append(wallTimeMs);
+        sb.append(", cpuTimeMs=").append(cpuTimeMs);
+        sb.append(", processCpuTimeMs=").append(processCpuTimeMs);
+        sb.append(", allocatedBytes=").append(allocatedBytes);
+        sb.append(", peakHeapBytes=").append(peakHeapBytes);
+        sb.append('}');
+        return sb.toString();
+    }
+}
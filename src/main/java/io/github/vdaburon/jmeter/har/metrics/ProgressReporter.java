@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.vdaburon.jmeter.har.metrics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Report the progress of a conversion at a fixed interval : phase, bytes of the HAR read, entries processed by second, current page and ETA of the phase.
+ * The progress is logged (standard error, the standard output could be the jmx_out) or written in a JSON status file for an orchestrator.
+ * The conversion thread only updates volatile counters in ConversionMetrics, the report is computed by a daemon thread.
+ */
+public class ProgressReporter {
+
+    public static final String K_STATE_RUNNING = "running";
+    public static final String K_STATE_DONE = "done";
+
+    private static final Logger LOGGER = Logger.getLogger(ProgressReporter.class.getName());
+
+    private final ConversionMetrics conversionMetrics;
+    private final long intervalMs;
+    private final String statusFile;
+    private final long startTimeMs = System.currentTimeMillis();
+    private ScheduledExecutorService scheduler = null;
+
+    // the previous report to compute the rates
+    private String lastPhaseName = null;
+    private long phaseSeenMs; // the first report of the phase
+    private long lastTimeMs;
+    private long lastEntries;
+    private long lastBytes;
+
+    private long entriesTotal = -1;
+    private long pagesTotal = -1;
+
+    /**
+     * @param conversionMetrics the metrics updated by the conversion
+     * @param intervalMs the report interval in milliseconds
+     * @param statusFile the JSON status file to write at each interval, if empty the progress is logged
+     */
+    public ProgressReporter(ConversionMetrics conversionMetrics, long intervalMs, String statusFile) {
+        this.conversionMetrics = conversionMetrics;
+        this.intervalMs = Math.max(100, intervalMs);
+        this.statusFile = (statusFile != null ? statusFile : "");
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        lastTimeMs = System.currentTimeMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "har-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::report, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the reports, the status file is written a last time with the state done
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(intervalMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        if (!statusFile.isEmpty()) {
+            writeStatus(K_STATE_DONE, null, 0, 0, -1);
+        }
+    }
+
+    /**
+     * The totals are known when the HAR is read
+     * @param entriesTotal number of entries in the HAR
+     * @param pagesTotal number of pages in the HAR
+     */
+    public void setTotals(long entriesTotal, long pagesTotal) {
+        this.entriesTotal = entriesTotal;
+        this.pagesTotal = pagesTotal;
+    }
+
+    private synchronized void report() {
+        try {
+            long nowMs = System.currentTimeMillis();
+            String phaseName = conversionMetrics.getCurrentPhaseName();
+            long entries = conversionMetrics.getEntriesProcessed();
+            long bytes = conversionMetrics.getHarBytesRead();
+            if (phaseName == null) {
+                return;
+            }
+            if (!phaseName.equals(lastPhaseName)) {
+                // new phase, the counters start at 0 in the phase, the rate is an approximation for this interval
+                lastPhaseName = phaseName;
+                phaseSeenMs = nowMs;
+                lastEntries = 0;
+                lastBytes = 0;
+            }
+            double seconds = Math.max(0.001, (nowMs - lastTimeMs) / 1000.0);
+            double entriesBySecond = (entries - lastEntries) / seconds;
+            double bytesBySecond = (bytes - lastBytes) / seconds;
+            lastEntries = entries;
+            lastBytes = bytes;
+            lastTimeMs = nowMs;
+
+            long etaSeconds = -1;
+            long bytesTotal = conversionMetrics.getHarBytesTotal();
+            if (ConversionMetrics.K_PHASE_READ_HAR.equals(phaseName)) {
+                if (bytesTotal > 0 && bytes >= 0 && bytesBySecond > 0) {
+                    etaSeconds = (long) ((bytesTotal - bytes) / bytesBySecond);
+                }
+            } else if (entriesTotal > 0 && entriesBySecond > 0) {
+                etaSeconds = (long) ((entriesTotal - entries) / entriesBySecond);
+            }
+
+            if (statusFile.isEmpty()) {
+                StringBuilder sb = new StringBuilder("Progress ");
+                sb.append(conversionMetrics.getHarFile()).append(", phase=").append(phaseName);
+                if (ConversionMetrics.K_PHASE_READ_HAR.equals(phaseName)) {
+                    if (bytes >= 0) {
+                        sb.append(", read MB=").append(bytes / (1024 * 1024));
+                        if (bytesTotal > 0) {
+                            sb.append("/").append(bytesTotal / (1024 * 1024)).append(" (").append(bytes * 100 / bytesTotal).append("%)");
+                        }
+                        sb.append(", MB/s=").append(String.format("%.1f", bytesBySecond / (1024 * 1024)));
+                    }
+                } else if (entries > 0) {
+                    sb.append(", entries=").append(entries);
+                    if (entriesTotal > 0) {
+                        sb.append("/").append(entriesTotal).append(" (").append(entries * 100 / entriesTotal).append("%)");
+                    }
+                    sb.append(", entries/s=").append((long) entriesBySecond);
+                    if (conversionMetrics.getCurrentPage() > 0) {
+                        sb.append(", page=").append(conversionMetrics.getCurrentPage()).append("/").append(pagesTotal);
+                    }
+                }
+                sb.append(", phase elapsed s>=").append((nowMs - phaseSeenMs) / 1000);
+                if (etaSeconds >= 0) {
+                    sb.append(", eta s=").append(etaSeconds);
+                }
+                LOGGER.info(sb.toString());
+            } else {
+                writeStatus(K_STATE_RUNNING, phaseName, entries, entriesBySecond, etaSeconds);
+            }
+        } catch (RuntimeException e) {
+            // never stop the scheduler
+            LOGGER.fine("Progress report error : " + e);
+        }
+    }
+
+    private void writeStatus(String state, String phaseName, long entries, double entriesBySecond, long etaSeconds) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        File file = new File(statusFile);
+        File fileTmp = new File(statusFile + ".tmp");
+        // write a temporary file then rename, the orchestrator never reads a partial file
+        try (OutputStream out = new FileOutputStream(fileTmp)) {
+            JsonGenerator gen = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+            gen.writeStartObject();
+            gen.writeStringField("harFile", conversionMetrics.getHarFile());
+            gen.writeStringField("state", state);
+            gen.writeStringField("phase", phaseName);
+            gen.writeStringField("updateTime", dateFormat.format(new Date()));
+            gen.writeNumberField("elapsedMs", System.currentTimeMillis() - startTimeMs);
+            gen.writeNumberField("harBytesRead", conversionMetrics.getHarBytesRead());
+            gen.writeNumberField("harBytesTotal", conversionMetrics.getHarBytesTotal());
+            gen.writeNumberField("entriesProcessed", entries);
+            gen.writeNumberField("entriesTotal", entriesTotal);
+            gen.writeNumberField("entriesBySecond", (long) entriesBySecond);
+            gen.writeNumberField("currentPage", conversionMetrics.getCurrentPage());
+            gen.writeNumberField("pagesTotal", pagesTotal);
+            gen.writeNumberField("etaSeconds", etaSeconds);
+            gen.writeNumberField("heapUsedBytes", Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory());
+            gen.writeEndObject();
+            gen.close();
+        } catch (IOException e) {
+            LOGGER.warning("Can't write the progress file : " + statusFile + ", exception : " + e);
+            return;
+        }
+        try {
+            Files.move(fileTmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.move(fileTmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                LOGGER.warning("Can't write the progress file : " + statusFile + ", exception : " + ex);
+            }
+        }
+    }
+}
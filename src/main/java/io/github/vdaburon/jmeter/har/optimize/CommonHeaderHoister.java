@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Move the http headers with the same name and value in all the samplers of the script (or of a Transaction Controller) to one HeaderManager
+ * at the Thread Group level (or the first child of the Transaction Controller). Each sampler HeaderManager keeps only the headers that differ.
+ * The headers sent are the same, the script is smaller and JMeter clones fewer header elements for each thread.
+ */
+public class CommonHeaderHoister {
+
+    public static final String K_TESTNAME_THREAD_GROUP = "HTTP Header Manager Common";
+    public static final String K_TESTNAME_TRANSACTION = "HTTP Header Manager Transaction";
+
+    private static final Logger LOGGER = Logger.getLogger(CommonHeaderHoister.class.getName());
+
+    private int headersInThreadGroup = 0;
+    private int headersInTransactions = 0;
+    private int headersRemoved = 0;
+
+    /**
+     * Hoist the common headers of the jmx document created by XmlJmx
+     * @param document the jmx document, modified
+     */
+    public void hoist(Document document) {
+        Element hashAfterThreadGroup = XmlJmx.findHashTreeAfterThreadGroup(document);
+        if (hashAfterThreadGroup == null) {
+            return;
+        }
+
+        // Transaction Controller hashTree -> HeaderManager of each sampler
+        Map<Element, List<Element>> mapTcToHeaderManagers = new LinkedHashMap<>();
+        boolean isAllHttpSamplers = true;
+        for (Element hashTreeAfterTc : JmxTree.transactionHashTrees(hashAfterThreadGroup)) {
+            List<Element> listHeaderManagers = new ArrayList<>();
+            boolean isTcWithHttpSamplersOnly = true;
+            for (Element eltSampler : JmxTree.childElements(hashTreeAfterTc, null)) {
+                if ("hashTree".equals(eltSampler.getTagName())) {
+                    continue;
+                }
+                Element eltHeaderManager = null;
+                if ("HTTPSamplerProxy".equals(eltSampler.getTagName())) {
+                    Element hashTreeAfterSampler = JmxTree.nextHashTree(eltSampler);
+                    List<Element> listChildHeaderManagers = (hashTreeAfterSampler != null ? JmxTree.childElements(hashTreeAfterSampler, "HeaderManager") : new ArrayList<>());
+                    eltHeaderManager = (listChildHeaderManagers.size() == 1 ? listChildHeaderManagers.get(0) : null);
+                }
+                if (eltHeaderManager == null) {
+                    // e.g: websocket sampler, the headers of the http samplers must not be added to these samplers
+                    isTcWithHttpSamplersOnly = false;
+                } else {
+                    listHeaderManagers.add(eltHeaderManager);
+                }
+            }
+            if (isTcWithHttpSamplersOnly) {
+                mapTcToHeaderManagers.put(hashTreeAfterTc, listHeaderManagers);
+            } else {
+                isAllHttpSamplers = false;
+            }
+        }
+
+        if (isAllHttpSamplers) {
+            List<Element> listAllHeaderManagers = new ArrayList<>();
+            for (List<Element> listHeaderManagers : mapTcToHeaderManagers.values()) {
+                listAllHeaderManagers.addAll(listHeaderManagers);
+            }
+            Element eltCommon = hoistCommonHeaders(document, listAllHeaderManagers, K_TESTNAME_THREAD_GROUP);
+            if (eltCommon != null) {
+                headersInThreadGroup = countHeaders(eltCommon);
+                insertAfterConfigElements(hashAfterThreadGroup, eltCommon);
+            }
+        } else {
+            LOGGER.info("The script contains other samplers than HTTP samplers (e.g: websocket), no common headers at the Thread Group level");
+        }
+
+        for (Map.Entry<Element, List<Element>> entry : mapTcToHeaderManagers.entrySet()) {
+            Element eltCommon = hoistCommonHeaders(document, entry.getValue(), K_TESTNAME_TRANSACTION);
+            if (eltCommon != null) {
+                headersInTransactions += countHeaders(eltCommon);
+                Element hashTreeAfterTc = entry.getKey();
+                JmxTree.insertWithHashTree(hashTreeAfterTc, eltCommon, hashTreeAfterTc.getFirstChild());
+            }
+            removeEmptyHeaderManagers(entry.getValue());
+        }
+        LOGGER.info("Common headers : " + headersInThreadGroup + " header(s) in the Thread Group, " + headersInTransactions + " header(s) in the Transaction Controllers, "
+                + headersRemoved + " header(s) removed from the samplers");
+    }
+
+    /**
+     * Remove the headers (same name and value) present in all the HeaderManagers and create a HeaderManager with these headers
+     * @param document the jmx document
+     * @param listHeaderManagers the HeaderManagers of the samplers in the scope
+     * @param testname the name of the HeaderManager created
+     * @return the HeaderManager created or null if less than 2 samplers or no common header
+     */
+    private Element hoistCommonHeaders(Document document, List<Element> listHeaderManagers, String testname) {
+        if (listHeaderManagers.size() < 2) {
+            return null;
+        }
+        // the common headers keep the order of the first sampler
+        Map<String, Element> mapCommon = headersByKey(listHeaderManagers.get(0));
+        for (int i = 1; i < listHeaderManagers.size() && !mapCommon.isEmpty(); i++) {
+            mapCommon.keySet().retainAll(headersByKey(listHeaderManagers.get(i)).keySet());
+        }
+        if (mapCommon.isEmpty()) {
+            return null;
+        }
+
+        Element eltHeaderManager = (Element) listHeaderManagers.get(0).cloneNode(false);
+        eltHeaderManager.setAttribute("testname", testname);
+        Element eltCollection = document.createElement("collectionProp");
+        eltCollection.setAttribute("name", "HeaderManager.headers");
+        eltHeaderManager.appendChild(eltCollection);
+        for (Element eltHeader : mapCommon.values()) {
+            eltCollection.appendChild(eltHeader.cloneNode(true));
+        }
+
+        for (Element eltSamplerHeaderManager : listHeaderManagers) {
+            for (Element eltCollectionSampler : JmxTree.childElements(eltSamplerHeaderManager, "collectionProp")) {
+                for (Element eltHeader : JmxTree.childElements(eltCollectionSampler, "elementProp")) {
+                    if (mapCommon.containsKey(headerKey(eltHeader))) {
+                        eltCollectionSampler.removeChild(eltHeader);
+                        headersRemoved++;
+                    }
+                }
+            }
+        }
+        return eltHeaderManager;
+    }
+
+    /**
+     * Remove the sampler HeaderManagers without header and their hashTree
+     * @param listHeaderManagers the HeaderManagers of the samplers
+     */
+    private static void removeEmptyHeaderManagers(List<Element> listHeaderManagers) {
+        for (Element eltHeaderManager : listHeaderManagers) {
+            if (headersByKey(eltHeaderManager).isEmpty() && eltHeaderManager.getParentNode() != null) {
+                Element hashTreeAfterHeaderManager = JmxTree.nextHashTree(eltHeaderManager);
+                if (hashTreeAfterHeaderManager != null && !hashTreeAfterHeaderManager.hasChildNodes()) {
+                    eltHeaderManager.getParentNode().removeChild(hashTreeAfterHeaderManager);
+                }
+                eltHeaderManager.getParentNode().removeChild(eltHeaderManager);
+            }
+        }
+    }
+
+    /**
+     * The common HeaderManager is added after the config elements of the Thread Group (User Defined Variables, Cookie Manager, Cache Manager ...)
+     */
+    private static void insertAfterConfigElements(Element hashAfterThreadGroup, Element eltHeaderManager) {
+        Node insertBefore = null;
+        for (Element elt : JmxTree.childElements(hashAfterThreadGroup, null)) {
+            if ("TransactionController".equals(elt.getTagName()) || "TestAction".equals(elt.getTagName())) {
+                insertBefore = elt;
+                break;
+            }
+        }
+        JmxTree.insertWithHashTree(hashAfterThreadGroup, eltHeaderManager, insertBefore);
+    }
+
+    private static Map<String, Element> headersByKey(Element eltHeaderManager) {
+        Map<String, Element> mapHeaders = new LinkedHashMap<>();
+        for (Element eltCollection : JmxTree.childElements(eltHeaderManager, "collectionProp")) {
+            for (Element eltHeader : JmxTree.childElements(eltCollection, "elementProp")) {
+                mapHeaders.putIfAbsent(headerKey(eltHeader), eltHeader);
+            }
+        }
+        return mapHeaders;
+    }
+
+    private static String headerKey(Element eltHeader) {
+        String name = "";
+        String value = "";
+        for (Element eltProp : JmxTree.childElements(eltHeader, "stringProp")) {
+            if ("Header.name".equals(eltProp.getAttribute("name"))) {
+                name = eltProp.getTextContent();
+            } else if ("Header.value".equals(eltProp.getAttribute("name"))) {
+                value = eltProp.getTextContent();
+            }
+        }
+        return name + "\n" + value;
+    }
+
+    private static int countHeaders(Element eltHeaderManager) {
+        return headersByKey(eltHeaderManager).size();
+    }
+
+    public int getHeadersInThreadGroup() {
+        return headersInThreadGroup;
+    }
+
+    public int getHeadersInTransactions() {
+        return headersInTransactions;
+    }
+
+    public int getHeadersRemoved() {
+        return headersRemoved;
+    }
+}
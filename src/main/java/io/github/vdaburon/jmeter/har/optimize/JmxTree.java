@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import de.sstoehr.harreader.model.HarEntry;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Helpers to walk and modify the test plan tree of a jmx document : each test element is followed by a hashTree with its children
+ */
+public class JmxTree {
+
+    private static final Pattern K_TIMESTAMP_VALUE = Pattern.compile("\\d{10}|\\d{13}"); // epoch in seconds or in milliseconds
+    private static final long K_TIMESTAMP_MAX_DISTANCE_MS = 24L * 3600 * 1000;
+    private static final List<String> K_CACHE_BUSTER_NAMES = Arrays.asList("_", "ts", "t"); // e.g: jQuery ajax cache=false adds _=<timestamp>
+
+    private JmxTree() {
+        // static methods only
+    }
+
+    /**
+     * @param parent the parent element
+     * @param tagName the tag name of the children, null for all
+     * @return the child elements, a copy of the list, the children could be removed
+     */
+    public static List<Element> childElements(Element parent, String tagName) {
+        List<Element> listChildren = new ArrayList<>();
+        NodeList nodeList = parent.getChildNodes();
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            Node node = nodeList.item(i);
+            if (node.getNodeType() == Node.ELEMENT_NODE && (tagName == null || tagName.equals(node.getNodeName()))) {
+                listChildren.add((Element) node);
+            }
+        }
+        return listChildren;
+    }
+
+    /**
+     * @param parent the root element
+     * @param tagName the tag name of the descendants
+     * @return the descendant elements in the document order, a copy of the list
+     */
+    public static List<Element> descendants(Element parent, String tagName) {
+        List<Element> listElements = new ArrayList<>();
+        NodeList nodeList = parent.getElementsByTagName(tagName);
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            listElements.add((Element) nodeList.item(i));
+        }
+        return listElements;
+    }
+
+    /**
+     * Set the value of a property (stringProp, intProp ...) of a test element, the property is added if not exists
+     * @param element the test element
+     * @param name the property name, e.g: HTTPSampler.connect_timeout
+     * @param value the value
+     */
+    public static void setProperty(Element element, String name, String value) {
+        for (Element eltProp : childElements(element, null)) {
+            if (name.equals(eltProp.getAttribute("name")) && eltProp.getTagName().endsWith("Prop")) {
+                eltProp.setTextContent(value);
+                return;
+            }
+        }
+        element.appendChild(XmlJmx.createProperty(element.getOwnerDocument(), "stringProp", name, value));
+    }
+
+    /**
+     * @param element an element of the test plan
+     * @return the hashTree after this element with its children or null
+     */
+    public static Element nextHashTree(Element element) {
+        Node node = element.getNextSibling();
+        while (node != null && node.getNodeType() != Node.ELEMENT_NODE) {
+            node = node.getNextSibling();
+        }
+        if (node != null && "hashTree".equals(node.getNodeName())) {
+            return (Element) node;
+        }
+        return null;
+    }
+
+    /**
+     * @param hashAfterThreadGroup the hashTree after the Thread Group
+     * @return the hashTree of each Transaction Controller in the Thread Group
+     */
+    public static List<Element> transactionHashTrees(Element hashAfterThreadGroup) {
+        List<Element> listHashTrees = new ArrayList<>();
+        for (Element eltTc : childElements(hashAfterThreadGroup, "TransactionController")) {
+            Element hashTreeAfterTc = nextHashTree(eltTc);
+            if (hashTreeAfterTc != null) {
+                listHashTrees.add(hashTreeAfterTc);
+            }
+        }
+        return listHashTrees;
+    }
+
+    /**
+     * @param eltSampler a HTTPSamplerProxy created by XmlJmx with the HAR entries kept
+     * @return the HAR entry of the sampler or null if unknown (e.g: the HAR entries are not kept or the script was resumed from a checkpoint)
+     */
+    public static HarEntry harEntryOf(Element eltSampler) {
+        return (HarEntry) eltSampler.getUserData(XmlJmx.K_USER_DATA_HAR_ENTRY);
+    }
+
+    /**
+     * Create a test element with the standard attributes
+     * @param document the jmx document
+     * @param tagName the element name, e.g: ConstantTimer
+     * @param guiclass the gui class
+     * @param testclass the test class
+     * @param testname the name in the tree
+     * @return the element, enabled
+     */
+    public static Element createTestElement(Document document, String tagName, String guiclass, String testclass, String testname) {
+        Element element = document.createElement(tagName);
+        element.setAttribute("guiclass", guiclass);
+        element.setAttribute("testclass", testclass);
+        element.setAttribute("testname", testname);
+        element.setAttribute("enabled", "true");
+        return element;
+    }
+
+    /**
+     * Insert an element with its hashTree before a node
+     * @param parent the parent hashTree
+     * @param element the element to insert
+     * @param before the node before which the element is inserted, null to append
+     * @return the hashTree created after the element
+     */
+    public static Element insertWithHashTree(Element parent, Element element, Node before) {
+        Element hashTree = XmlJmx.createHashTree(parent.getOwnerDocument());
+        parent.insertBefore(element, before);
+        parent.insertBefore(hashTree, before);
+        return hashTree;
+    }
+
+    /**
+     * Append the canonical form of an element and its descendants to compare the test elements : the tags, the attributes without the testname and the texts
+     * @param sb the canonical form
+     * @param element the element
+     * @param timestampReferenceMs the start of the request to ignore the parameter values that avoid the cache : a timestamp close to this time
+     *                             or the value of the parameters _, ts and t, 0 to compare all the values
+     */
+    public static void appendCanonical(StringBuilder sb, Element element, long timestampReferenceMs) {
+        sb.append('<').append(element.getTagName());
+        NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Node attribute = attributes.item(i);
+            if (!"testname".equals(attribute.getNodeName())) {
+                sb.append(' ').append(attribute.getNodeName()).append('=').append(attribute.getNodeValue());
+            }
+        }
+        sb.append('>');
+        boolean isMaskValue = timestampReferenceMs != 0 && "Argument.value".equals(element.getAttribute("name"))
+                && isCacheBuster((Element) element.getParentNode(), element.getTextContent(), timestampReferenceMs);
+        for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                appendCanonical(sb, (Element) node, timestampReferenceMs);
+            } else if (node.getNodeType() == Node.TEXT_NODE) {
+                sb.append(isMaskValue ? "#" : node.getNodeValue());
+            }
+        }
+        sb.append("</").append(element.getTagName()).append('>');
+    }
+
+    /**
+     * @param eltArgument the argument element with the Argument.name and the Argument.value
+     * @param value the value of the argument
+     * @param timestampReferenceMs the start of the request
+     * @return true if the parameter avoids the cache : a parameter _, ts or t or a timestamp less than one day from the start of the request
+     */
+    private static boolean isCacheBuster(Element eltArgument, String value, long timestampReferenceMs) {
+        for (Element eltProp : childElements(eltArgument, "stringProp")) {
+            if ("Argument.name".equals(eltProp.getAttribute("name")) && K_CACHE_BUSTER_NAMES.contains(eltProp.getTextContent())) {
+                return true;
+            }
+        }
+        if (!K_TIMESTAMP_VALUE.matcher(value).matches()) {
+            return false;
+        }
+        long timestampMs = (value.length() == 10 ? Long.parseLong(value) * 1000 : Long.parseLong(value));
+        return Math.abs(timestampMs - timestampReferenceMs) <= K_TIMESTAMP_MAX_DISTANCE_MS;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import de.sstoehr.harreader.model.HarEntry;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Group the requests that the browser sent in parallel (the request starts before the end of a previous request of the page) in a
+ * "bzm - Parallel Controller" (JMeter plugin bzm-parallel), the requests of a group are sent concurrently instead of one after the other.
+ * One Parallel Controller by host : the max number of threads is the peak of concurrent requests of the host in the HAR (the browser limits the connections by host),
+ * the Parallel Controllers of the hosts of a group are sent concurrently by a parent Parallel Controller.
+ */
+public class ParallelRequestGrouper {
+
+    public static final String K_PARALLEL_SAMPLER = "com.blazemeter.jmeter.controller.ParallelSampler";
+    public static final String K_PARALLEL_CONTROLLER_GUI = "com.blazemeter.jmeter.controller.ParallelControllerGui";
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelRequestGrouper.class.getName());
+
+    private int groupsCreated = 0;
+    private int samplersGrouped = 0;
+
+    /**
+     * Group the parallel requests in each Transaction Controller, the samplers must have their HAR entry (XmlJmx.setKeepHarEntries)
+     * @param document the jmx document, modified
+     */
+    public void group(Document document) {
+        Element hashAfterThreadGroup = XmlJmx.findHashTreeAfterThreadGroup(document);
+        if (hashAfterThreadGroup == null) {
+            return;
+        }
+        for (Element hashTreeAfterTc : JmxTree.transactionHashTrees(hashAfterThreadGroup)) {
+            groupInTransaction(hashTreeAfterTc);
+        }
+        LOGGER.info("Parallel requests : " + groupsCreated + " group(s) of parallel requests with " + samplersGrouped + " samplers");
+    }
+
+    private void groupInTransaction(Element hashTreeAfterTc) {
+        List<Element> listGroup = new ArrayList<>();
+        long groupEndMs = Long.MIN_VALUE;
+        for (Element element : JmxTree.childElements(hashTreeAfterTc, null)) {
+            if ("hashTree".equals(element.getTagName())) {
+                continue;
+            }
+            HarEntry harEntry = ("HTTPSamplerProxy".equals(element.getTagName()) ? JmxTree.harEntryOf(element) : null);
+            if (harEntry == null || harEntry.getStartedDateTime() == null) {
+                // not a http sampler with its HAR entry (e.g: websocket sampler), the group ends
+                createGroup(hashTreeAfterTc, listGroup);
+                listGroup = new ArrayList<>();
+                groupEndMs = Long.MIN_VALUE;
+                continue;
+            }
+            long startMs = harEntry.getStartedDateTime().getTime();
+            if (!listGroup.isEmpty() && startMs >= groupEndMs) {
+                // this request starts after the end of all the requests of the group
+                createGroup(hashTreeAfterTc, listGroup);
+                listGroup = new ArrayList<>();
+                groupEndMs = Long.MIN_VALUE;
+            }
+            listGroup.add(element);
+            groupEndMs = Math.max(groupEndMs, endMs(harEntry));
+        }
+        createGroup(hashTreeAfterTc, listGroup);
+    }
+
+    /**
+     * Move the samplers of the group (with their hashTree) in one Parallel Controller by host with the peak of the host as max threads,
+     * nothing if less than 2 samplers. With several hosts, the Parallel Controllers of the hosts are in a Parallel Controller with one thread by host.
+     */
+    private void createGroup(Element hashTreeAfterTc, List<Element> listGroup) {
+        if (listGroup.size() < 2) {
+            return;
+        }
+        Map<String, List<Element>> mapHostToSamplers = new LinkedHashMap<>();
+        for (Element eltSampler : listGroup) {
+            mapHostToSamplers.computeIfAbsent(hostOf(JmxTree.harEntryOf(eltSampler)), k -> new ArrayList<>()).add(eltSampler);
+        }
+
+        groupsCreated++;
+        String testname = "Parallel " + groupsCreated + " - " + listGroup.size() + " requests";
+        if (mapHostToSamplers.size() == 1) {
+            String host = mapHostToSamplers.keySet().iterator().next();
+            Element hashTreeAfterParallel = createParallelController(hashTreeAfterTc, listGroup.get(0), testname, peakConcurrency(entriesOf(listGroup)),
+                    "Requests in parallel in the HAR, peak of concurrent requests of the host " + host);
+            moveSamplers(hashTreeAfterParallel, listGroup);
+        } else {
+            Element hashTreeAfterParallel = createParallelController(hashTreeAfterTc, listGroup.get(0), testname, mapHostToSamplers.size(),
+                    "Requests in parallel in the HAR, one thread by host : " + String.join(", ", mapHostToSamplers.keySet()));
+            for (Map.Entry<String, List<Element>> entry : mapHostToSamplers.entrySet()) {
+                List<Element> listSamplersHost = entry.getValue();
+                if (listSamplersHost.size() == 1) {
+                    moveSamplers(hashTreeAfterParallel, listSamplersHost);
+                } else {
+                    Element hashTreeAfterParallelHost = createParallelController(hashTreeAfterParallel, null, "Parallel " + groupsCreated + " - " + entry.getKey() + " - " + listSamplersHost.size() + " requests",
+                            peakConcurrency(entriesOf(listSamplersHost)), "Requests in parallel in the HAR, peak of concurrent requests of the host " + entry.getKey());
+                    moveSamplers(hashTreeAfterParallelHost, listSamplersHost);
+                }
+            }
+        }
+        samplersGrouped += listGroup.size();
+    }
+
+    /**
+     * Insert a Parallel Controller
+     * @param parent the parent hashTree
+     * @param before the node before which the controller is inserted, null to append
+     * @param testname the name of the controller
+     * @param maxThreadNumber the max number of children sent concurrently
+     * @param comment the comment of the controller
+     * @return the hashTree of the controller
+     */
+    private static Element createParallelController(Element parent, Element before, String testname, int maxThreadNumber, String comment) {
+        Document document = parent.getOwnerDocument();
+        Element eltParallel = JmxTree.createTestElement(document, K_PARALLEL_SAMPLER, K_PARALLEL_CONTROLLER_GUI, K_PARALLEL_SAMPLER, testname);
+        eltParallel.appendChild(XmlJmx.createProperty(document, "intProp", "MAX_THREAD_NUMBER", String.valueOf(maxThreadNumber)));
+        eltParallel.appendChild(XmlJmx.createProperty(document, "boolProp", "PARENT_SAMPLE", "false"));
+        eltParallel.appendChild(XmlJmx.createProperty(document, "boolProp", "LIMIT_MAX_THREAD_NUMBER", "true"));
+        eltParallel.appendChild(XmlJmx.createProperty(document, "stringProp", "TestPlan.comments", comment));
+        return JmxTree.insertWithHashTree(parent, eltParallel, before);
+    }
+
+    private static void moveSamplers(Element hashTreeAfterParallel, List<Element> listSamplers) {
+        for (Element eltSampler : listSamplers) {
+            Element hashTreeAfterSampler = JmxTree.nextHashTree(eltSampler);
+            hashTreeAfterParallel.appendChild(eltSampler);
+            if (hashTreeAfterSampler != null) {
+                hashTreeAfterParallel.appendChild(hashTreeAfterSampler);
+            }
+        }
+    }
+
+    private static List<HarEntry> entriesOf(List<Element> listSamplers) {
+        List<HarEntry> listEntries = new ArrayList<>();
+        for (Element eltSampler : listSamplers) {
+            listEntries.add(JmxTree.harEntryOf(eltSampler));
+        }
+        return listEntries;
+    }
+
+    /**
+     * @param listEntries the HAR entries
+     * @return the max number of requests started and not ended at the same time
+     */
+    static int peakConcurrency(List<HarEntry> listEntries) {
+        int nbEntries = listEntries.size();
+        long[] tabStarts = new long[nbEntries];
+        long[] tabEnds = new long[nbEntries];
+        for (int i = 0; i < nbEntries; i++) {
+            tabStarts[i] = listEntries.get(i).getStartedDateTime().getTime();
+            tabEnds[i] = endMs(listEntries.get(i));
+        }
+        Arrays.sort(tabStarts);
+        Arrays.sort(tabEnds);
+        int peak = 0;
+        int current = 0;
+        int iEnd = 0;
+        for (long start : tabStarts) {
+            // a request ended at the start time of another request is not concurrent
+            while (iEnd < nbEntries && tabEnds[iEnd] <= start) {
+                current--;
+                iEnd++;
+            }
+            current++;
+            peak = Math.max(peak, current);
+        }
+        return Math.max(1, peak);
+    }
+
+    private static long endMs(HarEntry harEntry) {
+        Integer time = harEntry.getTime();
+        return harEntry.getStartedDateTime().getTime() + (time != null && time > 0 ? time : 0);
+    }
+
+    private static String hostOf(HarEntry harEntry) {
+        try {
+            String host = new URI(harEntry.getRequest().getUrl()).getHost();
+            return (host != null ? host : "");
+        } catch (URISyntaxException e) {
+            return "";
+        }
+    }
+
+    public int getGroupsCreated() {
+        return groupsCreated;
+    }
+
+    public int getSamplersGrouped() {
+        return samplersGrouped;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import de.sstoehr.harreader.model.HarEntry;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Collapse the runs of consecutive equivalent requests (e.g: a SPA that polls GET /api/status every 2 seconds) in a Loop Controller with one sampler
+ * followed by a Flow Control Action with the recorded polling interval. The requests are equivalent when the samplers and their children (headers, body) are the same,
+ * the parameter values that avoid the cache are ignored (a timestamp close to the request start or the value of the parameters _, ts and t),
+ * the other values (e.g: page=1, page=2) are compared.
+ */
+public class PollingRunCompressor {
+
+    public static final int K_MIN_RUN_LENGTH = 3;
+
+    private static final Logger LOGGER = Logger.getLogger(PollingRunCompressor.class.getName());
+
+    private int runsCompressed = 0;
+    private int samplersRemoved = 0;
+
+    /**
+     * Collapse the runs in each Transaction Controller, the samplers must have their HAR entry (XmlJmx.setKeepHarEntries) for the polling interval
+     * @param document the jmx document, modified
+     */
+    public void compress(Document document) {
+        Element hashAfterThreadGroup = XmlJmx.findHashTreeAfterThreadGroup(document);
+        if (hashAfterThreadGroup == null) {
+            return;
+        }
+        for (Element hashTreeAfterTc : JmxTree.transactionHashTrees(hashAfterThreadGroup)) {
+            compressInTransaction(hashTreeAfterTc);
+        }
+        LOGGER.info("Polling requests : " + runsCompressed + " run(s) in Loop Controllers, " + samplersRemoved + " samplers removed");
+    }
+
+    private void compressInTransaction(Element hashTreeAfterTc) {
+        List<Element> listRun = new ArrayList<>();
+        String runKey = null;
+        for (Element element : JmxTree.childElements(hashTreeAfterTc, null)) {
+            if ("hashTree".equals(element.getTagName())) {
+                continue;
+            }
+            String key = ("HTTPSamplerProxy".equals(element.getTagName()) && JmxTree.harEntryOf(element) != null ? equivalenceKey(element) : null);
+            if (key == null || !key.equals(runKey)) {
+                collapse(hashTreeAfterTc, listRun);
+                listRun = new ArrayList<>();
+                runKey = key;
+            }
+            if (key != null) {
+                listRun.add(element);
+            }
+        }
+        collapse(hashTreeAfterTc, listRun);
+    }
+
+    private void collapse(Element hashTreeAfterTc, List<Element> listRun) {
+        if (listRun.size() < K_MIN_RUN_LENGTH) {
+            return;
+        }
+        Document document = hashTreeAfterTc.getOwnerDocument();
+        Element eltFirst = listRun.get(0);
+        long intervalMs = pollingIntervalMs(listRun);
+        String path = "";
+        for (Element eltProp : JmxTree.childElements(eltFirst, "stringProp")) {
+            if ("HTTPSampler.path".equals(eltProp.getAttribute("name"))) {
+                path = eltProp.getTextContent();
+            }
+        }
+
+        Element eltLoopController = JmxTree.createTestElement(document, "LoopController", "LoopControlPanel", "LoopController", "Polling x " + listRun.size() + " - " + path);
+        eltLoopController.appendChild(XmlJmx.createProperty(document, "boolProp", "LoopController.continue_forever", "true"));
+        eltLoopController.appendChild(XmlJmx.createProperty(document, "stringProp", "LoopController.loops", String.valueOf(listRun.size())));
+        Element hashTreeAfterLoop = JmxTree.insertWithHashTree(hashTreeAfterTc, eltLoopController, eltFirst);
+
+        // the first sampler is kept in the loop, the pause is after the request : the first request is sent without waiting like in the recording
+        Element hashTreeAfterFirst = JmxTree.nextHashTree(eltFirst);
+        hashTreeAfterLoop.appendChild(eltFirst);
+        if (hashTreeAfterFirst == null) {
+            hashTreeAfterFirst = XmlJmx.createHashTree(document);
+        }
+        hashTreeAfterLoop.appendChild(hashTreeAfterFirst);
+        Element eltPause = JmxTree.createTestElement(document, "TestAction", "TestActionGui", "TestAction", "Flow Control Action POLLING INTERVAL " + intervalMs + " ms");
+        eltPause.appendChild(XmlJmx.createProperty(document, "intProp", "ActionProcessor.action", "1"));
+        eltPause.appendChild(XmlJmx.createProperty(document, "intProp", "ActionProcessor.target", "0"));
+        eltPause.appendChild(XmlJmx.createProperty(document, "stringProp", "ActionProcessor.duration", String.valueOf(intervalMs)));
+        JmxTree.insertWithHashTree(hashTreeAfterLoop, eltPause, null);
+
+        for (int i = 1; i < listRun.size(); i++) {
+            Element eltSampler = listRun.get(i);
+            Element hashTree = JmxTree.nextHashTree(eltSampler);
+            hashTreeAfterTc.removeChild(eltSampler);
+            if (hashTree != null) {
+                hashTreeAfterTc.removeChild(hashTree);
+            }
+        }
+        runsCompressed++;
+        samplersRemoved += listRun.size() - 1;
+    }
+
+    /**
+     * The median of the time between the end of a request and the start of the next request of the run
+     */
+    private static long pollingIntervalMs(List<Element> listRun) {
+        List<Long> listGaps = new ArrayList<>();
+        for (int i = 1; i < listRun.size(); i++) {
+            HarEntry harEntryPrevious = JmxTree.harEntryOf(listRun.get(i - 1));
+            HarEntry harEntry = JmxTree.harEntryOf(listRun.get(i));
+            if (harEntryPrevious.getStartedDateTime() == null || harEntry.getStartedDateTime() == null) {
+                continue;
+            }
+            long endPreviousMs = harEntryPrevious.getStartedDateTime().getTime() + (harEntryPrevious.getTime() != null ? harEntryPrevious.getTime() : 0);
+            listGaps.add(Math.max(0, harEntry.getStartedDateTime().getTime() - endPreviousMs));
+        }
+        if (listGaps.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(listGaps);
+        return listGaps.get(listGaps.size() / 2);
+    }
+
+    /**
+     * The sampler and its hashTree without the name and with the parameter values that avoid the cache masked
+     */
+    private static String equivalenceKey(Element eltSampler) {
+        HarEntry harEntry = JmxTree.harEntryOf(eltSampler);
+        long startMs = (harEntry.getStartedDateTime() != null ? harEntry.getStartedDateTime().getTime() : 0);
+        StringBuilder sb = new StringBuilder();
+        JmxTree.appendCanonical(sb, eltSampler, startMs);
+        Element hashTree = JmxTree.nextHashTree(eltSampler);
+        if (hashTree != null) {
+            JmxTree.appendCanonical(sb, hashTree, startMs);
+        }
+        return sb.toString();
+    }
+
+    public int getRunsCompressed() {
+        return runsCompressed;
+    }
+
+    public int getSamplersRemoved() {
+        return samplersRemoved;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import de.sstoehr.harreader.model.Har;
+import de.sstoehr.harreader.model.HarEntry;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+import io.github.vdaburon.jmeter.har.common.RedirectChains;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Collapse the redirect chains (301, 302, 303, 307, 308) : the sampler of the first request follows the redirects (HTTPSampler.follow_redirects true)
+ * and the samplers of the hops are removed. The redirect urls with session values are not hard coded in the script anymore.
+ */
+public class RedirectChainCollapser {
+
+    private static final Logger LOGGER = Logger.getLogger(RedirectChainCollapser.class.getName());
+
+    private final Map<HarEntry, HarEntry> mapCollapsedHops = new IdentityHashMap<>(); // hop removed -> first entry of its chain
+    private int chainsCollapsed = 0;
+    private int samplersRemoved = 0;
+
+    /**
+     * Collapse the chains in each Transaction Controller, the samplers must have their HAR entry (XmlJmx.setKeepHarEntries)
+     * @param document the jmx document, modified
+     * @param har the HAR converted
+     */
+    public void collapse(Document document, Har har) {
+        Element hashAfterThreadGroup = XmlJmx.findHashTreeAfterThreadGroup(document);
+        if (hashAfterThreadGroup == null) {
+            return;
+        }
+        Map<HarEntry, HarEntry> mapHopToHead = RedirectChains.findHops(har.getLog().getEntries());
+        for (Element hashTreeAfterTc : JmxTree.transactionHashTrees(hashAfterThreadGroup)) {
+            Map<HarEntry, Element> mapHeadSamplers = new IdentityHashMap<>();
+            for (Element eltSampler : JmxTree.childElements(hashTreeAfterTc, "HTTPSamplerProxy")) {
+                HarEntry harEntry = JmxTree.harEntryOf(eltSampler);
+                if (harEntry == null) {
+                    continue;
+                }
+                HarEntry harEntryHead = mapHopToHead.get(harEntry);
+                Element eltHeadSampler = (harEntryHead != null ? mapHeadSamplers.get(harEntryHead) : null);
+                if (eltHeadSampler == null) {
+                    // not a hop or the first request of the chain is not in this transaction
+                    mapHeadSamplers.put(harEntry, eltSampler);
+                    continue;
+                }
+                if ("false".equals(propertyValue(eltHeadSampler, "HTTPSampler.follow_redirects"))) {
+                    JmxTree.setProperty(eltHeadSampler, "HTTPSampler.follow_redirects", "true");
+                    JmxTree.setProperty(eltHeadSampler, "HTTPSampler.auto_redirects", "false");
+                    chainsCollapsed++;
+                }
+                Element hashTree = JmxTree.nextHashTree(eltSampler);
+                hashTreeAfterTc.removeChild(eltSampler);
+                if (hashTree != null) {
+                    hashTreeAfterTc.removeChild(hashTree);
+                }
+                mapCollapsedHops.put(harEntry, harEntryHead);
+                samplersRemoved++;
+            }
+        }
+        LOGGER.info("Redirect chains : " + chainsCollapsed + " sampler(s) follow the redirects, " + samplersRemoved + " hop samplers removed");
+    }
+
+    private static String propertyValue(Element element, String name) {
+        for (Element eltProp : JmxTree.childElements(element, null)) {
+            if (name.equals(eltProp.getAttribute("name"))) {
+                return eltProp.getTextContent();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * @return the hops removed from the script and the first entry of their chain (identity map), the record file nests the same hops
+     */
+    public Map<HarEntry, HarEntry> getCollapsedHops() {
+        return mapCollapsedHops;
+    }
+
+    public int getChainsCollapsed() {
+        return chainsCollapsed;
+    }
+
+    public int getSamplersRemoved() {
+        return samplersRemoved;
+    }
+}
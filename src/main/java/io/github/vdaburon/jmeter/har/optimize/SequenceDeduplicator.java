@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Replace the Transaction Controllers with the same sequence of requests (e.g: open a document many times in a long session) by a Module Controller
+ * that calls one Test Fragment with the sequence. The sequence of a transaction is fingerprinted with a rolling hash of its elements,
+ * the transactions with the same fingerprint are compared element by element with the canonical form to avoid a hash collision.
+ */
+public class SequenceDeduplicator {
+
+    public static final int K_MIN_SAMPLERS = 2; // a transaction with one request is not worth a fragment
+    public static final String K_ROOT_NODE_NAME = "Test Plan"; // the root of the JMeter tree, the first element of the Module Controller path
+
+    private static final long K_HASH_BASE = 1_000_003L;
+    private static final Logger LOGGER = Logger.getLogger(SequenceDeduplicator.class.getName());
+
+    private int fragmentsCreated = 0;
+    private int transactionsReplaced = 0;
+    private int samplersRemoved = 0;
+
+    /**
+     * A sequence of requests and the transactions with this sequence
+     */
+    private static class Sequence {
+        private final List<Element> listHashTreesAfterTc = new ArrayList<>(); // the first transaction is the reference of the sequence
+    }
+
+    /**
+     * Create the Test Fragments for the sequences found in more than one Transaction Controller
+     * @param document the jmx document, modified
+     */
+    public void deduplicate(Document document) {
+        Element hashAfterThreadGroup = XmlJmx.findHashTreeAfterThreadGroup(document);
+        if (hashAfterThreadGroup == null) {
+            return;
+        }
+        Map<Long, List<Sequence>> mapFingerprints = new HashMap<>();
+        List<Sequence> listSequences = new ArrayList<>(); // in the order of the first transaction
+        for (Element hashTreeAfterTc : JmxTree.transactionHashTrees(hashAfterThreadGroup)) {
+            if (JmxTree.descendants(hashTreeAfterTc, "HTTPSamplerProxy").size() < K_MIN_SAMPLERS) {
+                continue;
+            }
+            long fingerprint = 0;
+            for (Element element : JmxTree.childElements(hashTreeAfterTc, null)) {
+                fingerprint = fingerprint * K_HASH_BASE + canonical(element).hashCode();
+            }
+            List<Sequence> listBucket = mapFingerprints.computeIfAbsent(fingerprint, k -> new ArrayList<>());
+            Sequence sequence = null;
+            for (Sequence sequenceInBucket : listBucket) {
+                if (isSameSequence(sequenceInBucket.listHashTreesAfterTc.get(0), hashTreeAfterTc)) {
+                    sequence = sequenceInBucket;
+                    break;
+                }
+            }
+            if (sequence == null) {
+                sequence = new Sequence();
+                listBucket.add(sequence);
+                listSequences.add(sequence);
+            }
+            sequence.listHashTreesAfterTc.add(hashTreeAfterTc);
+        }
+
+        Element hashTreeAfterTestPlan = (Element) hashAfterThreadGroup.getParentNode();
+        Node insertBefore = hashAfterThreadGroup.getNextSibling(); // after the Thread Group, before the recorder
+        String testPlanName = ((Element) document.getElementsByTagName("TestPlan").item(0)).getAttribute("testname");
+        for (Sequence sequence : listSequences) {
+            if (sequence.listHashTreesAfterTc.size() > 1) {
+                createFragment(document, hashTreeAfterTestPlan, insertBefore, testPlanName, sequence);
+            }
+        }
+        LOGGER.info("Repeated sequences : " + fragmentsCreated + " Test Fragment(s) called by " + transactionsReplaced + " Module Controllers, " + samplersRemoved + " samplers removed");
+    }
+
+    /**
+     * Compare the elements of 2 transactions with the same fingerprint, only the canonical form of one element of each transaction is in memory
+     */
+    private static boolean isSameSequence(Element hashTreeAfterTc1, Element hashTreeAfterTc2) {
+        List<Element> listElements1 = JmxTree.childElements(hashTreeAfterTc1, null);
+        List<Element> listElements2 = JmxTree.childElements(hashTreeAfterTc2, null);
+        if (listElements1.size() != listElements2.size()) {
+            return false;
+        }
+        for (int i = 0; i < listElements1.size(); i++) {
+            if (!canonical(listElements1.get(i)).equals(canonical(listElements2.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String canonical(Element element) {
+        StringBuilder sb = new StringBuilder();
+        JmxTree.appendCanonical(sb, element, 0);
+        return sb.toString();
+    }
+
+    private void createFragment(Document document, Element hashTreeAfterTestPlan, Node insertBefore, String testPlanName, Sequence sequence) {
+        fragmentsCreated++;
+        Element hashTreeFirst = sequence.listHashTreesAfterTc.get(0);
+        String tcName = ((Element) hashTreeFirst.getPreviousSibling()).getAttribute("testname");
+        int posSeparator = tcName.indexOf(" - ");
+        String fragmentName = String.format("Fragment %02d - %s", fragmentsCreated, (posSeparator >= 0 ? tcName.substring(posSeparator + 3) : tcName));
+
+        Element eltFragment = JmxTree.createTestElement(document, "TestFragmentController", "TestFragmentControllerGui", "TestFragmentController", fragmentName);
+        Element hashTreeAfterFragment = JmxTree.insertWithHashTree(hashTreeAfterTestPlan, eltFragment, insertBefore);
+        int nbSamplers = JmxTree.descendants(hashTreeFirst, "HTTPSamplerProxy").size();
+        // the elements of the first transaction are moved in the fragment
+        while (hashTreeFirst.getFirstChild() != null) {
+            hashTreeAfterFragment.appendChild(hashTreeFirst.getFirstChild());
+        }
+
+        for (Element hashTreeAfterTc : sequence.listHashTreesAfterTc) {
+            while (hashTreeAfterTc.getFirstChild() != null) {
+                hashTreeAfterTc.removeChild(hashTreeAfterTc.getFirstChild());
+            }
+            Element eltModuleController = JmxTree.createTestElement(document, "ModuleController", "ModuleControllerGui", "ModuleController", "Module Controller - " + fragmentName);
+            Element eltNodePath = document.createElement("collectionProp");
+            eltNodePath.setAttribute("name", "ModuleController.node_path");
+            for (String nodeName : new String[] {K_ROOT_NODE_NAME, testPlanName, fragmentName}) {
+                // the property name is the hash code of the value like JMeter
+                eltNodePath.appendChild(XmlJmx.createProperty(document, "stringProp", String.valueOf(nodeName.hashCode()), nodeName));
+            }
+            eltModuleController.appendChild(eltNodePath);
+            JmxTree.insertWithHashTree(hashTreeAfterTc, eltModuleController, null);
+            transactionsReplaced++;
+        }
+        samplersRemoved += nbSamplers * (sequence.listHashTreesAfterTc.size() - 1);
+    }
+
+    public int getFragmentsCreated() {
+        return fragmentsCreated;
+    }
+
+    public int getTransactionsReplaced() {
+        return transactionsReplaced;
+    }
+
+    public int getSamplersRemoved() {
+        return samplersRemoved;
+    }
+}
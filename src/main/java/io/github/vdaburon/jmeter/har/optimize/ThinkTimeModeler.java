@@ -0,0 +1,275 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import de.sstoehr.harreader.model.Har;
+import de.sstoehr.harreader.model.HarPage;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Replace the recorded pauses (Flow Control Action PAUSE) by a think time with a random distribution computed from one or more recordings of the journey.
+ * The pause before a page is matched between the recordings with the title of the page (and its occurrence), the center of the think time is the median of the
+ * recorded pauses, the deviation is the standard deviation of the recorded pauses (or a part of the center with only one recording).
+ * The long pauses (a coffee break during the recording) are clamped to a maximum, all the think times are scaled with the JMeter property think_time_factor.
+ */
+public class ThinkTimeModeler {
+
+    public static final String K_DISTRIBUTION_RECORDED = "recorded";
+    public static final String K_DISTRIBUTION_CONSTANT = "constant";
+    public static final String K_DISTRIBUTION_UNIFORM = "uniform";
+    public static final String K_DISTRIBUTION_GAUSSIAN = "gaussian";
+    public static final String K_DISTRIBUTION_POISSON = "poisson";
+    public static final String K_FACTOR_PROPERTY = "think_time_factor";
+    public static final double K_DEFAULT_VARIATION = 0.2; // deviation = 20% of the center when only one recording of the pause
+    public static final int K_MIN_PAUSES_FOR_AUTO_MAX = 4; // not enough pauses to find the outliers
+
+    private static final String K_PAUSE_NAME = "Flow Control Action PAUSE";
+    private static final Logger LOGGER = Logger.getLogger(ThinkTimeModeler.class.getName());
+
+    private final String distribution;
+    private final long maxThinkTimeMs;
+    private final Map<String, List<Long>> mapPagePausesMs = new HashMap<>(); // page title # occurrence -> pauses before the page in the baseline recordings
+    private int nbThinkTimes = 0;
+    private int nbClamped = 0;
+
+    /**
+     * @param distribution the distribution of the think times : constant, uniform, gaussian or poisson
+     * @param maxThinkTimeMs the maximum of a think time, 0 = computed with the pauses (Tukey far out fence)
+     */
+    public ThinkTimeModeler(String distribution, long maxThinkTimeMs) {
+        this.distribution = distribution;
+        this.maxThinkTimeMs = maxThinkTimeMs;
+    }
+
+    /**
+     * Is the distribution known ?
+     * @param distribution the distribution parameter
+     * @return true if recorded, constant, uniform, gaussian or poisson
+     */
+    public static boolean isDistributionValid(String distribution) {
+        return K_DISTRIBUTION_RECORDED.equals(distribution) || K_DISTRIBUTION_CONSTANT.equals(distribution) || K_DISTRIBUTION_UNIFORM.equals(distribution)
+                || K_DISTRIBUTION_GAUSSIAN.equals(distribution) || K_DISTRIBUTION_POISSON.equals(distribution);
+    }
+
+    /**
+     * Add the pauses between the pages of an other recording of the journey (baseline HAR)
+     * @param har the HAR
+     */
+    public void addBaselineRecording(Har har) {
+        List<HarPage> lPages = har.getLog().getPages();
+        Map<String, Integer> mapOccurrences = new HashMap<>();
+        for (int p = 0; p < lPages.size(); p++) {
+            String key = pageKey(pageTitle(lPages.get(p).getTitle()), mapOccurrences);
+            if (p > 0) {
+                long pauseMs = lPages.get(p).getStartedDateTime().getTime() - lPages.get(p - 1).getStartedDateTime().getTime();
+                if (pauseMs > 0) {
+                    mapPagePausesMs.computeIfAbsent(key, k -> new ArrayList<>()).add(pauseMs);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace the pauses of the Thread Group by a Flow Control Action without pause and a timer with the think time
+     * @param document the jmx document, modified
+     */
+    public void apply(Document document) {
+        Element hashAfterThreadGroup = XmlJmx.findHashTreeAfterThreadGroup(document);
+        if (hashAfterThreadGroup == null) {
+            return;
+        }
+
+        // the pause and the samples of the pause in all the recordings
+        List<Element> listPauses = new ArrayList<>();
+        List<List<Long>> listPauseSamples = new ArrayList<>();
+        List<Long> listAllPausesMs = new ArrayList<>();
+        Map<String, Integer> mapOccurrences = new HashMap<>();
+        Element eltPendingPause = null; // the pause before the next Transaction Controller
+        for (Element element : JmxTree.childElements(hashAfterThreadGroup, null)) {
+            if ("TestAction".equals(element.getTagName()) && K_PAUSE_NAME.equals(element.getAttribute("testname"))) {
+                if (eltPendingPause != null) {
+                    addPause(eltPendingPause, null, listPauses, listPauseSamples, listAllPausesMs);
+                }
+                eltPendingPause = element;
+            } else if ("TransactionController".equals(element.getTagName())) {
+                // all the pages are counted like in the baseline recordings, also the first page without pause before
+                String tcName = element.getAttribute("testname");
+                int posSeparator = tcName.indexOf(" - ");
+                String key = pageKey(posSeparator >= 0 ? tcName.substring(posSeparator + 3) : tcName, mapOccurrences);
+                if (eltPendingPause != null) {
+                    addPause(eltPendingPause, mapPagePausesMs.get(key), listPauses, listPauseSamples, listAllPausesMs);
+                    eltPendingPause = null;
+                }
+            }
+        }
+        if (eltPendingPause != null) {
+            addPause(eltPendingPause, null, listPauses, listPauseSamples, listAllPausesMs);
+        }
+
+        long maxMs = (maxThinkTimeMs > 0 ? maxThinkTimeMs : farOutFence(listAllPausesMs));
+        for (int i = 0; i < listPauses.size(); i++) {
+            Element eltTestAction = listPauses.get(i);
+            List<Long> listSamples = listPauseSamples.get(i);
+            long centerMs = median(listSamples);
+            if (centerMs > maxMs) {
+                centerMs = maxMs;
+                nbClamped++;
+            }
+            long deviationMs = (listSamples.size() > 1 ? standardDeviation(listSamples) : Math.round(centerMs * K_DEFAULT_VARIATION));
+            deviationMs = Math.min(deviationMs, centerMs / 2); // the think time stays positive
+
+            JmxTree.setProperty(eltTestAction, "ActionProcessor.duration", "0");
+            eltTestAction.setAttribute("testname", "Flow Control Action THINK TIME");
+            Element hashTreeAfterTestAction = JmxTree.nextHashTree(eltTestAction);
+            if (hashTreeAfterTestAction != null) {
+                JmxTree.insertWithHashTree(hashTreeAfterTestAction, createTimer(document, centerMs, deviationMs, listSamples.size()), null);
+                nbThinkTimes++;
+            }
+        }
+        String clamped = (maxMs == Long.MAX_VALUE ? "not clamped" : "clamped to " + maxMs + " ms : " + nbClamped);
+        LOGGER.info("Think times " + distribution + " : " + nbThinkTimes + ", " + clamped + ", scaled with the property " + K_FACTOR_PROPERTY);
+    }
+
+    private static void addPause(Element eltTestAction, List<Long> listBaseline, List<Element> listPauses, List<List<Long>> listPauseSamples, List<Long> listAllPausesMs) {
+        List<Long> listSamples = new ArrayList<>();
+        listSamples.add(Long.parseLong(propertyValue(eltTestAction, "ActionProcessor.duration")));
+        if (listBaseline != null) {
+            listSamples.addAll(listBaseline);
+        }
+        listPauses.add(eltTestAction);
+        listPauseSamples.add(listSamples);
+        listAllPausesMs.addAll(listSamples);
+    }
+
+    private Element createTimer(Document document, long centerMs, long deviationMs, int nbSamples) {
+        String comment = "Recorded " + nbSamples + " time(s), center " + centerMs + " ms, deviation " + deviationMs + " ms";
+        Element eltTimer;
+        switch (distribution) {
+            case K_DISTRIBUTION_UNIFORM:
+                // delay = offset + random[0, range[
+                eltTimer = JmxTree.createTestElement(document, "UniformRandomTimer", "UniformRandomTimerGui", "UniformRandomTimer", "Think Time Uniform");
+                eltTimer.appendChild(XmlJmx.createProperty(document, "stringProp", "ConstantTimer.delay", scaled(centerMs - deviationMs)));
+                eltTimer.appendChild(XmlJmx.createProperty(document, "stringProp", "RandomTimer.range", scaled(2 * deviationMs)));
+                break;
+            case K_DISTRIBUTION_GAUSSIAN:
+                eltTimer = JmxTree.createTestElement(document, "GaussianRandomTimer", "GaussianRandomTimerGui", "GaussianRandomTimer", "Think Time Gaussian");
+                eltTimer.appendChild(XmlJmx.createProperty(document, "stringProp", "ConstantTimer.delay", scaled(centerMs)));
+                eltTimer.appendChild(XmlJmx.createProperty(document, "stringProp", "RandomTimer.range", scaled(deviationMs)));
+                break;
+            case K_DISTRIBUTION_POISSON:
+                // delay = offset + poisson(lambda), the mean is lambda
+                eltTimer = JmxTree.createTestElement(document, "PoissonRandomTimer", "PoissonRandomTimerGui", "PoissonRandomTimer", "Think Time Poisson");
+                eltTimer.appendChild(XmlJmx.createProperty(document, "stringProp", "ConstantTimer.delay", "0"));
+                eltTimer.appendChild(XmlJmx.createProperty(document, "stringProp", "RandomTimer.range", scaled(centerMs)));
+                break;
+            default:
+                eltTimer = JmxTree.createTestElement(document, "ConstantTimer", "ConstantTimerGui", "ConstantTimer", "Think Time Constant");
+                eltTimer.appendChild(XmlJmx.createProperty(document, "stringProp", "ConstantTimer.delay", scaled(centerMs)));
+                break;
+        }
+        eltTimer.appendChild(XmlJmx.createProperty(document, "stringProp", "TestPlan.comments", comment));
+        return eltTimer;
+    }
+
+    /**
+     * @return the JMeter expression of the time multiplied by the property think_time_factor (default 1), a jexl3 expression rounded to a long
+     * (the expressions differ only by the time, no script compiled by think time like with groovy)
+     */
+    private static String scaled(long timeMs) {
+        return "${__jexl3((" + timeMs + " * ${__P(" + K_FACTOR_PROPERTY + ",1)}).longValue())}";
+    }
+
+    private static String propertyValue(Element element, String name) {
+        for (Element eltProp : JmxTree.childElements(element, null)) {
+            if (name.equals(eltProp.getAttribute("name"))) {
+                return eltProp.getTextContent().trim();
+            }
+        }
+        return "0";
+    }
+
+    /**
+     * The title of the page like the Transaction Controller name : the path of the url or the title
+     */
+    private static String pageTitle(String title) {
+        try {
+            return new URI(title).getPath();
+        } catch (URISyntaxException | NullPointerException ex) {
+            return title;
+        }
+    }
+
+    private static String pageKey(String title, Map<String, Integer> mapOccurrences) {
+        int occurrence = mapOccurrences.merge(title, 1, Integer::sum);
+        return title + "#" + occurrence;
+    }
+
+    private static long median(List<Long> listValues) {
+        List<Long> listSorted = new ArrayList<>(listValues);
+        Collections.sort(listSorted);
+        return listSorted.get((listSorted.size() - 1) / 2);
+    }
+
+    private static long standardDeviation(List<Long> listValues) {
+        double mean = 0;
+        for (long value : listValues) {
+            mean += value;
+        }
+        mean /= listValues.size();
+        double sumSquares = 0;
+        for (long value : listValues) {
+            sumSquares += (value - mean) * (value - mean);
+        }
+        return Math.round(Math.sqrt(sumSquares / listValues.size()));
+    }
+
+    /**
+     * The far out fence of Tukey : Q3 + 3 x (Q3 - Q1), the pauses above are outliers
+     * @return the fence or Long.MAX_VALUE if not enough pauses
+     */
+    private static long farOutFence(List<Long> listValues) {
+        if (listValues.size() < K_MIN_PAUSES_FOR_AUTO_MAX) {
+            return Long.MAX_VALUE;
+        }
+        List<Long> listSorted = new ArrayList<>(listValues);
+        Collections.sort(listSorted);
+        long q1 = listSorted.get(listSorted.size() / 4);
+        long q3 = listSorted.get((listSorted.size() * 3) / 4);
+        return q3 + 3 * (q3 - q1);
+    }
+
+    public int getNbThinkTimes() {
+        return nbThinkTimes;
+    }
+
+    public int getNbClamped() {
+        return nbClamped;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import de.sstoehr.harreader.model.Har;
+import de.sstoehr.harreader.model.HarEntry;
+import de.sstoehr.harreader.model.HarTiming;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+import io.github.vdaburon.jmeter.har.common.RedirectChains;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Set the connect timeout, the response timeout and a Duration Assertion on each HTTP sampler from the timings recorded in the HAR : the percentile of the
+ * recorded times multiplied by a factor. With several recordings of the same journey (baseline HAR files) the percentile is computed on all the recordings.
+ * The requests are matched between the recordings by the method and the url without the query string.
+ * A sampler that follows the redirects (RedirectChainCollapser) sends the whole redirect chain : its Duration Assertion is computed on the time of the chain
+ * and its response timeout is the largest timeout of the requests of the chain.
+ */
+public class TimingSlaDeriver {
+
+    public static final long K_MIN_CONNECT_TIMEOUT_MS = 1000; // a recorded connect of 5 ms must not give a timeout of 15 ms
+    public static final long K_MIN_RESPONSE_TIMEOUT_MS = 2000;
+    public static final long K_MIN_DURATION_MS = 500;
+
+    private static final Logger LOGGER = Logger.getLogger(TimingSlaDeriver.class.getName());
+
+    private final double factor;
+    private final int percentile;
+    private final Map<String, RequestTimings> mapRequestTimings = new HashMap<>(); // method + url without query -> timings of all the recordings
+    private final Map<String, List<Long>> mapHostConnectMs = new HashMap<>(); // host -> connect times of the new connections
+    private int nbRecordings = 0;
+    private int samplersWithSla = 0;
+
+    /**
+     * @param factor the factor applied to the recorded times, e.g: 3
+     * @param percentile the percentile of the recorded times (1 to 100), e.g: 90
+     */
+    public TimingSlaDeriver(double factor, int percentile) {
+        this.factor = factor;
+        this.percentile = Math.max(1, Math.min(100, percentile));
+    }
+
+    /**
+     * Add the timings of a recording of the journey (the HAR converted or a baseline HAR)
+     * @param har the HAR
+     */
+    public void addRecording(Har har) {
+        nbRecordings++;
+        for (HarEntry harEntry : har.getLog().getEntries()) {
+            String key = requestKey(harEntry);
+            if (key == null) {
+                continue;
+            }
+            RequestTimings requestTimings = mapRequestTimings.computeIfAbsent(key, k -> new RequestTimings());
+            if (harEntry.getTime() != null && harEntry.getTime() >= 0) {
+                requestTimings.listTotalMs.add((long) harEntry.getTime());
+            }
+            HarTiming harTiming = harEntry.getTimings();
+            if (harTiming != null) {
+                long waitReceiveMs = positive(harTiming.getWait()) + positive(harTiming.getReceive());
+                requestTimings.listWaitReceiveMs.add(waitReceiveMs);
+                if (harTiming.getConnect() != null && harTiming.getConnect() > 0) {
+                    // -1 = connection reused, no connect time
+                    mapHostConnectMs.computeIfAbsent(hostOf(harEntry), k -> new ArrayList<>()).add((long) harTiming.getConnect());
+                }
+            }
+        }
+
+        // the time of each redirect chain : the first request and its hops
+        Map<HarEntry, Long> mapHeadHopsMs = new IdentityHashMap<>();
+        for (Map.Entry<HarEntry, HarEntry> entry : RedirectChains.findHops(har.getLog().getEntries()).entrySet()) {
+            HarEntry harEntryHop = entry.getKey();
+            mapHeadHopsMs.merge(entry.getValue(), positive(harEntryHop.getTime()), Long::sum);
+            RequestTimings requestTimingsHead = mapRequestTimings.get(requestKey(entry.getValue()));
+            String hopKey = requestKey(harEntryHop);
+            if (requestTimingsHead != null && hopKey != null) {
+                requestTimingsHead.setHopKeys.add(hopKey);
+            }
+        }
+        for (Map.Entry<HarEntry, Long> entry : mapHeadHopsMs.entrySet()) {
+            RequestTimings requestTimingsHead = mapRequestTimings.get(requestKey(entry.getKey()));
+            if (requestTimingsHead != null) {
+                requestTimingsHead.listChainTotalMs.add(positive(entry.getKey().getTime()) + entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Set the timeouts and add a Duration Assertion to the samplers with their HAR entry (XmlJmx.setKeepHarEntries)
+     * @param document the jmx document, modified
+     */
+    public void apply(Document document) {
+        Map<String, Long> mapHostConnectTimeout = new HashMap<>();
+        for (Map.Entry<String, List<Long>> entry : mapHostConnectMs.entrySet()) {
+            mapHostConnectTimeout.put(entry.getKey(), Math.max(K_MIN_CONNECT_TIMEOUT_MS, scaled(entry.getValue())));
+        }
+        // the percentiles once by request, a request could be repeated in many samplers (e.g: polling)
+        for (RequestTimings requestTimings : mapRequestTimings.values()) {
+            if (!requestTimings.listWaitReceiveMs.isEmpty()) {
+                requestTimings.responseTimeoutMs = Math.max(K_MIN_RESPONSE_TIMEOUT_MS, scaled(requestTimings.listWaitReceiveMs));
+            }
+            if (!requestTimings.listTotalMs.isEmpty()) {
+                requestTimings.durationMs = Math.max(K_MIN_DURATION_MS, scaled(requestTimings.listTotalMs));
+            }
+            if (!requestTimings.listChainTotalMs.isEmpty()) {
+                requestTimings.chainDurationMs = Math.max(K_MIN_DURATION_MS, scaled(requestTimings.listChainTotalMs));
+            }
+        }
+
+        for (Element eltSampler : JmxTree.descendants(document.getDocumentElement(), "HTTPSamplerProxy")) {
+            HarEntry harEntry = JmxTree.harEntryOf(eltSampler);
+            RequestTimings requestTimings = (harEntry != null ? mapRequestTimings.get(requestKey(harEntry)) : null);
+            if (requestTimings == null) {
+                continue;
+            }
+            Long connectTimeoutMs = mapHostConnectTimeout.get(hostOf(harEntry));
+            if (connectTimeoutMs != null) {
+                JmxTree.setProperty(eltSampler, "HTTPSampler.connect_timeout", String.valueOf(connectTimeoutMs));
+            }
+            long responseTimeoutMs = requestTimings.responseTimeoutMs;
+            long durationMs = requestTimings.durationMs;
+            if ("true".equals(propertyValue(eltSampler, "HTTPSampler.follow_redirects")) && requestTimings.chainDurationMs > 0) {
+                // the sample contains the requests of the redirect chain
+                durationMs = requestTimings.chainDurationMs;
+                for (String hopKey : requestTimings.setHopKeys) {
+                    RequestTimings requestTimingsHop = mapRequestTimings.get(hopKey);
+                    if (requestTimingsHop != null) {
+                        responseTimeoutMs = Math.max(responseTimeoutMs, requestTimingsHop.responseTimeoutMs);
+                    }
+                }
+            }
+            if (responseTimeoutMs > 0) {
+                JmxTree.setProperty(eltSampler, "HTTPSampler.response_timeout", String.valueOf(responseTimeoutMs));
+            }
+            Element hashTreeAfterSampler = JmxTree.nextHashTree(eltSampler);
+            if (durationMs > 0 && hashTreeAfterSampler != null) {
+                Element eltDuration = JmxTree.createTestElement(document, "DurationAssertion", "DurationAssertionGui", "DurationAssertion", "Duration Assertion " + durationMs + " ms");
+                eltDuration.appendChild(XmlJmx.createProperty(document, "stringProp", "DurationAssertion.duration", String.valueOf(durationMs)));
+                JmxTree.insertWithHashTree(hashTreeAfterSampler, eltDuration, null);
+            }
+            samplersWithSla++;
+        }
+        LOGGER.info("Timeouts and Duration Assertion for " + samplersWithSla + " samplers, percentile " + percentile + " x " + factor + " of " + nbRecordings + " recording(s)");
+    }
+
+    /**
+     * @return the percentile of the values multiplied by the factor
+     */
+    private long scaled(List<Long> listValues) {
+        List<Long> listSorted = new ArrayList<>(listValues);
+        Collections.sort(listSorted);
+        // nearest rank
+        int rank = (int) Math.ceil(percentile / 100.0 * listSorted.size());
+        long value = listSorted.get(Math.max(0, rank - 1));
+        return (long) Math.ceil(value * factor);
+    }
+
+    private static String propertyValue(Element element, String name) {
+        for (Element eltProp : JmxTree.childElements(element, null)) {
+            if (name.equals(eltProp.getAttribute("name"))) {
+                return eltProp.getTextContent();
+            }
+        }
+        return "";
+    }
+
+    private static long positive(Integer value) {
+        return (value != null && value > 0 ? value : 0);
+    }
+
+    private static String requestKey(HarEntry harEntry) {
+        if (harEntry.getRequest() == null || harEntry.getRequest().getUrl() == null) {
+            return null;
+        }
+        String url = harEntry.getRequest().getUrl();
+        int posQuery = url.indexOf('?');
+        if (posQuery >= 0) {
+            url = url.substring(0, posQuery);
+        }
+        return harEntry.getRequest().getMethod() + " " + url;
+    }
+
+    private static String hostOf(HarEntry harEntry) {
+        try {
+            String host = new URI(harEntry.getRequest().getUrl()).getHost();
+            return (host != null ? host : "");
+        } catch (URISyntaxException e) {
+            return "";
+        }
+    }
+
+    public int getSamplersWithSla() {
+        return samplersWithSla;
+    }
+
+    /**
+     * The recorded times of a request
+     */
+    private static class RequestTimings {
+        private final List<Long> listTotalMs = new ArrayList<>();
+        private final List<Long> listWaitReceiveMs = new ArrayList<>();
+        private final List<Long> listChainTotalMs = new ArrayList<>(); // the times of the redirect chains starting with this request
+        private final Set<String> setHopKeys = new LinkedHashSet<>(); // the requests of the redirect chains after this request
+        private long responseTimeoutMs = 0; // 0 = no wait and receive time recorded
+        private long durationMs = 0; // 0 = no time recorded
+        private long chainDurationMs = 0; // 0 = not the first request of a redirect chain
+    }
+}
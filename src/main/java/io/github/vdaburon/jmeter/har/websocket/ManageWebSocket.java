@@ -19,16 +19,23 @@ package io.github.vdaburon.jmeter.har.websocket;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 
+import de.sstoehr.harreader.model.Har;
+import de.sstoehr.harreader.model.HarEntry;
+import de.sstoehr.harreader.model.HarRequest;
+
 import io.github.vdaburon.jmeter.har.Utils;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 /**
  * Find a websocket connection (ws or wss) and messages (send or receive) then create a webSocketRequest to save informations about the websocket exchanges.
@@ -36,6 +43,7 @@ import java.util.logging.Logger;
 
 public class ManageWebSocket {
 
+    private static final Pattern K_PATTERN_WS_URL = Pattern.compile("^wss?://", Pattern.CASE_INSENSITIVE); // wss://...
     private static final Logger LOGGER = Logger.getLogger(ManageWebSocket.class.getName());
 
     public static boolean isHarContainsWebSocketMessage(String harIn) {
@@ -67,7 +75,27 @@ public class ManageWebSocket {
             return webSocketRequest;
         }
 
-        Object document = Configuration.defaultConfiguration().jsonProvider().parse(fis, "UTF-8");
+        try {
+            webSocketRequest = getWebSocketRequest(fis);
+        } finally {
+            try {
+                fis.close();
+            } catch (IOException e) {
+                // close silently
+            }
+        }
+        return webSocketRequest;
+    }
+
+    /**
+     * Find the websocket connection and messages from the HAR content (e.g. a decompressed HAR)
+     * @param harInputStream the har content, the stream is not closed
+     * @return the webSocketRequest or null if no websocket connection
+     */
+    public static WebSocketRequest getWebSocketRequest(InputStream harInputStream) {
+        WebSocketRequest webSocketRequest = null;
+
+        Object document = Configuration.defaultConfiguration().jsonProvider().parse(harInputStream, "UTF-8");
 
         //String version = JsonPath.read(document, "$.log.version");
         //System.out.println("version=" + version);
@@ -106,18 +134,64 @@ public class ManageWebSocket {
         } catch (com.jayway.jsonpath.PathNotFoundException e) {
             // no webSocketMessage
             webSocketRequest = null;
-        } finally {
-            if (fis != null) {
-                try {
-                    fis.close();
-                } catch (IOException e) {
-                    // close silently
+        }
+
+        if (webSocketRequest != null) {
+            // at least one websocket connection and one message
+            webSocketRequest = computeTypeExchange(webSocketRequest);
+        }
+        return webSocketRequest;
+    }
+
+    /**
+     * Find the websocket connection and messages from the HAR already read, the messages are in the additional field _webSocketMessages of the entries
+     * @param har the har read
+     * @return the webSocketRequest or null if no websocket connection
+     */
+    public static WebSocketRequest getWebSocketRequest(Har har) {
+        WebSocketRequest webSocketRequest = null;
+        if (har == null || har.getLog() == null) {
+            return webSocketRequest;
+        }
+        List<HarEntry> listEntries = har.getLog().getEntries();
+
+        int nbWsConnection = 0;
+        for (HarEntry harEntry : listEntries) {
+            HarRequest harRequest = harEntry.getRequest();
+            if (harRequest != null && harRequest.getUrl() != null && K_PATTERN_WS_URL.matcher(harRequest.getUrl()).find()) {
+                if (nbWsConnection == 0) {
+                    webSocketRequest = new WebSocketRequest();
+                    webSocketRequest.setMethod(harRequest.getMethod() != null ? harRequest.getMethod().name() : null);
+                    webSocketRequest.setUrl(harRequest.getUrl());
                 }
+                nbWsConnection++;
             }
         }
+        LOGGER.info("Number of websocket (ws or wss) connection(s) : " + nbWsConnection);
 
         if (webSocketRequest != null) {
-            // at least one websocket connection and one message
+            List<WebSocketMessage> listWebSocketMessages = new ArrayList();
+            for (HarEntry harEntry : listEntries) {
+                Object oMessages = (harEntry.getAdditional() != null ? harEntry.getAdditional().get("_webSocketMessages") : null);
+                if (!(oMessages instanceof List)) {
+                    continue;
+                }
+                List listMessages = (List) oMessages;
+                for (int i = 0; i < listMessages.size(); i++) {
+                    // transforme the List of Map to a List of WebSocketMessage
+                    Map map = (Map) listMessages.get(i);
+                    LOGGER.fine("map=" + map);
+                    WebSocketMessage webSocketMessage = new WebSocketMessage();
+                    webSocketMessage.setData((String) map.get("data"));
+                    webSocketMessage.setType((String) map.get("type"));
+                    double dTimeMicro = ((Number) map.get("time")).doubleValue(); //  "time": 1739364958.729252 = epoc_sec.micro_sec
+                    webSocketMessage.setStartedDateTime(Utils.doubleEpocMicroToIsoFormat(dTimeMicro));
+                    listWebSocketMessages.add(webSocketMessage);
+                }
+            }
+            LOGGER.info("Number of websocket messages : " + listWebSocketMessages.size());
+            webSocketRequest.setListWebSocketMessages(listWebSocketMessages);
+            // at least one websocket connection
             webSocketRequest = computeTypeExchange(webSocketRequest);
         }
         return webSocketRequest;
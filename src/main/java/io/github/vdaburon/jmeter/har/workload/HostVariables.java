@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.workload;
+
+import io.github.vdaburon.jmeter.har.optimize.JmxTree;
+
+import org.w3c.dom.Element;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The host variables V_SCHEME, V_HOST and V_PORT of the User Defined Variables. JMeter sets all the User Defined Variables at the test start for all the
+ * Thread Groups, a script assembled from scripts recorded on different hosts must use the host values instead of the variables.
+ */
+class HostVariables {
+
+    static final List<String> K_HOST_VARIABLES = Arrays.asList("V_SCHEME", "V_HOST", "V_PORT");
+
+    private HostVariables() {
+        // static methods only
+    }
+
+    /**
+     * @param hashAfterThreadGroup the hashTree of a Thread Group
+     * @return the values of V_SCHEME, V_HOST and V_PORT in the User Defined Variables of the Thread Group
+     */
+    static Map<String, String> valuesOf(Element hashAfterThreadGroup) {
+        Map<String, String> mapHostVariables = new HashMap<>();
+        for (Element eltArguments : JmxTree.childElements(hashAfterThreadGroup, "Arguments")) {
+            for (Element eltArgument : JmxTree.descendants(eltArguments, "elementProp")) {
+                String name = eltArgument.getAttribute("name");
+                if (K_HOST_VARIABLES.contains(name)) {
+                    for (Element eltProp : JmxTree.childElements(eltArgument, "stringProp")) {
+                        if ("Argument.value".equals(eltProp.getAttribute("name"))) {
+                            mapHostVariables.put(name, eltProp.getTextContent());
+                        }
+                    }
+                }
+            }
+        }
+        return mapHostVariables;
+    }
+
+    /**
+     * Replace the host variables by their values in all the properties of the tree
+     * @param tree the element to modify
+     * @param mapHostVariables the values of the variables
+     */
+    static void replaceByValues(Element tree, Map<String, String> mapHostVariables) {
+        for (Element eltProp : JmxTree.descendants(tree, "stringProp")) {
+            String value = eltProp.getTextContent();
+            if (value.contains("${V_")) {
+                for (Map.Entry<String, String> entry : mapHostVariables.entrySet()) {
+                    value = value.replace("${" + entry.getKey() + "}", entry.getValue());
+                }
+                eltProp.setTextContent(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.workload;
+
+import de.sstoehr.harreader.model.Har;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+import io.github.vdaburon.jmeter.har.optimize.JmxTree;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Assemble the scripts of several journeys (one HAR by journey) in one Thread Group with a weighted mix : each journey is in a Throughput Controller
+ * (percent executions) with the percent of the journey weight. The configuration elements of the Thread Group (User Defined Variables, HTTP Request Defaults,
+ * Cookie Manager and Cache Manager) are shared, the other elements of the journey (e.g: the common headers) stay in the journey controller.
+ */
+public class JourneyMixAssembler implements ScriptAssembler {
+
+    private static final List<String> K_SHARED_CONFIG = Arrays.asList("Arguments", "ConfigTestElement", "CookieManager", "CacheManager");
+    private static final Logger LOGGER = Logger.getLogger(JourneyMixAssembler.class.getName());
+
+    private final Map<String, Double> mapWeights;
+    private final List<Journey> listJourneys = new ArrayList<>();
+
+    private static class Journey {
+        private final String name;
+        private final double weight;
+        private final Document jmxDocument;
+
+        private Journey(String name, double weight, Document jmxDocument) {
+            this.name = name;
+            this.weight = weight;
+            this.jmxDocument = jmxDocument;
+        }
+    }
+
+    /**
+     * @param journeyWeights the weight of each HAR, e.g: browse.har=60,search.har=30,checkout.har=10
+     */
+    public JourneyMixAssembler(String journeyWeights) {
+        this.mapWeights = parseWeights(journeyWeights);
+    }
+
+    /**
+     * Parse the weights, a weight not a number is logged and ignored
+     * @param journeyWeights the weight of each HAR, e.g: browse.har=60,search.har=30,checkout.har=10
+     * @return the HAR name and its weight
+     */
+    public static Map<String, Double> parseWeights(String journeyWeights) {
+        Map<String, Double> mapWeights = new LinkedHashMap<>();
+        for (String journeyWeight : journeyWeights.split(",")) {
+            int posEqual = journeyWeight.lastIndexOf('=');
+            if (posEqual <= 0) {
+                continue;
+            }
+            String name = journeyWeight.substring(0, posEqual).trim();
+            try {
+                mapWeights.put(name, Double.parseDouble(journeyWeight.substring(posEqual + 1).trim()));
+            } catch (NumberFormatException ex) {
+                LOGGER.warning("The weight of the journey is not a number, the journey is ignored : " + journeyWeight);
+            }
+        }
+        return mapWeights;
+    }
+
+    /**
+     * @param entryName the name of the HAR in the zip, the weight could be declared with the full name or the file name
+     * @return the weight, 0 if not declared
+     */
+    public double weightOf(String entryName) {
+        Double weight = mapWeights.get(entryName);
+        if (weight == null) {
+            weight = mapWeights.get(new File(entryName).getName());
+        }
+        return (weight != null ? weight : 0);
+    }
+
+    @Override
+    public synchronized void addScript(String name, Document jmxDocument, Har har) {
+        listJourneys.add(new Journey(name, weightOf(name), jmxDocument));
+    }
+
+    @Override
+    public synchronized int getNbScripts() {
+        return listJourneys.size();
+    }
+
+    /**
+     * The script of the journey with the greatest weight receives the other journeys
+     * @return the jmx document with all the journeys or null if no journey
+     */
+    @Override
+    public synchronized Document assemble() {
+        if (listJourneys.isEmpty()) {
+            return null;
+        }
+        listJourneys.sort(Comparator.comparingDouble((Journey journey) -> -journey.weight).thenComparing(journey -> journey.name));
+        double totalWeight = 0;
+        for (Journey journey : listJourneys) {
+            totalWeight += journey.weight;
+        }
+
+        Document document = listJourneys.get(0).jmxDocument;
+        Element hashAfterThreadGroup = XmlJmx.findHashTreeAfterThreadGroup(document);
+        Element eltThreadGroup = (Element) document.getElementsByTagName("ThreadGroup").item(0);
+        eltThreadGroup.setAttribute("testname", "Thread Group Journeys");
+        Map<String, String> mapSharedHostVariables = HostVariables.valuesOf(hashAfterThreadGroup);
+
+        for (Journey journey : listJourneys) {
+            double percent = (totalWeight > 0 ? journey.weight * 100 / totalWeight : 100.0 / listJourneys.size());
+            Element hashAfterThreadGroupJourney = XmlJmx.findHashTreeAfterThreadGroup(journey.jmxDocument);
+            Element eltController = createThroughputController(document, String.format(Locale.ENGLISH, "Journey - %s (%.1f %%)", journey.name, percent), percent);
+            Element hashTreeAfterController = JmxTree.insertWithHashTree(hashAfterThreadGroup, eltController, null);
+
+            Map<String, String> mapHostVariables = HostVariables.valuesOf(hashAfterThreadGroupJourney);
+            List<Element> listElements = JmxTree.childElements(hashAfterThreadGroupJourney, null);
+            for (int i = 0; i < listElements.size(); i++) {
+                Element element = listElements.get(i);
+                if ("hashTree".equals(element.getTagName())) {
+                    continue;
+                }
+                Element hashTree = JmxTree.nextHashTree(element);
+                if (K_SHARED_CONFIG.contains(element.getTagName()) || element == eltController) {
+                    // the shared configuration stays in the Thread Group, the same configuration of the other journeys is not copied
+                    continue;
+                }
+                Element elementMoved = (journey.jmxDocument == document ? element : (Element) document.importNode(element, true));
+                hashTreeAfterController.appendChild(elementMoved);
+                if (hashTree != null) {
+                    hashTreeAfterController.appendChild(journey.jmxDocument == document ? hashTree : document.importNode(hashTree, true));
+                }
+            }
+            replaceHostVariables(hashTreeAfterController, mapHostVariables, mapSharedHostVariables, journey.name);
+        }
+        LOGGER.info("Assembled " + listJourneys.size() + " journeys in the Thread Group with Throughput Controllers, total weight " + totalWeight);
+        return document;
+    }
+
+    private static Element createThroughputController(Document document, String testname, double percent) {
+        Element eltController = JmxTree.createTestElement(document, "ThroughputController", "ThroughputControllerGui", "ThroughputController", testname);
+        eltController.appendChild(XmlJmx.createProperty(document, "intProp", "ThroughputController.style", "1")); // 1 = percent executions
+        eltController.appendChild(XmlJmx.createProperty(document, "boolProp", "ThroughputController.perThread", "false"));
+        eltController.appendChild(XmlJmx.createProperty(document, "intProp", "ThroughputController.maxThroughput", "1"));
+        Element eltFloatProperty = document.createElement("FloatProperty");
+        Element eltName = document.createElement("name");
+        eltName.setTextContent("ThroughputController.percentThroughput");
+        Element eltValue = document.createElement("value");
+        eltValue.setTextContent(String.format(Locale.ENGLISH, "%.2f", percent));
+        Element eltSavedValue = document.createElement("savedValue");
+        eltSavedValue.setTextContent("0.0");
+        eltFloatProperty.appendChild(eltName);
+        eltFloatProperty.appendChild(eltValue);
+        eltFloatProperty.appendChild(eltSavedValue);
+        eltController.appendChild(eltFloatProperty);
+        return eltController;
+    }
+
+    /**
+     * The User Defined Variables are shared, a journey on an other host uses its own host values instead of the variables
+     */
+    private static void replaceHostVariables(Element hashTreeAfterController, Map<String, String> mapHostVariables, Map<String, String> mapSharedHostVariables, String journeyName) {
+        if (mapHostVariables.equals(mapSharedHostVariables)) {
+            return;
+        }
+        LOGGER.info("The journey " + journeyName + " uses an other host than the shared variables, the host values are set in the samplers : " + mapHostVariables);
+        HostVariables.replaceByValues(hashTreeAfterController, mapHostVariables);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.workload;
+
+import de.sstoehr.harreader.model.Har;
+
+import org.w3c.dom.Document;
+
+/**
+ * Assemble the scripts created from several HAR files (e.g: the HAR files of a zip) in one script
+ */
+public interface ScriptAssembler {
+
+    /**
+     * Add a script, called by the conversion threads
+     * @param name the name of the HAR in the zip
+     * @param jmxDocument the jmx document created from the HAR
+     * @param har the HAR converted
+     */
+    void addScript(String name, Document jmxDocument, Har har);
+
+    /**
+     * @return the assembled jmx document or null if no script
+     */
+    Document assemble();
+
+    /**
+     * @return the number of scripts added
+     */
+    int getNbScripts();
+}
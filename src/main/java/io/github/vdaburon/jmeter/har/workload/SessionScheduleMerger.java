@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.workload;
+
+import de.sstoehr.harreader.model.Har;
+import de.sstoehr.harreader.model.HarEntry;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+import io.github.vdaburon.jmeter.har.optimize.JmxTree;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Merge the scripts of several recorded user sessions (one HAR by session) in one open model script : one Thread Group by session with one thread,
+ * the Thread Group starts at the offset of the session start from the first session start. The sessions arrive like in the recordings and the concurrency
+ * of the sessions follows the recorded concurrency, independently of the response times.
+ */
+public class SessionScheduleMerger implements ScriptAssembler {
+
+    private static final Logger LOGGER = Logger.getLogger(SessionScheduleMerger.class.getName());
+
+    private final List<Session> listSessions = new ArrayList<>();
+
+    /**
+     * A session : the jmx document created from the HAR and the time window of the requests
+     */
+    public static class Session {
+        private final String name;
+        private final Document jmxDocument;
+        private final long startMs;
+        private final long endMs;
+
+        /**
+         * @param name the session name, e.g: the HAR file name
+         * @param jmxDocument the jmx document created from the HAR
+         * @param har the HAR of the session for the start and the end of the requests
+         */
+        public Session(String name, Document jmxDocument, Har har) {
+            this.name = name;
+            this.jmxDocument = jmxDocument;
+            long firstStartMs = Long.MAX_VALUE;
+            long lastEndMs = Long.MIN_VALUE;
+            for (HarEntry harEntry : har.getLog().getEntries()) {
+                if (harEntry.getStartedDateTime() != null) {
+                    long entryStartMs = harEntry.getStartedDateTime().getTime();
+                    firstStartMs = Math.min(firstStartMs, entryStartMs);
+                    lastEndMs = Math.max(lastEndMs, entryStartMs + (harEntry.getTime() != null ? harEntry.getTime() : 0));
+                }
+            }
+            this.startMs = (firstStartMs == Long.MAX_VALUE ? 0 : firstStartMs);
+            this.endMs = (lastEndMs == Long.MIN_VALUE ? startMs : lastEndMs);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getStartMs() {
+            return startMs;
+        }
+
+        public long getEndMs() {
+            return endMs;
+        }
+    }
+
+    /**
+     * Add a session, thread safe
+     * @param session the session converted
+     */
+    public synchronized void addSession(Session session) {
+        listSessions.add(session);
+    }
+
+    @Override
+    public void addScript(String name, Document jmxDocument, Har har) {
+        addSession(new Session(name, jmxDocument, har));
+    }
+
+    /**
+     * Merge the sessions in the script of the first session
+     * @return the merged jmx document or null if no session
+     */
+    @Override
+    public synchronized Document assemble() {
+        if (listSessions.isEmpty()) {
+            return null;
+        }
+        // sort by start time, the session name for the same start keeps the order stable between runs
+        listSessions.sort(Comparator.comparingLong(Session::getStartMs).thenComparing(Session::getName));
+        long firstStartMs = listSessions.get(0).getStartMs();
+
+        Document document = listSessions.get(0).jmxDocument;
+        Element eltThreadGroupFirst = (Element) document.getElementsByTagName("ThreadGroup").item(0);
+        Element hashTreeAfterTestPlan = (Element) eltThreadGroupFirst.getParentNode();
+        Element hashAfterThreadGroupFirst = XmlJmx.findHashTreeAfterThreadGroup(document);
+        Node insertBefore = hashAfterThreadGroupFirst.getNextSibling(); // the recorder and the View Results Tree stay at the end
+        Map<String, String> mapSharedHostVariables = HostVariables.valuesOf(hashAfterThreadGroupFirst);
+        for (int s = 0; s < listSessions.size(); s++) {
+            Session session = listSessions.get(s);
+            Element eltThreadGroup;
+            if (s == 0) {
+                eltThreadGroup = eltThreadGroupFirst;
+            } else {
+                Element eltThreadGroupSession = (Element) session.jmxDocument.getElementsByTagName("ThreadGroup").item(0);
+                eltThreadGroup = (Element) document.importNode(eltThreadGroupSession, true);
+                Element hashTree = (Element) document.importNode(XmlJmx.findHashTreeAfterThreadGroup(session.jmxDocument), true);
+                shareHostVariables(hashTree, mapSharedHostVariables, session.getName());
+                hashTreeAfterTestPlan.insertBefore(eltThreadGroup, insertBefore);
+                hashTreeAfterTestPlan.insertBefore(hashTree, insertBefore);
+            }
+            long offsetSec = Math.round((session.getStartMs() - firstStartMs) / 1000.0);
+            scheduleThreadGroup(eltThreadGroup, String.format("Session %03d - %s", s + 1, session.getName()), offsetSec,
+                    "Session recorded start offset " + (session.getStartMs() - firstStartMs) + " ms, duration " + (session.getEndMs() - session.getStartMs()) + " ms");
+        }
+        LOGGER.info("Merged " + listSessions.size() + " sessions in " + listSessions.size() + " Thread Groups, last arrival at "
+                + Math.round((listSessions.get(listSessions.size() - 1).getStartMs() - firstStartMs) / 1000.0) + " s, recorded peak of concurrent sessions : " + peakConcurrentSessions());
+        return document;
+    }
+
+    /**
+     * The User Defined Variables are global in JMeter, the variables of the first session are kept. A session on an other host uses its own host values
+     * instead of the variables and its User Defined Variables are removed
+     */
+    private static void shareHostVariables(Element hashAfterThreadGroup, Map<String, String> mapSharedHostVariables, String sessionName) {
+        Map<String, String> mapHostVariables = HostVariables.valuesOf(hashAfterThreadGroup);
+        for (Element eltArguments : JmxTree.childElements(hashAfterThreadGroup, "Arguments")) {
+            Element hashTree = JmxTree.nextHashTree(eltArguments);
+            hashAfterThreadGroup.removeChild(eltArguments);
+            if (hashTree != null) {
+                hashAfterThreadGroup.removeChild(hashTree);
+            }
+        }
+        if (!mapHostVariables.equals(mapSharedHostVariables)) {
+            LOGGER.info("The session " + sessionName + " uses an other host than the first session, the host values are set in the samplers : " + mapHostVariables);
+            HostVariables.replaceByValues(hashAfterThreadGroup, mapHostVariables);
+        }
+    }
+
+    /**
+     * One thread, one iteration, started after the offset (scheduler with a delay and no duration)
+     */
+    private static void scheduleThreadGroup(Element eltThreadGroup, String testname, long offsetSec, String comment) {
+        eltThreadGroup.setAttribute("testname", testname);
+        JmxTree.setProperty(eltThreadGroup, "ThreadGroup.num_threads", "1");
+        JmxTree.setProperty(eltThreadGroup, "ThreadGroup.ramp_time", "0");
+        JmxTree.setProperty(eltThreadGroup, "ThreadGroup.scheduler", "true");
+        JmxTree.setProperty(eltThreadGroup, "ThreadGroup.duration", "");
+        JmxTree.setProperty(eltThreadGroup, "ThreadGroup.delay", String.valueOf(offsetSec));
+        Element eltLoopController = JmxTree.childElements(eltThreadGroup, "elementProp").get(0);
+        JmxTree.setProperty(eltLoopController, "LoopController.loops", "1");
+        JmxTree.setProperty(eltThreadGroup, "TestPlan.comments", comment);
+    }
+
+    /**
+     * The peak of the sessions active at the same time in the recordings, the sessions must be sorted by start time
+     */
+    private int peakConcurrentSessions() {
+        List<Long> listEndsActive = new ArrayList<>();
+        int peak = 0;
+        for (Session session : listSessions) {
+            listEndsActive.removeIf(endMs -> endMs <= session.getStartMs());
+            listEndsActive.add(session.getEndMs());
+            peak = Math.max(peak, listEndsActive.size());
+        }
+        return peak;
+    }
+
+    @Override
+    public synchronized int getNbScripts() {
+        return listSessions.size();
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.workload;
+
+import de.sstoehr.harreader.model.HarEntry;
+import de.sstoehr.harreader.model.HarRequest;
+import de.sstoehr.harreader.model.HarResponse;
+
+import io.github.vdaburon.jmeter.har.XmlJmx;
+import io.github.vdaburon.jmeter.har.optimize.JmxTree;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * The workload of one virtual user computed from the HAR : requests per second, bytes per second received and sent, the request mix by host.
+ * For a target load (requests per second) the Thread Group is set with the number of virtual users, a "jp@gc - Throughput Shaping Timer" (JMeter plugin jpgc-tst)
+ * limits the throughput to the target and the injector sizing is estimated.
+ */
+public class WorkloadModel {
+
+    public static final String K_THROUGHPUT_TIMER = "kg.apc.jmeter.timers.VariableThroughputTimer";
+    public static final String K_THROUGHPUT_TIMER_GUI = "kg.apc.jmeter.timers.VariableThroughputTimerGui";
+    public static final double K_THREADS_HEADROOM = 1.2; // more virtual users than needed, the timer limits the throughput
+    public static final int K_MAX_THREADS_BY_INJECTOR = 1000;
+    public static final double K_MAX_MBITS_BY_INJECTOR = 500; // half of a 1 Gbit/s network card
+    public static final int K_HEAP_MB_BY_THREAD = 2;
+    public static final int K_HEAP_MB_BASE = 512;
+
+    private static final Logger LOGGER = Logger.getLogger(WorkloadModel.class.getName());
+
+    private int nbRequests = 0;
+    private long sessionMs = 0;
+    private long bytesReceived = 0;
+    private long bytesSent = 0;
+    private final Map<String, Integer> mapHostRequests = new TreeMap<>();
+
+    /**
+     * Compute the workload of one virtual user with the samplers of the script and their HAR entry (XmlJmx.setKeepHarEntries), the filtered urls are not counted.
+     * Compute it before the passes that collapse samplers (redirect chains, polling loops), one sampler is one request
+     * @param document the jmx document
+     * @return the workload model
+     */
+    public static WorkloadModel fromScript(Document document) {
+        WorkloadModel workloadModel = new WorkloadModel();
+        long firstStartMs = Long.MAX_VALUE;
+        long lastEndMs = Long.MIN_VALUE;
+        for (Element eltSampler : JmxTree.descendants(document.getDocumentElement(), "HTTPSamplerProxy")) {
+            HarEntry harEntry = JmxTree.harEntryOf(eltSampler);
+            if (harEntry == null || harEntry.getStartedDateTime() == null) {
+                continue;
+            }
+            long startMs = harEntry.getStartedDateTime().getTime();
+            firstStartMs = Math.min(firstStartMs, startMs);
+            lastEndMs = Math.max(lastEndMs, startMs + (harEntry.getTime() != null ? harEntry.getTime() : 0));
+            workloadModel.nbRequests++;
+            workloadModel.bytesSent += requestBytes(harEntry.getRequest());
+            workloadModel.bytesReceived += responseBytes(harEntry.getResponse());
+            workloadModel.mapHostRequests.merge(hostOf(harEntry.getRequest()), 1, Integer::sum);
+        }
+        if (workloadModel.nbRequests > 0) {
+            workloadModel.sessionMs = Math.max(1, lastEndMs - firstStartMs);
+        }
+        return workloadModel;
+    }
+
+    public double getRequestsPerSecond() {
+        return (sessionMs > 0 ? nbRequests * 1000.0 / sessionMs : 0);
+    }
+
+    public double getBytesReceivedPerSecond() {
+        return (sessionMs > 0 ? bytesReceived * 1000.0 / sessionMs : 0);
+    }
+
+    public double getBytesSentPerSecond() {
+        return (sessionMs > 0 ? bytesSent * 1000.0 / sessionMs : 0);
+    }
+
+    /**
+     * @param targetRps the target load in requests per second for all the virtual users
+     * @return the number of virtual users to reach the target with the headroom
+     */
+    public int threadsForTarget(double targetRps) {
+        double requestsPerSecond = getRequestsPerSecond();
+        if (requestsPerSecond <= 0) {
+            return 1;
+        }
+        return (int) Math.max(1, Math.ceil(targetRps / requestsPerSecond * K_THREADS_HEADROOM));
+    }
+
+    /**
+     * Log the workload of one virtual user, the request mix by host and the injector sizing for the target load
+     * @param targetRps the target load in requests per second, 0 = no sizing
+     */
+    public void logWorkload(double targetRps) {
+        LOGGER.info(String.format(Locale.ENGLISH, "Workload of one virtual user : %d requests in %.1f s, %.3f requests/s, received %.1f KB/s, sent %.1f KB/s",
+                nbRequests, sessionMs / 1000.0, getRequestsPerSecond(), getBytesReceivedPerSecond() / 1024, getBytesSentPerSecond() / 1024));
+        for (Map.Entry<String, Integer> entry : mapHostRequests.entrySet()) {
+            LOGGER.info(String.format(Locale.ENGLISH, "Request mix, host %s : %d requests, %.1f %%", entry.getKey(), entry.getValue(), entry.getValue() * 100.0 / nbRequests));
+        }
+        if (targetRps <= 0 || nbRequests == 0) {
+            return;
+        }
+        int nbThreads = threadsForTarget(targetRps);
+        double ratio = targetRps / getRequestsPerSecond();
+        double mbitsReceived = getBytesReceivedPerSecond() * ratio * 8 / 1_000_000;
+        double mbitsSent = getBytesSentPerSecond() * ratio * 8 / 1_000_000;
+        int nbInjectors = (int) Math.max(Math.ceil((double) nbThreads / K_MAX_THREADS_BY_INJECTOR), Math.ceil(Math.max(mbitsReceived, mbitsSent) / K_MAX_MBITS_BY_INJECTOR));
+        nbInjectors = Math.max(1, nbInjectors);
+        long heapMb = K_HEAP_MB_BASE + (long) K_HEAP_MB_BY_THREAD * (long) Math.ceil((double) nbThreads / nbInjectors);
+        LOGGER.info(String.format(Locale.ENGLISH, "Injector sizing for %.1f requests/s : %d virtual users, received %.1f Mbit/s, sent %.1f Mbit/s, %d injector(s) with a heap of %d MB",
+                targetRps, nbThreads, mbitsReceived, mbitsSent, nbInjectors, heapMb));
+    }
+
+    /**
+     * Set the Thread Group for the target load and add the Throughput Shaping Timer : a ramp-up from 0 to the target then the target during the duration
+     * @param document the jmx document, modified
+     * @param targetRps the target load in requests per second for all the virtual users
+     * @param rampUpSec the duration of the ramp-up in seconds
+     * @param durationSec the duration at the target load in seconds
+     */
+    public void applyTarget(Document document, double targetRps, int rampUpSec, int durationSec) {
+        Element hashAfterThreadGroup = XmlJmx.findHashTreeAfterThreadGroup(document);
+        if (hashAfterThreadGroup == null || nbRequests == 0) {
+            return;
+        }
+        Element eltThreadGroup = (Element) document.getElementsByTagName("ThreadGroup").item(0);
+        JmxTree.setProperty(eltThreadGroup, "ThreadGroup.num_threads", String.valueOf(threadsForTarget(targetRps)));
+        JmxTree.setProperty(eltThreadGroup, "ThreadGroup.ramp_time", String.valueOf(rampUpSec));
+        JmxTree.setProperty(eltThreadGroup, "ThreadGroup.scheduler", "true");
+        JmxTree.setProperty(eltThreadGroup, "ThreadGroup.duration", String.valueOf(rampUpSec + durationSec));
+        Element eltLoopController = JmxTree.childElements(eltThreadGroup, "elementProp").get(0);
+        JmxTree.setProperty(eltLoopController, "LoopController.loops", "-1");
+
+        String sTargetRps = String.format(Locale.ENGLISH, "%.2f", targetRps);
+        Element eltTimer = JmxTree.createTestElement(document, K_THROUGHPUT_TIMER, K_THROUGHPUT_TIMER_GUI, K_THROUGHPUT_TIMER, "jp@gc - Throughput Shaping Timer " + sTargetRps + " rps");
+        Element eltLoadProfile = document.createElement("collectionProp");
+        eltLoadProfile.setAttribute("name", "load_profile");
+        if (rampUpSec > 0) {
+            eltLoadProfile.appendChild(createLoadStep(document, "ramp_up", "0", sTargetRps, rampUpSec));
+        }
+        eltLoadProfile.appendChild(createLoadStep(document, "target", sTargetRps, sTargetRps, durationSec));
+        eltTimer.appendChild(eltLoadProfile);
+        eltTimer.appendChild(XmlJmx.createProperty(document, "stringProp", "TestPlan.comments",
+                String.format(Locale.ENGLISH, "One virtual user : %.3f requests/s, %d virtual users with %.0f %% headroom", getRequestsPerSecond(), threadsForTarget(targetRps), (K_THREADS_HEADROOM - 1) * 100)));
+        // first in the Thread Group, the timer applies to all the samplers
+        JmxTree.insertWithHashTree(hashAfterThreadGroup, eltTimer, hashAfterThreadGroup.getFirstChild());
+        LOGGER.info("Thread Group set for " + sTargetRps + " requests/s : " + threadsForTarget(targetRps) + " threads, ramp-up " + rampUpSec + " s, duration " + (rampUpSec + durationSec) + " s");
+    }
+
+    private static Element createLoadStep(Document document, String name, String startRps, String endRps, int durationSec) {
+        Element eltStep = document.createElement("collectionProp");
+        eltStep.setAttribute("name", name);
+        eltStep.appendChild(XmlJmx.createProperty(document, "stringProp", "start_rps", startRps));
+        eltStep.appendChild(XmlJmx.createProperty(document, "stringProp", "end_rps", endRps));
+        eltStep.appendChild(XmlJmx.createProperty(document, "stringProp", "duration_sec", String.valueOf(durationSec)));
+        return eltStep;
+    }
+
+    private static long requestBytes(HarRequest harRequest) {
+        if (harRequest == null) {
+            return 0;
+        }
+        return positive(harRequest.getHeadersSize()) + positive(harRequest.getBodySize());
+    }
+
+    private static long responseBytes(HarResponse harResponse) {
+        if (harResponse == null) {
+            return 0;
+        }
+        long bodySize = positive(harResponse.getBodySize());
+        if (bodySize == 0 && harResponse.getContent() != null) {
+            // bodySize -1 when unknown, the content size is the size before compression
+            bodySize = positive(harResponse.getContent().getSize());
+        }
+        return positive(harResponse.getHeadersSize()) + bodySize;
+    }
+
+    private static long positive(Number value) {
+        return (value != null && value.longValue() > 0 ? value.longValue() : 0);
+    }
+
+    private static String hostOf(HarRequest harRequest) {
+        try {
+            String host = new URI(harRequest.getUrl()).getHost();
+            return (host != null ? host : "");
+        } catch (URISyntaxException | NullPointerException ex) {
+            return "";
+        }
+    }
+
+    public int getNbRequests() {
+        return nbRequests;
+    }
+
+    public long getSessionMs() {
+        return sessionMs;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("WorkloadModel{");
+        sb.append("nbRequests=").append(nbRequests);
+        sb.append(", sessionMs=").append(sessionMs);
+        sb.append(", bytesReceived=").append(bytesReceived);
+        sb.append(", bytesSent=").append(bytesSent);
+        sb.append(", mapHostRequests=").append(mapHostRequests);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,44 @@
+#!/bin/sh
+# Compare the files generated by the native executable and by the jar with dependencies, the files must be the same.
+# Called by the maven profile native : mvn -Pnative package
+# usage : compare-native-jar.sh <native executable> <jar with dependencies> <har file> <work directory>
+
+NATIVE_EXE=$1
+JAR_FILE=$2
+HAR_FILE=$3
+WORK_DIR=$4
+
+if [ ! -x "$NATIVE_EXE" ] || [ ! -f "$JAR_FILE" ] || [ ! -f "$HAR_FILE" ]; then
+    echo "usage : compare-native-jar.sh <native executable> <jar with dependencies> <har file> <work directory>"
+    exit 1
+fi
+
+rm -rf "$WORK_DIR"
+mkdir -p "$WORK_DIR/jar" "$WORK_DIR/native"
+cp "$HAR_FILE" "$WORK_DIR/jar/in.har"
+cp "$HAR_FILE" "$WORK_DIR/native/in.har"
+
+# same relative file names because the record file name is in the jmx file
+PARAMS="-har_in in.har -jmx_out script.jmx -record_out record.xml -new_tc_pause 2000 -use_lrwr_infos transaction_name -ws_with_pdoornbosch true"
+
+(cd "$WORK_DIR/jar" && java -jar "$JAR_FILE" $PARAMS > jar.log 2>&1)
+RC_JAR=$?
+(cd "$WORK_DIR/native" && "$NATIVE_EXE" $PARAMS > native.log 2>&1)
+RC_NATIVE=$?
+
+if [ $RC_JAR -ne 0 ] || [ $RC_NATIVE -ne 0 ]; then
+    echo "ERROR exit code jar=$RC_JAR native=$RC_NATIVE, see logs in $WORK_DIR"
+    exit 1
+fi
+
+RC=0
+for FILE in script.jmx record.xml; do
+    if cmp -s "$WORK_DIR/jar/$FILE" "$WORK_DIR/native/$FILE"; then
+        echo "OK same file $FILE"
+    else
+        echo "ERROR file $FILE is not the same"
+        diff "$WORK_DIR/jar/$FILE" "$WORK_DIR/native/$FILE" | head -20
+        RC=1
+    fi
+done
+exit $RC
@@ -0,0 +1,150 @@
+#!/bin/sh
+# Scale test, release gate : generate synthetic HAR files of several sizes and convert them with a capped heap.
+# For each size the gate checks the exit code, the jmx and record files (complete xml, number of samplers) and the throughput floor.
+# The JVM records a JFR file (profile settings, allocation samples) and the conversion metrics (allocated bytes and peak heap by phase)
+# to find the heap growth in XmlJmx (jmx_build) and Har2TestResultsXml (record_build).
+# The sizes in the expected failures list are known to fail with the capped heap (the Har model and the JMX document are in memory),
+# their failure is reported as EXPECTED FAILURE and does not fail the gate, a pass of these sizes fails the gate to update the list.
+# Called by the maven profile scale : mvn -Pscale verify -Dgpg.skip
+# usage : scale-test.sh <jar with dependencies> <work directory> <sizes, e.g: 10000,100000> <heap max, e.g: 512m> <min entries by second> <body size> <expected failures, e.g: 100000 or none> [conversion options]
+
+JAR_FILE=$1
+WORK_DIR=$2
+SIZES=$3
+XMX=$4
+MIN_ENTRIES_BY_SECOND=$5
+BODY_SIZE=$6
+EXPECTED_FAILURES=$7
+shift 7 2>/dev/null
+CONVERSION_OPTS="$*"
+NB_PAGES=200
+
+if [ ! -f "$JAR_FILE" ] || [ -z "$WORK_DIR" ] || [ -z "$SIZES" ] || [ -z "$XMX" ] || [ -z "$MIN_ENTRIES_BY_SECOND" ] || [ -z "$BODY_SIZE" ] || [ -z "$EXPECTED_FAILURES" ]; then
+    echo "usage : scale-test.sh <jar with dependencies> <work directory> <sizes, e.g: 10000,100000> <heap max, e.g: 512m> <min entries by second> <body size> <expected failures, e.g: 100000 or none> [conversion options]"
+    exit 1
+fi
+# absolute path, the conversion runs in the directory of each size
+JAR_FILE="$(cd "$(dirname "$JAR_FILE")" && pwd)/$(basename "$JAR_FILE")"
+
+# value of a number field in the metrics json file, e.g: "samplersCreated" : 9500,
+json_number() {
+    grep "\"$2\"" "$1" | head -1 | sed 's/[^0-9-]//g'
+}
+
+# a field of a phase in the metrics json file, the phase object starts with "name" : "<phase>"
+phase_number() {
+    awk -v phase="\"$2\"" -v field="\"$3\"" '
+        $1 == "\"name\"" { inPhase = ($3 == phase ",") }
+        inPhase && $1 == field { gsub(/[^0-9-]/, "", $3); print $3; exit }' "$1"
+}
+
+# true if the size is in the expected failures list
+is_expected_failure() {
+    echo ",$EXPECTED_FAILURES," | grep -q ",$1,"
+}
+
+# the result of a size, an expected failure does not fail the gate but an unexpected pass fails the gate
+end_size() {
+    if is_expected_failure "$1"; then
+        if [ "$2" = "OK" ]; then
+            echo "UNEXPECTED PASS, remove the size $1 from scale.expected.failures"
+            RC=1
+        else
+            echo "EXPECTED FAILURE (known issue) : $2"
+        fi
+    elif [ "$2" != "OK" ]; then
+        RC=1
+    fi
+}
+
+rm -rf "$WORK_DIR"
+mkdir -p "$WORK_DIR"
+SUMMARY="$WORK_DIR/summary.txt"
+echo "size;rc;entries/s;jmx_build alloc/entry;jmx_build peak heap MB;record_build alloc/entry;record_build peak heap MB;result" > "$SUMMARY"
+
+RC=0
+for SIZE in $(echo "$SIZES" | tr ',' ' '); do
+    DIR="$WORK_DIR/$SIZE"
+    mkdir -p "$DIR"
+    ENTRIES_BY_PAGE=$((SIZE / NB_PAGES))
+    if [ $ENTRIES_BY_PAGE -lt 1 ]; then
+        ENTRIES_BY_PAGE=1
+    fi
+    if is_expected_failure "$SIZE"; then
+        echo "=== $SIZE entries ($NB_PAGES pages x $ENTRIES_BY_PAGE entries), heap $XMX, expected failure"
+    else
+        echo "=== $SIZE entries ($NB_PAGES pages x $ENTRIES_BY_PAGE entries), heap $XMX"
+    fi
+
+    java -cp "$JAR_FILE" io.github.vdaburon.jmeter.har.generator.HarGenerator -har_out "$DIR/in.har.gz" -pages $NB_PAGES -entries_by_page $ENTRIES_BY_PAGE \
+        -body_size "$BODY_SIZE" -multipart_percent 1 -redirect_percent 2 -from_cache_percent 10 -data_url_percent 1 > "$DIR/generator.log" 2>&1
+    if [ $? -ne 0 ]; then
+        echo "ERROR can't generate the har file, see $DIR/generator.log"
+        echo "$SIZE;-;-;-;-;-;-;ERROR generator" >> "$SUMMARY"
+        RC=1
+        rm -f "$DIR/in.har.gz"
+        continue
+    fi
+
+    # relative file names, the record file name is in the jmx file
+    (cd "$DIR" && java -Xmx"$XMX" -XX:StartFlightRecording=filename=conversion.jfr,settings=profile -jar "$JAR_FILE" \
+        -har_in in.har.gz -jmx_out script.jmx -record_out record.xml -metrics_out metrics.json $CONVERSION_OPTS > conversion.log 2>&1)
+    RC_CONVERSION=$?
+    if command -v jfr > /dev/null 2>&1 && [ -f "$DIR/conversion.jfr" ]; then
+        jfr summary "$DIR/conversion.jfr" > "$DIR/jfr-summary.txt" 2>&1
+    fi
+
+    RESULT="OK"
+    if [ $RC_CONVERSION -ne 0 ] || [ ! -f "$DIR/metrics.json" ]; then
+        if grep -q "OutOfMemoryError" "$DIR/conversion.log"; then
+            RESULT="ERROR OutOfMemoryError"
+        else
+            RESULT="ERROR exit code $RC_CONVERSION"
+        fi
+        echo "$RESULT, see $DIR/conversion.log"
+        echo "$SIZE;$RC_CONVERSION;-;-;-;-;-;$RESULT" >> "$SUMMARY"
+        end_size "$SIZE" "$RESULT"
+        rm -f "$DIR/in.har.gz" "$DIR/script.jmx" "$DIR/record.xml"
+        continue
+    fi
+
+    # the xml files must be complete
+    if ! tail -c 100 "$DIR/script.jmx" | grep -q "</jmeterTestPlan>"; then
+        RESULT="ERROR script.jmx not complete"
+    fi
+    if ! tail -c 100 "$DIR/record.xml" | grep -q "</testResults>"; then
+        RESULT="ERROR record.xml not complete"
+    fi
+
+    # one HTTPSamplerProxy by sampler created
+    SAMPLERS_CREATED=$(json_number "$DIR/metrics.json" samplersCreated)
+    SAMPLERS_IN_JMX=$(grep -c "<HTTPSamplerProxy " "$DIR/script.jmx")
+    if [ "$SAMPLERS_IN_JMX" -ne "$SAMPLERS_CREATED" ] || [ "$SAMPLERS_IN_JMX" -eq 0 ]; then
+        RESULT="ERROR $SAMPLERS_IN_JMX HTTPSamplerProxy in script.jmx, expected $SAMPLERS_CREATED"
+    fi
+    SAMPLES_IN_RECORD=$(grep -c "<httpSample " "$DIR/record.xml")
+    if [ "$SAMPLES_IN_RECORD" -eq 0 ]; then
+        RESULT="ERROR no httpSample in record.xml"
+    fi
+
+    ENTRIES_READ=$(json_number "$DIR/metrics.json" entriesRead)
+    TOTAL_WALL_TIME_MS=$(json_number "$DIR/metrics.json" totalWallTimeMs)
+    ENTRIES_BY_SECOND=$((ENTRIES_READ * 1000 / (TOTAL_WALL_TIME_MS + 1)))
+    if [ "$ENTRIES_BY_SECOND" -lt "$MIN_ENTRIES_BY_SECOND" ]; then
+        RESULT="ERROR $ENTRIES_BY_SECOND entries/s < $MIN_ENTRIES_BY_SECOND"
+    fi
+
+    JMX_ALLOC=$(phase_number "$DIR/metrics.json" jmx_build allocatedBytes)
+    JMX_PEAK=$(phase_number "$DIR/metrics.json" jmx_build peakHeapBytes)
+    RECORD_ALLOC=$(phase_number "$DIR/metrics.json" record_build allocatedBytes)
+    RECORD_PEAK=$(phase_number "$DIR/metrics.json" record_build peakHeapBytes)
+    echo "$SIZE;0;$ENTRIES_BY_SECOND;$((JMX_ALLOC / ENTRIES_READ));$((JMX_PEAK / 1048576));$((RECORD_ALLOC / ENTRIES_READ));$((RECORD_PEAK / 1048576));$RESULT" >> "$SUMMARY"
+    echo "$RESULT $ENTRIES_READ entries, $ENTRIES_BY_SECOND entries/s, $SAMPLERS_IN_JMX samplers, $SAMPLES_IN_RECORD samples"
+    end_size "$SIZE" "$RESULT"
+    # the generated har and the xml files are large, keep only the logs, the metrics and the jfr file
+    rm -f "$DIR/in.har.gz" "$DIR/script.jmx" "$DIR/record.xml"
+done
+
+echo "=== Summary (jfr files and metrics in $WORK_DIR)"
+cat "$SUMMARY"
+exit $RC
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har;
+
+import io.github.vdaburon.jmeter.har.common.ConvertorOptions;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Conversions of small HAR files with the optional passes, the passes are applied in the order of the convertor
+ */
+public class HarForJMeterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String convert(String harFile, String recordXmlOut, ConvertorOptions convertorOptions) throws Exception {
+        String jmxOut = temporaryFolder.newFile().getPath();
+        HarForJMeter.generateJmxAndRecord(harFile, jmxOut, 0, true, true, true, "", "", recordXmlOut, 1, 1, "", "", true, false, "", convertorOptions);
+        return jmxOut;
+    }
+
+    @Test
+    public void workloadCountsTheRequestsBeforeThePollingCompression() throws Exception {
+        // 6 requests in 5.1 s for one virtual user, 5 of them poll the same url
+        TestHars testHars = new TestHars()
+                .page("page_1", 0, "https://example.com/app")
+                .get("page_1", 0, 100, "https://example.com/app");
+        for (int i = 1; i <= 5; i++) {
+            testHars.entry("page_1", i * 1000L, 100, "GET", "https://example.com/api/status", 200, "", "application/json", "{}");
+        }
+        String harFile = testHars.write(temporaryFolder.newFile("polling.har"));
+
+        ConvertorOptions convertorOptions = new ConvertorOptions();
+        convertorOptions.setWorkloadTargetRps(10);
+        Document jmxDocument = TestHars.parseXml(convert(harFile, "", convertorOptions));
+        assertEquals(0, TestHars.elements(jmxDocument, "LoopController").size());
+        String numThreads = TestHars.property(TestHars.elements(jmxDocument, "ThreadGroup").get(0), "ThreadGroup.num_threads");
+
+        convertorOptions.setCompressPolling(true);
+        Document jmxDocumentCompressed = TestHars.parseXml(convert(harFile, "", convertorOptions));
+        assertEquals(1, TestHars.elements(jmxDocumentCompressed, "LoopController").size());
+        // 10 rps / (6 requests / 5.1 s) x 1.2 headroom = 10.2
+        assertEquals("11", numThreads);
+        assertEquals(numThreads, TestHars.property(TestHars.elements(jmxDocumentCompressed, "ThreadGroup").get(0), "ThreadGroup.num_threads"));
+    }
+
+    @Test
+    public void recordNestsOnlyTheHopsRemovedFromTheScript() throws Exception {
+        // a chain in the first page and a chain from the first page to the second page
+        String harFile = new TestHars()
+                .page("page_1", 0, "https://example.com/app/")
+                .redirect("page_1", 0, 20, "https://example.com/old", "https://example.com/app/")
+                .get("page_1", 30, 100, "https://example.com/app/")
+                .redirect("page_1", 1000, 20, "https://example.com/login", "/home")
+                .page("page_2", 2000, "https://example.com/home")
+                .get("page_2", 2000, 100, "https://example.com/home")
+                .write(temporaryFolder.newFile("redirects.har"));
+        String recordXmlOut = temporaryFolder.newFile().getPath();
+
+        ConvertorOptions convertorOptions = new ConvertorOptions();
+        convertorOptions.setCollapseRedirects(true);
+        Document jmxDocument = TestHars.parseXml(convert(harFile, recordXmlOut, convertorOptions));
+
+        List<String> listSamplerPaths = new ArrayList<>();
+        for (Element eltSampler : TestHars.elements(jmxDocument, "HTTPSamplerProxy")) {
+            listSamplerPaths.add(TestHars.property(eltSampler, "HTTPSampler.path"));
+        }
+        assertEquals(Arrays.asList("/old", "/login", "/home"), listSamplerPaths);
+        assertEquals("true", TestHars.property(TestHars.elements(jmxDocument, "HTTPSamplerProxy").get(0), "HTTPSampler.follow_redirects"));
+
+        // the hop of the first page is a sub-result, the hop in the second page stays a sample like its sampler in the script
+        Document recordDocument = TestHars.parseXml(recordXmlOut);
+        List<String> listTopSamples = new ArrayList<>();
+        List<String> listSubResults = new ArrayList<>();
+        for (Element eltSample : TestHars.elements(recordDocument, "httpSample")) {
+            String url = TestHars.childText(eltSample, "java.net.URL"); // the sub-results are before the url of the sample
+            if ("testResults".equals(eltSample.getParentNode().getNodeName())) {
+                listTopSamples.add(url);
+            } else {
+                listSubResults.add(url);
+            }
+        }
+        assertEquals(Arrays.asList("https://example.com/old", "https://example.com/login", "https://example.com/home"), listTopSamples);
+        assertEquals(Arrays.asList("https://example.com/app/"), listSubResults);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har;
+
+import de.sstoehr.harreader.model.Har;
+
+import io.github.vdaburon.jmeter.har.input.HarInput;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build small HAR in memory for the tests : pages and entries with a start relative to the start of the recording
+ */
+public class TestHars {
+
+    public static final long K_START_MS = Instant.parse("2024-05-03T14:30:00.000Z").toEpochMilli();
+
+    private static final DateTimeFormatter K_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private final List<String> listPages = new ArrayList<>();
+    private final List<String> listEntries = new ArrayList<>();
+    private String requestHeaders = "{\"name\":\"Accept\",\"value\":\"*/*\"}";
+
+    /**
+     * Add a page, the title is the url like a browser recording
+     * @param id the page id, e.g: page_1
+     * @param offsetMs the start of the page after the start of the recording
+     * @param url the url of the page
+     * @return this
+     */
+    public TestHars page(String id, long offsetMs, String url) {
+        listPages.add("{\"startedDateTime\":\"" + date(offsetMs) + "\",\"id\":\"" + id + "\",\"title\":\"" + url + "\",\"pageTimings\":{}}");
+        return this;
+    }
+
+    /**
+     * Set the request headers of the next entries, the default is the header Accept with the value * / *
+     * @param namesValues the name and the value of each header, e.g: "User-Agent", "test", "Accept-Language", "fr"
+     * @return this
+     */
+    public TestHars headers(String... namesValues) {
+        List<String> listHeaders = new ArrayList<>();
+        for (int i = 0; i + 1 < namesValues.length; i += 2) {
+            listHeaders.add("{\"name\":\"" + namesValues[i] + "\",\"value\":\"" + namesValues[i + 1] + "\"}");
+        }
+        requestHeaders = String.join(",", listHeaders);
+        return this;
+    }
+
+    /**
+     * Add a GET with a html response
+     */
+    public TestHars get(String pageref, long offsetMs, long timeMs, String url) {
+        return entry(pageref, offsetMs, timeMs, "GET", url, 200, "", "text/html", "<html>" + url + "</html>");
+    }
+
+    /**
+     * Add a GET with a redirect response
+     */
+    public TestHars redirect(String pageref, long offsetMs, long timeMs, String url, String redirectUrl) {
+        return entry(pageref, offsetMs, timeMs, "GET", url, 302, redirectUrl, "text/html", "");
+    }
+
+    /**
+     * Add an entry
+     * @param pageref the page of the entry
+     * @param offsetMs the start of the entry after the start of the recording
+     * @param timeMs the time of the entry
+     * @param method the http method
+     * @param url the url
+     * @param status the response status
+     * @param redirectUrl the redirectURL of the response, empty if not a redirect
+     * @param mimeType the mime type of the response content
+     * @param text the response content text
+     * @return this
+     */
+    public TestHars entry(String pageref, long offsetMs, long timeMs, String method, String url, int status, String redirectUrl, String mimeType, String text) {
+        String location = (redirectUrl.isEmpty() ? "" : "{\"name\":\"Location\",\"value\":\"" + redirectUrl + "\"}");
+        listEntries.add("{\"pageref\":\"" + pageref + "\",\"startedDateTime\":\"" + date(offsetMs) + "\",\"time\":" + timeMs
+                + ",\"request\":{\"method\":\"" + method + "\",\"url\":\"" + url + "\",\"httpVersion\":\"HTTP/1.1\",\"cookies\":[],"
+                + "\"headers\":[" + requestHeaders + "],\"queryString\":[" + queryString(url) + "],\"headersSize\":-1,\"bodySize\":0},"
+                + "\"response\":{\"status\":" + status + ",\"statusText\":\"\",\"httpVersion\":\"HTTP/1.1\",\"cookies\":[],\"headers\":[" + location + "],"
+                + "\"content\":{\"size\":" + text.length() + ",\"mimeType\":\"" + mimeType + "\",\"text\":\"" + text + "\"},"
+                + "\"redirectURL\":\"" + redirectUrl + "\",\"headersSize\":-1,\"bodySize\":" + text.length() + "},"
+                + "\"cache\":{},\"timings\":{\"send\":0,\"wait\":" + timeMs + ",\"receive\":0}}");
+        return this;
+    }
+
+    public String toJson() {
+        return "{\"log\":{\"version\":\"1.2\",\"creator\":{\"name\":\"test\",\"version\":\"1.0\"},"
+                + "\"pages\":[" + String.join(",", listPages) + "],\"entries\":[" + String.join(",", listEntries) + "]}}";
+    }
+
+    public Har toHar() throws Exception {
+        return HarInput.readHar(new ByteArrayInputStream(toJson().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Write the HAR in a file
+     * @param file the HAR file to write
+     * @return the file path
+     */
+    public String write(File file) throws Exception {
+        Files.write(file.toPath(), toJson().getBytes(StandardCharsets.UTF_8));
+        return file.getPath();
+    }
+
+    /**
+     * Convert the HAR to a JMeter script like the convertor with the default parameters, the HAR entries are kept on the samplers
+     * @param har the HAR
+     * @return the jmx document
+     */
+    public static Document convertToJmx(Har har) throws Exception {
+        XmlJmx xmlJmx = new XmlJmx();
+        xmlJmx.setKeepHarEntries(true);
+        return xmlJmx.convertHarToJmxXml(har, 0, true, true, true, "", "", 1, 1, null, false, null, "", "");
+    }
+
+    public static Document parseXml(String xmlFile) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new File(xmlFile));
+    }
+
+    /**
+     * @return the elements with this tag name in the document order
+     */
+    public static List<Element> elements(Document document, String tagName) {
+        List<Element> listElements = new ArrayList<>();
+        NodeList nodeList = document.getElementsByTagName(tagName);
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            listElements.add((Element) nodeList.item(i));
+        }
+        return listElements;
+    }
+
+    /**
+     * @return the text of the property of a test element, e.g: ThreadGroup.num_threads, null if not found
+     */
+    public static String property(Element element, String name) {
+        NodeList nodeList = element.getChildNodes();
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            if (nodeList.item(i) instanceof Element && name.equals(((Element) nodeList.item(i)).getAttribute("name"))) {
+                return nodeList.item(i).getTextContent().trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the text of the first child element with this tag name, null if not found
+     */
+    public static String childText(Element element, String tagName) {
+        NodeList nodeList = element.getChildNodes();
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            if (nodeList.item(i) instanceof Element && tagName.equals(nodeList.item(i).getNodeName())) {
+                return nodeList.item(i).getTextContent().trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the queryString of the HAR entry from the query of the url, e.g: page=1&amp;_=1714746600000
+     */
+    private static String queryString(String url) {
+        int indexQuery = url.indexOf('?');
+        if (indexQuery < 0) {
+            return "";
+        }
+        List<String> listParams = new ArrayList<>();
+        for (String param : url.substring(indexQuery + 1).split("&")) {
+            int indexEqual = param.indexOf('=');
+            String name = (indexEqual < 0 ? param : param.substring(0, indexEqual));
+            String value = (indexEqual < 0 ? "" : param.substring(indexEqual + 1));
+            listParams.add("{\"name\":\"" + name + "\",\"value\":\"" + value + "\"}");
+        }
+        return String.join(",", listParams);
+    }
+
+    private static String date(long offsetMs) {
+        return K_DATE_FORMATTER.format(Instant.ofEpochMilli(K_START_MS + offsetMs));
+    }
+}
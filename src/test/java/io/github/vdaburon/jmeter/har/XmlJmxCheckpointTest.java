@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har;
+
+import de.sstoehr.harreader.model.Har;
+import de.sstoehr.harreader.model.HarEntry;
+
+import io.github.vdaburon.jmeter.har.checkpoint.ConversionCheckpoint;
+import io.github.vdaburon.jmeter.har.input.HarInput;
+import io.github.vdaburon.jmeter.har.optimize.JmxTree;
+import io.github.vdaburon.jmeter.har.workload.WorkloadModel;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class XmlJmxCheckpointTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Har readHar(String harFile) throws Exception {
+        try (InputStream in = new FileInputStream(harFile)) {
+            return HarInput.readHar(in);
+        }
+    }
+
+    private static Document convert(Har har, ConversionCheckpoint conversionCheckpoint) throws Exception {
+        XmlJmx xmlJmx = new XmlJmx();
+        xmlJmx.setKeepHarEntries(true);
+        xmlJmx.setConversionCheckpoint(conversionCheckpoint);
+        return xmlJmx.convertHarToJmxXml(har, 0, true, true, true, "", "", 1, 1, null, false, null, "", "");
+    }
+
+    @Test
+    public void resumedScriptHasTheHarEntriesForThePasses() throws Exception {
+        TestHars testHars = new TestHars();
+        for (int p = 1; p <= 4; p++) {
+            long pageStartMs = p * 2000L;
+            testHars.page("page_" + p, pageStartMs, "https://example.com/page" + p);
+            testHars.get("page_" + p, pageStartMs, 100, "https://example.com/page" + p);
+            testHars.get("page_" + p, pageStartMs + 150, 50, "https://example.com/page" + p + "/style.css");
+        }
+        String harFile = testHars.write(temporaryFolder.newFile("journey.har"));
+        String checkpointDir = temporaryFolder.newFolder("checkpoint").getPath();
+
+        // a checkpoint after each page, the last checkpoint (before the last page) stays like an interrupted conversion
+        Document documentFull = convert(readHar(harFile), ConversionCheckpoint.open(checkpointDir, 0, harFile, "test"));
+
+        ConversionCheckpoint conversionCheckpoint = ConversionCheckpoint.open(checkpointDir, 0, harFile, "test");
+        assertTrue(conversionCheckpoint.isResume(ConversionCheckpoint.K_STAGE_JMX));
+        Har harResumed = readHar(harFile);
+        Document documentResumed = convert(harResumed, conversionCheckpoint);
+
+        // the samplers of the partial document have their HAR entry again, like the samplers created after the resume
+        List<Element> listSamplers = TestHars.elements(documentResumed, "HTTPSamplerProxy");
+        List<HarEntry> listEntries = harResumed.getLog().getEntries();
+        assertEquals(listEntries.size(), listSamplers.size());
+        for (int i = 0; i < listSamplers.size(); i++) {
+            assertSame(listEntries.get(i), JmxTree.harEntryOf(listSamplers.get(i)));
+            assertFalse(listSamplers.get(i).hasAttribute("harEntryIndex"));
+        }
+        assertEquals(WorkloadModel.fromScript(documentFull).getNbRequests(), WorkloadModel.fromScript(documentResumed).getNbRequests());
+
+        File fileFull = temporaryFolder.newFile("full.jmx");
+        File fileResumed = temporaryFolder.newFile("resumed.jmx");
+        XmlJmx.saveXmFile(documentFull, fileFull.getPath());
+        XmlJmx.saveXmFile(documentResumed, fileResumed.getPath());
+        assertArrayEquals(Files.readAllBytes(fileFull.toPath()), Files.readAllBytes(fileResumed.toPath()));
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import de.sstoehr.harreader.model.Har;
+
+import io.github.vdaburon.jmeter.har.TestHars;
+import io.github.vdaburon.jmeter.har.XmlJmx;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CommonHeaderHoisterTest {
+
+    /**
+     * Two pages of two samplers, all the samplers send Accept and User-Agent, the sampler /a sends also X-Id
+     * @param isHeaderByPage true to send also a header X-Page with the number of the page
+     */
+    private static Har twoPages(boolean isHeaderByPage) throws Exception {
+        TestHars testHars = new TestHars();
+        testHars.page("page_1", 0, "https://example.com/home")
+                .headers(headersOfPage(isHeaderByPage, "1"))
+                .get("page_1", 0, 100, "https://example.com/home");
+        String[] headersA = headersOfPage(isHeaderByPage, "1");
+        String[] headersAWithId = new String[headersA.length + 2];
+        System.arraycopy(headersA, 0, headersAWithId, 0, headersA.length);
+        headersAWithId[headersA.length] = "X-Id";
+        headersAWithId[headersA.length + 1] = "1";
+        testHars.headers(headersAWithId)
+                .get("page_1", 200, 100, "https://example.com/a");
+        testHars.page("page_2", 2000, "https://example.com/b")
+                .headers(headersOfPage(isHeaderByPage, "2"))
+                .get("page_2", 2000, 100, "https://example.com/b")
+                .get("page_2", 2200, 100, "https://example.com/c");
+        return testHars.toHar();
+    }
+
+    private static String[] headersOfPage(boolean isHeaderByPage, String page) {
+        if (isHeaderByPage) {
+            return new String[] {"Accept", "*/*", "User-Agent", "test", "X-Page", page};
+        }
+        return new String[] {"Accept", "*/*", "User-Agent", "test"};
+    }
+
+    @Test
+    public void sameHeadersInAllSamplersMovedToTheThreadGroup() throws Exception {
+        Document document = TestHars.convertToJmx(twoPages(false));
+        CommonHeaderHoister commonHeaderHoister = new CommonHeaderHoister();
+        commonHeaderHoister.hoist(document);
+
+        Element eltCommon = headerManager(document, CommonHeaderHoister.K_TESTNAME_THREAD_GROUP);
+        assertEquals("{Accept=*/*, User-Agent=test}", headers(eltCommon).toString());
+        assertEquals(2, commonHeaderHoister.getHeadersInThreadGroup());
+        assertEquals(0, commonHeaderHoister.getHeadersInTransactions());
+        assertNull(headerManager(document, CommonHeaderHoister.K_TESTNAME_TRANSACTION));
+
+        // the common HeaderManager is a child of the Thread Group, before the first Transaction Controller
+        Element hashAfterThreadGroup = XmlJmx.findHashTreeAfterThreadGroup(document);
+        List<Element> listChildren = JmxTree.childElements(hashAfterThreadGroup, null);
+        assertTrue(listChildren.indexOf(eltCommon) >= 0);
+        assertTrue(listChildren.indexOf(eltCommon) < listChildren.indexOf(JmxTree.childElements(hashAfterThreadGroup, "TransactionController").get(0)));
+
+        // each sampler keeps only the headers that differ, the HeaderManager without header is removed
+        assertEquals("{X-Id=1}", samplerHeaders(sampler(document, "/a")).toString());
+        assertNull(samplerHeaderManager(sampler(document, "/home")));
+        assertNull(samplerHeaderManager(sampler(document, "/b")));
+        assertNull(samplerHeaderManager(sampler(document, "/c")));
+        assertEquals(8, commonHeaderHoister.getHeadersRemoved());
+    }
+
+    @Test
+    public void sameHeadersInAPageMovedToTheTransactionController() throws Exception {
+        Document document = TestHars.convertToJmx(twoPages(true));
+        CommonHeaderHoister commonHeaderHoister = new CommonHeaderHoister();
+        commonHeaderHoister.hoist(document);
+
+        assertEquals("{Accept=*/*, User-Agent=test}", headers(headerManager(document, CommonHeaderHoister.K_TESTNAME_THREAD_GROUP)).toString());
+        assertEquals(2, commonHeaderHoister.getHeadersInTransactions());
+
+        // the HeaderManager of the Transaction Controller is its first child
+        List<Element> listTcHashTrees = JmxTree.transactionHashTrees(XmlJmx.findHashTreeAfterThreadGroup(document));
+        assertEquals(2, listTcHashTrees.size());
+        assertEquals("{X-Page=1}", headers(firstHeaderManager(listTcHashTrees.get(0), CommonHeaderHoister.K_TESTNAME_TRANSACTION)).toString());
+        assertEquals("{X-Page=2}", headers(firstHeaderManager(listTcHashTrees.get(1), CommonHeaderHoister.K_TESTNAME_TRANSACTION)).toString());
+
+        assertEquals("{X-Id=1}", samplerHeaders(sampler(document, "/a")).toString());
+        assertNull(samplerHeaderManager(sampler(document, "/home")));
+        assertNull(samplerHeaderManager(sampler(document, "/c")));
+    }
+
+    @Test
+    public void transactionWithANonHttpSamplerExcluded() throws Exception {
+        checkTransactionWithOtherSamplerExcluded("JSR223Sampler");
+    }
+
+    @Test
+    public void transactionWithAWebSocketSamplerExcluded() throws Exception {
+        checkTransactionWithOtherSamplerExcluded("eu.luminis.jmeter.wssampler.OpenWebSocketSampler");
+    }
+
+    /**
+     * The sampler /b of the second page is replaced by another sampler : no common headers at the Thread Group level
+     * and the second page keeps the headers of its samplers, the first page has its own common headers
+     */
+    private static void checkTransactionWithOtherSamplerExcluded(String samplerTagName) throws Exception {
+        Document document = TestHars.convertToJmx(twoPages(true));
+        document.renameNode(sampler(document, "/b"), null, samplerTagName);
+        CommonHeaderHoister commonHeaderHoister = new CommonHeaderHoister();
+        commonHeaderHoister.hoist(document);
+
+        assertNull(headerManager(document, CommonHeaderHoister.K_TESTNAME_THREAD_GROUP));
+        assertEquals(0, commonHeaderHoister.getHeadersInThreadGroup());
+
+        List<Element> listTcHashTrees = JmxTree.transactionHashTrees(XmlJmx.findHashTreeAfterThreadGroup(document));
+        assertEquals("{Accept=*/*, User-Agent=test, X-Page=1}", headers(firstHeaderManager(listTcHashTrees.get(0), CommonHeaderHoister.K_TESTNAME_TRANSACTION)).toString());
+        assertEquals("{X-Id=1}", samplerHeaders(sampler(document, "/a")).toString());
+
+        assertNull(firstHeaderManager(listTcHashTrees.get(1), CommonHeaderHoister.K_TESTNAME_TRANSACTION));
+        assertEquals("{Accept=*/*, User-Agent=test, X-Page=2}", samplerHeaders(sampler(document, "/c")).toString());
+        assertEquals(3, commonHeaderHoister.getHeadersInTransactions());
+    }
+
+    private static Element sampler(Document document, String path) {
+        for (Element eltSampler : TestHars.elements(document, "HTTPSamplerProxy")) {
+            if (eltSampler.getAttribute("testname").endsWith(" " + path)) {
+                return eltSampler;
+            }
+        }
+        throw new IllegalArgumentException("No sampler " + path);
+    }
+
+    /**
+     * @return the HeaderManager in the hashTree of the sampler, null if no HeaderManager
+     */
+    private static Element samplerHeaderManager(Element eltSampler) {
+        List<Element> listHeaderManagers = JmxTree.childElements(JmxTree.nextHashTree(eltSampler), "HeaderManager");
+        return (listHeaderManagers.isEmpty() ? null : listHeaderManagers.get(0));
+    }
+
+    private static Map<String, String> samplerHeaders(Element eltSampler) {
+        return headers(samplerHeaderManager(eltSampler));
+    }
+
+    private static Element headerManager(Document document, String testname) {
+        for (Element eltHeaderManager : TestHars.elements(document, "HeaderManager")) {
+            if (testname.equals(eltHeaderManager.getAttribute("testname"))) {
+                return eltHeaderManager;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the first child of the hashTree if it is a HeaderManager with this name, else null
+     */
+    private static Element firstHeaderManager(Element hashTree, String testname) {
+        Element eltFirst = JmxTree.childElements(hashTree, null).get(0);
+        return ("HeaderManager".equals(eltFirst.getTagName()) && testname.equals(eltFirst.getAttribute("testname")) ? eltFirst : null);
+    }
+
+    /**
+     * @return the headers name and value of the HeaderManager in the order of the HeaderManager
+     */
+    private static Map<String, String> headers(Element eltHeaderManager) {
+        Map<String, String> mapHeaders = new LinkedHashMap<>();
+        for (Element eltHeader : TestHars.elements(eltHeaderManager.getOwnerDocument(), "elementProp")) {
+            if (eltHeaderManager.equals(eltHeader.getParentNode().getParentNode()) && "Header".equals(eltHeader.getAttribute("elementType"))) {
+                mapHeaders.put(TestHars.property(eltHeader, "Header.name"), TestHars.property(eltHeader, "Header.value"));
+            }
+        }
+        return mapHeaders;
+    }
+}
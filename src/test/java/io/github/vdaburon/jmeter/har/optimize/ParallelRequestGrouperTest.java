@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import io.github.vdaburon.jmeter.har.TestHars;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelRequestGrouperTest {
+
+    @Test
+    public void oneParallelControllerByHostWithThePeakOfTheHost() throws Exception {
+        // the page downloads 3 resources from static.example.com and 2 from cdn.example.com at the same time
+        Document document = TestHars.convertToJmx(new TestHars()
+                .page("page_1", 0, "https://static.example.com/home")
+                .get("page_1", 0, 1000, "https://static.example.com/a.css")
+                .get("page_1", 10, 1000, "https://static.example.com/b.js")
+                .get("page_1", 20, 1000, "https://static.example.com/c.png")
+                .get("page_1", 30, 1000, "https://cdn.example.com/d.png")
+                .get("page_1", 40, 1000, "https://cdn.example.com/e.png")
+                .toHar());
+        ParallelRequestGrouper parallelRequestGrouper = new ParallelRequestGrouper();
+        parallelRequestGrouper.group(document);
+
+        List<Element> listParallels = TestHars.elements(document, ParallelRequestGrouper.K_PARALLEL_SAMPLER);
+        assertEquals(3, listParallels.size());
+        assertEquals(1, parallelRequestGrouper.getGroupsCreated());
+        assertEquals(5, parallelRequestGrouper.getSamplersGrouped());
+
+        // the parent sends the hosts concurrently, each host has its own peak
+        assertEquals("Parallel 1 - 5 requests", listParallels.get(0).getAttribute("testname"));
+        assertEquals("2", TestHars.property(listParallels.get(0), "MAX_THREAD_NUMBER"));
+        assertEquals("Parallel 1 - static.example.com - 3 requests", listParallels.get(1).getAttribute("testname"));
+        assertEquals("3", TestHars.property(listParallels.get(1), "MAX_THREAD_NUMBER"));
+        assertEquals("Parallel 1 - cdn.example.com - 2 requests", listParallels.get(2).getAttribute("testname"));
+        assertEquals("2", TestHars.property(listParallels.get(2), "MAX_THREAD_NUMBER"));
+
+        Element hashTreeAfterParent = JmxTree.nextHashTree(listParallels.get(0));
+        assertEquals(2, JmxTree.childElements(hashTreeAfterParent, ParallelRequestGrouper.K_PARALLEL_SAMPLER).size());
+        assertEquals(3, JmxTree.childElements(JmxTree.nextHashTree(listParallels.get(1)), "HTTPSamplerProxy").size());
+        assertEquals(2, JmxTree.childElements(JmxTree.nextHashTree(listParallels.get(2)), "HTTPSamplerProxy").size());
+    }
+
+    @Test
+    public void oneHostWithoutParentParallelController() throws Exception {
+        // 2 requests at the same time then a request alone after their end
+        Document document = TestHars.convertToJmx(new TestHars()
+                .page("page_1", 0, "https://example.com/home")
+                .get("page_1", 0, 500, "https://example.com/a.css")
+                .get("page_1", 10, 500, "https://example.com/b.js")
+                .get("page_1", 600, 100, "https://example.com/c.png")
+                .toHar());
+        ParallelRequestGrouper parallelRequestGrouper = new ParallelRequestGrouper();
+        parallelRequestGrouper.group(document);
+
+        List<Element> listParallels = TestHars.elements(document, ParallelRequestGrouper.K_PARALLEL_SAMPLER);
+        assertEquals(1, listParallels.size());
+        assertEquals("2", TestHars.property(listParallels.get(0), "MAX_THREAD_NUMBER"));
+        assertEquals(2, parallelRequestGrouper.getSamplersGrouped());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import io.github.vdaburon.jmeter.har.TestHars;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PollingRunCompressorTest {
+
+    /**
+     * A page and 4 requests every second (100 ms each), the query of each request is built with its start time
+     */
+    private static Document pollingPage(String queryFormat) throws Exception {
+        TestHars testHars = new TestHars()
+                .page("page_1", 0, "https://example.com/app")
+                .get("page_1", 0, 100, "https://example.com/app");
+        for (int i = 1; i <= 4; i++) {
+            long offsetMs = i * 1000L;
+            long startMs = TestHars.K_START_MS + offsetMs;
+            testHars.get("page_1", offsetMs, 100, "https://example.com/api/items?" + String.format(queryFormat, i, startMs, startMs / 1000));
+        }
+        return TestHars.convertToJmx(testHars.toHar());
+    }
+
+    @Test
+    public void cacheBusterParameterIgnored() throws Exception {
+        Document document = pollingPage("_=%2$d");
+        PollingRunCompressor pollingRunCompressor = new PollingRunCompressor();
+        pollingRunCompressor.compress(document);
+
+        assertEquals(1, pollingRunCompressor.getRunsCompressed());
+        assertEquals(3, pollingRunCompressor.getSamplersRemoved());
+        List<Element> listLoops = TestHars.elements(document, "LoopController");
+        assertEquals(1, listLoops.size());
+        assertEquals("4", TestHars.property(listLoops.get(0), "LoopController.loops"));
+
+        // the pause is after the sampler in the loop, the first request is sent without waiting
+        List<Element> listChildren = JmxTree.childElements(JmxTree.nextHashTree(listLoops.get(0)), null);
+        assertEquals("HTTPSamplerProxy", listChildren.get(0).getTagName());
+        assertEquals(0, JmxTree.childElements(listChildren.get(1), "ConstantTimer").size());
+        assertEquals("TestAction", listChildren.get(2).getTagName());
+        assertEquals("900", TestHars.property(listChildren.get(2), "ActionProcessor.duration"));
+    }
+
+    @Test
+    public void timestampCloseToTheRequestIgnored() throws Exception {
+        // epoch in seconds in a parameter not in the list of the cache busters
+        Document document = pollingPage("since=%3$d");
+        PollingRunCompressor pollingRunCompressor = new PollingRunCompressor();
+        pollingRunCompressor.compress(document);
+
+        assertEquals(1, pollingRunCompressor.getRunsCompressed());
+    }
+
+    @Test
+    public void paginationNotCollapsed() throws Exception {
+        Document document = pollingPage("page=%1$d");
+        PollingRunCompressor pollingRunCompressor = new PollingRunCompressor();
+        pollingRunCompressor.compress(document);
+
+        assertEquals(0, pollingRunCompressor.getRunsCompressed());
+        assertEquals(0, TestHars.elements(document, "LoopController").size());
+        assertEquals(5, TestHars.elements(document, "HTTPSamplerProxy").size());
+    }
+
+    @Test
+    public void numberFarFromTheRequestNotIgnored() throws Exception {
+        // 10 digits ids that are not a timestamp close to the request start
+        Document document = pollingPage("order=100000000%1$d");
+        PollingRunCompressor pollingRunCompressor = new PollingRunCompressor();
+        pollingRunCompressor.compress(document);
+
+        assertEquals(0, pollingRunCompressor.getRunsCompressed());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import de.sstoehr.harreader.model.Har;
+
+import io.github.vdaburon.jmeter.har.TestHars;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ThinkTimeModelerTest {
+
+    /**
+     * A journey /home, /a, /home, /a : the pauses of the recording (1000, 2000, 3000 ms)
+     */
+    private static Har journey(long pauseA1, long pauseHome2, long pauseA2) throws Exception {
+        long startA1 = pauseA1;
+        long startHome2 = startA1 + pauseHome2;
+        long startA2 = startHome2 + pauseA2;
+        return new TestHars()
+                .page("page_1", 0, "https://example.com/home").get("page_1", 0, 100, "https://example.com/home")
+                .page("page_2", startA1, "https://example.com/a").get("page_2", startA1, 100, "https://example.com/a")
+                .page("page_3", startHome2, "https://example.com/home").get("page_3", startHome2, 100, "https://example.com/home")
+                .page("page_4", startA2, "https://example.com/a").get("page_4", startA2, 100, "https://example.com/a")
+                .toHar();
+    }
+
+    @Test
+    public void pauseMatchedWithTheSameOccurrenceOfThePage() throws Exception {
+        Document document = TestHars.convertToJmx(journey(1000, 2000, 3000));
+        ThinkTimeModeler thinkTimeModeler = new ThinkTimeModeler(ThinkTimeModeler.K_DISTRIBUTION_CONSTANT, 0);
+        thinkTimeModeler.addBaselineRecording(journey(1500, 2500, 3500));
+        thinkTimeModeler.apply(document);
+
+        List<Element> listTimers = TestHars.elements(document, "ConstantTimer");
+        assertEquals(3, thinkTimeModeler.getNbThinkTimes());
+        assertEquals(3, listTimers.size());
+        // the first page is counted : the second /home and the second /a get the pauses of the second /home and the second /a of the baseline
+        assertEquals("Recorded 2 time(s), center 1000 ms, deviation 250 ms", TestHars.property(listTimers.get(0), "TestPlan.comments"));
+        assertEquals("Recorded 2 time(s), center 2000 ms, deviation 250 ms", TestHars.property(listTimers.get(1), "TestPlan.comments"));
+        assertEquals("Recorded 2 time(s), center 3000 ms, deviation 250 ms", TestHars.property(listTimers.get(2), "TestPlan.comments"));
+    }
+
+    @Test
+    public void pauseWithoutBaselineKeepsTheRecordedPause() throws Exception {
+        Document document = TestHars.convertToJmx(journey(1000, 2000, 3000));
+        ThinkTimeModeler thinkTimeModeler = new ThinkTimeModeler(ThinkTimeModeler.K_DISTRIBUTION_CONSTANT, 0);
+        thinkTimeModeler.apply(document);
+
+        List<Element> listTimers = TestHars.elements(document, "ConstantTimer");
+        assertEquals(3, listTimers.size());
+        assertEquals("Recorded 1 time(s), center 2000 ms, deviation 400 ms", TestHars.property(listTimers.get(1), "TestPlan.comments"));
+        // the same expression for all the think times, only the time differs
+        assertEquals("${__jexl3((2000 * ${__P(think_time_factor,1)}).longValue())}", TestHars.property(listTimers.get(1), "ConstantTimer.delay"));
+        for (Element eltTestAction : TestHars.elements(document, "TestAction")) {
+            assertEquals("0", TestHars.property(eltTestAction, "ActionProcessor.duration"));
+        }
+    }
+
+    @Test
+    public void longPauseClampedToTheMax() throws Exception {
+        Document document = TestHars.convertToJmx(journey(1000, 60000, 3000));
+        ThinkTimeModeler thinkTimeModeler = new ThinkTimeModeler(ThinkTimeModeler.K_DISTRIBUTION_CONSTANT, 5000);
+        thinkTimeModeler.apply(document);
+
+        List<Element> listTimers = TestHars.elements(document, "ConstantTimer");
+        assertEquals(1, thinkTimeModeler.getNbClamped());
+        assertEquals("Recorded 1 time(s), center 5000 ms, deviation 1000 ms", TestHars.property(listTimers.get(1), "TestPlan.comments"));
+    }
+}
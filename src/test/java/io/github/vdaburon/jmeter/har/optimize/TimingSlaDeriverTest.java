@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.optimize;
+
+import de.sstoehr.harreader.model.Har;
+
+import io.github.vdaburon.jmeter.har.TestHars;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimingSlaDeriverTest {
+
+    /**
+     * A redirect of 300 ms to a page of 1500 ms
+     */
+    private static Har redirectChain() throws Exception {
+        return new TestHars()
+                .page("page_1", 0, "https://example.com/app/")
+                .redirect("page_1", 0, 300, "https://example.com/old", "https://example.com/app/")
+                .get("page_1", 310, 1500, "https://example.com/app/")
+                .toHar();
+    }
+
+    @Test
+    public void collapsedRedirectGetsTheTimeOfTheChain() throws Exception {
+        Har har = redirectChain();
+        Document document = TestHars.convertToJmx(har);
+        new RedirectChainCollapser().collapse(document, har);
+        TimingSlaDeriver timingSlaDeriver = new TimingSlaDeriver(2, 90);
+        timingSlaDeriver.addRecording(har);
+        timingSlaDeriver.apply(document);
+
+        List<Element> listSamplers = TestHars.elements(document, "HTTPSamplerProxy");
+        assertEquals(1, listSamplers.size());
+        assertEquals("true", TestHars.property(listSamplers.get(0), "HTTPSampler.follow_redirects"));
+        // (300 + 1500) x 2, the response timeout of the slowest request of the chain 1500 x 2
+        List<Element> listDurations = TestHars.elements(document, "DurationAssertion");
+        assertEquals(1, listDurations.size());
+        assertEquals("3600", TestHars.property(listDurations.get(0), "DurationAssertion.duration"));
+        assertEquals("3000", TestHars.property(listSamplers.get(0), "HTTPSampler.response_timeout"));
+    }
+
+    @Test
+    public void redirectNotCollapsedGetsItsOwnTime() throws Exception {
+        Har har = redirectChain();
+        Document document = TestHars.convertToJmx(har);
+        TimingSlaDeriver timingSlaDeriver = new TimingSlaDeriver(2, 90);
+        timingSlaDeriver.addRecording(har);
+        timingSlaDeriver.apply(document);
+
+        List<Element> listDurations = TestHars.elements(document, "DurationAssertion");
+        assertEquals(2, listDurations.size());
+        assertEquals("600", TestHars.property(listDurations.get(0), "DurationAssertion.duration"));
+        assertEquals("3000", TestHars.property(listDurations.get(1), "DurationAssertion.duration"));
+    }
+}
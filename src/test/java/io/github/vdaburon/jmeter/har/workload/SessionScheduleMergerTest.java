@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Vincent DABURON
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.github.vdaburon.jmeter.har.workload;
+
+import de.sstoehr.harreader.model.Har;
+
+import io.github.vdaburon.jmeter.har.TestHars;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SessionScheduleMergerTest {
+
+    private static Har session(long offsetMs, String baseUrl) throws Exception {
+        return new TestHars()
+                .page("page_1", offsetMs, baseUrl + "/home")
+                .get("page_1", offsetMs, 100, baseUrl + "/home")
+                .toHar();
+    }
+
+    @Test
+    public void sessionOnAnOtherHostUsesItsHostValues() throws Exception {
+        Har harFirst = session(0, "https://example.com");
+        Har harOtherHost = session(3000, "http://other.example.org:8080");
+        SessionScheduleMerger sessionScheduleMerger = new SessionScheduleMerger();
+        sessionScheduleMerger.addScript("second.har", TestHars.convertToJmx(harOtherHost), harOtherHost);
+        sessionScheduleMerger.addScript("first.har", TestHars.convertToJmx(harFirst), harFirst);
+        Document document = sessionScheduleMerger.assemble();
+
+        // the User Defined Variables of the first session only, they are global in JMeter
+        assertEquals(1, TestHars.elements(document, "Arguments").size());
+        List<Element> listThreadGroups = TestHars.elements(document, "ThreadGroup");
+        assertEquals(2, listThreadGroups.size());
+        assertEquals("Session 001 - first.har", listThreadGroups.get(0).getAttribute("testname"));
+        assertEquals("0", TestHars.property(listThreadGroups.get(0), "ThreadGroup.delay"));
+        assertEquals("3", TestHars.property(listThreadGroups.get(1), "ThreadGroup.delay"));
+
+        // the HTTP Request Defaults of each Thread Group
+        List<Element> listDefaults = TestHars.elements(document, "ConfigTestElement");
+        assertEquals(2, listDefaults.size());
+        assertEquals("${V_HOST}", TestHars.property(listDefaults.get(0), "HTTPSampler.domain"));
+        assertEquals("other.example.org", TestHars.property(listDefaults.get(1), "HTTPSampler.domain"));
+        assertEquals("8080", TestHars.property(listDefaults.get(1), "HTTPSampler.port"));
+        assertEquals("http", TestHars.property(listDefaults.get(1), "HTTPSampler.protocol"));
+    }
+}